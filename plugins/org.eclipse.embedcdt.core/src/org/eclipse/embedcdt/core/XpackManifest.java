@@ -0,0 +1,349 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.core;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+/**
+ * The parsed content of an xPack 'package.json' file.
+ * <p>
+ * Manifests are kept in a process wide cache, keyed by the absolute path of
+ * the folder, and are reused as long as the file time stamp and size do not
+ * change. Validating an entry costs a single file attributes read, instead of
+ * opening and parsing the JSON each time. Files that cannot be parsed are
+ * also kept, with the parse error, so they are parsed again only after they
+ * change.
+ *
+ * @since 6.4
+ */
+public class XpackManifest {
+
+	// ------------------------------------------------------------------------
+
+	public static final String FILE_NAME = "package.json";
+
+	private static final Map<String, XpackManifest> fgCache = new ConcurrentHashMap<>();
+
+	private static final AtomicLong fgHits = new AtomicLong();
+	private static final AtomicLong fgMisses = new AtomicLong();
+	// Folders without 'package.json', not counted as hits or misses.
+	private static final AtomicLong fgAbsent = new AtomicLong();
+
+	// ------------------------------------------------------------------------
+
+	private final IPath fFolderPath;
+	private final long fLastModified;
+	private final long fSize;
+
+	private final JSONObject fJson;
+	private final String fName;
+	private final String fVersion;
+	// Not null if the file cannot be parsed.
+	private final ParseException fError;
+
+	private XpackManifest(IPath folderPath, BasicFileAttributes attributes, JSONObject json) {
+
+		fFolderPath = folderPath;
+		fLastModified = attributes.lastModifiedTime().toMillis();
+		fSize = attributes.size();
+
+		fJson = json;
+		Object name = json.get("name");
+		fName = (name != null) ? name.toString() : "";
+		Object version = json.get("version");
+		fVersion = (version != null) ? version.toString() : "";
+		fError = null;
+	}
+
+	private XpackManifest(IPath folderPath, BasicFileAttributes attributes, ParseException error) {
+
+		fFolderPath = folderPath;
+		fLastModified = attributes.lastModifiedTime().toMillis();
+		fSize = attributes.size();
+
+		fJson = null;
+		fName = "";
+		fVersion = "";
+		fError = error;
+	}
+
+	// ------------------------------------------------------------------------
+
+	public IPath getFolderPath() {
+		return fFolderPath;
+	}
+
+	public IPath getPath() {
+		return fFolderPath.append(FILE_NAME);
+	}
+
+	/**
+	 * @return the package name, or an empty string.
+	 */
+	public String getName() {
+		return fName;
+	}
+
+	/**
+	 * @return the package version, or an empty string.
+	 */
+	public String getVersion() {
+		return fVersion;
+	}
+
+	/**
+	 * Check if the manifest refers to the given package name and version.
+	 *
+	 * @param name
+	 *            a string with the package name.
+	 * @param version
+	 *            a string with the package version.
+	 * @return true if both match.
+	 */
+	public boolean matches(String name, String version) {
+		return fName.equals(name) && fVersion.equals(version);
+	}
+
+	/**
+	 * Get the full parsed content. The cached object is shared, so each call
+	 * returns a new deep copy, which the caller may modify.
+	 *
+	 * @noreference This method is not intended to be referenced by clients.
+	 * @apiNote This method returns a non-API type, {@link JSONObject}, the concrete
+	 *          version of this type may change in a future release, however the
+	 *          method itself is API. Consumers of this API should ensure their
+	 *          {@link JSONObject} is loaded from the same bundle as this bundle.
+	 *          See https://github.com/eclipse-embed-cdt/eclipse-plugins/issues/453
+	 *          for the current status of this issue.
+	 */
+	public JSONObject getJson() {
+
+		if (fJson == null) {
+			return null;
+		}
+		return (JSONObject) copyJson(fJson);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Object copyJson(Object value) {
+
+		if (value instanceof JSONObject) {
+			JSONObject copy = new JSONObject();
+			for (Object entry : ((JSONObject) value).entrySet()) {
+				Map.Entry<Object, Object> e = (Map.Entry<Object, Object>) entry;
+				copy.put(e.getKey(), copyJson(e.getValue()));
+			}
+			return copy;
+		} else if (value instanceof JSONArray) {
+			JSONArray copy = new JSONArray();
+			for (Object element : (JSONArray) value) {
+				copy.add(copyJson(element));
+			}
+			return copy;
+		}
+		// Strings, numbers, booleans and null are immutable.
+		return value;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Get the manifest of the xPack in the given folder.
+	 *
+	 * @param folder
+	 *            a file with the xPack folder.
+	 * @return the manifest, or null if the folder has no valid 'package.json'.
+	 */
+	public static XpackManifest get(File folder) {
+		return get(new Path(folder.getAbsolutePath()));
+	}
+
+	/**
+	 * Get the manifest of the xPack in the given folder.
+	 *
+	 * @param folderPath
+	 *            a path with the xPack folder.
+	 * @return the manifest, or null if the folder has no valid 'package.json'.
+	 */
+	public static XpackManifest get(IPath folderPath) {
+
+		XpackManifest manifest = lookup(folderPath);
+		if (manifest == null || manifest.fError != null) {
+			return null;
+		}
+		return manifest;
+	}
+
+	/**
+	 * Get the manifest of the xPack in the given folder, with the reason if
+	 * not available.
+	 *
+	 * @param folderPath
+	 *            a path with the xPack folder.
+	 * @return the manifest.
+	 * @throws FileNotFoundException
+	 *             if the folder has no 'package.json'.
+	 * @throws IOException
+	 *             if the file cannot be read.
+	 * @throws ParseException
+	 *             if the file is not a valid JSON object; the error is kept
+	 *             until the file changes.
+	 */
+	public static XpackManifest read(IPath folderPath) throws IOException, ParseException {
+
+		XpackManifest manifest = lookup(folderPath);
+		if (manifest == null) {
+			throw new FileNotFoundException(FILE_NAME + " not found.");
+		}
+		if (manifest.fError != null) {
+			throw manifest.fError;
+		}
+		return manifest;
+	}
+
+	/**
+	 * @return the cached or the new manifest, possibly with a parse error, or
+	 *         null if there is no readable file.
+	 */
+	private static XpackManifest lookup(IPath folderPath) {
+
+		String key = folderPath.toOSString();
+		java.nio.file.Path filePath = folderPath.append(FILE_NAME).toFile().toPath();
+
+		BasicFileAttributes attributes;
+		try {
+			attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+		} catch (NoSuchFileException e) {
+			fgCache.remove(key);
+			fgAbsent.incrementAndGet();
+			return null;
+		} catch (IOException e) {
+			fgCache.remove(key);
+			fgMisses.incrementAndGet();
+			return null;
+		}
+
+		if (!attributes.isRegularFile()) {
+			fgCache.remove(key);
+			fgAbsent.incrementAndGet();
+			return null;
+		}
+
+		XpackManifest manifest = fgCache.get(key);
+		if (manifest != null && manifest.fLastModified == attributes.lastModifiedTime().toMillis()
+				&& manifest.fSize == attributes.size()) {
+			fgHits.incrementAndGet();
+			return manifest;
+		}
+
+		fgMisses.incrementAndGet();
+		try (Reader reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8)) {
+
+			JSONParser parser = new JSONParser();
+			Object json = parser.parse(reader);
+			if (json instanceof JSONObject) {
+				manifest = new XpackManifest(folderPath, attributes, (JSONObject) json);
+			} else {
+				manifest = new XpackManifest(folderPath, attributes,
+						new ParseException(0, ParseException.ERROR_UNEXPECTED_TOKEN, json));
+			}
+
+		} catch (ParseException e) {
+			// Remember the failure, to not parse it again until changed.
+			manifest = new XpackManifest(folderPath, attributes, e);
+		} catch (IOException e) {
+			fgCache.remove(key);
+			return null;
+		}
+
+		fgCache.put(key, manifest);
+		return manifest;
+	}
+
+	/**
+	 * Check if the folder has a valid 'package.json'.
+	 *
+	 * @param folderPath
+	 *            a path with the xPack folder.
+	 * @return true if the manifest can be parsed.
+	 */
+	public static boolean exists(IPath folderPath) {
+		return get(folderPath) != null;
+	}
+
+	/**
+	 * Drop all cached manifests.
+	 */
+	public static void clearCache() {
+		fgCache.clear();
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * @return the number of requests answered without parsing the file.
+	 */
+	public static long getHitCount() {
+		return fgHits.get();
+	}
+
+	/**
+	 * @return the number of requests that had to (re)parse the file.
+	 */
+	public static long getMissCount() {
+		return fgMisses.get();
+	}
+
+	/**
+	 * @return the number of requests for folders without 'package.json'.
+	 */
+	public static long getAbsentCount() {
+		return fgAbsent.get();
+	}
+
+	public static void resetCounters() {
+		fgHits.set(0);
+		fgMisses.set(0);
+		fgAbsent.set(0);
+	}
+
+	public static String getStatistics() {
+		long hits = fgHits.get();
+		long misses = fgMisses.get();
+		long total = hits + misses;
+		long percent = (total > 0) ? (hits * 100) / total : 0;
+		return "xPack manifests: " + fgCache.size() + " cached, " + hits + " hits, " + misses + " misses (" + percent
+				+ "% hit rate), " + fgAbsent.get() + " folders without " + FILE_NAME + ".";
+	}
+
+	// ------------------------------------------------------------------------
+}
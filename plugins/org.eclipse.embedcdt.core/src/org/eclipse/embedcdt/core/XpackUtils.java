@@ -224,17 +224,14 @@ public class XpackUtils {
 			@Override
 			public boolean accept(File dir, String name) {
 				IPath path = (new Path(dir.getAbsolutePath())).append(name);
-				if (path.toFile().isDirectory()) {
-					IPath packagePath = path.append("package.json");
-					if (packagePath.toFile().isFile()) {
-						if (".link".equals(name)) {
-							versions.add("current");
-						} else {
-							versions.add(name);
-						}
-						return true;
+				// The cached manifest also answers the folder/file tests.
+				if (XpackManifest.exists(path)) {
+					if (".link".equals(name)) {
+						versions.add("current");
+					} else {
+						versions.add(name);
 					}
-
+					return true;
 				}
 				return false;
 			}
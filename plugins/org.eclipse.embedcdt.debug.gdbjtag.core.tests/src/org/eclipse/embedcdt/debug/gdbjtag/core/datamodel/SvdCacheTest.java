@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.debug.gdbjtag.core.datamodel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.embedcdt.packs.core.tree.Leaf;
+import org.eclipse.embedcdt.packs.core.tree.Node;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SvdCacheTest {
+
+	// ------------------------------------------------------------------------
+
+	private static final long SIZE = 12345;
+	private static final long LAST_MODIFIED = 1600000000000L;
+	private static final long CHECKSUM = 0xCAFEBABEL;
+
+	// The offset of the format version in the header.
+	private static final int VERSION_OFFSET = 4;
+
+	// ------------------------------------------------------------------------
+
+	private File fSvdFile;
+	private Node fTree;
+
+	// ------------------------------------------------------------------------
+
+	@Before
+	public void setUp() throws IOException {
+
+		fSvdFile = File.createTempFile("device", ".svd");
+
+		fTree = new Node("device");
+		fTree.setPackType(Leaf.PACK_TYPE_CMSIS);
+		fTree.setName("STM32F407");
+
+		Node peripherals = Node.addNewChild(fTree, "peripherals");
+		for (int i = 0; i < 3; ++i) {
+			Node peripheral = Node.addNewChild(peripherals, "peripheral");
+			peripheral.setPackType(Leaf.PACK_TYPE_CMSIS);
+			peripheral.setName("GPIO" + (char) ('A' + i));
+			peripheral.putProperty("baseAddress", "0x4002" + i + "000");
+
+			Node registers = Node.addNewChild(peripheral, "registers");
+			Leaf register = Leaf.addNewChild(registers, "register");
+			register.setPackType(Leaf.PACK_TYPE_CMSIS);
+			register.setName("MODER");
+			register.putProperty("addressOffset", "0x0");
+		}
+
+		// Non ASCII, and longer than the 64 KB limit of writeUTF().
+		char[] chars = new char[70000];
+		Arrays.fill(chars, '\u00e9');
+		fTree.setDescription(new String(chars));
+
+		// A node without children.
+		Node.addNewChild(fTree, "cpu");
+	}
+
+	@After
+	public void tearDown() {
+		fSvdFile.delete();
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Test
+	public void testRoundTrip() throws IOException {
+
+		byte[] bytes = write(fTree, CHECKSUM);
+
+		Leaf tree = read(bytes, fSvdFile, SIZE, LAST_MODIFIED, CHECKSUM);
+		assertNotNull(tree);
+		assertEqualTrees(fTree, tree);
+
+		// Strings are created only once.
+		List<Leaf> peripherals = ((Node) ((Node) tree).getChildren().get(0)).getChildren();
+		assertSame(peripherals.get(0).getType(), peripherals.get(2).getType());
+		assertSame(peripherals.get(0).getProperties().keySet().iterator().next(),
+				peripherals.get(1).getProperties().keySet().iterator().next());
+	}
+
+	@Test
+	public void testOtherFile() throws IOException {
+
+		byte[] bytes = write(fTree, CHECKSUM);
+
+		File other = new File(fSvdFile.getParentFile(), "other.svd");
+		assertNull(read(bytes, other, SIZE, LAST_MODIFIED, CHECKSUM));
+		assertNull(read(bytes, fSvdFile, SIZE + 1, LAST_MODIFIED, CHECKSUM));
+		assertNull(read(bytes, fSvdFile, SIZE, LAST_MODIFIED + 1000, CHECKSUM));
+		assertNull(read(bytes, fSvdFile, SIZE, LAST_MODIFIED, CHECKSUM + 1));
+	}
+
+	@Test
+	public void testFileContent() throws IOException {
+
+		Files.write(fSvdFile.toPath(), "<device/>".getBytes(StandardCharsets.UTF_8));
+		long checksum = SvdCache.computeChecksum(fSvdFile);
+		assertTrue(checksum >= 0);
+
+		byte[] bytes = write(fTree, checksum);
+		assertNotNull(read(bytes, fSvdFile, SIZE, LAST_MODIFIED, SvdCache.NO_CHECKSUM));
+
+		// Same size, time stamp preserved, as by some copies.
+		Files.write(fSvdFile.toPath(), "<Device/>".getBytes(StandardCharsets.UTF_8));
+		assertNull(read(bytes, fSvdFile, SIZE, LAST_MODIFIED, SvdCache.NO_CHECKSUM));
+	}
+
+	@Test
+	public void testOtherFormat() throws IOException {
+
+		byte[] bytes = write(fTree, CHECKSUM);
+
+		// A future format version.
+		byte[] copy = bytes.clone();
+		copy[VERSION_OFFSET + 3]++;
+		assertNull(read(copy, fSvdFile, SIZE, LAST_MODIFIED, CHECKSUM));
+
+		// Not a cache file.
+		copy = bytes.clone();
+		copy[0] = 'X';
+		assertNull(read(copy, fSvdFile, SIZE, LAST_MODIFIED, CHECKSUM));
+	}
+
+	@Test
+	public void testTruncated() throws IOException {
+
+		byte[] bytes = write(fTree, CHECKSUM);
+
+		// Any missing byte must be detected; load() ignores such entries.
+		for (int length = 0; length < bytes.length; length += (length < 100) ? 1 : 997) {
+			try {
+				read(Arrays.copyOf(bytes, length), fSvdFile, SIZE, LAST_MODIFIED, CHECKSUM);
+				fail("Truncated entry of " + length + " bytes not detected");
+			} catch (IOException e) {
+				// Expected.
+			}
+		}
+	}
+
+	@Test
+	public void testCorrupt() throws IOException {
+
+		byte[] bytes = write(fTree, CHECKSUM);
+
+		// Damage the last node, without properties and children; the kind
+		// byte is followed by the type index, the pack type and the counts.
+		byte[] copy = bytes.clone();
+		copy[copy.length - 5] = 7;
+		try {
+			read(copy, fSvdFile, SIZE, LAST_MODIFIED, CHECKSUM);
+			fail("Unknown node kind not detected");
+		} catch (IOException e) {
+			// Expected.
+		}
+
+		// A string index beyond the table.
+		copy = bytes.clone();
+		copy[copy.length - 4] = 0x7F;
+		try {
+			read(copy, fSvdFile, SIZE, LAST_MODIFIED, CHECKSUM);
+			fail("Bad string index not detected");
+		} catch (IOException | RuntimeException e) {
+			// Expected, load() ignores both.
+		}
+	}
+
+	@Test
+	public void testUnsupportedNodes() throws IOException {
+
+		// Subclasses cannot be restored.
+		fTree.addChild(new Node("custom") {
+		});
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+			assertFalse(SvdCache.write(output, fSvdFile, SIZE, LAST_MODIFIED, CHECKSUM, fTree));
+		}
+		assertEquals(0, bytes.size());
+	}
+
+	// ------------------------------------------------------------------------
+
+	private byte[] write(Leaf tree, long checksum) throws IOException {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+			assertTrue(SvdCache.write(output, fSvdFile, SIZE, LAST_MODIFIED, checksum, tree));
+		}
+		return bytes.toByteArray();
+	}
+
+	private static Leaf read(byte[] bytes, File svdFile, long size, long lastModified, long checksum)
+			throws IOException {
+
+		try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+			return SvdCache.read(input, svdFile, size, lastModified, checksum);
+		}
+	}
+
+	private static void assertEqualTrees(Leaf expected, Leaf actual) {
+
+		assertEquals(expected.getClass(), actual.getClass());
+		assertEquals(expected.getType(), actual.getType());
+		assertEquals(expected.getPackType(), actual.getPackType());
+
+		Map<String, String> properties = expected.getProperties();
+		if (properties == null || properties.isEmpty()) {
+			assertTrue(actual.getProperties() == null || actual.getProperties().isEmpty());
+		} else {
+			assertEquals(properties, actual.getProperties());
+			// The order is preserved.
+			assertEquals(properties.keySet().toString(), actual.getProperties().keySet().toString());
+		}
+
+		assertEquals(expected.hasChildren(), actual.hasChildren());
+		if (expected.hasChildren()) {
+			List<Leaf> expectedChildren = ((Node) expected).getChildren();
+			List<Leaf> actualChildren = ((Node) actual).getChildren();
+			assertEquals(expectedChildren.size(), actualChildren.size());
+			for (int i = 0; i < expectedChildren.size(); ++i) {
+				assertSame(actual, actualChildren.get(i).getParent());
+				assertEqualTrees(expectedChildren.get(i), actualChildren.get(i));
+			}
+		}
+	}
+
+	// ------------------------------------------------------------------------
+}
@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.debug.gdbjtag.core.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.cdt.dsf.datamodel.IDMContext;
+import org.eclipse.cdt.dsf.debug.service.IMemory.IMemoryDMContext;
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdPeripheralDMNode;
+import org.eclipse.embedcdt.debug.gdbjtag.core.memory.PeripheralReadPlanner.Piece;
+import org.eclipse.embedcdt.debug.gdbjtag.core.memory.PeripheralReadPlanner.Read;
+import org.eclipse.embedcdt.packs.core.tree.Leaf;
+import org.eclipse.embedcdt.packs.core.tree.Node;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PeripheralReadPlannerTest {
+
+	// ------------------------------------------------------------------------
+
+	private static class TestContext implements IMemoryDMContext {
+
+		@Override
+		public String getSessionId() {
+			return "test";
+		}
+
+		@Override
+		public IDMContext[] getParents() {
+			return new IDMContext[0];
+		}
+
+		@Override
+		public <T> T getAdapter(Class<T> adapter) {
+			return null;
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static final int MAX_GAP = 16;
+	private static final int MAX_SIZE = 64;
+
+	private static final long BASE_A = 0x40000000L;
+	private static final long BASE_B = 0x40000084L;
+	private static final long BASE_C = 0x40000090L;
+
+	// ------------------------------------------------------------------------
+
+	private IMemoryDMContext fContext;
+	private PeripheralRegisterTable fTableA;
+	private PeripheralRegisterTable fTableB;
+	private PeripheralRegisterTable fTableC;
+
+	// ------------------------------------------------------------------------
+
+	@Before
+	public void setUp() {
+
+		fContext = new TestContext();
+
+		// Regions 0x00-0x08, 0x10-0x14, 0x1C-0x20, 0x80-0x84; a register
+		// with read side effects at 0x18.
+		fTableA = createTable(new String[][] { { "0x0", null }, { "0x4", null }, { "0x10", null },
+				{ "0x18", "clear" }, { "0x1C", null }, { "0x80", null } });
+
+		// Contiguous to the last A region.
+		fTableB = createTable(new String[][] { { "0x0", null } });
+
+		// After a small gap.
+		fTableC = createTable(new String[][] { { "0x0", null } });
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Test
+	public void testMerge() {
+
+		List<Piece> pieces = new ArrayList<>();
+		// Not in address order.
+		addPieces(pieces, "C", fTableC, fContext, BASE_C);
+		addPieces(pieces, "B", fTableB, fContext, BASE_B);
+		addPieces(pieces, "A", fTableA, fContext, BASE_A);
+
+		List<Read> reads = PeripheralReadPlanner.merge(pieces, MAX_GAP, MAX_SIZE);
+
+		// A small gap between registers of the same peripheral is read,
+		// unless it has registers with read side effects; contiguous
+		// peripherals are read together, but not the gaps between them.
+		assertEquals("[0x40000000-0x40000014/2, 0x4000001C-0x40000020/1, 0x40000080-0x40000088/2, "
+				+ "0x40000090-0x40000094/1]", reads(reads));
+
+		assertSame(fContext, reads.get(0).fContext);
+		assertEquals("A", reads.get(2).fPieces.get(0).fOwner);
+		assertEquals("B", reads.get(2).fPieces.get(1).fOwner);
+	}
+
+	@Test
+	public void testGaps() {
+
+		List<Piece> pieces = new ArrayList<>();
+		addPieces(pieces, "A", fTableA, fContext, BASE_A);
+
+		assertEquals("[0x40000000-0x40000008/1, 0x40000010-0x40000014/1, 0x4000001C-0x40000020/1, "
+				+ "0x40000080-0x40000084/1]", reads(PeripheralReadPlanner.merge(pieces, 0, MAX_SIZE)));
+
+		// The large gap is read too, but the excluded register is not.
+		assertEquals("[0x40000000-0x40000014/2, 0x4000001C-0x40000084/2]",
+				reads(PeripheralReadPlanner.merge(pieces, 0x100, 0x100)));
+	}
+
+	@Test
+	public void testMaxSize() {
+
+		List<Piece> pieces = new ArrayList<>();
+		addPieces(pieces, "A", fTableA, fContext, BASE_A);
+		addPieces(pieces, "B", fTableB, fContext, BASE_B);
+
+		assertEquals("[0x40000000-0x40000008/1, 0x40000010-0x40000014/1, 0x4000001C-0x40000020/1, "
+				+ "0x40000080-0x40000088/2]", reads(PeripheralReadPlanner.merge(pieces, MAX_GAP, 8)));
+
+		// Larger regions are read as they are.
+		assertEquals("[0x40000000-0x40000008/1, 0x40000010-0x40000014/1, 0x4000001C-0x40000020/1, "
+				+ "0x40000080-0x40000084/1, 0x40000084-0x40000088/1]",
+				reads(PeripheralReadPlanner.merge(pieces, MAX_GAP, 2)));
+	}
+
+	@Test
+	public void testOverlaps() {
+
+		// The same peripheral in two renderings; the overlapping pieces are
+		// read once, the gaps only between pieces of the same owner.
+		List<Piece> pieces = new ArrayList<>();
+		addPieces(pieces, "A1", fTableA, fContext, BASE_A);
+		addPieces(pieces, "A2", fTableA, fContext, BASE_A);
+
+		assertEquals("[0x40000000-0x40000008/2, 0x40000010-0x40000014/2, 0x4000001C-0x40000020/2, "
+				+ "0x40000080-0x40000084/2]", reads(PeripheralReadPlanner.merge(pieces, MAX_GAP, MAX_SIZE)));
+	}
+
+	@Test
+	public void testContexts() {
+
+		// Two cores, or two debug sessions.
+		List<Piece> pieces = new ArrayList<>();
+		addPieces(pieces, "A", fTableA, fContext, BASE_A);
+		addPieces(pieces, "B", fTableB, new TestContext(), BASE_B);
+
+		List<Read> reads = PeripheralReadPlanner.merge(pieces, MAX_GAP, MAX_SIZE);
+		assertEquals("[0x40000000-0x40000014/2, 0x4000001C-0x40000020/1, 0x40000080-0x40000084/1, "
+				+ "0x40000084-0x40000088/1]", reads(reads));
+		assertSame(fContext, reads.get(2).fContext);
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Create the registers table of a peripheral with 32-bit registers.
+	 *
+	 * @param registers
+	 *            pairs of offset and read action, or null.
+	 */
+	private static PeripheralRegisterTable createTable(String[][] registers) {
+
+		Node device = new Node("device");
+		device.setPackType(Leaf.PACK_TYPE_CMSIS);
+		Node peripheral = Node.addNewChild(Node.addNewChild(device, "peripherals"), "peripheral");
+		peripheral.setPackType(Leaf.PACK_TYPE_CMSIS);
+		Node group = Node.addNewChild(peripheral, "registers");
+
+		for (String[] register : registers) {
+			Leaf node = Leaf.addNewChild(group, "register");
+			node.setPackType(Leaf.PACK_TYPE_CMSIS);
+			node.putProperty("addressOffset", register[0]);
+			node.putProperty("size", "32");
+			if (register[1] != null) {
+				node.putProperty("readAction", register[1]);
+			}
+		}
+		return PeripheralRegisterTable.create(new SvdPeripheralDMNode(peripheral));
+	}
+
+	private static void addPieces(List<Piece> pieces, Object owner, PeripheralRegisterTable table,
+			IMemoryDMContext context, long base) {
+		PeripheralReadPlanner.addPieces(pieces, owner, table, context, base, table.createRegions());
+	}
+
+	private static String reads(List<Read> reads) {
+
+		List<String> list = new ArrayList<>();
+		for (Read read : reads) {
+			list.add(String.format("0x%08X-0x%08X/%d", read.fStart, read.fEnd, read.fPieces.size()));
+		}
+		return list.toString();
+	}
+
+	// ------------------------------------------------------------------------
+}
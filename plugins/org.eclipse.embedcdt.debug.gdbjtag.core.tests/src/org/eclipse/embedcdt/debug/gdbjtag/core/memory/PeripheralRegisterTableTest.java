@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.debug.gdbjtag.core.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdPeripheralDMNode;
+import org.eclipse.embedcdt.packs.core.tree.Leaf;
+import org.eclipse.embedcdt.packs.core.tree.Node;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PeripheralRegisterTableTest {
+
+	// ------------------------------------------------------------------------
+
+	private Node fDevice;
+	private Node fPeripheral;
+	private Node fRegisters;
+
+	// ------------------------------------------------------------------------
+
+	@Before
+	public void setUp() {
+
+		fDevice = new Node("device");
+		fDevice.setPackType(Leaf.PACK_TYPE_CMSIS);
+		Node peripherals = addNode(fDevice, "peripherals", null);
+
+		fPeripheral = addNode(peripherals, "peripheral", "TIM1");
+		fPeripheral.putProperty("baseAddress", "0x40010000");
+		fRegisters = addNode(fPeripheral, "registers", null);
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * <pre>
+	 * 0x00 CR1 32
+	 * 0x04 CR2 16
+	 * 0x08 DR 32, read clears
+	 * 0x20 CCR[4] 32, every 4
+	 * 0x20 CCR1_16 16, a union
+	 * 0x0C STAT 8, out of order
+	 * 0x40 CH[2], every 0x10
+	 *   0x00 CFG 32
+	 *   0x04 FIFO 32, read modifies
+	 * </pre>
+	 */
+	@Test
+	public void testRegisters() {
+
+		addRegister(fRegisters, "CR1", "0x0", "32");
+		addRegister(fRegisters, "CR2", "0x4", "16");
+		addRegister(fRegisters, "DR", "0x8", "32").putProperty("readAction", "clear");
+		Node ccr = addRegister(fRegisters, "CCR%s", "0x20", "32");
+		ccr.putProperty("dim", "4");
+		ccr.putProperty("dimIncrement", "4");
+		addRegister(fRegisters, "CCR1_16", "0x20", "16");
+		addRegister(fRegisters, "STAT", "0x0C", "8");
+
+		Node channel = addNode(fRegisters, "cluster", "CH%s");
+		channel.putProperty("addressOffset", "0x40");
+		channel.putProperty("dim", "2");
+		channel.putProperty("dimIncrement", "0x10");
+		addRegister(channel, "CFG", "0x0", "32");
+		addRegister(channel, "FIFO", "0x4", "32").putProperty("readAction", "modify");
+
+		PeripheralRegisterTable table = PeripheralRegisterTable.create(new SvdPeripheralDMNode(fPeripheral));
+
+		// Sorted by offset; the array and the union keep their order.
+		assertEquals("[0x0/4, 0x4/2, 0xC/1, 0x20/4, 0x20/2, 0x24/4, 0x28/4, 0x2C/4, 0x40/4, 0x50/4]",
+				entries(table));
+
+		assertTrue(table.isExcluded(0x8, 4));
+		assertTrue(table.isExcluded(0x6, 4));
+		assertTrue(table.isExcluded(0xA, 1));
+		assertFalse(table.isExcluded(0x0, 8));
+		assertFalse(table.isExcluded(0xC, 0x14));
+
+		// The cluster excluded register is replicated.
+		assertTrue(table.isExcluded(0x40, 0x10));
+		assertFalse(table.isExcluded(0x48, 8));
+		assertTrue(table.isExcluded(0x56, 2));
+		assertFalse(table.isExcluded(0x58, 4));
+
+		// Contiguous and overlapping registers are merged.
+		assertEquals("[0x0/6, 0xC/1, 0x20/16, 0x40/4, 0x50/4]", regions(table.createRegions()));
+	}
+
+	@Test
+	public void testInheritedProperties() {
+
+		// The size and the read action are inherited from the parents.
+		fPeripheral.putProperty("size", "16");
+		addRegister(fRegisters, "A", "0x0", null);
+		addRegister(fRegisters, "B", "0x2", null);
+
+		Node fifo = addNode(fRegisters, "cluster", "FIFO");
+		fifo.putProperty("addressOffset", "0x10");
+		fifo.putProperty("readAction", "modify");
+		addRegister(fifo, "DATA", "0x0", "32");
+
+		PeripheralRegisterTable table = PeripheralRegisterTable.create(new SvdPeripheralDMNode(fPeripheral));
+
+		assertEquals("[0x0/2, 0x2/2]", entries(table));
+		assertTrue(table.isExcluded(0x12, 1));
+		assertEquals("[0x0/4]", regions(table.createRegions()));
+	}
+
+	@Test
+	public void testEmpty() {
+
+		PeripheralRegisterTable table = PeripheralRegisterTable.create(new SvdPeripheralDMNode(fPeripheral));
+
+		assertEquals(0, table.size());
+		assertFalse(table.isExcluded(0x0, 0x100));
+		assertTrue(table.createRegions().isEmpty());
+	}
+
+	@Test
+	public void testManyRegisters() {
+
+		// Beyond the initial capacity, in reverse order.
+		for (int i = 99; i >= 0; --i) {
+			addRegister(fRegisters, "R" + i, "0x" + Integer.toHexString(i * 8), "32");
+		}
+
+		PeripheralRegisterTable table = PeripheralRegisterTable.create(new SvdPeripheralDMNode(fPeripheral));
+
+		assertEquals(100, table.size());
+		for (int i = 0; i < 100; ++i) {
+			assertEquals(i * 8, table.getOffset(i));
+			assertEquals(4, table.getSizeBytes(i));
+		}
+		assertEquals(100, table.createRegions().size());
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static Node addNode(Node parent, String type, String name) {
+
+		Node node = Node.addNewChild(parent, type);
+		node.setPackType(Leaf.PACK_TYPE_CMSIS);
+		if (name != null) {
+			node.setName(name);
+		}
+		return node;
+	}
+
+	private static Node addRegister(Node parent, String name, String offset, String size) {
+
+		Node register = addNode(parent, "register", name);
+		register.putProperty("addressOffset", offset);
+		if (size != null) {
+			register.putProperty("size", size);
+		}
+		return register;
+	}
+
+	private static String entries(PeripheralRegisterTable table) {
+
+		List<String> list = new ArrayList<>();
+		for (int i = 0; i < table.size(); ++i) {
+			list.add(String.format("0x%X/%d", table.getOffset(i), table.getSizeBytes(i)));
+		}
+		return list.toString();
+	}
+
+	private static String regions(List<PeripheralMemoryRegion> regions) {
+
+		List<String> list = new ArrayList<>();
+		for (PeripheralMemoryRegion region : regions) {
+			list.add(String.format("0x%X/%d", region.getAddressOffset(), region.getSizeBytes()));
+		}
+		return list.toString();
+	}
+
+	// ------------------------------------------------------------------------
+}
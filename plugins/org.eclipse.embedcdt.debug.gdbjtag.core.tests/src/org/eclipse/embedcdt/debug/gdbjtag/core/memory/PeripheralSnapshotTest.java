@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.debug.gdbjtag.core.memory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.eclipse.embedcdt.debug.gdbjtag.core.memory.PeripheralSnapshot.Peripheral;
+import org.junit.Test;
+
+public class PeripheralSnapshotTest {
+
+	// ------------------------------------------------------------------------
+
+	// 'PSNP'
+	private static final int MAGIC = 0x50534E50;
+	private static final long TIME = 1600000000000L;
+
+	// ------------------------------------------------------------------------
+
+	@Test
+	public void testLittleEndian() throws IOException {
+
+		PeripheralSnapshot snapshot = read(createSnapshot(1, false));
+		assertEquals(TIME, snapshot.getTime());
+		assertFalse(snapshot.isBigEndian());
+		assertEquals(2, snapshot.getPeripherals().size());
+		assertNull(snapshot.findPeripheral("UART9"));
+
+		Peripheral gpio = snapshot.findPeripheral("GPIOA");
+		assertNotNull(gpio);
+		assertEquals(0x40020000L, gpio.getBaseAddress());
+
+		assertTrue(gpio.isValid(0x0, 4));
+		assertEquals(0x04030201L, gpio.getLong(0x0, 4));
+		assertEquals(0x0605L, gpio.getLong(0x4, 2));
+		assertEquals(0x07L, gpio.getLong(0x6, 1));
+		assertEquals(0x0A0908L, gpio.getLong(0x8, 3));
+		assertEquals(0xFFFFFFFFL, gpio.getLong(0xC, 4));
+
+		// Byte 7 was not read.
+		assertFalse(gpio.isValid(0x4, 4));
+		assertTrue(gpio.isValid(0x4, 3));
+
+		// The second region, after a gap.
+		assertTrue(gpio.isValid(0x20, 4));
+		assertEquals(0x80000001L, gpio.getLong(0x20, 4));
+
+		// In the gap, or crossing the regions ends.
+		assertFalse(gpio.isValid(0x14, 4));
+		assertFalse(gpio.isValid(0x0E, 4));
+		assertFalse(gpio.isValid(0x1E, 4));
+	}
+
+	@Test
+	public void testBigEndian() throws IOException {
+
+		PeripheralSnapshot snapshot = read(createSnapshot(1, true));
+		assertTrue(snapshot.isBigEndian());
+
+		Peripheral gpio = snapshot.findPeripheral("GPIOA");
+		assertEquals(0x01020304L, gpio.getLong(0x0, 4));
+		assertEquals(0x0506L, gpio.getLong(0x4, 2));
+		assertEquals(0x08090AL, gpio.getLong(0x8, 3));
+		assertEquals(0x01000080L, gpio.getLong(0x20, 4));
+
+		Peripheral rcc = snapshot.findPeripheral("RCC");
+		assertTrue(rcc.isValid(0x0, 8));
+		assertEquals(0x1122334455667788L, rcc.getLong(0x0, 8));
+	}
+
+	@Test
+	public void testWrite() throws IOException {
+
+		byte[] bytes = createSnapshot(1, false);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (DataOutputStream stream = new DataOutputStream(output)) {
+			read(bytes).write(stream);
+		}
+		assertArrayEquals(bytes, output.toByteArray());
+	}
+
+	@Test
+	public void testErrors() throws IOException {
+
+		byte[] bytes = createSnapshot(1, false);
+
+		byte[] copy = bytes.clone();
+		copy[0] = 'X';
+		checkError(copy);
+
+		// A future format version.
+		checkError(createSnapshot(2, false));
+
+		for (int length = 0; length < bytes.length; ++length) {
+			checkError(Arrays.copyOf(bytes, length));
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * GPIOA, with two regions, 0x0-0x10 with byte 7 not read, and 0x20-0x24;
+	 * RCC with a 64-bit register.
+	 */
+	private static byte[] createSnapshot(int version, boolean isBigEndian) throws IOException {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+			output.writeInt(MAGIC);
+			output.writeInt(version);
+			output.writeLong(TIME);
+			output.writeByte(isBigEndian ? 1 : 0);
+
+			output.writeInt(2);
+
+			output.writeUTF("GPIOA");
+			output.writeLong(0x40020000L);
+			output.writeInt(2);
+
+			BitSet valid = new BitSet();
+			valid.set(0, 16);
+			valid.clear(7);
+			writeRegion(output, 0x0, valid, new byte[] { 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x00, 0x08,
+					0x09, 0x0A, 0x00, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF });
+
+			valid = new BitSet();
+			valid.set(0, 4);
+			writeRegion(output, 0x20, valid, new byte[] { 0x01, 0x00, 0x00, (byte) 0x80 });
+
+			output.writeUTF("RCC");
+			output.writeLong(0x40023800L);
+			output.writeInt(1);
+
+			valid = new BitSet();
+			valid.set(0, 8);
+			writeRegion(output, 0x0, valid, new byte[] { 0x11, 0x22, 0x33, 0x44, 0x55, 0x66, 0x77, (byte) 0x88 });
+		}
+		return bytes.toByteArray();
+	}
+
+	private static void writeRegion(DataOutputStream output, long offset, BitSet valid, byte[] content)
+			throws IOException {
+
+		output.writeLong(offset);
+		output.writeInt(content.length);
+		byte[] mask = valid.toByteArray();
+		output.writeInt(mask.length);
+		output.write(mask);
+		output.write(content);
+	}
+
+	private static PeripheralSnapshot read(byte[] bytes) throws IOException {
+
+		try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+			return PeripheralSnapshot.read(input);
+		}
+	}
+
+	private static void checkError(byte[] bytes) {
+
+		try {
+			read(bytes);
+			fail("Damaged snapshot of " + bytes.length + " bytes not detected");
+		} catch (IOException e) {
+			// Expected.
+		}
+	}
+
+	// ------------------------------------------------------------------------
+}
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.debug.gdbjtag.core.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+
+import org.eclipse.embedcdt.debug.gdbjtag.core.memory.PeripheralWriteQueue.Write;
+import org.junit.Test;
+
+public class PeripheralWriteQueueTest {
+
+	// ------------------------------------------------------------------------
+
+	@Test
+	public void testFieldEdits() {
+
+		Write write = new Write(null, 0x10, 4, hex("12345678"));
+		assertTrue(write.isPartial());
+
+		// Two fields edited before the batch is written; each edit comes with
+		// the value displayed at that moment, the second one not yet showing
+		// the first edit.
+		write.merge(hex("123456A8"), hex("000000F0"));
+		write.merge(hex("12340878"), hex("0000FF00"));
+		assertEquals(hex("0000FFF0"), write.fMask);
+		assertTrue(write.isPartial());
+
+		// The first edit is not lost by the second.
+		assertEquals(hex("A0"), write.getValueToWrite().and(hex("F0")));
+		assertEquals(hex("123408A8"), write.getValueToWrite());
+
+		// The bits not edited come from the value read before the write.
+		write.fCurrentValue = hex("CAFEBABE");
+		assertEquals(hex("CAFE08AE"), write.getValueToWrite());
+		assertEquals(hex("12345678"), write.fPreviousValue);
+	}
+
+	@Test
+	public void testRegisterEdits() {
+
+		Write write = new Write(null, 0x0, 2, BigInteger.ZERO);
+
+		write.merge(hex("1234"), hex("FFFF"));
+		assertFalse(write.isPartial());
+
+		// A later edit of the whole register replaces the previous one.
+		write.merge(hex("ABCD"), hex("FFFF"));
+		assertEquals(hex("ABCD"), write.getValueToWrite());
+
+		write.fCurrentValue = hex("5555");
+		assertEquals(hex("ABCD"), write.getValueToWrite());
+
+		// A field edit after a full edit.
+		write.merge(hex("0000"), hex("000F"));
+		assertEquals(hex("ABC0"), write.getValueToWrite());
+	}
+
+	@Test
+	public void testWideRegisters() {
+
+		Write write = new Write(null, 0x0, 8, BigInteger.ZERO);
+		write.merge(hex("FFFFFFFF00000000"), hex("FFFFFFFF00000000"));
+		assertTrue(write.isPartial());
+		write.merge(hex("0000000012345678"), hex("00000000FFFFFFFF"));
+		assertFalse(write.isPartial());
+		assertEquals(hex("FFFFFFFF12345678"), write.getValueToWrite());
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static BigInteger hex(String str) {
+		return new BigInteger(str, 16);
+	}
+
+	// ------------------------------------------------------------------------
+}
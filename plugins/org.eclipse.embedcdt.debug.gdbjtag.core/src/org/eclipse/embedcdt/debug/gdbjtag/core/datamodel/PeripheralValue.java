@@ -26,6 +26,10 @@ import org.eclipse.debug.core.model.IVariable;
 /**
  * Peripheral register values usually are BigInteger but for enumerations can be
  * String.
+ * <p>
+ * Numeric values up to 64 bits, which are the vast majority, are kept as
+ * primitive (unsigned) longs, to avoid allocating a new object for each update;
+ * BigInteger objects are created only on request, or for wider values.
  */
 public class PeripheralValue implements IValue {
 
@@ -46,12 +50,17 @@ public class PeripheralValue implements IValue {
 	// ------------------------------------------------------------------------
 
 	private Object fValue;
+	// Valid only if fIsLong; in this case fValue is null.
+	private long fLongValue;
+	private boolean fIsLong;
 	private int fDisplayFormat;
 
 	// ------------------------------------------------------------------------
 
 	public PeripheralValue() {
 		fValue = null;
+		fLongValue = 0;
+		fIsLong = false;
 		fDisplayFormat = FORMAT_NONE;
 	}
 
@@ -92,19 +101,53 @@ public class PeripheralValue implements IValue {
 	 */
 	public boolean update(Object value) {
 
-		Object previousValue = fValue;
-		fValue = value;
+		if (value instanceof BigInteger) {
+			BigInteger bigValue = (BigInteger) value;
+			if (bigValue.signum() >= 0 && bigValue.bitLength() <= 64) {
+				return update(bigValue.longValue());
+			}
+		}
+
 		boolean hasChanged;
-		if (previousValue != null) {
-			hasChanged = !previousValue.equals(fValue);
+		if (fIsLong) {
+			// The new value is not a long.
+			hasChanged = true;
+		} else if (fValue != null) {
+			hasChanged = !fValue.equals(value);
 		} else {
 			hasChanged = false; // First time set, not a value change
 		}
+		fValue = value;
+		fIsLong = false;
+		return hasChanged;
+	}
+
+	/**
+	 * Update the value with a numeric value up to 64 bits, without allocating
+	 * objects.
+	 *
+	 * @param value
+	 *            the new value, considered unsigned.
+	 * @return true if the new value is different.
+	 * @since 5.3
+	 */
+	public boolean update(long value) {
+
+		boolean hasChanged;
+		if (fIsLong) {
+			hasChanged = (fLongValue != value);
+		} else {
+			// First time set, not a value change
+			hasChanged = (fValue != null);
+		}
+		fValue = null;
+		fLongValue = value;
+		fIsLong = true;
 		return hasChanged;
 	}
 
 	public boolean hasValue() {
-		return fValue != null;
+		return fIsLong || fValue != null;
 	}
 
 	/**
@@ -114,7 +157,9 @@ public class PeripheralValue implements IValue {
 	 */
 	public BigInteger getBigValue() {
 
-		if (fValue instanceof BigInteger) {
+		if (fIsLong) {
+			return toUnsignedBigInteger(fLongValue);
+		} else if (fValue instanceof BigInteger) {
 			return (BigInteger) fValue;
 		} else {
 			return null;
@@ -122,7 +167,33 @@ public class PeripheralValue implements IValue {
 	}
 
 	public boolean isNumeric() {
-		return (fValue instanceof BigInteger);
+		return fIsLong || (fValue instanceof BigInteger);
+	}
+
+	/**
+	 * @return true if the value is numeric and fits in a long.
+	 * @since 5.3
+	 */
+	public boolean isLong() {
+		return fIsLong;
+	}
+
+	/**
+	 * Get the numeric value, if isLong().
+	 *
+	 * @return the value, to be considered unsigned.
+	 * @since 5.3
+	 */
+	public long getLongValue() {
+		return fLongValue;
+	}
+
+	private static BigInteger toUnsignedBigInteger(long value) {
+
+		if (value >= 0) {
+			return BigInteger.valueOf(value);
+		}
+		return BigInteger.valueOf(value >>> 1).shiftLeft(1).or(BigInteger.valueOf(value & 1));
 	}
 
 	// ------------------------------------------------------------------------
@@ -156,7 +227,32 @@ public class PeripheralValue implements IValue {
 	@Override
 	public String getValueString() throws DebugException {
 
-		if (isNumeric()) {
+		if (fIsLong) {
+
+			// Negative values are formatted as unsigned.
+			long value = fLongValue;
+
+			if (fDisplayFormat == FORMAT_HEX8) {
+				return String.format("0x%02X", value);
+			} else if (fDisplayFormat == FORMAT_HEX16) {
+				return String.format("0x%04X", value);
+			} else if (fDisplayFormat == FORMAT_HEX32) {
+				return String.format("0x%08X", value);
+			} else if (fDisplayFormat == FORMAT_HEX64) {
+				return String.format("0x%016X", value);
+			} else if (fDisplayFormat == FORMAT_HEX) {
+				return String.format("0x%X", value);
+			} else {
+				// Default is hex 32/64
+				if (Long.bitCount(value) <= 32) {
+					// 32-bit register value
+					return String.format("0x%08X", value);
+				} else {
+					// 64-bit register value
+					return String.format("0x%016X", value);
+				}
+			}
+		} else if (isNumeric()) {
 
 			// Numeric values are formatted as upper case hex strings, with
 			// various length.
@@ -0,0 +1,553 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.debug.gdbjtag.core.datamodel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+import org.eclipse.embedcdt.internal.debug.gdbjtag.core.Activator;
+import org.eclipse.embedcdt.packs.core.data.PacksStorage;
+import org.eclipse.embedcdt.packs.core.tree.Leaf;
+import org.eclipse.embedcdt.packs.core.tree.Node;
+
+/**
+ * An on-disk cache of parsed SVD trees, in a compact binary form, stored in
+ * the packs '.cache/svd' folder.
+ * <p>
+ * Each entry is identified by the absolute path of the original file (the
+ * file name is a hash of the path) and is valid only as long as the original
+ * file size, modification time and content checksum (CRC-32C) do not change.
+ * <p>
+ * The binary form starts with a table of all distinct strings (types, property
+ * names and values), followed by the tree, where strings are referred by their
+ * index; on load each string is created only once.
+ * <p>
+ * Entries not used for a long time are removed, and when the total size
+ * exceeds the configured limit, the least recently used entries are removed
+ * first.
+ *
+ * @since 5.3
+ */
+public class SvdCache {
+
+	// ------------------------------------------------------------------------
+
+	private static final String FOLDER_NAME = "svd";
+	private static final String FILE_SUFFIX = ".svdc";
+
+	// 'SVDC'
+	private static final int MAGIC = 0x53564443;
+	// Increment when the format changes.
+	private static final int FORMAT_VERSION = 1;
+
+	private static final int NODE_LEAF = 0;
+	private static final int NODE_NODE = 1;
+
+	private static final long MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(90);
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	// The checksum was not computed yet; CRC-32C values are never negative.
+	static final long NO_CHECKSUM = -1;
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Get the cached tree of an SVD file.
+	 *
+	 * @param svdFile
+	 *            the original file (XML, JSON or zipped).
+	 * @return the tree, or null if not cached or the file changed.
+	 */
+	public static Leaf load(File svdFile) {
+		return load(svdFile, NO_CHECKSUM);
+	}
+
+	/**
+	 * Get the cached tree of an SVD file, with the content checksum already
+	 * computed by the caller, to not read the file again.
+	 *
+	 * @param svdFile
+	 *            the original file.
+	 * @param fileChecksum
+	 *            the checksum of the file, or NO_CHECKSUM to compute it.
+	 * @return the tree, or null if not cached or the file changed.
+	 */
+	static Leaf load(File svdFile, long fileChecksum) {
+
+		try {
+			File cacheFile = getCacheFile(svdFile);
+			if (!cacheFile.isFile()) {
+				return null;
+			}
+
+			BasicFileAttributes attributes = Files.readAttributes(svdFile.toPath(), BasicFileAttributes.class);
+
+			try (DataInputStream input = new DataInputStream(
+					new BufferedInputStream(Files.newInputStream(cacheFile.toPath()), BUFFER_SIZE))) {
+
+				Leaf tree = read(input, svdFile, attributes.size(), attributes.lastModifiedTime().toMillis(),
+						fileChecksum);
+				if (tree != null) {
+					// Keep track of the usage, for eviction.
+					cacheFile.setLastModified(System.currentTimeMillis());
+				}
+				return tree;
+			}
+		} catch (IOException | RuntimeException e) {
+			// A damaged entry is just a miss, it will be overwritten.
+			if (Activator.getInstance().isDebugging()) {
+				System.out.println("SvdCache.load() " + e);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Store the parsed tree of an SVD file, then remove old entries.
+	 *
+	 * @param svdFile
+	 *            the original file.
+	 * @param tree
+	 *            the parsed tree, as returned by the generic parsers.
+	 * @param maxSize
+	 *            the maximum total size of the cache, in bytes.
+	 */
+	public static void store(File svdFile, Leaf tree, long maxSize) {
+		store(svdFile, tree, maxSize, NO_CHECKSUM);
+	}
+
+	/**
+	 * Store the parsed tree of an SVD file, with the content checksum already
+	 * computed by the caller.
+	 *
+	 * @param checksum
+	 *            the checksum of the file, or NO_CHECKSUM to compute it.
+	 */
+	static void store(File svdFile, Leaf tree, long maxSize, long checksum) {
+
+		File tmpFile = null;
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(svdFile.toPath(), BasicFileAttributes.class);
+			if (checksum == NO_CHECKSUM) {
+				checksum = computeChecksum(svdFile);
+			}
+
+			File cacheFile = getCacheFile(svdFile);
+			File folder = cacheFile.getParentFile();
+			if (!folder.isDirectory()) {
+				folder.mkdirs();
+			}
+
+			// Write to a temporary file, then rename, to not leave partial
+			// entries behind and to not disturb concurrent readers.
+			tmpFile = File.createTempFile("svd", ".tmp", folder);
+			try (DataOutputStream output = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(tmpFile.toPath()), BUFFER_SIZE))) {
+
+				if (!write(output, svdFile, attributes.size(), attributes.lastModifiedTime().toMillis(), checksum,
+						tree)) {
+					// The temporary file is removed below.
+					return;
+				}
+			}
+			Files.move(tmpFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			tmpFile = null;
+
+			if (Activator.getInstance().isDebugging()) {
+				System.out.println("SvdCache.store() " + cacheFile + " " + cacheFile.length() + " bytes");
+			}
+
+			evict(maxSize);
+
+		} catch (IOException e) {
+			Activator.log(e);
+		} finally {
+			if (tmpFile != null) {
+				tmpFile.delete();
+			}
+		}
+	}
+
+	/**
+	 * Remove the entries not used for a long time and, if the total size is
+	 * above the limit, the least recently used ones.
+	 *
+	 * @param maxSize
+	 *            the maximum total size, in bytes.
+	 */
+	public static void evict(long maxSize) {
+
+		File[] files = listCacheFiles();
+		if (files == null) {
+			return;
+		}
+
+		// Most recently used first.
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified).reversed());
+
+		long now = System.currentTimeMillis();
+		long total = 0;
+		for (File file : files) {
+			total += file.length();
+			if (total > maxSize || now - file.lastModified() > MAX_AGE_MILLIS) {
+				if (Activator.getInstance().isDebugging()) {
+					System.out.println("SvdCache.evict() " + file);
+				}
+				file.delete();
+			}
+		}
+	}
+
+	/**
+	 * Remove all entries.
+	 */
+	public static void clear() {
+
+		File[] files = listCacheFiles();
+		if (files == null) {
+			return;
+		}
+		for (File file : files) {
+			file.delete();
+		}
+	}
+
+	/**
+	 * @return the total size of the cache, in bytes.
+	 */
+	public static long getSize() {
+
+		File[] files = listCacheFiles();
+		if (files == null) {
+			return 0;
+		}
+		long total = 0;
+		for (File file : files) {
+			total += file.length();
+		}
+		return total;
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static File getCacheFolder() throws IOException {
+		return PacksStorage.getCachedFileObject(FOLDER_NAME);
+	}
+
+	private static File getCacheFile(File svdFile) throws IOException {
+
+		byte[] digest;
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-1");
+			digest = md.digest(svdFile.getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+		StringBuilder sb = new StringBuilder();
+		for (byte b : digest) {
+			sb.append(String.format("%02x", b & 0xFF));
+		}
+		sb.append(FILE_SUFFIX);
+		return new File(getCacheFolder(), sb.toString());
+	}
+
+	private static File[] listCacheFiles() {
+
+		try {
+			return getCacheFolder().listFiles((dir, name) -> name.endsWith(FILE_SUFFIX));
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Compute the CRC-32C of the file content; it is hardware accelerated,
+	 * much faster than reading the file again for parsing. Also used to
+	 * identify the shared models.
+	 */
+	static long computeChecksum(File file) throws IOException {
+
+		CRC32C crc = new CRC32C();
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+			while (channel.read(buffer) >= 0) {
+				buffer.flip();
+				crc.update(buffer);
+				buffer.clear();
+			}
+		}
+		return crc.getValue();
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Write a cache entry: the header, identifying the original file, the
+	 * strings table and the tree.
+	 *
+	 * @param output
+	 *            the destination; it is not closed.
+	 * @param svdFile
+	 *            the original file.
+	 * @param size
+	 *            the original file size.
+	 * @param lastModified
+	 *            the original file modification time, in ms.
+	 * @param checksum
+	 *            the original file content checksum.
+	 * @param tree
+	 *            the parsed tree.
+	 * @return false if the tree cannot be stored, and nothing was written.
+	 * @throws IOException
+	 */
+	static boolean write(DataOutputStream output, File svdFile, long size, long lastModified, long checksum,
+			Leaf tree) throws IOException {
+
+		Map<String, Integer> strings = new LinkedHashMap<>();
+		if (!collectStrings(tree, strings)) {
+			return false;
+		}
+
+		output.writeInt(MAGIC);
+		output.writeInt(FORMAT_VERSION);
+		writeString(output, svdFile.getAbsolutePath());
+		output.writeLong(size);
+		output.writeLong(lastModified);
+		output.writeLong(checksum);
+
+		writeVarInt(output, strings.size());
+		for (String str : strings.keySet()) {
+			writeString(output, str);
+		}
+
+		writeNode(output, tree, strings);
+		return true;
+	}
+
+	/**
+	 * Read a cache entry written by write(), if it matches the original file.
+	 *
+	 * @param input
+	 *            the source; it is not closed.
+	 * @param svdFile
+	 *            the original file.
+	 * @param size
+	 *            the original file size.
+	 * @param lastModified
+	 *            the original file modification time, in ms.
+	 * @param checksum
+	 *            the original file content checksum, or NO_CHECKSUM to compute
+	 *            it, only if the other attributes match.
+	 * @return the tree, or null if the entry has another format or belongs to
+	 *         another file or file content.
+	 * @throws IOException
+	 *             if the entry is damaged.
+	 */
+	static Leaf read(DataInputStream input, File svdFile, long size, long lastModified, long checksum)
+			throws IOException {
+
+		if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+			return null;
+		}
+		String entryPath = readString(input);
+		long entrySize = input.readLong();
+		long entryLastModified = input.readLong();
+		long entryChecksum = input.readLong();
+
+		if (!entryPath.equals(svdFile.getAbsolutePath()) || entrySize != size
+				|| entryLastModified != lastModified) {
+			return null;
+		}
+		// The time stamp may be preserved by copies, check the content.
+		if (checksum == NO_CHECKSUM) {
+			checksum = computeChecksum(svdFile);
+		}
+		if (entryChecksum != checksum) {
+			return null;
+		}
+
+		String[] strings = new String[readVarInt(input)];
+		for (int i = 0; i < strings.length; ++i) {
+			strings[i] = readString(input);
+		}
+
+		return readNode(input, strings);
+	}
+
+	/**
+	 * @return false if the tree has nodes of other classes than Leaf and Node,
+	 *         which cannot be restored.
+	 */
+	private static boolean collectStrings(Leaf node, Map<String, Integer> strings) {
+
+		if (node.getClass() != Leaf.class && node.getClass() != Node.class) {
+			return false;
+		}
+
+		addString(node.getType(), strings);
+		Map<String, String> properties = node.getProperties();
+		if (properties != null) {
+			for (Map.Entry<String, String> entry : properties.entrySet()) {
+				addString(entry.getKey(), strings);
+				addString(entry.getValue(), strings);
+			}
+		}
+		if (node instanceof Node && node.hasChildren()) {
+			for (Leaf child : ((Node) node).getChildren()) {
+				if (!collectStrings(child, strings)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static void addString(String str, Map<String, Integer> strings) {
+
+		if (!strings.containsKey(str)) {
+			strings.put(str, strings.size());
+		}
+	}
+
+	private static void writeNode(DataOutputStream output, Leaf node, Map<String, Integer> strings)
+			throws IOException {
+
+		boolean isNode = (node instanceof Node);
+		output.writeByte(isNode ? NODE_NODE : NODE_LEAF);
+		writeVarInt(output, strings.get(node.getType()));
+		writeVarInt(output, node.getPackType());
+
+		Map<String, String> properties = node.getProperties();
+		if (properties == null) {
+			writeVarInt(output, 0);
+		} else {
+			writeVarInt(output, properties.size());
+			for (Map.Entry<String, String> entry : properties.entrySet()) {
+				writeVarInt(output, strings.get(entry.getKey()));
+				writeVarInt(output, strings.get(entry.getValue()));
+			}
+		}
+
+		if (isNode) {
+			List<Leaf> children = node.hasChildren() ? ((Node) node).getChildren() : null;
+			if (children == null) {
+				writeVarInt(output, 0);
+			} else {
+				writeVarInt(output, children.size());
+				for (Leaf child : children) {
+					writeNode(output, child, strings);
+				}
+			}
+		}
+	}
+
+	private static Leaf readNode(DataInputStream input, String[] strings) throws IOException {
+
+		int kind = input.readByte();
+		String type = strings[readVarInt(input)];
+
+		Leaf node;
+		if (kind == NODE_NODE) {
+			node = new Node(type);
+		} else if (kind == NODE_LEAF) {
+			node = new Leaf(type);
+		} else {
+			throw new IOException("Unknown node kind " + kind);
+		}
+		node.setPackType(readVarInt(input));
+
+		int count = readVarInt(input);
+		for (int i = 0; i < count; ++i) {
+			String name = strings[readVarInt(input)];
+			node.putProperty(name, strings[readVarInt(input)]);
+		}
+
+		if (kind == NODE_NODE) {
+			count = readVarInt(input);
+			for (int i = 0; i < count; ++i) {
+				((Node) node).addChild(readNode(input, strings));
+			}
+		}
+		return node;
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+
+		while ((value & ~0x7F) != 0) {
+			output.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		output.writeByte(value);
+	}
+
+	private static int readVarInt(InputStream input) throws IOException {
+
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = input.read();
+			if (b < 0) {
+				throw new EOFException();
+			}
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed number");
+	}
+
+	// Unlike writeUTF(), not limited to 64 KB.
+	private static void writeString(DataOutputStream output, String str) throws IOException {
+
+		byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(output, bytes.length);
+		output.write(bytes);
+	}
+
+	private static String readString(DataInputStream input) throws IOException {
+
+		byte[] bytes = new byte[readVarInt(input)];
+		input.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	// ------------------------------------------------------------------------
+}
@@ -0,0 +1,303 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.debug.gdbjtag.core.datamodel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.embedcdt.internal.debug.gdbjtag.core.Activator;
+import org.eclipse.embedcdt.packs.core.tree.Leaf;
+import org.eclipse.embedcdt.packs.core.tree.Node;
+
+/**
+ * Name indexes of the peripherals, registers, fields and enumerations of a
+ * parsed SVD device, used to resolve the derivedFrom paths without searching
+ * the tree for each derived node.
+ * <p>
+ * The indexes are built on first use, with a single walk of the device tree,
+ * and are kept as long as the tree is referred, so all sessions using the same
+ * tree share them. To not keep the tree alive, the entries do not refer the
+ * nodes, but the sequence of children indices from the device node.
+ *
+ * @since 5.3
+ */
+public class SvdDerivedFromIndex {
+
+	// ------------------------------------------------------------------------
+
+	private static class Entry {
+
+		// The children indices, from the device node.
+		int[] fPath;
+		// The names of the parent nodes, if any.
+		String fPeripheralName;
+		String fRegisterName;
+		String fFieldName;
+	}
+
+	// ------------------------------------------------------------------------
+
+	// Weak keys, the device nodes; the tree is not mutated after parsing.
+	private static final Map<Leaf, SvdDerivedFromIndex> fgIndexes = new WeakHashMap<>();
+
+	// ------------------------------------------------------------------------
+
+	private final Map<String, List<Entry>> fPeripherals;
+	private final Map<String, List<Entry>> fRegisters;
+	private final Map<String, List<Entry>> fFields;
+	private final Map<String, List<Entry>> fEnumerations;
+
+	// ------------------------------------------------------------------------
+
+	private SvdDerivedFromIndex(Leaf device) {
+
+		fPeripherals = new HashMap<>();
+		fRegisters = new HashMap<>();
+		fFields = new HashMap<>();
+		fEnumerations = new HashMap<>();
+
+		walk(device, new int[16], 0, null, null, null);
+	}
+
+	// ------------------------------------------------------------------------
+
+	public static Leaf findPeripheral(Leaf node, SvdDerivedFromPath path) {
+		return find(node, path, "peripheral");
+	}
+
+	public static Leaf findRegister(Leaf node, SvdDerivedFromPath path) {
+		return find(node, path, "register");
+	}
+
+	public static Leaf findField(Leaf node, SvdDerivedFromPath path) {
+		return find(node, path, "field");
+	}
+
+	public static Leaf findEnumeration(Leaf node, SvdDerivedFromPath path) {
+		return find(node, path, "enumeratedValues");
+	}
+
+	/**
+	 * Get the index of the device a node belongs to, creating it if needed.
+	 *
+	 * @param device
+	 *            the device node.
+	 * @return the index.
+	 */
+	public static SvdDerivedFromIndex getIndex(Leaf device) {
+
+		synchronized (fgIndexes) {
+			SvdDerivedFromIndex index = fgIndexes.get(device);
+			if (index == null) {
+				long start = System.currentTimeMillis();
+				index = new SvdDerivedFromIndex(device);
+				fgIndexes.put(device, index);
+
+				if (Activator.getInstance().isDebugging()) {
+					System.out.println("SvdDerivedFromIndex " + index + " created in "
+							+ (System.currentTimeMillis() - start) + " ms");
+				}
+			}
+			return index;
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Find the node referred by a derivedFrom path, in the device of the
+	 * given node.
+	 *
+	 * @param node
+	 *            the derived node.
+	 * @param path
+	 *            the parsed derivedFrom path.
+	 * @param type
+	 *            the type of the node to find.
+	 * @return the node, or null if not found.
+	 */
+	private static Leaf find(Leaf node, SvdDerivedFromPath path, String type) {
+
+		if (path == null) {
+			return null;
+		}
+
+		Leaf device = node.getParent();
+		while (device != null && !device.isType("device")) {
+			device = device.getParent();
+		}
+		if (device == null) {
+			return null;
+		}
+
+		SvdDerivedFromIndex index = getIndex(device);
+
+		Map<String, List<Entry>> map;
+		String name;
+		if ("peripheral".equals(type)) {
+			map = index.fPeripherals;
+			name = path.peripheralName;
+		} else if ("register".equals(type)) {
+			map = index.fRegisters;
+			name = path.registerName;
+		} else if ("field".equals(type)) {
+			map = index.fFields;
+			name = path.fieldName;
+		} else {
+			map = index.fEnumerations;
+			name = path.enumerationName;
+		}
+
+		List<Entry> entries = map.get(name);
+		if (entries == null) {
+			return null;
+		}
+
+		Entry ret = null;
+		for (Entry entry : entries) {
+			if (!isMatching(entry, path, type)) {
+				continue;
+			}
+			// There should be only one.
+			if (ret == null) {
+				ret = entry;
+			} else {
+				Activator.log("Non unique SVD path " + path);
+				break;
+			}
+		}
+
+		if (ret == null) {
+			return null;
+		}
+		return getNode(device, ret.fPath);
+	}
+
+	/**
+	 * Check the names of the parents, if present in the path.
+	 */
+	private static boolean isMatching(Entry entry, SvdDerivedFromPath path, String type) {
+
+		if (!"peripheral".equals(type) && path.peripheralName != null
+				&& !path.peripheralName.equals(entry.fPeripheralName)) {
+			return false;
+		}
+		if (("field".equals(type) || "enumeratedValues".equals(type)) && path.registerName != null
+				&& !path.registerName.equals(entry.fRegisterName)) {
+			return false;
+		}
+		if ("enumeratedValues".equals(type) && path.fieldName != null
+				&& !path.fieldName.equals(entry.fFieldName)) {
+			return false;
+		}
+		return true;
+	}
+
+	private static Leaf getNode(Leaf device, int[] path) {
+
+		Leaf node = device;
+		for (int i = 0; i < path.length; ++i) {
+			node = ((Node) node).getChildren().get(path[i]);
+		}
+		return node;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Add the children of a node to the indexes, in document order, so the
+	 * first match is the same as with a pre-order search. Only the node types
+	 * searched by the derivedFrom lookup are entered.
+	 */
+	private void walk(Leaf parent, int[] stack, int depth, String peripheralName, String registerName,
+			String fieldName) {
+
+		if (!(parent instanceof Node) || !parent.hasChildren()) {
+			return;
+		}
+
+		if (depth == stack.length) {
+			stack = Arrays.copyOf(stack, 2 * depth);
+		}
+
+		List<Leaf> children = ((Node) parent).getChildren();
+		for (int i = 0; i < children.size(); ++i) {
+			Leaf child = children.get(i);
+			stack[depth] = i;
+
+			String type = child.getType();
+			if ("peripheral".equals(type)) {
+				add(fPeripherals, child, stack, depth, null, null, null);
+				walk(child, stack, depth + 1, child.getName(), null, null);
+			} else if ("register".equals(type)) {
+				add(fRegisters, child, stack, depth, peripheralName, null, null);
+				walk(child, stack, depth + 1, peripheralName, child.getName(), null);
+			} else if ("field".equals(type)) {
+				add(fFields, child, stack, depth, peripheralName, registerName, null);
+				walk(child, stack, depth + 1, peripheralName, registerName, child.getName());
+			} else if ("enumeratedValues".equals(type)) {
+				// Nothing of interest inside.
+				add(fEnumerations, child, stack, depth, peripheralName, registerName, fieldName);
+			} else if (isContainer(child)) {
+				walk(child, stack, depth + 1, peripheralName, registerName, fieldName);
+			}
+		}
+	}
+
+	/**
+	 * The intermediate nodes between the device and the enumerations.
+	 */
+	private static boolean isContainer(Leaf node) {
+
+		if (node.isType("peripherals") || node.isType("registers") || node.isType("fields")) {
+			return true;
+		}
+
+		String clustersElement = "";
+		if (node.getPackType() == Leaf.PACK_TYPE_CMSIS) {
+			clustersElement = "cluster";
+		} else if (node.getPackType() == Leaf.PACK_TYPE_XPACK) {
+			clustersElement = "clusters";
+		}
+		return node.isType(clustersElement);
+	}
+
+	private static void add(Map<String, List<Entry>> map, Leaf node, int[] stack, int depth, String peripheralName,
+			String registerName, String fieldName) {
+
+		Entry entry = new Entry();
+		entry.fPath = Arrays.copyOf(stack, depth + 1);
+		entry.fPeripheralName = peripheralName;
+		entry.fRegisterName = registerName;
+		entry.fFieldName = fieldName;
+
+		// Most names are unique.
+		map.computeIfAbsent(node.getName(), k -> new ArrayList<>(1)).add(entry);
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	public String toString() {
+		return String.format("[%d peripherals, %d registers, %d fields, %d enumerations names]", fPeripherals.size(),
+				fRegisters.size(), fFields.size(), fEnumerations.size());
+	}
+
+	// ------------------------------------------------------------------------
+}
@@ -18,8 +18,6 @@ import java.util.LinkedList;
 import java.util.List;
 
 import org.eclipse.embedcdt.internal.debug.gdbjtag.core.Activator;
-import org.eclipse.embedcdt.packs.core.tree.AbstractTreePreOrderIterator;
-import org.eclipse.embedcdt.packs.core.tree.ITreeIterator;
 import org.eclipse.embedcdt.packs.core.tree.Leaf;
 import org.eclipse.embedcdt.packs.core.tree.Node;
 
@@ -138,7 +136,7 @@ public class SvdEnumerationDMNode extends SvdObjectDMNode {
 	// ------------------------------------------------------------------------
 
 	/**
-	 * Enumerate all enumerations and find the derived from node. The name is taken
+	 * Find the derived from node among the device enumerations. The name is taken
 	 * from the derivedFrom attribute.
 	 *
 	 * @return a register node, or null if not found.
@@ -149,99 +147,8 @@ public class SvdEnumerationDMNode extends SvdObjectDMNode {
 		String derivedFromName = getNode().getPropertyOrNull("derivedFrom");
 		final SvdDerivedFromPath path = SvdDerivedFromPath.createEnumerationPath(derivedFromName);
 
-		if (path == null) {
-			return null;
-		}
-
-		Node root = getNode().getParent();
-		while (!root.isType("device")) {
-			root = root.getParent();
-		}
-
-		ITreeIterator peripheralNodes = new AbstractTreePreOrderIterator() {
-
-			@Override
-			public boolean isIterable(Leaf node) {
-
-				String clustersElement = "";
-				if (node.getPackType() == Node.PACK_TYPE_CMSIS) {
-					clustersElement = "cluster";
-				} else if (node.getPackType() == Node.PACK_TYPE_XPACK) {
-					clustersElement = "clusters";
-				}
-
-				if (node.isType("peripherals")) {
-					return true;
-				} else if (node.isType("peripheral")) {
-					if (path.peripheralName == null) {
-						return true;
-					}
-					if (path.peripheralName.equals(node.getName())) {
-						return true;
-					}
-					return false;
-				} else if (node.isType("registers")) {
-					return true;
-				} else if (node.isType(clustersElement)) {
-					return true;
-				} else if (node.isType("register")) {
-					if (path.registerName == null) {
-						return true;
-					}
-					if (path.registerName.equals(node.getName())) {
-						return true;
-					}
-					return false;
-				} else if (node.isType("fields")) {
-					return true;
-				} else if (node.isType("field")) {
-					if (path.fieldName == null) {
-						return true;
-					}
-					if (path.fieldName.equals(node.getName())) {
-						return true;
-					}
-					return false;
-				} else if (node.isType("enumeratedValues")) {
-					if (path.enumerationName == null) {
-						return true;
-					}
-					if (path.enumerationName.equals(node.getName())) {
-						return true;
-					}
-					return false;
-				}
-				return false;
-			}
-
-			@Override
-			public boolean isLeaf(Leaf node) {
-
-				if (node.isType("enumeratedValues")) {
-					return true;
-				}
-				return false;
-			}
-		};
-
-		// Iterate only the current device children nodes
-		peripheralNodes.setTreeNode(root);
-
-		Leaf ret = null;
-		for (Leaf node : peripheralNodes) {
-
-			// System.out.println(node);
-			if (node.isType("enumeratedValues")) {
-				// There should be only one, filtered by the iterator.
-				if (ret == null) {
-					ret = node;
-				} else {
-					Activator.log("Non unique SVD path " + path);
-				}
-			}
-		}
-
-		return ret;
+		// The device enumerations are indexed by name, once per tree.
+		return SvdDerivedFromIndex.findEnumeration(getNode(), path);
 	}
 
 	// ------------------------------------------------------------------------
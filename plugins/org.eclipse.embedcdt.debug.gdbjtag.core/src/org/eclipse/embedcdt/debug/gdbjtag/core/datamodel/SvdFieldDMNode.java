@@ -17,8 +17,6 @@ package org.eclipse.embedcdt.debug.gdbjtag.core.datamodel;
 import java.math.BigInteger;
 
 import org.eclipse.embedcdt.internal.debug.gdbjtag.core.Activator;
-import org.eclipse.embedcdt.packs.core.tree.AbstractTreePreOrderIterator;
-import org.eclipse.embedcdt.packs.core.tree.ITreeIterator;
 import org.eclipse.embedcdt.packs.core.tree.Leaf;
 import org.eclipse.embedcdt.packs.core.tree.Node;
 
@@ -167,7 +165,7 @@ public class SvdFieldDMNode extends SvdDMNode implements Comparable<SvdDMNode> {
 	// ------------------------------------------------------------------------
 
 	/**
-	 * Enumerate all fields and find the derived from node. The name is taken from
+	 * Find the derived from node among the device fields. The name is taken from
 	 * the derivedFrom attribute.
 	 *
 	 * @return a register node, or null if not found.
@@ -178,91 +176,8 @@ public class SvdFieldDMNode extends SvdDMNode implements Comparable<SvdDMNode> {
 		String derivedFromName = getNode().getPropertyOrNull("derivedFrom");
 		final SvdDerivedFromPath path = SvdDerivedFromPath.createFieldPath(derivedFromName);
 
-		if (path == null) {
-			return null;
-		}
-
-		Node root = getNode().getParent();
-		while (!root.isType("device")) {
-			root = root.getParent();
-		}
-
-		ITreeIterator peripheralNodes = new AbstractTreePreOrderIterator() {
-
-			@Override
-			public boolean isIterable(Leaf node) {
-
-				String clustersElement = "";
-				if (node.getPackType() == Node.PACK_TYPE_CMSIS) {
-					clustersElement = "cluster";
-				} else if (node.getPackType() == Node.PACK_TYPE_XPACK) {
-					clustersElement = "clusters";
-				}
-
-				if (node.isType("peripherals")) {
-					return true;
-				} else if (node.isType("peripheral")) {
-					if (path.peripheralName == null) {
-						return true;
-					}
-					if (path.peripheralName.equals(node.getName())) {
-						return true;
-					}
-					return false;
-				} else if (node.isType("registers")) {
-					return true;
-				} else if (node.isType(clustersElement)) {
-					return true;
-				} else if (node.isType("register")) {
-					if (path.registerName == null) {
-						return true;
-					}
-					if (path.registerName.equals(node.getName())) {
-						return true;
-					}
-					return false;
-				} else if (node.isType("fields")) {
-					return true;
-				} else if (node.isType("field")) {
-					if (path.fieldName == null) {
-						return true;
-					}
-					if (path.fieldName.equals(node.getName())) {
-						return true;
-					}
-					return false;
-				}
-				return false;
-			}
-
-			@Override
-			public boolean isLeaf(Leaf node) {
-
-				if (node.isType("field")) {
-					return true;
-				}
-				return false;
-			}
-		};
-
-		// Iterate only the current device children nodes
-		peripheralNodes.setTreeNode(root);
-
-		Leaf ret = null;
-		for (Leaf node : peripheralNodes) {
-
-			// System.out.println(node);
-			if (node.isType("field")) {
-				// There should be only one, filtered by the iterator.
-				if (ret == null) {
-					ret = node;
-				} else {
-					Activator.log("Non unique SVD path " + path);
-				}
-			}
-		}
-
-		return ret;
+		// The device fields are indexed by name, once per tree.
+		return SvdDerivedFromIndex.findField(getNode(), path);
 	}
 
 	// ------------------------------------------------------------------------
@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.debug.gdbjtag.core.datamodel;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.embedcdt.internal.debug.gdbjtag.core.Activator;
+import org.eclipse.embedcdt.packs.core.IConsoleStream;
+import org.eclipse.embedcdt.packs.core.tree.Leaf;
+
+/**
+ * Process wide registry of the parsed SVD trees, shared by all debug
+ * sessions using the same file, like the cores of a multi-core device, or
+ * several identical boards debugged at the same time.
+ * <p>
+ * The models are identified by the canonical path of the file and by the
+ * content checksum, so a file changed between sessions is parsed again.
+ * Each session acquires the model when it needs the peripherals and releases
+ * it when terminated; the model is removed when no longer used.
+ * <p>
+ * The trees are not mutated after parsing, so they can be shared; the
+ * sessions create their own data model nodes over the shared tree nodes, and
+ * keep the values and the memory blocks separately.
+ *
+ * @since 5.3
+ */
+public class SvdModelRegistry {
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * A parsed SVD file, shared by the sessions.
+	 */
+	public static class Model {
+
+		// Null if not shared.
+		private final String fKey;
+		// Computed once, also used to validate the cache.
+		private final long fChecksum;
+		private volatile Leaf fTree;
+		private volatile List<Leaf> fPeripherals;
+		// Protected by fgModels.
+		private int fReferences;
+
+		private Model(String key, long checksum) {
+
+			fKey = key;
+			fChecksum = checksum;
+			fTree = null;
+			fPeripherals = null;
+			fReferences = 0;
+		}
+
+		/**
+		 * Parse the file, only once; concurrent sessions wait for the first
+		 * one.
+		 */
+		private synchronized void load(IPath path) throws CoreException {
+
+			if (fTree != null) {
+				IConsoleStream out = Activator.getInstance().getConsoleOutput();
+				out.println("Using SVD file \"" + path.toOSString() + "\" already parsed by another session.");
+				return;
+			}
+
+			Leaf tree = SvdUtils.getTree(path, fChecksum);
+			fPeripherals = Collections.unmodifiableList(SvdUtils.getPeripherals(tree));
+			fTree = tree;
+		}
+
+		/**
+		 * @return the device tree; do not modify it.
+		 */
+		public Leaf getTree() {
+			return fTree;
+		}
+
+		/**
+		 * @return the peripherals tree nodes.
+		 */
+		public List<Leaf> getPeripherals() {
+			return fPeripherals;
+		}
+
+		@Override
+		public String toString() {
+			return "[Model " + fKey + "]";
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static final Map<String, Model> fgModels = new HashMap<>();
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Get the parsed model of an SVD file, parsing it only if not already
+	 * used by another session. Must be paired with release().
+	 *
+	 * @param path
+	 *            the SVD file path.
+	 * @return the model.
+	 * @throws CoreException
+	 *             if the file cannot be parsed.
+	 */
+	public static Model acquire(IPath path) throws CoreException {
+
+		long checksum = getChecksum(path);
+		String key = getKey(path, checksum);
+
+		Model model;
+		synchronized (fgModels) {
+			model = (key != null) ? fgModels.get(key) : null;
+			if (model == null) {
+				model = new Model(key, checksum);
+				if (key != null) {
+					fgModels.put(key, model);
+				}
+			}
+			model.fReferences++;
+		}
+
+		if (Activator.getInstance().isDebugging()) {
+			System.out.println("SvdModelRegistry.acquire() " + model + " " + model.fReferences);
+		}
+
+		try {
+			// Outside the registry lock, other files are parsed in parallel.
+			model.load(path);
+		} catch (CoreException e) {
+			release(model);
+			throw e;
+		}
+		return model;
+	}
+
+	/**
+	 * Release a model returned by acquire(); when no longer used by any
+	 * session, it is removed.
+	 *
+	 * @param model
+	 *            the model.
+	 */
+	public static void release(Model model) {
+
+		synchronized (fgModels) {
+			model.fReferences--;
+			if (model.fReferences == 0 && model.fKey != null) {
+				fgModels.remove(model.fKey);
+			}
+		}
+
+		if (Activator.getInstance().isDebugging()) {
+			System.out.println("SvdModelRegistry.release() " + model + " " + model.fReferences);
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * The content checksum is computed only once per acquire, and passed to
+	 * the cache, which would otherwise read the file again.
+	 *
+	 * @return the content checksum, or NO_CHECKSUM if the path is not a
+	 *         regular file or cannot be read.
+	 */
+	private static long getChecksum(IPath path) {
+
+		File file = path.toFile();
+		if (file == null || !file.isFile()) {
+			return SvdCache.NO_CHECKSUM;
+		}
+
+		try {
+			return SvdCache.computeChecksum(file);
+		} catch (IOException e) {
+			return SvdCache.NO_CHECKSUM;
+		}
+	}
+
+	/**
+	 * @return the canonical path and the content checksum, or null if the
+	 *         checksum is not known, and the model is not shared.
+	 */
+	private static String getKey(IPath path, long checksum) {
+
+		if (checksum == SvdCache.NO_CHECKSUM) {
+			return null;
+		}
+
+		try {
+			return path.toFile().getCanonicalPath() + "#" + Long.toHexString(checksum);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	// ------------------------------------------------------------------------
+}
@@ -18,9 +18,6 @@ import java.math.BigInteger;
 import java.util.LinkedList;
 import java.util.List;
 
-import org.eclipse.embedcdt.internal.debug.gdbjtag.core.Activator;
-import org.eclipse.embedcdt.packs.core.tree.AbstractTreePreOrderIterator;
-import org.eclipse.embedcdt.packs.core.tree.ITreeIterator;
 import org.eclipse.embedcdt.packs.core.tree.Leaf;
 import org.eclipse.embedcdt.packs.core.tree.Node;
 
@@ -128,7 +125,7 @@ public class SvdPeripheralDMNode extends SvdDMNode {
 	// ------------------------------------------------------------------------
 
 	/**
-	 * Enumerate all peripherals of the same device and find the derived from node.
+	 * Find the derived from node among the peripherals of the same device.
 	 * The name is taken from the derivedFrom attribute.
 	 *
 	 * @return a peripheral node, or null if not found.
@@ -139,59 +136,8 @@ public class SvdPeripheralDMNode extends SvdDMNode {
 		String derivedFromName = getNode().getPropertyOrNull("derivedFrom");
 		final SvdDerivedFromPath path = SvdDerivedFromPath.createPeripheralPath(derivedFromName);
 
-		if (path == null) {
-			return null;
-		}
-
-		Node root = getNode().getParent();
-		while (!root.isType("device")) {
-			root = root.getParent();
-		}
-
-		ITreeIterator peripheralNodes = new AbstractTreePreOrderIterator() {
-
-			@Override
-			public boolean isIterable(Leaf node) {
-
-				if (node.isType("peripherals")) {
-					return true;
-				} else if (node.isType("peripheral")) {
-					if (path.peripheralName.equals(node.getName())) {
-						return true;
-					}
-					return false;
-				}
-				return false;
-			}
-
-			@Override
-			public boolean isLeaf(Leaf node) {
-
-				if (node.isType("peripheral")) {
-					return true;
-				}
-				return false;
-			}
-		};
-
-		// Iterate only the current device children nodes
-		peripheralNodes.setTreeNode(root);
-
-		Leaf ret = null;
-		for (Leaf node : peripheralNodes) {
-
-			// System.out.println(node);
-			if (node.isType("peripheral")) {
-				// There should be only one, filtered by the iterator.
-				if (ret == null) {
-					ret = node;
-				} else {
-					Activator.log("Non unique SVD path " + path);
-				}
-			}
-		}
-
-		return ret;
+		// The device peripherals are indexed by name, once per tree.
+		return SvdDerivedFromIndex.findPeripheral(getNode(), path);
 	}
 
 	// ------------------------------------------------------------------------
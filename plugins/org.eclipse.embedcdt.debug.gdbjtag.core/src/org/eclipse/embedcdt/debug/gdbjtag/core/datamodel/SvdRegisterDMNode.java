@@ -19,8 +19,6 @@ import java.util.LinkedList;
 import java.util.List;
 
 import org.eclipse.embedcdt.internal.debug.gdbjtag.core.Activator;
-import org.eclipse.embedcdt.packs.core.tree.AbstractTreePreOrderIterator;
-import org.eclipse.embedcdt.packs.core.tree.ITreeIterator;
 import org.eclipse.embedcdt.packs.core.tree.Leaf;
 import org.eclipse.embedcdt.packs.core.tree.Node;
 
@@ -119,7 +117,7 @@ public class SvdRegisterDMNode extends SvdDMNode {
 	// ------------------------------------------------------------------------
 
 	/**
-	 * Enumerate all registers and find the derived from node. The name is taken
+	 * Find the derived from node among the device registers. The name is taken
 	 * from the derivedFrom attribute.
 	 *
 	 * @return a register node, or null if not found.
@@ -130,81 +128,8 @@ public class SvdRegisterDMNode extends SvdDMNode {
 		String derivedFromName = getNode().getPropertyOrNull("derivedFrom");
 		final SvdDerivedFromPath path = SvdDerivedFromPath.createRegisterPath(derivedFromName);
 
-		if (path == null) {
-			return null;
-		}
-
-		Node root = getNode().getParent();
-		while (!root.isType("device")) {
-			root = root.getParent();
-		}
-
-		ITreeIterator peripheralNodes = new AbstractTreePreOrderIterator() {
-
-			@Override
-			public boolean isIterable(Leaf node) {
-
-				String clustersElement = "";
-				if (node.getPackType() == Node.PACK_TYPE_CMSIS) {
-					clustersElement = "cluster";
-				} else if (node.getPackType() == Node.PACK_TYPE_XPACK) {
-					clustersElement = "clusters";
-				}
-
-				if (node.isType("peripherals")) {
-					return true;
-				} else if (node.isType("peripheral")) {
-					if (path.peripheralName == null) {
-						return true;
-					}
-					if (path.peripheralName.equals(node.getName())) {
-						return true;
-					}
-					return false;
-				} else if (node.isType("registers")) {
-					return true;
-				} else if (node.isType(clustersElement)) {
-					return true;
-				} else if (node.isType("register")) {
-					if (path.registerName == null) {
-						return true;
-					}
-					if (path.registerName.equals(node.getName())) {
-						return true;
-					}
-					return false;
-				}
-				return false;
-			}
-
-			@Override
-			public boolean isLeaf(Leaf node) {
-
-				if (node.isType("register")) {
-					return true;
-				}
-				return false;
-			}
-		};
-
-		// Iterate only the current device children nodes
-		peripheralNodes.setTreeNode(root);
-
-		Leaf ret = null;
-		for (Leaf node : peripheralNodes) {
-
-			// System.out.println(node);
-			if (node.isType("register")) {
-				// There should be only one, filtered by the iterator.
-				if (ret == null) {
-					ret = node;
-				} else {
-					Activator.log("Non unique SVD path " + path);
-				}
-			}
-		}
-
-		return ret;
+		// The device registers are indexed by name, once per tree.
+		return SvdDerivedFromIndex.findRegister(getNode(), path);
 	}
 
 	// ------------------------------------------------------------------------
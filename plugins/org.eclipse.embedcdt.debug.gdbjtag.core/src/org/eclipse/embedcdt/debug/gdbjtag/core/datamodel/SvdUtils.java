@@ -16,23 +16,23 @@
 
 package org.eclipse.embedcdt.debug.gdbjtag.core.datamodel;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FilenameFilter;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.math.BigInteger;
-import java.util.Arrays;
-import java.util.LinkedList;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 
 import org.eclipse.cdt.core.settings.model.ICConfigurationDescription;
 import org.eclipse.cdt.managedbuilder.core.IConfiguration;
@@ -45,33 +45,28 @@ import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.embedcdt.core.CProjectPacksStorage;
 import org.eclipse.embedcdt.core.EclipseUtils;
 import org.eclipse.embedcdt.core.JsonUtils;
-import org.eclipse.embedcdt.core.Xml;
 import org.eclipse.embedcdt.debug.gdbjtag.core.ConfigurationAttributes;
 import org.eclipse.embedcdt.debug.gdbjtag.core.DebugUtils;
 import org.eclipse.embedcdt.debug.gdbjtag.core.data.CProjectExtraDataManagerProxy;
 import org.eclipse.embedcdt.debug.gdbjtag.core.data.SVDPathManagerProxy;
+import org.eclipse.embedcdt.debug.gdbjtag.core.preferences.PersistentPreferences;
 import org.eclipse.embedcdt.internal.debug.gdbjtag.core.Activator;
 import org.eclipse.embedcdt.packs.core.IConsoleStream;
 import org.eclipse.embedcdt.packs.core.PackType;
 import org.eclipse.embedcdt.packs.core.data.IPacksDataManager;
 import org.eclipse.embedcdt.packs.core.data.JsonGenericParser;
 import org.eclipse.embedcdt.packs.core.data.PacksDataManagerFactoryProxy;
-import org.eclipse.embedcdt.packs.core.data.PacksStorage;
-import org.eclipse.embedcdt.packs.core.data.SvdGenericParser;
-import org.eclipse.embedcdt.packs.core.data.SvdJsGenericParser;
-import org.eclipse.embedcdt.packs.core.data.XmlJsGenericParser;
+import org.eclipse.embedcdt.packs.core.data.SvdStreamParser;
 import org.eclipse.embedcdt.packs.core.data.XsvdGenericParser;
 import org.eclipse.embedcdt.packs.core.data.xcdl.XcdlUtils;
 import org.eclipse.embedcdt.packs.core.jstree.JsObject;
-import org.eclipse.embedcdt.packs.core.tree.AbstractTreePreOrderIterator;
-import org.eclipse.embedcdt.packs.core.tree.ITreeIterator;
+import org.eclipse.embedcdt.packs.core.jstree.JsParseException;
+import org.eclipse.embedcdt.packs.core.jstree.JsReader;
 import org.eclipse.embedcdt.packs.core.tree.Leaf;
+import org.eclipse.embedcdt.packs.core.tree.TreeQuery;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
-import org.w3c.dom.Document;
-import org.xml.sax.SAXException;
-import org.xml.sax.SAXParseException;
 
 /**
  * Utilities for processing CMSIS SVD files.
@@ -396,7 +391,8 @@ public class SvdUtils {
 	}
 
 	/**
-	 * Parse the SVD file with the generic parser.
+	 * Parse the SVD file with the generic parser, or get the tree from the
+	 * parsed SVD cache, if enabled and the file did not change.
 	 *
 	 * @param path
 	 *            an absolute path to the SVD file.
@@ -406,99 +402,114 @@ public class SvdUtils {
 	 *             device is not found in the installed packages.
 	 */
 	public static Leaf getTree(IPath path) throws CoreException {
+		return getTree(path, SvdCache.NO_CHECKSUM);
+	}
+
+	/**
+	 * Get the parsed SVD tree, with the file checksum already computed by the
+	 * caller, to not read the file again for the cache validation.
+	 *
+	 * @param checksum
+	 *            the checksum of the file, or SvdCache.NO_CHECKSUM.
+	 */
+	static Leaf getTree(IPath path, long checksum) throws CoreException {
 
 		assert path != null;
 
-		IConsoleStream out = Activator.getInstance().getConsoleOutput();
-		try {
+		PersistentPreferences persistentPreferences = Activator.getInstance().getPersistentPreferences();
+		boolean useCache = persistentPreferences.getPeripheralsSvdCacheEnabled();
 
-			File file = path.toFile();
-			if (file == null) {
-				out.println("Parsing SVD file \"" + path.toOSString() + "\"...");
-				throw new IOException(path + " File object null.");
-			}
+		File file = path.toFile();
+		if (file == null || !file.isFile()) {
+			useCache = false;
+		}
 
-			FileReader reader = null;
-			reader = new FileReader(file);
-			char[] chars = new char[10];
-			reader.read(chars);
-			reader.close();
-			String str = "";
-			if (chars[0] == '\ufeff') {
-				str = (new String(Arrays.copyOfRange(chars, 1, chars.length - 1))).trim();
-			} else {
-				str = (new String(chars)).trim();
+		if (useCache) {
+			Leaf tree = SvdCache.load(file, checksum);
+			if (tree != null) {
+				IConsoleStream out = Activator.getInstance().getConsoleOutput();
+				out.println("Using cached SVD file \"" + path.toOSString() + "\".");
+				return tree;
 			}
+		}
 
-			IPath actualPath = path;
-			if (str.startsWith("PK")) {
-				out.println("Decompressing zipped SVD file \"" + path.toOSString() + "\"...");
-
-				// This is the signature of ZIP files.
-				ZipInputStream zipInput;
-				zipInput = new ZipInputStream(new FileInputStream(file));
-				// Get the zipped file list entry
-				ZipEntry zipEntry = zipInput.getNextEntry();
-				while (zipEntry != null) {
-					if (!zipEntry.isDirectory()) {
-						String fileName = zipEntry.getName();
-
-						File outFile = PacksStorage.getCachedFileObject(fileName);
-						if (!outFile.getParentFile().exists()) {
-							outFile.getParentFile().mkdirs();
-						}
-						out.println("Writing \"" + outFile + "\"...");
+		Leaf tree = parseTree(path);
 
-						OutputStream output = new FileOutputStream(outFile);
+		if (useCache) {
+			// The next sessions will load it from the cache.
+			SvdCache.store(file, tree, persistentPreferences.getPeripheralsSvdCacheMaxSize() * 1024L * 1024L,
+					checksum);
+		}
+		return tree;
+	}
 
-						byte[] buf = new byte[1024];
-						int bytesRead;
-						while ((bytesRead = zipInput.read(buf)) > 0) {
-							output.write(buf, 0, bytesRead);
-						}
-						output.close();
-						actualPath = new Path(outFile.getAbsolutePath());
-						break;
-					}
-					zipEntry = zipInput.getNextEntry();
+	private static Leaf parseTree(IPath path) throws CoreException {
+
+		IConsoleStream out = Activator.getInstance().getConsoleOutput();
+
+		File file = path.toFile();
+		if (file == null) {
+			String msg = "Failed to get the peripherals descriptions, " + path + " File object null.";
+			Activator.log(msg);
+			throw new CoreException(new Status(Status.ERROR, Activator.PLUGIN_ID, msg));
+		}
+
+		out.println("Parsing SVD file \"" + path.toOSString() + "\"...");
+		try (InputStream input = new FileInputStream(file)) {
+			return parseTree(input, path.lastSegment());
+		} catch (IOException e) {
+			Activator.log(e);
+			throw new CoreException(
+					new Status(Status.ERROR, Activator.PLUGIN_ID, "Failed to get the peripherals descriptions.", e));
+		}
+	}
+
+	/**
+	 * Parse a SVD (XML), XSVD (JSON) or zipped SVD/XSVD stream into a generic
+	 * tree, in a single pass. The format is identified by the first bytes;
+	 * zipped content is parsed directly from the archive, without extracting
+	 * it.
+	 *
+	 * @param input
+	 *            the stream; it is not closed.
+	 * @param name
+	 *            a name used in messages.
+	 * @return the tree.
+	 * @throws CoreException
+	 * @since 5.3
+	 */
+	public static Leaf parseTree(InputStream input, String name) throws CoreException {
+
+		IConsoleStream out = Activator.getInstance().getConsoleOutput();
+		try {
+
+			BufferedInputStream bufferedInput = new BufferedInputStream(input, 64 * 1024);
+			int first = peekFormat(bufferedInput);
+
+			if (first == 'P') {
+				// This is the signature of ZIP files ("PK").
+				// The entry is inflated directly into the parser, nothing is
+				// extracted to disk.
+				ZipInputStream zipInput = new ZipInputStream(bufferedInput);
+				ZipEntry zipEntry = getNextDescriptionEntry(zipInput);
+				if (zipEntry == null) {
+					String msg = "Empty zipped SVD file \"" + name + "\".";
+					Activator.log(msg);
+					throw new CoreException(new Status(Status.ERROR, Activator.PLUGIN_ID, msg));
 				}
-				zipInput.closeEntry();
-				zipInput.close();
-
-				file = actualPath.toFile();
-				reader = new FileReader(file);
-				chars = new char[10];
-				reader.read(chars);
-				reader.close();
-
-				str = " ";
-				if (chars[0] == '\ufeff') {
-					str = (new String(Arrays.copyOfRange(chars, 1, chars.length - 1))).trim();
-				} else {
-					str = (new String(chars)).trim();
+				out.println("Parsing zipped \"" + zipEntry.getName() + "\"...");
+				// Nested archives are not expected, but harmless.
+				return parseTree(zipInput, zipEntry.getName());
+			} else if (first == '<') {
+				SvdStreamParser parser = new SvdStreamParser();
+				Leaf tree = parser.parse(bufferedInput);
+				for (String unresolved : parser.getUnresolvedDerivedFrom()) {
+					out.println("Warning: peripheral derivedFrom not found, " + unresolved + ".");
 				}
-			}
-
-			out.println("Parsing SVD file \"" + actualPath.toOSString() + "\"...");
-			// If the file starts with the Unicode BOM (0xEF,0xBB,0xBF),
-			// the first char must be skipped.
-
-			if (str.startsWith("<?xml ")) {
-				Document document = Xml.parseFile(file);
-
-				XmlJsGenericParser jsParser = new SvdJsGenericParser();
-				JsObject jsObject = jsParser.parse(document);
-				System.out.println(jsObject);
-				// FileOutputStream fo = new FileOutputStream(new File("/tmp/svd.json"));
-				// jsObject.serialize(fo);
-				// fo.close();
-
-				SvdGenericParser parser = new SvdGenericParser();
-				return parser.parse(document);
-			} else if (str.startsWith("{")) {
-				JSONParser parser = new JSONParser();
-				reader = new FileReader(file);
-				JSONObject json = (JSONObject) parser.parse(reader);
+				return tree;
+			} else if (first == '{') {
+				JsObject json = new JsReader()
+						.parseObject(new InputStreamReader(bufferedInput, StandardCharsets.UTF_8));
 				JsonGenericParser jsonParser = new XsvdGenericParser();
 				return jsonParser.parse(json);
 			} else {
@@ -507,67 +518,85 @@ public class SvdUtils {
 				throw new CoreException(new Status(Status.ERROR, Activator.PLUGIN_ID, serr));
 			}
 
-		} catch (ParserConfigurationException e) {
+		} catch (XMLStreamException e) {
 			Activator.log(e);
-			throw new CoreException(
-					new Status(Status.ERROR, Activator.PLUGIN_ID, "Failed to get the peripherals descriptions.", e));
-		} catch (SAXParseException e) {
-			Activator.log(e);
-			String msg = "Failed to parse the peripherals descriptions, line: " + e.getLineNumber() + ", column: "
-					+ e.getColumnNumber() + ".";
+			String msg = "Failed to parse the peripherals descriptions";
+			if (e.getLocation() != null) {
+				msg += ", line: " + e.getLocation().getLineNumber() + ", column: "
+						+ e.getLocation().getColumnNumber();
+			}
+			msg += ".";
 			throw new CoreException(new Status(Status.ERROR, Activator.PLUGIN_ID, msg, e));
-		} catch (SAXException e) {
+		} catch (JsParseException e) {
 			Activator.log(e);
-			throw new CoreException(
-					new Status(Status.ERROR, Activator.PLUGIN_ID, "Failed to parse the peripherals descriptions.", e));
+			throw new CoreException(new Status(Status.ERROR, Activator.PLUGIN_ID, "Failed to parse the JSON.", e));
 		} catch (IOException e) {
 			Activator.log(e);
 			throw new CoreException(
 					new Status(Status.ERROR, Activator.PLUGIN_ID, "Failed to get the peripherals descriptions.", e));
-		} catch (ParseException e) {
-			Activator.log(e);
-			throw new CoreException(new Status(Status.ERROR, Activator.PLUGIN_ID, "Failed to parse the JSON.", e));
 		}
 	}
 
-	public static List<Leaf> getPeripherals(Leaf tree) {
-
-		class SvdPeriphIterator extends AbstractTreePreOrderIterator {
-
-			@Override
-			public boolean isIterable(Leaf node) {
-				if (node.isType("peripheral")) {
-					return true;
-				}
-				return false;
-			}
-
-			@Override
-			public boolean isLeaf(Leaf node) {
-				if (node.isType("peripheral")) {
-					return true;
+	/**
+	 * Advance the archive to the first entry that may be a peripherals
+	 * description, skipping folders and the metadata files added by some
+	 * archivers (like __MACOSX/ or ._ files).
+	 *
+	 * @return the entry, or null if none.
+	 */
+	private static ZipEntry getNextDescriptionEntry(ZipInputStream zipInput) throws IOException {
+
+		ZipEntry zipEntry = zipInput.getNextEntry();
+		while (zipEntry != null) {
+			if (!zipEntry.isDirectory()) {
+				String entryName = zipEntry.getName();
+				String fileName = entryName.substring(entryName.lastIndexOf('/') + 1);
+				if (!entryName.startsWith("__MACOSX/") && !fileName.startsWith(".")) {
+					return zipEntry;
 				}
-				return false;
 			}
+			zipEntry = zipInput.getNextEntry();
 		}
+		return null;
+	}
 
-		List<Leaf> list = new LinkedList<>();
-		if (tree != null) {
-
-			ITreeIterator peripheralNodes = new SvdPeriphIterator();
+	/**
+	 * Look at the beginning of the stream, skipping the UTF-8 BOM and white
+	 * spaces, without consuming anything.
+	 *
+	 * @return the first significant byte, or -1.
+	 */
+	private static int peekFormat(BufferedInputStream input) throws IOException {
 
-			peripheralNodes.setTreeNode(tree);
-			for (Leaf peripheral : peripheralNodes) {
-				list.add(peripheral);
+		final int limit = 1024;
+		input.mark(limit);
+		try {
+			int ch = input.read();
+			if (ch == 0xEF) {
+				// Unicode BOM (0xEF,0xBB,0xBF).
+				input.read();
+				input.read();
+				ch = input.read();
 			}
-
-			if (!list.isEmpty()) {
-				return list;
+			for (int i = 0; i < limit - 4 && ch != -1 && Character.isWhitespace(ch); ++i) {
+				ch = input.read();
 			}
-
+			if (ch == 'P' && input.read() != 'K') {
+				// Not the "PK" signature of ZIP files.
+				ch = -1;
+			}
+			return ch;
+		} finally {
+			input.reset();
 		}
+	}
+
+	// All peripherals, without entering them.
+	private static final TreeQuery fgPeripherals = TreeQuery.compile("//peripheral", "peripheral");
+
+	public static List<Leaf> getPeripherals(Leaf tree) {
 
-		return list;
+		return fgPeripherals.findAll(tree);
 	}
 
 	public static String resolveAll(String str, ILaunchConfiguration configuration) throws CoreException {
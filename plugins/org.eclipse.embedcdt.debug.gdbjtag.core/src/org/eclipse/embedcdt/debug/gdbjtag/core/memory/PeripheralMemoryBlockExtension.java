@@ -16,25 +16,23 @@
 package org.eclipse.embedcdt.debug.gdbjtag.core.memory;
 
 import java.math.BigInteger;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.RejectedExecutionException;
 
 import org.eclipse.cdt.core.IAddress;
 import org.eclipse.cdt.core.IAddressFactory;
-import org.eclipse.cdt.dsf.concurrent.CountingRequestMonitor;
 import org.eclipse.cdt.dsf.concurrent.DataRequestMonitor;
-import org.eclipse.cdt.dsf.concurrent.DsfExecutor;
 import org.eclipse.cdt.dsf.concurrent.Query;
 import org.eclipse.cdt.dsf.concurrent.RequestMonitor;
 import org.eclipse.cdt.dsf.debug.internal.provisional.model.IMemoryBlockUpdatePolicyProvider;
 import org.eclipse.cdt.dsf.debug.model.DsfMemoryBlockRetrieval;
 import org.eclipse.cdt.dsf.debug.service.IMemory;
 import org.eclipse.cdt.dsf.debug.service.IMemory.IMemoryDMContext;
-import org.eclipse.cdt.dsf.debug.service.IRunControl;
 import org.eclipse.cdt.dsf.debug.service.command.ICommandControl;
 import org.eclipse.cdt.dsf.mi.service.IMICommandControl;
 import org.eclipse.cdt.dsf.mi.service.command.CommandFactory;
@@ -42,8 +40,6 @@ import org.eclipse.cdt.dsf.service.DsfServiceEventHandler;
 import org.eclipse.cdt.dsf.service.DsfServicesTracker;
 import org.eclipse.cdt.utils.Addr32Factory;
 import org.eclipse.cdt.utils.Addr64Factory;
-import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.PlatformObject;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.debug.core.DebugEvent;
@@ -55,11 +51,12 @@ import org.eclipse.debug.core.model.IDebugTarget;
 import org.eclipse.debug.core.model.IMemoryBlockExtension;
 import org.eclipse.debug.core.model.IMemoryBlockRetrieval;
 import org.eclipse.debug.core.model.MemoryByte;
-import org.eclipse.embedcdt.core.SystemJob;
 import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.PeripheralDMContext;
 import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.PeripheralDMNode;
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.PeripheralValue;
 import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdPeripheralDMNode;
 import org.eclipse.embedcdt.debug.gdbjtag.core.dsf.GnuMcuCommandFactory;
+import org.eclipse.embedcdt.debug.gdbjtag.core.preferences.PersistentPreferences;
 import org.eclipse.embedcdt.debug.gdbjtag.core.services.IPeripheralMemoryService;
 import org.eclipse.embedcdt.debug.gdbjtag.core.viewmodel.peripheral.PeripheralGroupVMNode;
 import org.eclipse.embedcdt.debug.gdbjtag.core.viewmodel.peripheral.PeripheralRegisterFieldVMNode;
@@ -86,7 +83,6 @@ public class PeripheralMemoryBlockExtension extends PlatformObject
 	private String fModelId;
 	private PeripheralTopVMNode fPeripheralTop;
 	private ArrayList<Object> fConnections;
-	private SystemJob fUpdatePeripheralRenderingJob;
 	private PeripheralDMContext fPeripheralDMContext;
 	private IPeripheralMemoryService fMemoryService;
 	private boolean fIsBigEndian;
@@ -94,8 +90,17 @@ public class PeripheralMemoryBlockExtension extends PlatformObject
 	private int fAddressSize = 4;
 	private IAddressFactory fAddressFactory;
 
+	private PeripheralRegisterTable fRegisterTable;
 	private List<PeripheralMemoryRegion> fReadableMemoryRegions;
 
+	// Reported by the rendering; hidden blocks are not read.
+	private volatile boolean fIsVisible;
+	// The regions with registers visible in the rendering, or null for all.
+	private volatile List<PeripheralMemoryRegion> fVisibleMemoryRegions;
+
+	// The recent values of the registers, or null if not enabled.
+	private volatile PeripheralRegisterHistory fHistory;
+
 	// ------------------------------------------------------------------------
 
 	public PeripheralMemoryBlockExtension(DsfMemoryBlockRetrieval memoryBlockRetrieval,
@@ -105,44 +110,12 @@ public class PeripheralMemoryBlockExtension extends PlatformObject
 			System.out.println("PeripheralMemoryBlockExtension()");
 		}
 
-		// Used in scheduleUpdatePeripheralRendering()
-		fUpdatePeripheralRenderingJob = new SystemJob("Update peripheral rendering") {
-
-			@Override
-			protected IStatus run(IProgressMonitor pm) {
-				if (fPeripheralTop == null)
-					return Status.OK_STATUS;
-
-				if (fReadableMemoryRegions == null) {
-					return Status.OK_STATUS;
-				}
-
-				try {
-					// Read all register values from the device and update
-					// rendering
-					updatePeripheralRenderingValues();
-
-					// Notify world that this block possibly changed
-					if (Activator.getInstance().isDebugging()) {
-						System.out.println(
-								"PeripheralMemoryBlockExtension " + fBlockDisplayName + " fireDebugEventSet(changed)");
-					}
-					DebugPlugin.getDefault()
-							.fireDebugEventSet(new DebugEvent[] { new DebugEvent(PeripheralMemoryBlockExtension.this,
-									DebugEvent.CHANGE, DebugEvent.CONTENT) });
-				} catch (NullPointerException e) {
-					// Added because of an error report, but obvious no cause
-					// was identified yet.
-					Activator.log(e);
-					return new Status(Status.ERROR, Activator.PLUGIN_ID, "Update peripheral rendering failed", e);
-				}
-				return Status.OK_STATUS;
-			}
-		};
-
 		fPeripheralDMContext = peripheralDMContext;
 		fConnections = new ArrayList<>();
 
+		fIsVisible = true;
+		fVisibleMemoryRegions = null;
+
 		fRetrieval = memoryBlockRetrieval;
 		fMemoryDMContext = memoryDMContext;
 
@@ -212,8 +185,17 @@ public class PeripheralMemoryBlockExtension extends PlatformObject
 		// Parse all registers and create a map of readable registers.
 		fReadableMemoryRegions = createRegionsList();
 
+		PersistentPreferences persistentPreferences = Activator.getInstance().getPersistentPreferences();
+		if (persistentPreferences.getPeripheralsHistoryEnabled()) {
+			fHistory = new PeripheralRegisterHistory(fRegisterTable, fReadableMemoryRegions,
+					persistentPreferences.getPeripheralsHistoryDepth());
+		}
+
 		scheduleUpdatePeripheralRendering();
 
+		// Further updates are done together with the other blocks.
+		getReadPlanner().addBlock(this);
+
 		addDebugEventListeners();
 		tracker.dispose();
 	}
@@ -226,6 +208,7 @@ public class PeripheralMemoryBlockExtension extends PlatformObject
 		}
 
 		removeDebugEventListeners();
+		getReadPlanner().removeBlock(this);
 		fCommandControl = null;
 		fCommandFactory = null;
 		fMemoryDMContext = null;
@@ -240,6 +223,9 @@ public class PeripheralMemoryBlockExtension extends PlatformObject
 
 		fPeripheralDMContext.getPeripheralInstance().setMemoryBlock(null);
 		fReadableMemoryRegions = null;
+		fVisibleMemoryRegions = null;
+		fHistory = null;
+		fRegisterTable = null;
 		fAddressFactory = null;
 	}
 
@@ -302,36 +288,145 @@ public class PeripheralMemoryBlockExtension extends PlatformObject
 		}
 	}
 
-	@DsfServiceEventHandler
-	public void eventDispatched(IRunControl.ISuspendedDMEvent event) {
+	public void handleMemoryChange(BigInteger bigInteger) {
 
 		if (Activator.getInstance().isDebugging()) {
-			System.out.println("PeripheralMemoryBlockExtension.eventDispatched(ISuspendedDMEvent) " + fBlockDisplayName
-					+ " " + event);
+			System.out.println(
+					"PeripheralMemoryBlockExtension.handleMemoryChange() 0x" + bigInteger.toString(16) + " not used");
 		}
 
-		// Each time execution is suspended, the peripheral monitors are
-		// updated.
-		scheduleUpdatePeripheralRendering();
+		// updatePeripheralRegisters();
+	}
+
+	/**
+	 * Called by the rendering when it becomes visible or hidden. Hidden blocks
+	 * are not read when the target is suspended; when visible again, the
+	 * regions changed meanwhile are read.
+	 *
+	 * @param isVisible
+	 *            true if the rendering is visible.
+	 * @since 5.3
+	 */
+	public void setVisible(boolean isVisible) {
+
+		if (Activator.getInstance().isDebugging()) {
+			System.out.println("PeripheralMemoryBlockExtension.setVisible(" + isVisible + ") " + fBlockDisplayName);
+		}
 
-		// handleMemoryChange(BigInteger.ZERO);
+		fIsVisible = isVisible;
+		if (isVisible) {
+			scheduleReadStaleRegions();
+		}
 	}
 
-	public void handleMemoryChange(BigInteger bigInteger) {
+	/**
+	 * Called by the rendering when the set of visible registers changes, for
+	 * example when a cluster or an array is expanded or collapsed. Only the
+	 * regions with visible registers are read when the target is suspended.
+	 *
+	 * @param registers
+	 *            the register nodes visible in the rendering tree.
+	 * @since 5.3
+	 */
+	public void setVisibleRegisters(List<PeripheralRegisterVMNode> registers) {
+
+		List<PeripheralMemoryRegion> regions = fReadableMemoryRegions;
+		if (regions == null) {
+			return;
+		}
+
+		boolean[] isVisible = new boolean[regions.size()];
+		for (PeripheralRegisterVMNode register : registers) {
+			if (register.isField() || !register.isReadAllowed()) {
+				continue;
+			}
+			int index = findRegionIndex(regions, register.getPeripheralBigAddressOffset().longValue(),
+					register.getWidthBytes());
+			if (index >= 0) {
+				isVisible[index] = true;
+			}
+		}
+
+		List<PeripheralMemoryRegion> visibleRegions = new ArrayList<>();
+		for (int i = 0; i < isVisible.length; ++i) {
+			if (isVisible[i]) {
+				visibleRegions.add(regions.get(i));
+			}
+		}
 
 		if (Activator.getInstance().isDebugging()) {
-			System.out.println(
-					"PeripheralMemoryBlockExtension.handleMemoryChange() 0x" + bigInteger.toString(16) + " not used");
+			System.out.println("PeripheralMemoryBlockExtension.setVisibleRegisters() " + fBlockDisplayName + " "
+					+ registers.size() + " registers, " + visibleRegions.size() + "/" + regions.size() + " regions");
 		}
 
-		// updatePeripheralRegisters();
+		fVisibleMemoryRegions = visibleRegions;
+		scheduleReadStaleRegions();
+	}
+
+	/**
+	 * Read the regions that were not read since the target last ran, if any,
+	 * like those deferred while hidden or not visible.
+	 */
+	private void scheduleReadStaleRegions() {
+
+		List<PeripheralMemoryRegion> regions = getRegionsToRead();
+		if (regions == null) {
+			return;
+		}
+		for (PeripheralMemoryRegion region : regions) {
+			if (region.isStale()) {
+				scheduleUpdatePeripheralRendering();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Read the peripheral registers and update the renderings, waiting for
+	 * the read to complete. Must not be called on the executor thread.
+	 *
+	 * @deprecated The blocks are refreshed by the read planner when the target
+	 *             is suspended, or when they become visible.
+	 */
+	@Deprecated
+	public void updatePeripheralRenderingValues() {
+
+		if (fPeripheralTop == null || fReadableMemoryRegions == null) {
+			return;
+		}
+
+		@SuppressWarnings("rawtypes")
+		Query query = new Query() {
+
+			@Override
+			protected void execute(DataRequestMonitor rm) {
+				getReadPlanner().readBlocks(Collections.singletonList(PeripheralMemoryBlockExtension.this), rm);
+			}
+		};
+
+		fRetrieval.getExecutor().execute(query);
+		try {
+			query.get();
+		} catch (InterruptedException e) {
+
+		} catch (ExecutionException e) {
+
+		}
+
+		DebugEvent event = updateRegistersFromRegions();
+		if (event != null) {
+			DebugPlugin.getDefault().fireDebugEvent(event);
+		}
 	}
 
 	private void scheduleUpdatePeripheralRendering() {
 
-		if (fUpdatePeripheralRenderingJob != null) {
-			fUpdatePeripheralRenderingJob.schedule();
+		if (fPeripheralTop == null || fReadableMemoryRegions == null) {
+			return;
 		}
+
+		// Read asynchronously, together with other pending blocks.
+		getReadPlanner().scheduleRefresh(this);
 	}
 
 	// ------------------------------------------------------------------------
@@ -379,188 +474,243 @@ public class PeripheralMemoryBlockExtension extends PlatformObject
 	}
 
 	/**
-	 * Parse all registers and create a sorted list of readable memory regions.
-	 * For unions, the registers may overlap.
+	 * Create a sorted list of readable memory regions, from the table of
+	 * readable registers. For unions, the registers may overlap.
 	 * <p>
-	 * Each region has a list of registers stored in the region.
+	 * The table is computed from the data model, so the view model nodes are
+	 * not needed, and are created only when the rendering tree is expanded.
 	 *
 	 * @return the list.
 	 */
 	private List<PeripheralMemoryRegion> createRegionsList() {
 
-		List<PeripheralMemoryRegion> list = new LinkedList<>();
+		fRegisterTable = PeripheralRegisterTable.create(fPeripheralDMContext.getPeripheralInstance());
+		if (Activator.getInstance().isDebugging()) {
+			System.out.println("PeripheralMemoryBlockExtension.createRegionsList() " + fBlockDisplayName + " "
+					+ fRegisterTable.size() + " registers");
+		}
+		List<PeripheralMemoryRegion> regions = fRegisterTable.createRegions();
 
-		// Get all registers of the peripheral, in svd definition order.
-		collectRegistersRecursive(fPeripheralTop, list);
+		// The buffers are allocated once and reused by all reads.
+		ByteOrder order = fIsBigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+		for (PeripheralMemoryRegion region : regions) {
+			region.setByteOrder(order);
+		}
+		return regions;
+	}
 
-		PeripheralMemoryRegion[] array = list.toArray(new PeripheralMemoryRegion[list.size()]);
-		// Sort by offset. Beware of duplicates (in case of unions).
-		Arrays.sort(array);
+	/**
+	 * Update the register nodes from the bytes already read in the regions,
+	 * without notifying the listeners; the planner fires the events of all
+	 * blocks together.
+	 *
+	 * <p>
+	 * Each refresh also steps the fading of the changed background; the
+	 * registers and fields that must be redrawn are passed in the event data,
+	 * as an array, so the renderings update only them.
+	 *
+	 * @return the event that notifies the content change, or null if the block
+	 *         was disposed.
+	 */
+	DebugEvent updateRegistersFromRegions() {
 
-		// Create an empty list of regions.
-		list = new LinkedList<>();
+		if (fPeripheralTop == null || fReadableMemoryRegions == null) {
+			return null;
+		}
 
-		for (int i = 0; i < array.length;) {
+		// Update only the register nodes already created; the others will
+		// get their values from the regions when created.
+		List<Object> changedNodes = new ArrayList<>();
+		updateRegistersRecursive(fPeripheralTop, changedNodes);
 
-			// Add register as region begin.
-			list.add(array[i]);
+		DebugEvent event = new DebugEvent(this, DebugEvent.CHANGE, DebugEvent.CONTENT);
+		event.setData(changedNodes.toArray());
+		return event;
+	}
 
-			int j;
-			// Iterate next registers until a gap is found.
-			for (j = i + 1; j < array.length; ++j) {
-				// If possible, concatenate contiguous or contained register
-				// regions to a larger region.
-				if (array[i].isContiguous(array[j])) {
-					array[i].concatenate(array[j]);
-				} else {
-					i = j;
-					break;
-				}
-			}
+	/**
+	 * Append the values in the regions to the history, if enabled. Called by
+	 * the planner after each refresh, before the renderings are updated.
+	 *
+	 * @param suspendCount
+	 *            the number of times the target was suspended.
+	 * @param time
+	 *            the time of the refresh, in ms.
+	 */
+	void recordHistory(long suspendCount, long time) {
 
-			// Check if end of peripheral address space reached.
-			if (j == array.length) {
-				break;
-			}
+		PeripheralRegisterHistory history = fHistory;
+		List<PeripheralMemoryRegion> regions = fReadableMemoryRegions;
+		if (history == null || regions == null) {
+			return;
 		}
+		history.record(regions, suspendCount, time);
+	}
 
-		return list;
+	/**
+	 * Get the recent values of the registers.
+	 *
+	 * @return the history, or null if not enabled in preferences.
+	 * @since 5.3
+	 */
+	public PeripheralRegisterHistory getHistory() {
+		return fHistory;
 	}
 
 	/**
-	 * Contribute to the peripheral memory map the registers that can be read.
-	 * <p>
-	 * For peripheral and cluster node, descend the hierarchy.
+	 * Update the values of the existing register nodes, without creating new
+	 * nodes.
 	 *
 	 * @param node
 	 *            the current PeripheralTreeVMNode.
-	 * @param list
-	 *            the list of regions.
+	 * @param changedNodes
+	 *            if not null, a refresh; the fading is stepped and the nodes
+	 *            to redraw are collected.
 	 */
-	private void collectRegistersRecursive(PeripheralTreeVMNode node, List<PeripheralMemoryRegion> list) {
+	private void updateRegistersRecursive(PeripheralTreeVMNode node, List<Object> changedNodes) {
 
 		// This should match both simple registers and register array elements.
-		if ((node instanceof PeripheralRegisterVMNode) && node.isReadAllowed()) {
-
-			// Register found, create a small region to cover only the register.
-			PeripheralMemoryRegion region = new PeripheralMemoryRegion(node.getPeripheralBigAddressOffset().longValue(),
-					node.getBigSize().longValue());
-			region.addNode((PeripheralRegisterVMNode) node);
-
-			// Contribute to the output list; SVD order, to be ordered later.
-			list.add(region);
-
-			return;
-
-		} else if (node instanceof PeripheralRegisterFieldVMNode) {
-
-			// For just in case, the above return should prevent recursion to
-			// reach here.
+		if (node instanceof PeripheralRegisterVMNode) {
+			if (node instanceof PeripheralRegisterFieldVMNode) {
+				// Fields are updated by their parent register.
+				return;
+			}
+			if (node.isReadAllowed()) {
+				PeripheralRegisterVMNode register = (PeripheralRegisterVMNode) node;
+				long offset = register.getPeripheralBigAddressOffset().longValue();
+				int sizeBytes = register.getWidthBytes();
+				PeripheralMemoryRegion region = findCachedRegion(offset, sizeBytes);
+				boolean hasChanged = false;
+				if (region != null) {
+					// Works without problems for unions
+					hasChanged = updateRegisterValue(register.getPeripheralValue(), region, offset, sizeBytes);
+				}
+				if (changedNodes != null) {
+					// Registers not read still fade.
+					register.valueRefreshed(hasChanged, changedNodes);
+				} else if (region != null) {
+					register.valueUpdated(hasChanged);
+				}
+			}
 			return;
 		}
 
-		if (node.hasChildren()) {
-
+		List<PeripheralTreeVMNode> children = node.getCreatedChildren();
+		if (children != null) {
 			// Mainly for cluster nodes, to reach inner registers.
-			for (int i = 0; i < node.getChildren().length; ++i) {
-				PeripheralTreeVMNode child = (PeripheralTreeVMNode) node.getChildren()[i];
-				collectRegistersRecursive(child, list);
+			for (PeripheralTreeVMNode child : children) {
+				updateRegistersRecursive(child, changedNodes);
 			}
 		}
 	}
 
 	/**
-	 * Read the memory content and store the byte arrays in the regions nodes.
+	 * Update a register value from the last read of the memory regions, without
+	 * accessing the target.
+	 *
+	 * @param value
+	 *            the register value to update.
+	 * @param offset
+	 *            the register address offset from the peripheral absolute
+	 *            address.
+	 * @param sizeBytes
+	 *            the register size.
+	 * @return true if the value changed; false if it did not change, if the
+	 *         register is not in a readable region, or it was not read yet.
+	 * @since 5.3
 	 */
-	private void readPeripheralMemoryRegions(RequestMonitor rm) {
+	public boolean updateCachedRegisterValue(PeripheralValue value, long offset, int sizeBytes) {
 
-		if (Activator.getInstance().isDebugging()) {
-			System.out.println("PeripheralMemoryBlockExtension.readPeripheralMemoryRegions() " + fBlockDisplayName);
+		PeripheralMemoryRegion region = findCachedRegion(offset, sizeBytes);
+		if (region == null) {
+			return false;
 		}
+		return updateRegisterValue(value, region, offset, sizeBytes);
+	}
 
-		IAddress address = getAddressFactory().createAddress(fPeripheralTop.getBigAbsoluteAddress());
-
-		DsfExecutor executor = ((PeripheralMemoryBlockRetrieval) getMemoryBlockRetrieval()).getExecutor();
-		final CountingRequestMonitor countingRm = new CountingRequestMonitor(executor, rm);
+	/**
+	 * Find the region that includes the register, if already read.
+	 *
+	 * @return the region, or null if the register is not in a readable region,
+	 *         or it was not read yet.
+	 */
+	private PeripheralMemoryRegion findCachedRegion(long offset, int sizeBytes) {
 
-		if (fReadableMemoryRegions == null) {
-			return;
+		List<PeripheralMemoryRegion> regions = fReadableMemoryRegions;
+		if (regions == null) {
+			return null;
 		}
 
-		// Initialise the counting monitor with the number of memory regions.
-		countingRm.setDoneCount(fReadableMemoryRegions.size());
-
-		for (final PeripheralMemoryRegion region : fReadableMemoryRegions) {
-
-			DataRequestMonitor<MemoryByte[]> drm = new DataRequestMonitor<>(executor, countingRm) {
-
-				@Override
-				protected void handleCompleted() {
-
-					// Transfer the result to the region object.
-					region.setBytes(getData());
-
-					// Among other things, call parent done(), which will
-					// decrement the counting monitor.
-					super.handleCompleted();
-				}
-			};
-
-			// Read memory region in
-			fMemoryService.getMemory(fMemoryDMContext, address, region.getAddressOffset(), 1,
-					(int) region.getSizeBytes(), drm);
+		int index = findRegionIndex(regions, offset, sizeBytes);
+		if (index < 0) {
+			return null;
 		}
-	}
+		PeripheralMemoryRegion region = regions.get(index);
 
-	public void updatePeripheralRenderingValues() {
-
-		@SuppressWarnings("rawtypes")
-		Query query = new Query() {
+		if (!region.isValid((int) (offset - region.getAddressOffset()), sizeBytes)) {
+			return null;
+		}
 
-			@Override
-			protected void execute(DataRequestMonitor rm) {
+		return region;
+	}
 
-				readPeripheralMemoryRegions(rm);
+	/**
+	 * Find the region that includes the register.
+	 *
+	 * @return the region index, or -1 if the register is not in a readable
+	 *         region.
+	 */
+	static int findRegionIndex(List<PeripheralMemoryRegion> regions, long offset, int sizeBytes) {
+
+		// Binary search for the last region starting at or before the offset.
+		int low = 0;
+		int high = regions.size() - 1;
+		int index = -1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (regions.get(mid).getAddressOffset() <= offset) {
+				index = mid;
+				low = mid + 1;
+			} else {
+				high = mid - 1;
 			}
-		};
-
-		((PeripheralMemoryBlockRetrieval) getMemoryBlockRetrieval()).getExecutor().execute(query);
-
-		try {
-			query.get();
-		} catch (InterruptedException e) {
-
-		} catch (ExecutionException e) {
-
 		}
 
-		if (fReadableMemoryRegions == null) {
-			return;
+		if (index < 0 || !regions.get(index).contains(offset, sizeBytes)) {
+			return -1;
 		}
+		return index;
+	}
 
-		// Iterate all regions.
-		for (PeripheralMemoryRegion region : fReadableMemoryRegions) {
-
-			MemoryByte[] regionBytes = region.getBytes();
-			long regionOffset = region.getAddressOffset();
-
-			// Iterate all registers in a region.
-			for (PeripheralRegisterVMNode node : region.getNodes()) {
+	/**
+	 * Decode the register bytes in place, from the region buffer, using the
+	 * device endianness. Registers up to 64 bits are decoded directly to a
+	 * long, without allocations; only wider registers use BigInteger.
+	 *
+	 * @return true if the value changed.
+	 */
+	private boolean updateRegisterValue(PeripheralValue value, PeripheralMemoryRegion region, long offset,
+			int sizeBytes) {
 
-				long nodeOffset = node.getPeripheralBigAddressOffset().longValue();
-				int byteOffset = (int) (nodeOffset - regionOffset);
+		int start = (int) (offset - region.getAddressOffset());
 
-				int widthBytes = node.getWidthBytes();
-				MemoryByte[] bytes = new MemoryByte[widthBytes];
-				for (int i = 0; i < widthBytes; ++i) {
-					bytes[i] = regionBytes[byteOffset + i];
-				}
+		if (sizeBytes <= 8) {
+			return value.update(region.getLong(start, sizeBytes));
+		}
 
-				BigInteger value = prepareBigIntegerFromByteArray(bytes);
-				// Works without problems for unions
-				node.setValue(value);
+		byte[] bytes = new byte[sizeBytes];
+		region.getBytes(start, bytes);
+		if (!fIsBigEndian) {
+			// Reverse order
+			for (int i = 0; i < sizeBytes / 2; ++i) {
+				byte b = bytes[i];
+				bytes[i] = bytes[sizeBytes - i - 1];
+				bytes[sizeBytes - i - 1] = b;
 			}
 		}
+
+		// Force always positive
+		return value.update(new BigInteger(1, bytes));
 	}
 
 	// ------------------------------------------------------------------------
@@ -626,8 +776,9 @@ public class PeripheralMemoryBlockExtension extends PlatformObject
 	}
 
 	/**
-	 * Write a peripheral register to the device. The peripheral address is
-	 * retrieved from the peripheral group node.
+	 * Queue a write of a peripheral register to the device and return
+	 * immediately. Pending writes to the same register are coalesced; after
+	 * the write, the register is read back and the renderings are notified.
 	 *
 	 * @param offset
 	 *            the register address offset from the peripheral absolute
@@ -636,80 +787,306 @@ public class PeripheralMemoryBlockExtension extends PlatformObject
 	 *            the register size.
 	 * @param value
 	 *            the new register value.
+	 * @param mask
+	 *            the edited bits, or null for all bits; the other bits are
+	 *            read from the device before the write.
+	 * @param previousValue
+	 *            the value displayed before the edit, shown again if the
+	 *            write fails and the register cannot be read back.
+	 * @since 5.3
 	 */
-	public void writePeripheralRegister(final long offset, final int sizeBytes, final BigInteger value) {
-
-		@SuppressWarnings("rawtypes")
-		Query query = new Query() {
+	public void writePeripheralRegister(long offset, int sizeBytes, BigInteger value, BigInteger mask,
+			BigInteger previousValue) {
+		getWriteQueue().add(this, offset, sizeBytes, value, mask, previousValue);
+	}
 
-			@Override
-			protected void execute(DataRequestMonitor rm) {
+	/**
+	 * Write a peripheral register to the device. The write is queued and the
+	 * method returns immediately.
+	 *
+	 * @param offset
+	 *            the register address offset from the peripheral absolute
+	 *            address.
+	 * @param sizeBytes
+	 *            the register size.
+	 * @param value
+	 *            the new register value.
+	 * @deprecated Use
+	 *             {@link #writePeripheralRegister(long, int, BigInteger, BigInteger, BigInteger)}.
+	 */
+	@Deprecated
+	public void writePeripheralRegister(long offset, int sizeBytes, BigInteger value) {
+		writePeripheralRegister(offset, sizeBytes, value, null, null);
+	}
 
-				IAddress address = getAddressFactory().createAddress(fPeripheralTop.getBigAbsoluteAddress());
+	/**
+	 * Write a peripheral register to the device. Must be called on the
+	 * executor thread.
+	 *
+	 * @param offset
+	 *            the register address offset from the peripheral absolute
+	 *            address.
+	 * @param sizeBytes
+	 *            the register size.
+	 * @param value
+	 *            the new register value.
+	 * @param rm
+	 *            notified when the write completes.
+	 */
+	void writeRegister(long offset, int sizeBytes, BigInteger value, RequestMonitor rm) {
 
-				byte buf[] = prepareByteArrayFromBigInteger(value, sizeBytes);
+		BigInteger baseAddress = getPeripheralBigBaseAddress();
+		if (baseAddress == null) {
+			// Disposed meanwhile.
+			rm.done();
+			return;
+		}
+		IAddress address = getAddressFactory().createAddress(baseAddress);
 
-				fMemoryService.setMemory(fMemoryDMContext, address, offset, sizeBytes, 1, buf, rm);
-			}
-		};
+		byte buf[] = prepareByteArrayFromBigInteger(value, sizeBytes);
 
-		((PeripheralMemoryBlockRetrieval) getMemoryBlockRetrieval()).getExecutor().execute(query);
-		try {
-			query.get();
-		} catch (InterruptedException e) {
+		fMemoryService.setMemory(fMemoryDMContext, address, offset, sizeBytes, 1, buf, rm);
+	}
 
-		} catch (ExecutionException e) {
+	/**
+	 * Read a peripheral register from the device. If the register is in a
+	 * readable region, the bytes are also stored in the region. Must be called
+	 * on the executor thread.
+	 *
+	 * @param offset
+	 *            the register address offset from the peripheral absolute
+	 *            address.
+	 * @param sizeBytes
+	 *            the register size.
+	 * @param drm
+	 *            receives a BigInteger with the register value.
+	 * @since 5.3
+	 */
+	public void readPeripheralRegister(final long offset, final int sizeBytes,
+			final DataRequestMonitor<BigInteger> drm) {
 
+		BigInteger baseAddress = getPeripheralBigBaseAddress();
+		if (baseAddress == null) {
+			drm.setStatus(new Status(Status.ERROR, Activator.PLUGIN_ID, "Peripheral memory block disposed"));
+			drm.done();
+			return;
 		}
+		IAddress address = getAddressFactory().createAddress(baseAddress);
+
+		fMemoryService.getMemory(fMemoryDMContext, address, offset, sizeBytes, 1,
+				new DataRequestMonitor<MemoryByte[]>(fRetrieval.getExecutor(), drm) {
+
+					@Override
+					protected void handleSuccess() {
+
+						MemoryByte[] bytes = getData();
+						storeRegisterBytes(offset, sizeBytes, bytes);
+
+						drm.setData(prepareBigIntegerFromByteArray(bytes));
+						drm.done();
+					}
+				});
 	}
 
 	/**
-	 * Read a peripheral register from the device. The peripheral address is
-	 * retrieved from the peripheral group node.
+	 * Read a peripheral register from the device, waiting for the result.
+	 * Must not be called on the executor thread.
 	 *
 	 * @param offset
 	 *            the register address offset from the peripheral absolute
 	 *            address.
 	 * @param sizeBytes
 	 *            the register size.
-	 * @return a BigInteger with the register value.
+	 * @return a BigInteger with the register value, or zero if the read
+	 *         failed.
+	 * @deprecated Use
+	 *             {@link #readPeripheralRegister(long, int, DataRequestMonitor)}.
 	 */
+	@Deprecated
 	public BigInteger readPeripheralRegister(final long offset, final int sizeBytes) {
 
-		Query<MemoryByte[]> query = new Query<>() {
+		Query<BigInteger> query = new Query<>() {
 
 			@Override
-			protected void execute(DataRequestMonitor<MemoryByte[]> drm) {
-
-				IAddress address = getAddressFactory().createAddress(fPeripheralTop.getBigAbsoluteAddress());
-
-				fMemoryService.getMemory(fMemoryDMContext, address, offset, sizeBytes, 1, drm);
+			protected void execute(DataRequestMonitor<BigInteger> drm) {
+				readPeripheralRegister(offset, sizeBytes, drm);
 			}
 		};
 
-		((PeripheralMemoryBlockRetrieval) getMemoryBlockRetrieval()).getExecutor().execute(query);
+		fRetrieval.getExecutor().execute(query);
 
 		BigInteger value = BigInteger.ZERO;
 		try {
-			MemoryByte bytes[];
-			bytes = query.get();
-			// System.out.print("Read 0x");
-			// for (int i = 0; i < bytes.length; ++i) {
-			// System.out.print(String.format(" %02X", bytes[i].getValue()));
-			// }
-			// System.out.println(" @ 0x" + String.format("%X", offset));
-			value = prepareBigIntegerFromByteArray(bytes);
+			value = query.get();
 		} catch (InterruptedException e) {
 
 		} catch (ExecutionException e) {
 
 		}
-
 		return value;
 	}
 
+	private void storeRegisterBytes(long offset, int sizeBytes, MemoryByte[] bytes) {
+
+		List<PeripheralMemoryRegion> regions = fReadableMemoryRegions;
+		if (regions == null) {
+			return;
+		}
+		int index = findRegionIndex(regions, offset, sizeBytes);
+		if (index >= 0) {
+			PeripheralMemoryRegion region = regions.get(index);
+			region.updateBytes((int) (offset - region.getAddressOffset()), bytes);
+		}
+	}
+
+	/**
+	 * Check if the register can be read without side effects.
+	 *
+	 * @return true if the register is in a readable region.
+	 */
+	boolean isRegisterReadable(long offset, int sizeBytes) {
+
+		List<PeripheralMemoryRegion> regions = fReadableMemoryRegions;
+		return regions != null && findRegionIndex(regions, offset, sizeBytes) >= 0;
+	}
+
+	/**
+	 * Update the written register nodes from the bytes read back in the
+	 * regions, or restore the values before the failed writes, without
+	 * notifying the listeners. The nodes already display the written values,
+	 * so only those that differ must be redrawn; they are
+	 * passed in the event data, as an array. The fading is not stepped.
+	 *
+	 * @param offsets
+	 *            the offsets of the written registers, each with the value to
+	 *            show if the register is not in a readable region, or null
+	 *            to keep the value displayed.
+	 * @return the event that notifies the content change, or null if no node
+	 *         changed or the block was disposed.
+	 */
+	DebugEvent updateWrittenRegisters(Map<Long, BigInteger> offsets) {
+
+		if (fPeripheralTop == null) {
+			return null;
+		}
+
+		List<Object> changedNodes = new ArrayList<>();
+		updateWrittenRegistersRecursive(fPeripheralTop, offsets, changedNodes);
+		if (changedNodes.isEmpty()) {
+			return null;
+		}
+
+		DebugEvent event = new DebugEvent(this, DebugEvent.CHANGE, DebugEvent.CONTENT);
+		event.setData(changedNodes.toArray());
+		return event;
+	}
+
+	private void updateWrittenRegistersRecursive(PeripheralTreeVMNode node, Map<Long, BigInteger> offsets,
+			List<Object> changedNodes) {
+
+		if (node instanceof PeripheralRegisterVMNode) {
+			if (node instanceof PeripheralRegisterFieldVMNode) {
+				// Fields are updated by their parent register.
+				return;
+			}
+			PeripheralRegisterVMNode register = (PeripheralRegisterVMNode) node;
+			long offset = register.getPeripheralBigAddressOffset().longValue();
+			if (!offsets.containsKey(offset)) {
+				return;
+			}
+			int sizeBytes = register.getWidthBytes();
+			boolean hasChanged;
+			PeripheralMemoryRegion region = findCachedRegion(offset, sizeBytes);
+			if (region != null) {
+				hasChanged = updateRegisterValue(register.getPeripheralValue(), region, offset, sizeBytes);
+			} else {
+				// Write-only, or not read; the value before a failed write.
+				BigInteger value = offsets.get(offset);
+				hasChanged = (value != null) && register.getPeripheralValue().update(value);
+			}
+			if (hasChanged) {
+				register.valueUpdated(true);
+				changedNodes.add(register);
+				List<PeripheralTreeVMNode> fields = register.getCreatedChildren();
+				if (fields != null) {
+					changedNodes.addAll(fields);
+				}
+			}
+			return;
+		}
+
+		List<PeripheralTreeVMNode> children = node.getCreatedChildren();
+		if (children != null) {
+			for (PeripheralTreeVMNode child : children) {
+				updateWrittenRegistersRecursive(child, offsets, changedNodes);
+			}
+		}
+	}
+
 	// ------------------------------------------------------------------------
 
+	private PeripheralReadPlanner getReadPlanner() {
+		return ((PeripheralMemoryBlockRetrieval) getMemoryBlockRetrieval()).getReadPlanner();
+	}
+
+	private PeripheralWriteQueue getWriteQueue() {
+		return ((PeripheralMemoryBlockRetrieval) getMemoryBlockRetrieval()).getWriteQueue();
+	}
+
+	IMemoryDMContext getMemoryDMContext() {
+		return fMemoryDMContext;
+	}
+
+	/**
+	 * Get the regions to be read when the target is suspended: none if the
+	 * rendering is hidden, only those with visible registers if reported by
+	 * the rendering, otherwise all readable regions.
+	 *
+	 * @return a list of regions, possibly empty, or null if disposed.
+	 */
+	List<PeripheralMemoryRegion> getRegionsToRead() {
+
+		List<PeripheralMemoryRegion> regions = fReadableMemoryRegions;
+		if (regions == null) {
+			return null;
+		}
+		if (!fIsVisible) {
+			return Collections.emptyList();
+		}
+		List<PeripheralMemoryRegion> visibleRegions = fVisibleMemoryRegions;
+		return (visibleRegions != null) ? visibleRegions : regions;
+	}
+
+	/**
+	 * Mark all regions as possibly changed, when the target runs.
+	 */
+	void markRegionsStale() {
+
+		List<PeripheralMemoryRegion> regions = fReadableMemoryRegions;
+		if (regions != null) {
+			for (PeripheralMemoryRegion region : regions) {
+				region.markStale();
+			}
+		}
+	}
+
+	PeripheralRegisterTable getRegisterTable() {
+		return fRegisterTable;
+	}
+
+	/**
+	 * @return the peripheral absolute address, or null if the block was
+	 *         disposed.
+	 */
+	BigInteger getPeripheralBigBaseAddress() {
+
+		PeripheralTopVMNode top = fPeripheralTop;
+		if (top == null) {
+			return null;
+		}
+		return top.getBigAbsoluteAddress();
+	}
+
 	public IAddressFactory getAddressFactory() {
 		return fAddressFactory;
 	}
@@ -822,25 +1199,62 @@ public class PeripheralMemoryBlockExtension extends PlatformObject
 	@Override
 	public MemoryByte[] getBytesFromOffset(BigInteger unitOffset, long addressableUnits) throws DebugException {
 
-		// Fake content
 		MemoryByte[] bytes = new MemoryByte[(int) addressableUnits];
-		for (int i = 0; i < bytes.length; ++i) {
-			bytes[i] = new MemoryByte((byte) 0, (byte) 0);
-		}
+		fillBytesFromRegions(unitOffset.longValue(), bytes);
 		return bytes;
 	}
 
 	@Override
 	public MemoryByte[] getBytesFromAddress(BigInteger address, long units) throws DebugException {
 
-		// Fake content
 		MemoryByte[] bytes = new MemoryByte[(int) units];
-		for (int i = 0; i < bytes.length; ++i) {
-			bytes[i] = new MemoryByte((byte) 0, (byte) 0);
+		BigInteger base = getPeripheralBigBaseAddress();
+		if (base != null) {
+			fillBytesFromRegions(address.subtract(base).longValue(), bytes);
+		} else {
+			fillBytesFromRegions(-1, bytes);
 		}
 		return bytes;
 	}
 
+	/**
+	 * Convert the content of the region buffers to MemoryByte objects, only
+	 * at the Eclipse memory API boundary. Bytes outside the readable regions,
+	 * or not read yet, are returned as not readable.
+	 *
+	 * @param offset
+	 *            the offset of the first byte, relative to the peripheral.
+	 * @param bytes
+	 *            the array to fill.
+	 */
+	private void fillBytesFromRegions(long offset, MemoryByte[] bytes) {
+
+		byte flags = MemoryByte.READABLE | MemoryByte.ENDIANESS_KNOWN;
+		if (fIsBigEndian) {
+			flags |= MemoryByte.BIG_ENDIAN;
+		}
+
+		List<PeripheralMemoryRegion> regions = fReadableMemoryRegions;
+		for (int i = 0; i < bytes.length; ++i) {
+			int value = -1;
+			long byteOffset = offset + i;
+			if (regions != null && offset >= 0) {
+				// Regions are few and small, a linear search is enough.
+				for (PeripheralMemoryRegion region : regions) {
+					if (region.contains(byteOffset, 1)) {
+						value = region.getByte((int) (byteOffset - region.getAddressOffset()));
+						break;
+					}
+				}
+			}
+			if (value >= 0) {
+				bytes[i] = new MemoryByte((byte) value, flags);
+			} else {
+				bytes[i] = new MemoryByte((byte) 0, (byte) 0);
+			}
+		}
+	}
+
 	@Override
 	public void setValue(BigInteger offset, byte[] bytes) throws DebugException {
 
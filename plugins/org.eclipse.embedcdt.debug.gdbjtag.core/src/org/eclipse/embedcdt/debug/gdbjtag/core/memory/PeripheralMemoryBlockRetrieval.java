@@ -68,6 +68,8 @@ public class PeripheralMemoryBlockRetrieval extends DsfMemoryBlockRetrieval {
 
 	private final ILaunchConfiguration fLaunchConfig;
 	private List<String> fPersistentPeripherals;
+	private PeripheralReadPlanner fReadPlanner;
+	private PeripheralWriteQueue fWriteQueue;
 
 	// ------------------------------------------------------------------------
 
@@ -89,6 +91,35 @@ public class PeripheralMemoryBlockRetrieval extends DsfMemoryBlockRetrieval {
 		super.initialize(memoryCtx);
 	}
 
+	/**
+	 * Get the planner shared by all peripheral memory blocks of the session.
+	 *
+	 * @return the planner.
+	 * @since 5.3
+	 */
+	public synchronized PeripheralReadPlanner getReadPlanner() {
+
+		if (fReadPlanner == null) {
+			fReadPlanner = new PeripheralReadPlanner(this);
+		}
+		return fReadPlanner;
+	}
+
+	/**
+	 * Get the queue of register writes shared by all peripheral memory blocks
+	 * of the session.
+	 *
+	 * @return the queue.
+	 * @since 5.3
+	 */
+	public synchronized PeripheralWriteQueue getWriteQueue() {
+
+		if (fWriteQueue == null) {
+			fWriteQueue = new PeripheralWriteQueue(this);
+		}
+		return fWriteQueue;
+	}
+
 	public List<String> getPersistentPeripherals() {
 
 		if (Activator.getInstance().isDebugging()) {
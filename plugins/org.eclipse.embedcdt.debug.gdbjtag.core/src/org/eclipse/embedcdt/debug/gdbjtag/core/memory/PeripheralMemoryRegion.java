@@ -14,21 +14,34 @@
 
 package org.eclipse.embedcdt.debug.gdbjtag.core.memory;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.BitSet;
 
 import org.eclipse.debug.core.model.MemoryByte;
-import org.eclipse.embedcdt.debug.gdbjtag.core.viewmodel.peripheral.PeripheralRegisterVMNode;
 
+/**
+ * A contiguous range of peripheral registers, read from the target with a
+ * single memory request. Regions are created from the PeripheralRegisterTable
+ * and do not reference the view model nodes, which may not exist yet.
+ * <p>
+ * The content is kept in a raw byte buffer, allocated once and reused by all
+ * reads, with a bitmap telling which bytes are valid; registers are decoded
+ * in place, via a ByteBuffer view with the device byte order.
+ */
 public class PeripheralMemoryRegion implements Comparable<PeripheralMemoryRegion> {
 
 	// ------------------------------------------------------------------------
 
 	private long fAddressOffset;
 	private long fSizeBytes;
-	private List<PeripheralRegisterVMNode> fVMNodes;
 
-	private MemoryByte[] fBytes;
+	private byte[] fBuffer;
+	private ByteBuffer fByteBuffer;
+	// One bit for each byte in the buffer.
+	private final BitSet fValid;
+	// The target ran since the last read, or it was never read.
+	private volatile boolean fIsStale;
 
 	// ------------------------------------------------------------------------
 
@@ -37,7 +50,10 @@ public class PeripheralMemoryRegion implements Comparable<PeripheralMemoryRegion
 		fAddressOffset = offset;
 		fSizeBytes = sizeBytes;
 
-		fVMNodes = new LinkedList<>();
+		fBuffer = null;
+		fByteBuffer = null;
+		fValid = new BitSet();
+		fIsStale = true;
 	}
 
 	// ------------------------------------------------------------------------
@@ -50,53 +66,226 @@ public class PeripheralMemoryRegion implements Comparable<PeripheralMemoryRegion
 		return fSizeBytes;
 	}
 
-	public void addNode(PeripheralRegisterVMNode node) {
-		fVMNodes.add(node);
+	/**
+	 * Check if the given register is fully inside the region.
+	 *
+	 * @param offset
+	 *            the register offset, relative to the peripheral.
+	 * @param sizeBytes
+	 *            the register size.
+	 * @return true if contained.
+	 * @since 5.3
+	 */
+	public boolean contains(long offset, long sizeBytes) {
+		return (offset >= fAddressOffset) && (offset + sizeBytes <= fAddressOffset + fSizeBytes);
 	}
 
-	public List<PeripheralRegisterVMNode> getNodes() {
-		return fVMNodes;
+	/**
+	 * Set the byte order used to decode the registers.
+	 *
+	 * @param order
+	 *            the device byte order.
+	 * @since 5.3
+	 */
+	public synchronized void setByteOrder(ByteOrder order) {
+
+		allocate();
+		fByteBuffer.order(order);
 	}
 
 	/**
-	 * Check if the parameter region is contiguous or contained in the current
-	 * region.
+	 * Copy the region content from the result of a memory read, possibly
+	 * larger than the region. The buffer is reused.
 	 *
-	 * @param region
-	 *            the region to be compared with the current region.
-	 * @return true if contiguous or contained.
+	 * @param bytes
+	 *            the bytes read from the target.
+	 * @param from
+	 *            the index of the first region byte in the array.
+	 * @since 5.3
 	 */
-	public boolean isContiguous(PeripheralMemoryRegion region) {
-		return (region.fAddressOffset <= (fAddressOffset + fSizeBytes));
+	public synchronized void setBytes(MemoryByte[] bytes, int from) {
+
+		allocate();
+		for (int i = 0; i < fBuffer.length; ++i) {
+			MemoryByte memoryByte = bytes[from + i];
+			fBuffer[i] = memoryByte.getValue();
+			fValid.set(i, memoryByte.isReadable());
+		}
+		fIsStale = false;
 	}
 
 	/**
-	 * Concatenate to contiguous regions by adjusting the current region size to
-	 * fully include the given region and take of region nodes.
+	 * Copy part of the region content, like a single register read back
+	 * after a write. The stale flag is not changed, since the rest of the
+	 * region was not read.
 	 *
-	 * @param region
-	 *            the region to be concatenated with the current region.
+	 * @param start
+	 *            the index of the first byte in the region.
+	 * @param bytes
+	 *            the bytes read from the target.
+	 * @since 5.3
 	 */
-	public void concatenate(PeripheralMemoryRegion region) {
+	public synchronized void updateBytes(int start, MemoryByte[] bytes) {
+
+		allocate();
+		int length = Math.min(bytes.length, fBuffer.length - start);
+		for (int i = 0; i < length; ++i) {
+			fBuffer[start + i] = bytes[i].getValue();
+			fValid.set(start + i, bytes[i].isReadable());
+		}
+	}
 
-		// Assume the regions are contiguous or contained.
-		assert (region.fAddressOffset <= (fAddressOffset + fSizeBytes));
+	/**
+	 * Copy the region content from a saved snapshot.
+	 *
+	 * @param bytes
+	 *            the region bytes, in memory order.
+	 * @param valid
+	 *            the bytes that were read.
+	 * @since 5.3
+	 */
+	public synchronized void setBytes(byte[] bytes, BitSet valid) {
 
-		if ((region.fAddressOffset + region.fSizeBytes) > (fAddressOffset + fSizeBytes)) {
-			// Increase the size
-			fSizeBytes = (region.fAddressOffset + region.fSizeBytes) - fAddressOffset;
+		allocate();
+		System.arraycopy(bytes, 0, fBuffer, 0, fBuffer.length);
+		fValid.clear();
+		fValid.or(valid);
+		fIsStale = false;
+	}
+
+	/**
+	 * Get the bytes that were read.
+	 *
+	 * @return a copy of the mask, one bit for each byte.
+	 * @since 5.3
+	 */
+	public synchronized BitSet getValidBytes() {
+		return (BitSet) fValid.clone();
+	}
+
+	/**
+	 * Mark the content as not available, after a failed read.
+	 *
+	 * @since 5.3
+	 */
+	public synchronized void invalidate() {
+
+		fValid.clear();
+		// Not retried until the target runs again.
+		fIsStale = false;
+	}
+
+	/**
+	 * Mark the content as possibly different from the target, for example
+	 * after the target was resumed. The bytes remain valid, and are displayed
+	 * until the region is read again.
+	 *
+	 * @since 5.3
+	 */
+	public void markStale() {
+		fIsStale = true;
+	}
+
+	/**
+	 * @since 5.3
+	 */
+	public boolean isStale() {
+		return fIsStale;
+	}
+
+	/**
+	 * Check if all bytes in a range were read.
+	 *
+	 * @param start
+	 *            the index of the first byte, relative to the region.
+	 * @param length
+	 *            the number of bytes.
+	 * @return true if all bytes are valid.
+	 * @since 5.3
+	 */
+	public synchronized boolean isValid(int start, int length) {
+
+		if (start < 0 || start + length > fSizeBytes) {
+			return false;
+		}
+		int firstInvalid = fValid.nextClearBit(start);
+		return firstInvalid >= start + length;
+	}
+
+	/**
+	 * Decode an unsigned value up to 8 bytes, with the region byte order.
+	 *
+	 * @param start
+	 *            the index of the first byte, relative to the region.
+	 * @param sizeBytes
+	 *            the value size, 1 to 8.
+	 * @return the value, as unsigned long.
+	 * @since 5.3
+	 */
+	public synchronized long getLong(int start, int sizeBytes) {
+
+		switch (sizeBytes) {
+		case 1:
+			return fByteBuffer.get(start) & 0xFFL;
+		case 2:
+			return fByteBuffer.getShort(start) & 0xFFFFL;
+		case 4:
+			return fByteBuffer.getInt(start) & 0xFFFFFFFFL;
+		case 8:
+			return fByteBuffer.getLong(start);
+		default:
+			break;
 		}
 
-		// Take over nodes from given region.
-		fVMNodes.addAll(region.getNodes());
+		// Unusual sizes, like 24-bit registers.
+		long value = 0;
+		if (fByteBuffer.order() == ByteOrder.BIG_ENDIAN) {
+			for (int i = 0; i < sizeBytes; ++i) {
+				value = (value << 8) | (fBuffer[start + i] & 0xFF);
+			}
+		} else {
+			for (int i = sizeBytes - 1; i >= 0; --i) {
+				value = (value << 8) | (fBuffer[start + i] & 0xFF);
+			}
+		}
+		return value;
 	}
 
-	public void setBytes(MemoryByte[] bytes) {
-		fBytes = bytes;
+	/**
+	 * Copy a range of bytes, in memory order.
+	 *
+	 * @param start
+	 *            the index of the first byte, relative to the region.
+	 * @param dest
+	 *            the destination array.
+	 * @since 5.3
+	 */
+	public synchronized void getBytes(int start, byte[] dest) {
+		System.arraycopy(fBuffer, start, dest, 0, dest.length);
 	}
 
-	public MemoryByte[] getBytes() {
-		return fBytes;
+	/**
+	 * Get a single byte, if valid.
+	 *
+	 * @param index
+	 *            the byte index, relative to the region.
+	 * @return the byte value (0-255), or -1 if not valid.
+	 * @since 5.3
+	 */
+	public synchronized int getByte(int index) {
+
+		if (!fValid.get(index)) {
+			return -1;
+		}
+		return fBuffer[index] & 0xFF;
+	}
+
+	private void allocate() {
+
+		if (fBuffer == null) {
+			fBuffer = new byte[(int) fSizeBytes];
+			fByteBuffer = ByteBuffer.wrap(fBuffer);
+		}
 	}
 
 	// ------------------------------------------------------------------------
@@ -108,7 +297,7 @@ public class PeripheralMemoryRegion implements Comparable<PeripheralMemoryRegion
 
 	@Override
 	public String toString() {
-		return String.format("[Region 0x%08X, 0x%X, %d nodes]", fAddressOffset, fSizeBytes, fVMNodes.size());
+		return String.format("[Region 0x%08X, 0x%X]", fAddressOffset, fSizeBytes);
 	}
 
 	// ------------------------------------------------------------------------
@@ -0,0 +1,799 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.debug.gdbjtag.core.memory;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.cdt.core.IAddress;
+import org.eclipse.cdt.core.IAddressFactory;
+import org.eclipse.cdt.dsf.concurrent.DataRequestMonitor;
+import org.eclipse.cdt.dsf.concurrent.DsfExecutor;
+import org.eclipse.cdt.dsf.concurrent.RequestMonitor;
+import org.eclipse.cdt.dsf.debug.service.IMemory.IMemoryDMContext;
+import org.eclipse.cdt.dsf.debug.service.IRunControl;
+import org.eclipse.cdt.dsf.mi.service.IMIRunControl;
+import org.eclipse.cdt.dsf.service.DsfServiceEventHandler;
+import org.eclipse.cdt.dsf.service.DsfServicesTracker;
+import org.eclipse.cdt.utils.Addr32Factory;
+import org.eclipse.cdt.utils.Addr64Factory;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdPeripheralDMNode;
+import org.eclipse.embedcdt.debug.gdbjtag.core.preferences.PersistentPreferences;
+import org.eclipse.embedcdt.debug.gdbjtag.core.services.IPeripheralMemoryService;
+import org.eclipse.embedcdt.internal.debug.gdbjtag.core.Activator;
+import org.osgi.framework.Filter;
+
+/**
+ * Session level planner for the peripheral registers reads.
+ * <p>
+ * Instead of each peripheral memory block reading its own regions, the
+ * regions of all open blocks are collected, sorted by absolute address and
+ * merged into as few reads as possible; after the reads complete, the bytes
+ * are distributed back to the regions of each block.
+ * <p>
+ * Regions are merged when contiguous, and also across small gaps inside the
+ * same peripheral, if the gap does not include registers with read side
+ * effects (readAction). Gaps between different peripherals are never read,
+ * since their content is not known. If a merged read fails, for example
+ * because a gap is not mapped, the regions are read again one by one.
+ * <p>
+ * All refreshes run asynchronously on the DSF executor. Each suspend and
+ * resume event starts a new generation; reads and refreshes belonging to an
+ * older generation are abandoned, so when stepping quickly only the state of
+ * the last stop is read. Since commands already sent to GDB cannot be
+ * withdrawn, the reads are issued one at a time, and the remaining ones are
+ * dropped when superseded.
+ * <p>
+ * If enabled in preferences, the open blocks are also sampled periodically
+ * while the target is running, when GDB accepts commands in this state (for
+ * example in non-stop mode, with servers like J-Link, OpenOCD or pyOCD, which
+ * can access the memory without halting the core). Only one sample is in
+ * progress at any time; if the reads take too long or fail, the period is
+ * increased, and then gradually returned to the configured value.
+ *
+ * @since 5.3
+ */
+public class PeripheralReadPlanner {
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * A region of a block or of a snapshot peripheral, with the absolute
+	 * addresses.
+	 */
+	static class Piece {
+
+		// The block or the snapshot peripheral.
+		Object fOwner;
+		PeripheralRegisterTable fRegisterTable;
+		IMemoryDMContext fContext;
+		PeripheralMemoryRegion fRegion;
+		long fStart;
+		long fEnd;
+	}
+
+	/**
+	 * A read request, covering one or more pieces.
+	 */
+	static class Read {
+
+		IMemoryDMContext fContext;
+		long fStart;
+		long fEnd;
+		List<Piece> fPieces = new ArrayList<>();
+
+		Read(Piece piece) {
+
+			fContext = piece.fContext;
+			fStart = piece.fStart;
+			fEnd = piece.fEnd;
+			fPieces.add(piece);
+		}
+
+		void add(Piece piece) {
+
+			fEnd = Math.max(fEnd, piece.fEnd);
+			fPieces.add(piece);
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	// The live sampling period is not increased above this multiple of the
+	// configured period.
+	private static final int MAX_BACK_OFF_FACTOR = 16;
+
+	// ------------------------------------------------------------------------
+
+	private final PeripheralMemoryBlockRetrieval fRetrieval;
+	private final List<PeripheralMemoryBlockExtension> fBlocks;
+
+	// All fields below are only accessed on the executor thread.
+
+	// Incremented each time the target is suspended or resumed.
+	private long fGeneration;
+	// Incremented each time the target is suspended, used in the history.
+	private long fSuspendCount;
+	private boolean fIsListening;
+
+	// Blocks waiting to be refreshed; requests received while a refresh is
+	// in progress are served by a single refresh, after it completes.
+	private final Set<PeripheralMemoryBlockExtension> fPendingBlocks;
+	private boolean fIsRefreshing;
+
+	private ScheduledFuture<?> fSampleFuture;
+	// The current period, in ms, adjusted by the back-off.
+	private long fSampleDelay;
+	private int fFailedReads;
+	private IMIRunControl fRunControl;
+	private IPeripheralMemoryService fMemoryService;
+	private IAddressFactory fAddressFactory;
+
+	// ------------------------------------------------------------------------
+
+	public PeripheralReadPlanner(PeripheralMemoryBlockRetrieval retrieval) {
+
+		fRetrieval = retrieval;
+		fBlocks = new CopyOnWriteArrayList<>();
+
+		fGeneration = 0;
+		fSuspendCount = 0;
+		fIsListening = false;
+		fPendingBlocks = new LinkedHashSet<>();
+		fIsRefreshing = false;
+		fSampleFuture = null;
+	}
+
+	// ------------------------------------------------------------------------
+
+	public void addBlock(PeripheralMemoryBlockExtension block) {
+
+		fBlocks.add(block);
+		updateServiceEventListener();
+	}
+
+	public void removeBlock(PeripheralMemoryBlockExtension block) {
+
+		fBlocks.remove(block);
+		updateServiceEventListener();
+	}
+
+	/**
+	 * Listen to the session events only while there are open blocks.
+	 */
+	private void updateServiceEventListener() {
+
+		try {
+			getExecutor().execute(new Runnable() {
+
+				@Override
+				public void run() {
+					if (!fIsListening && !fBlocks.isEmpty()) {
+						fRetrieval.getSession().addServiceEventListener(PeripheralReadPlanner.this, (Filter) null);
+						fIsListening = true;
+					} else if (fIsListening && fBlocks.isEmpty()) {
+						fRetrieval.getSession().removeServiceEventListener(PeripheralReadPlanner.this);
+						fIsListening = false;
+						stopSampling();
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			Activator.log(e);
+		}
+	}
+
+	/**
+	 * Schedule the update of a block, for example when created or when more
+	 * registers become visible. Multiple requests received before the refresh
+	 * starts are served together.
+	 *
+	 * @param block
+	 *            the memory block.
+	 */
+	public void scheduleRefresh(final PeripheralMemoryBlockExtension block) {
+
+		try {
+			getExecutor().execute(new Runnable() {
+
+				@Override
+				public void run() {
+					fPendingBlocks.add(block);
+					startRefresh();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			// The session is shutting down.
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * DSF events are directed here.
+	 *
+	 * @param event
+	 */
+	@DsfServiceEventHandler
+	public void eventDispatched(IRunControl.ISuspendedDMEvent event) {
+
+		if (Activator.getInstance().isDebugging()) {
+			System.out.println("PeripheralReadPlanner.eventDispatched(ISuspendedDMEvent) " + event);
+		}
+
+		// Reads in progress belong to the previous state.
+		fGeneration++;
+		fSuspendCount++;
+		stopSampling();
+
+		// Each time execution is suspended, all open blocks are updated, in
+		// one batch.
+		fPendingBlocks.addAll(fBlocks);
+		startRefresh();
+	}
+
+	@DsfServiceEventHandler
+	public void eventDispatched(IRunControl.IResumedDMEvent event) {
+
+		if (Activator.getInstance().isDebugging()) {
+			System.out.println("PeripheralReadPlanner.eventDispatched(IResumedDMEvent) " + event);
+		}
+
+		// Refreshes not yet completed are no longer useful.
+		fGeneration++;
+		fPendingBlocks.clear();
+
+		// The content may change while running; the renderings keep showing
+		// the last values until the regions are read again.
+		for (PeripheralMemoryBlockExtension block : fBlocks) {
+			block.markRegionsStale();
+		}
+
+		// If enabled, the peripheral monitors are sampled while running.
+		startSampling();
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Read the pending blocks and update their renderings, unless superseded
+	 * meanwhile. Only one refresh is in progress at any time.
+	 */
+	private void startRefresh() {
+
+		if (fIsRefreshing || fPendingBlocks.isEmpty()) {
+			return;
+		}
+
+		final List<PeripheralMemoryBlockExtension> blocks = new ArrayList<>(fPendingBlocks);
+		fPendingBlocks.clear();
+
+		final long generation = fGeneration;
+		fIsRefreshing = true;
+
+		readBlocks(blocks, generation, new RequestMonitor(getExecutor(), null) {
+
+			@Override
+			protected void handleCompleted() {
+
+				fIsRefreshing = false;
+				if (generation == fGeneration) {
+					// Update the renderings from the new bytes.
+					updateRenderings(blocks);
+				} else if (Activator.getInstance().isDebugging()) {
+					System.out.println("PeripheralReadPlanner refresh superseded");
+				}
+
+				// Requests received meanwhile.
+				startRefresh();
+			}
+		});
+	}
+
+	/**
+	 * Update the renderings of the given blocks from the bytes in the regions,
+	 * record the values in the history, if enabled, and notify the listeners
+	 * with a single event set, to avoid multiple refreshes of the views.
+	 */
+	private void updateRenderings(List<PeripheralMemoryBlockExtension> blocks) {
+
+		long time = System.currentTimeMillis();
+
+		List<DebugEvent> events = new ArrayList<>();
+		for (PeripheralMemoryBlockExtension block : blocks) {
+			try {
+				block.recordHistory(fSuspendCount, time);
+
+				DebugEvent event = block.updateRegistersFromRegions();
+				if (event != null) {
+					events.add(event);
+				}
+			} catch (NullPointerException e) {
+				// The block may be disposed in the meantime.
+				Activator.log(e);
+			}
+		}
+
+		if (!events.isEmpty()) {
+			if (Activator.getInstance().isDebugging()) {
+				System.out.println("PeripheralReadPlanner fireDebugEventSet(changed) " + events.size() + " blocks");
+			}
+			DebugPlugin.getDefault().fireDebugEventSet(events.toArray(new DebugEvent[events.size()]));
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Start sampling the open blocks, if enabled.
+	 */
+	private void startSampling() {
+
+		stopSampling();
+
+		if (fBlocks.isEmpty()) {
+			return;
+		}
+
+		PersistentPreferences persistentPreferences = Activator.getInstance().getPersistentPreferences();
+		if (!persistentPreferences.getPeripheralsLiveEnabled()) {
+			return;
+		}
+
+		fSampleDelay = Math.max(persistentPreferences.getPeripheralsLivePeriod(), 1);
+
+		if (Activator.getInstance().isDebugging()) {
+			System.out.println("PeripheralReadPlanner.startSampling() every " + fSampleDelay + " ms");
+		}
+		scheduleSample(fGeneration);
+	}
+
+	private void stopSampling() {
+
+		if (fSampleFuture != null) {
+			fSampleFuture.cancel(false);
+			fSampleFuture = null;
+		}
+	}
+
+	private void scheduleSample(final long generation) {
+
+		try {
+			fSampleFuture = getExecutor().schedule(new Runnable() {
+
+				@Override
+				public void run() {
+					sample(generation);
+				}
+			}, fSampleDelay, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			// The session is shutting down.
+			fSampleFuture = null;
+		}
+	}
+
+	/**
+	 * Read all open blocks once, while the target is running, update the
+	 * renderings, and schedule the next sample. The executor thread is not
+	 * blocked while the reads are in progress.
+	 */
+	private void sample(final long generation) {
+
+		fSampleFuture = null;
+		if (generation != fGeneration || fBlocks.isEmpty()) {
+			return;
+		}
+
+		// Without non-intrusive memory access, GDB does not accept commands
+		// while the target is running.
+		if (!isTargetAcceptingCommands()) {
+			if (Activator.getInstance().isDebugging()) {
+				System.out.println("PeripheralReadPlanner.sample() target not accepting commands, sampling stopped");
+			}
+			return;
+		}
+
+		final List<PeripheralMemoryBlockExtension> blocks = new ArrayList<>(fBlocks);
+		final long start = System.currentTimeMillis();
+
+		fFailedReads = 0;
+		readBlocks(blocks, generation, new RequestMonitor(getExecutor(), null) {
+
+			@Override
+			protected void handleCompleted() {
+
+				// If suspended meanwhile, the refresh updates the renderings.
+				if (generation != fGeneration) {
+					return;
+				}
+
+				long elapsed = System.currentTimeMillis() - start;
+
+				updateRenderings(blocks);
+
+				int period = Math.max(Activator.getInstance().getPersistentPreferences().getPeripheralsLivePeriod(),
+						1);
+				if (fFailedReads > 0 || 2 * elapsed > fSampleDelay) {
+					// The link is saturated or the reads fail, back off.
+					fSampleDelay = Math.min(2 * fSampleDelay, (long) MAX_BACK_OFF_FACTOR * period);
+				} else {
+					// Gradually return to the configured period.
+					fSampleDelay = Math.max(fSampleDelay * 3 / 4, period);
+				}
+
+				if (Activator.getInstance().isDebugging()) {
+					System.out.println(
+							"PeripheralReadPlanner.sample() " + elapsed + " ms, next in " + fSampleDelay + " ms");
+				}
+
+				scheduleSample(generation);
+			}
+		});
+	}
+
+	/**
+	 * Must be called on the executor thread.
+	 */
+	boolean isTargetAcceptingCommands() {
+
+		if (fRunControl == null) {
+			// The services do not change during the session.
+			DsfServicesTracker tracker = new DsfServicesTracker(Activator.getInstance().getBundle().getBundleContext(),
+					fRetrieval.getSession().getId());
+			fRunControl = tracker.getService(IMIRunControl.class);
+			tracker.dispose();
+		}
+		return fRunControl != null && fRunControl.isTargetAcceptingCommands();
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Read the regions of the given blocks, with as few reads as possible. Must
+	 * be called on the DSF executor thread.
+	 * <p>
+	 * Only the regions with registers visible in the renderings are read.
+	 * Regions that cannot be read are marked as not valid. If the target is
+	 * suspended or resumed before all reads complete, the remaining reads are
+	 * dropped.
+	 *
+	 * @param blocks
+	 *            the memory blocks.
+	 * @param rm
+	 *            the request monitor to be notified when all reads complete.
+	 */
+	public void readBlocks(List<PeripheralMemoryBlockExtension> blocks, RequestMonitor rm) {
+		readBlocks(blocks, fGeneration, rm);
+	}
+
+	/**
+	 * Read all readable registers of the given peripherals, for example to be
+	 * compared later with another snapshot. The regions of all peripherals
+	 * are merged into large reads, as for the open blocks, so the duration
+	 * depends mostly on the amount of data. Must be called on the DSF
+	 * executor thread.
+	 *
+	 * @param peripherals
+	 *            the peripherals data model nodes.
+	 * @param context
+	 *            the memory context.
+	 * @param drm
+	 *            the request monitor to receive the snapshot; it fails if the
+	 *            target is suspended or resumed before all reads complete.
+	 */
+	public void readSnapshot(List<? extends SvdPeripheralDMNode> peripherals, IMemoryDMContext context,
+			final DataRequestMonitor<PeripheralSnapshot> drm) {
+
+		IPeripheralMemoryService memoryService = getMemoryService();
+		if (memoryService == null || !isTargetAcceptingCommands()) {
+			drm.setStatus(new Status(Status.ERROR, Activator.PLUGIN_ID, "The peripherals cannot be read now."));
+			drm.done();
+			return;
+		}
+
+		final PeripheralSnapshot snapshot = PeripheralSnapshot.create(peripherals,
+				memoryService.isBigEndian(context));
+
+		List<Piece> pieces = new ArrayList<>();
+		for (PeripheralSnapshot.Peripheral peripheral : snapshot.getPeripherals()) {
+			addPieces(pieces, peripheral, peripheral.getRegisterTable(), context, peripheral.getBaseAddress(),
+					peripheral.getRegions());
+		}
+		List<Read> reads = merge(pieces);
+
+		if (Activator.getInstance().isDebugging()) {
+			System.out.println("PeripheralReadPlanner.readSnapshot() " + snapshot.getPeripherals().size()
+					+ " peripherals, " + reads.size() + " reads");
+		}
+
+		final long generation = fGeneration;
+		final long start = System.currentTimeMillis();
+		readSequentially(reads, 0, generation, new RequestMonitor(getExecutor(), null) {
+
+			@Override
+			protected void handleCompleted() {
+
+				if (generation != fGeneration) {
+					drm.setStatus(new Status(Status.ERROR, Activator.PLUGIN_ID,
+							"The target state changed while reading the peripherals."));
+				} else {
+					snapshot.setTime(System.currentTimeMillis());
+					drm.setData(snapshot);
+				}
+
+				if (Activator.getInstance().isDebugging()) {
+					System.out.println("PeripheralReadPlanner.readSnapshot() completed in "
+							+ (System.currentTimeMillis() - start) + " ms");
+				}
+				drm.done();
+			}
+		});
+	}
+
+	private void readBlocks(List<PeripheralMemoryBlockExtension> blocks, long generation, RequestMonitor rm) {
+
+		if (!isTargetAcceptingCommands()) {
+			// Running, without background memory access; the regions remain
+			// stale and are read when the target is suspended.
+			rm.done();
+			return;
+		}
+
+		List<Read> reads = plan(blocks);
+
+		if (Activator.getInstance().isDebugging()) {
+			System.out.println("PeripheralReadPlanner.readBlocks() " + blocks.size() + " blocks, " + reads.size()
+					+ " reads");
+		}
+
+		readSequentially(reads, 0, generation, rm);
+	}
+
+	/**
+	 * Issue the reads one after the other, checking before each one if the
+	 * generation is still current.
+	 */
+	private void readSequentially(final List<Read> reads, final int index, final long generation,
+			final RequestMonitor rm) {
+
+		if (index >= reads.size()) {
+			rm.done();
+			return;
+		}
+
+		if (generation != fGeneration) {
+			if (Activator.getInstance().isDebugging()) {
+				System.out.println(
+						"PeripheralReadPlanner " + (reads.size() - index) + " superseded reads dropped");
+			}
+			rm.done();
+			return;
+		}
+
+		read(reads.get(index), generation, new RequestMonitor(getExecutor(), null) {
+
+			@Override
+			protected void handleCompleted() {
+				readSequentially(reads, index + 1, generation, rm);
+			}
+		});
+	}
+
+	private DsfExecutor getExecutor() {
+		return fRetrieval.getExecutor();
+	}
+
+	/**
+	 * Sort all regions by address and merge them into reads.
+	 */
+	private List<Read> plan(List<PeripheralMemoryBlockExtension> blocks) {
+
+		List<Piece> pieces = new ArrayList<>();
+		for (PeripheralMemoryBlockExtension block : blocks) {
+
+			List<PeripheralMemoryRegion> regions = block.getRegionsToRead();
+			BigInteger bigBase = block.getPeripheralBigBaseAddress();
+			if (regions == null || bigBase == null || block.getMemoryDMContext() == null) {
+				continue;
+			}
+			addPieces(pieces, block, block.getRegisterTable(), block.getMemoryDMContext(), bigBase.longValue(),
+					regions);
+		}
+
+		return merge(pieces);
+	}
+
+	static void addPieces(List<Piece> pieces, Object owner, PeripheralRegisterTable registerTable,
+			IMemoryDMContext context, long base, List<PeripheralMemoryRegion> regions) {
+
+		for (PeripheralMemoryRegion region : regions) {
+			Piece piece = new Piece();
+			piece.fOwner = owner;
+			piece.fRegisterTable = registerTable;
+			piece.fContext = context;
+			piece.fRegion = region;
+			piece.fStart = base + region.getAddressOffset();
+			piece.fEnd = piece.fStart + region.getSizeBytes();
+			pieces.add(piece);
+		}
+	}
+
+	private List<Read> merge(List<Piece> pieces) {
+
+		PersistentPreferences persistentPreferences = Activator.getInstance().getPersistentPreferences();
+		return merge(pieces, persistentPreferences.getPeripheralsReadMaxGap(),
+				persistentPreferences.getPeripheralsReadMaxSize());
+	}
+
+	/**
+	 * Sort the pieces by address and merge them into reads.
+	 *
+	 * @param pieces
+	 *            the pieces; the list is sorted in place.
+	 * @param maxGap
+	 *            the largest gap between pieces read together, in bytes.
+	 * @param maxSize
+	 *            the largest read, in bytes.
+	 * @return the list of reads, sorted by address.
+	 */
+	static List<Read> merge(List<Piece> pieces, int maxGap, int maxSize) {
+
+		pieces.sort((a, b) -> Long.compare(a.fStart, b.fStart));
+
+		List<Read> reads = new ArrayList<>();
+		Read read = null;
+		for (Piece piece : pieces) {
+			if (read != null && canMerge(read, piece, maxGap, maxSize)) {
+				read.add(piece);
+			} else {
+				read = new Read(piece);
+				reads.add(read);
+			}
+		}
+
+		return reads;
+	}
+
+	private static boolean canMerge(Read read, Piece piece, int maxGap, int maxSize) {
+
+		if (!read.fContext.equals(piece.fContext)) {
+			return false;
+		}
+
+		if (Math.max(read.fEnd, piece.fEnd) - read.fStart > maxSize) {
+			return false;
+		}
+
+		long gap = piece.fStart - read.fEnd;
+		if (gap <= 0) {
+			// Contiguous or overlapping, nothing more is read.
+			return true;
+		}
+
+		if (gap > maxGap) {
+			return false;
+		}
+
+		// Unknown memory between peripherals is never read.
+		Piece last = read.fPieces.get(read.fPieces.size() - 1);
+		if (last.fOwner != piece.fOwner) {
+			return false;
+		}
+
+		long base = piece.fStart - piece.fRegion.getAddressOffset();
+		return !piece.fRegisterTable.isExcluded(read.fEnd - base, gap);
+	}
+
+	/**
+	 * Issue a read and distribute the bytes to the pieces.
+	 */
+	private void read(final Read read, final long generation, final RequestMonitor rm) {
+
+		final int size = (int) (read.fEnd - read.fStart);
+		IPeripheralMemoryService memoryService = getMemoryService();
+		if (memoryService == null) {
+			read.fPieces.get(0).fRegion.invalidate();
+			rm.done();
+			return;
+		}
+		IAddress address = getAddressFactory(read.fContext).createAddress(BigInteger.valueOf(read.fStart));
+
+		// No parent, the completion is explicitly passed to rm.
+		DataRequestMonitor<MemoryByte[]> drm = new DataRequestMonitor<>(getExecutor(), null) {
+
+			@Override
+			protected void handleCompleted() {
+
+				if (generation != fGeneration) {
+					// Superseded; the regions remain stale, since the bytes
+					// may describe the state before a resume.
+					rm.done();
+					return;
+				}
+
+				MemoryByte[] bytes = getData();
+				if (isSuccess() && bytes != null && bytes.length >= size) {
+
+					for (Piece piece : read.fPieces) {
+						// Copied in the region buffer, reused by all reads.
+						piece.fRegion.setBytes(bytes, (int) (piece.fStart - read.fStart));
+					}
+					rm.done();
+				} else if (read.fPieces.size() > 1) {
+
+					if (Activator.getInstance().isDebugging()) {
+						System.out.println(String.format(
+								"PeripheralReadPlanner merged read 0x%08X, 0x%X failed, reading regions separately",
+								read.fStart, size));
+					}
+
+					// Possibly a gap cannot be read, retry without gaps.
+					List<Read> reads = new ArrayList<>();
+					for (Piece piece : read.fPieces) {
+						reads.add(new Read(piece));
+					}
+					readSequentially(reads, 0, generation, rm);
+				} else {
+
+					read.fPieces.get(0).fRegion.invalidate();
+					fFailedReads++;
+					rm.done();
+				}
+			}
+		};
+
+		memoryService.getMemory(read.fContext, address, 0, 1, size, drm);
+	}
+
+	/**
+	 * Must be called on the executor thread.
+	 */
+	private IPeripheralMemoryService getMemoryService() {
+
+		if (fMemoryService == null) {
+			DsfServicesTracker tracker = new DsfServicesTracker(Activator.getInstance().getBundle().getBundleContext(),
+					fRetrieval.getSession().getId());
+			fMemoryService = tracker.getService(IPeripheralMemoryService.class);
+			tracker.dispose();
+		}
+		return fMemoryService;
+	}
+
+	private IAddressFactory getAddressFactory(IMemoryDMContext context) {
+
+		if (fAddressFactory == null) {
+			// Same as in the memory blocks.
+			if (getMemoryService().getAddressSize(context) <= 4) {
+				fAddressFactory = new Addr32Factory();
+			} else {
+				fAddressFactory = new Addr64Factory();
+			}
+		}
+		return fAddressFactory;
+	}
+
+	// ------------------------------------------------------------------------
+}
@@ -0,0 +1,358 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.debug.gdbjtag.core.memory;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The recent values of the registers of a peripheral, one sample for each
+ * refresh, kept in a fixed size ring buffer; when full, the oldest sample is
+ * overwritten.
+ * <p>
+ * Each sample is stamped with the number of times the target was suspended
+ * and with the time; each register has a column of primitive values, decoded
+ * from the memory regions. Recording a sample does not allocate memory.
+ * <p>
+ * Registers larger than 8 bytes are not recorded. Registers in regions not
+ * read by the last refresh (for example hidden) are recorded as not valid.
+ *
+ * @since 5.3
+ */
+public class PeripheralRegisterHistory {
+
+	// ------------------------------------------------------------------------
+
+	// 'PRHB'
+	private static final int BINARY_MAGIC = 0x50524842;
+	private static final int BINARY_VERSION = 1;
+
+	// ------------------------------------------------------------------------
+
+	private final int fCapacity;
+
+	// The registers, sorted by offset.
+	private final long[] fOffsets;
+	private final int[] fSizes;
+	// Where each register is in the regions list.
+	private final int[] fRegionIndices;
+	private final int[] fRegionStarts;
+
+	// The samples; the values are stored by sample, a row of registers each.
+	private final long[] fTimes;
+	private final long[] fSuspendCounts;
+	private final long[] fValues;
+	private final BitSet fValid;
+
+	// The index of the next sample to write.
+	private int fHead;
+	private int fCount;
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Prepare the columns for the readable registers of a peripheral.
+	 *
+	 * @param table
+	 *            the table of readable registers.
+	 * @param regions
+	 *            the regions created from the table.
+	 * @param capacity
+	 *            the number of samples kept.
+	 */
+	public PeripheralRegisterHistory(PeripheralRegisterTable table, List<PeripheralMemoryRegion> regions,
+			int capacity) {
+
+		fCapacity = Math.max(capacity, 1);
+
+		int count = 0;
+		long[] offsets = new long[table.size()];
+		int[] sizes = new int[table.size()];
+		int[] regionIndices = new int[table.size()];
+		int[] regionStarts = new int[table.size()];
+
+		for (int i = 0; i < table.size(); ++i) {
+			long offset = table.getOffset(i);
+			int sizeBytes = table.getSizeBytes(i);
+			if (sizeBytes > 8 || (count > 0 && offsets[count - 1] == offset && sizes[count - 1] == sizeBytes)) {
+				// Too large, or the same register, seen through a union.
+				continue;
+			}
+			int index = PeripheralMemoryBlockExtension.findRegionIndex(regions, offset, sizeBytes);
+			if (index < 0) {
+				continue;
+			}
+			offsets[count] = offset;
+			sizes[count] = sizeBytes;
+			regionIndices[count] = index;
+			regionStarts[count] = (int) (offset - regions.get(index).getAddressOffset());
+			count++;
+		}
+
+		fOffsets = Arrays.copyOf(offsets, count);
+		fSizes = Arrays.copyOf(sizes, count);
+		fRegionIndices = Arrays.copyOf(regionIndices, count);
+		fRegionStarts = Arrays.copyOf(regionStarts, count);
+
+		fTimes = new long[fCapacity];
+		fSuspendCounts = new long[fCapacity];
+		fValues = new long[fCapacity * count];
+		fValid = new BitSet(fCapacity * count);
+
+		fHead = 0;
+		fCount = 0;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Append a sample with the current content of the regions. A refresh at
+	 * the same suspend count as the last sample (for example when a hidden
+	 * register is shown) does not add a new sample, it replaces the last one,
+	 * which may have registers not read yet.
+	 *
+	 * @param regions
+	 *            the regions the history was created for.
+	 * @param suspendCount
+	 *            the number of times the target was suspended.
+	 * @param time
+	 *            the time, in ms.
+	 */
+	public synchronized void record(List<PeripheralMemoryRegion> regions, long suspendCount, long time) {
+
+		int registers = fOffsets.length;
+
+		if (fCount > 0) {
+			int last = (fHead - 1 + fCapacity) % fCapacity;
+			if (fSuspendCounts[last] == suspendCount) {
+				fHead = last;
+				fCount--;
+			}
+		}
+
+		int row = fHead * registers;
+
+		fTimes[fHead] = time;
+		fSuspendCounts[fHead] = suspendCount;
+
+		for (int i = 0; i < registers; ++i) {
+			PeripheralMemoryRegion region = regions.get(fRegionIndices[i]);
+			if (!region.isStale() && region.isValid(fRegionStarts[i], fSizes[i])) {
+				fValues[row + i] = region.getLong(fRegionStarts[i], fSizes[i]);
+				fValid.set(row + i);
+			} else {
+				fValues[row + i] = 0;
+				fValid.clear(row + i);
+			}
+		}
+
+		fHead = (fHead + 1) % fCapacity;
+		if (fCount < fCapacity) {
+			fCount++;
+		}
+	}
+
+	public synchronized void clear() {
+
+		fHead = 0;
+		fCount = 0;
+		fValid.clear();
+	}
+
+	// ------------------------------------------------------------------------
+
+	public int getCapacity() {
+		return fCapacity;
+	}
+
+	public synchronized int getSampleCount() {
+		return fCount;
+	}
+
+	public int getRegisterCount() {
+		return fOffsets.length;
+	}
+
+	public long getRegisterOffset(int register) {
+		return fOffsets[register];
+	}
+
+	public int getRegisterSizeBytes(int register) {
+		return fSizes[register];
+	}
+
+	/**
+	 * Find the column of a register.
+	 *
+	 * @param offset
+	 *            the register offset, relative to the peripheral.
+	 * @param sizeBytes
+	 *            the register size, in bytes.
+	 * @return the register index, or -1 if not recorded.
+	 */
+	public int findRegister(long offset, int sizeBytes) {
+
+		int index = Arrays.binarySearch(fOffsets, offset);
+		if (index < 0) {
+			return -1;
+		}
+		// Unions may have several registers of different sizes at the same
+		// offset.
+		while (index > 0 && fOffsets[index - 1] == offset) {
+			--index;
+		}
+		for (; index < fOffsets.length && fOffsets[index] == offset; ++index) {
+			if (fSizes[index] == sizeBytes) {
+				return index;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Copy the samples of a register, oldest first.
+	 *
+	 * @param register
+	 *            the register index.
+	 * @param times
+	 *            the destination of the times, or null.
+	 * @param suspendCounts
+	 *            the destination of the suspend counters, or null.
+	 * @param values
+	 *            the destination of the values.
+	 * @param valid
+	 *            the destination of the valid flags.
+	 * @return the number of samples copied, at most the arrays length.
+	 */
+	public synchronized int copyRegister(int register, long[] times, long[] suspendCounts, long[] values,
+			boolean[] valid) {
+
+		int count = Math.min(fCount, values.length);
+		// The oldest of the last count samples.
+		int first = (fHead - count + fCapacity) % fCapacity;
+		int registers = fOffsets.length;
+
+		for (int i = 0; i < count; ++i) {
+			int sample = (first + i) % fCapacity;
+			if (times != null) {
+				times[i] = fTimes[sample];
+			}
+			if (suspendCounts != null) {
+				suspendCounts[i] = fSuspendCounts[sample];
+			}
+			values[i] = fValues[sample * registers + register];
+			valid[i] = fValid.get(sample * registers + register);
+		}
+		return count;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Write all samples as comma separated values, oldest first, one line per
+	 * sample. The columns are the suspend counter, the time in ms and the
+	 * values of the registers, as hexadecimal; values not read are empty.
+	 *
+	 * @param writer
+	 *            the destination; it is not closed.
+	 * @param baseAddress
+	 *            the peripheral address, used in the columns headers.
+	 * @throws IOException
+	 */
+	public synchronized void writeCsv(Writer writer, long baseAddress) throws IOException {
+
+		int registers = fOffsets.length;
+
+		writer.write("suspend,time");
+		for (int i = 0; i < registers; ++i) {
+			writer.write(String.format(",0x%08X", baseAddress + fOffsets[i]));
+		}
+		writer.write("\n");
+
+		int first = (fHead - fCount + fCapacity) % fCapacity;
+		StringBuilder sb = new StringBuilder();
+		for (int k = 0; k < fCount; ++k) {
+			int sample = (first + k) % fCapacity;
+
+			sb.setLength(0);
+			sb.append(fSuspendCounts[sample]);
+			sb.append(',');
+			sb.append(fTimes[sample]);
+			for (int i = 0; i < registers; ++i) {
+				sb.append(',');
+				if (fValid.get(sample * registers + i)) {
+					sb.append(String.format("0x%0" + (2 * fSizes[i]) + "X", fValues[sample * registers + i]));
+				}
+			}
+			sb.append('\n');
+			writer.write(sb.toString());
+		}
+	}
+
+	/**
+	 * Write all samples in a compact binary form, big endian.
+	 * <p>
+	 * The header has the magic 'PRHB', the format version, the base address,
+	 * the number of registers, the offset (long) and size (int) of each
+	 * register, and the number of samples. Each sample has the suspend
+	 * counter (long), the time (long), and for each register a valid flag
+	 * (byte) followed by the value (long).
+	 *
+	 * @param output
+	 *            the destination; it is not closed.
+	 * @param baseAddress
+	 *            the peripheral address.
+	 * @throws IOException
+	 */
+	public synchronized void writeBinary(DataOutputStream output, long baseAddress) throws IOException {
+
+		int registers = fOffsets.length;
+
+		output.writeInt(BINARY_MAGIC);
+		output.writeInt(BINARY_VERSION);
+		output.writeLong(baseAddress);
+		output.writeInt(registers);
+		for (int i = 0; i < registers; ++i) {
+			output.writeLong(fOffsets[i]);
+			output.writeInt(fSizes[i]);
+		}
+
+		output.writeInt(fCount);
+		int first = (fHead - fCount + fCapacity) % fCapacity;
+		for (int k = 0; k < fCount; ++k) {
+			int sample = (first + k) % fCapacity;
+
+			output.writeLong(fSuspendCounts[sample]);
+			output.writeLong(fTimes[sample]);
+			for (int i = 0; i < registers; ++i) {
+				output.writeByte(fValid.get(sample * registers + i) ? 1 : 0);
+				output.writeLong(fValues[sample * registers + i]);
+			}
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	public String toString() {
+		return String.format("[History, %d registers, %d/%d samples]", fOffsets.length, fCount, fCapacity);
+	}
+
+	// ------------------------------------------------------------------------
+}
@@ -0,0 +1,287 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.debug.gdbjtag.core.memory;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdClusterDMNode;
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdDMNode;
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdObjectDMNode;
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdRegisterDMNode;
+
+/**
+ * A compact table with the offsets and sizes of all readable registers of a
+ * peripheral, sorted by offset.
+ * <p>
+ * The table is computed directly from the SVD data model, expanding arrays
+ * and repetitions arithmetically, so the memory regions can be planned
+ * without creating the view model nodes, which are created only when the
+ * user expands the rendering tree.
+ * <p>
+ * The offsets are relative to the peripheral base address, exactly as
+ * computed by PeripheralTreeVMNode.getPeripheralBigAddressOffset().
+ *
+ * @since 5.3
+ */
+public class PeripheralRegisterTable {
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Growable parallel arrays of offsets and sizes.
+	 */
+	private static class Entries {
+
+		long[] fOffsets = new long[16];
+		int[] fSizes = new int[16];
+		int fCount = 0;
+
+		void add(long offset, int sizeBytes) {
+
+			if (fCount == fOffsets.length) {
+				fOffsets = Arrays.copyOf(fOffsets, 2 * fCount);
+				fSizes = Arrays.copyOf(fSizes, 2 * fCount);
+			}
+			fOffsets[fCount] = offset;
+			fSizes[fCount] = sizeBytes;
+			fCount++;
+		}
+
+		/**
+		 * Add copies of the entries in the given range, moved by delta.
+		 */
+		void replicate(int first, int last, long delta) {
+
+			for (int k = first; k < last; ++k) {
+				add(fOffsets[k] + delta, fSizes[k]);
+			}
+		}
+
+		/**
+		 * Sort by offset and trim. SVD files usually define registers in
+		 * offset order, so the entries are generally already sorted.
+		 */
+		void sort() {
+
+			boolean isSorted = true;
+			for (int i = 1; i < fCount; ++i) {
+				if (fOffsets[i] < fOffsets[i - 1]) {
+					isSorted = false;
+					break;
+				}
+			}
+
+			if (!isSorted) {
+				Integer[] indices = new Integer[fCount];
+				for (int i = 0; i < fCount; ++i) {
+					indices[i] = i;
+				}
+				final long[] offsets = fOffsets;
+				Arrays.sort(indices, (a, b) -> Long.compare(offsets[a], offsets[b]));
+
+				long[] sortedOffsets = new long[fCount];
+				int[] sortedSizes = new int[fCount];
+				for (int i = 0; i < fCount; ++i) {
+					sortedOffsets[i] = fOffsets[indices[i]];
+					sortedSizes[i] = fSizes[indices[i]];
+				}
+				fOffsets = sortedOffsets;
+				fSizes = sortedSizes;
+			} else if (fOffsets.length > fCount) {
+				fOffsets = Arrays.copyOf(fOffsets, fCount);
+				fSizes = Arrays.copyOf(fSizes, fCount);
+			}
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	private final Entries fReadable;
+	// Registers with read side effects, which must never be read.
+	private final Entries fExcluded;
+
+	// ------------------------------------------------------------------------
+
+	private PeripheralRegisterTable() {
+
+		fReadable = new Entries();
+		fExcluded = new Entries();
+	}
+
+	/**
+	 * Collect the readable registers of a peripheral. Registers with a read
+	 * action are not included, since reading them has side effects; they are
+	 * kept separately, to prevent reads that merge across them.
+	 *
+	 * @param peripheral
+	 *            the peripheral data model node.
+	 * @return a new table.
+	 */
+	public static PeripheralRegisterTable create(SvdDMNode peripheral) {
+
+		PeripheralRegisterTable table = new PeripheralRegisterTable();
+		table.collect(peripheral, 0);
+		table.fReadable.sort();
+		table.fExcluded.sort();
+
+		return table;
+	}
+
+	// ------------------------------------------------------------------------
+
+	public int size() {
+		return fReadable.fCount;
+	}
+
+	public long getOffset(int index) {
+		return fReadable.fOffsets[index];
+	}
+
+	public int getSizeBytes(int index) {
+		return fReadable.fSizes[index];
+	}
+
+	/**
+	 * Check if a range intersects a register that must not be read.
+	 *
+	 * @param offset
+	 *            the range start, relative to the peripheral.
+	 * @param sizeBytes
+	 *            the range size.
+	 * @return true if the range cannot be read.
+	 */
+	public boolean isExcluded(long offset, long sizeBytes) {
+
+		long end = offset + sizeBytes;
+
+		// Registers are small, so the first candidate starts a bit before.
+		int i = Arrays.binarySearch(fExcluded.fOffsets, 0, fExcluded.fCount, offset);
+		if (i < 0) {
+			i = -i - 1;
+		}
+		while (i > 0 && fExcluded.fOffsets[i - 1] + fExcluded.fSizes[i - 1] > offset) {
+			--i;
+		}
+		for (; i < fExcluded.fCount && fExcluded.fOffsets[i] < end; ++i) {
+			if (fExcluded.fOffsets[i] + fExcluded.fSizes[i] > offset) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Create the list of memory regions to be read, by concatenating
+	 * contiguous or overlapping (unions) registers.
+	 *
+	 * @return a list of regions, sorted by offset.
+	 */
+	public List<PeripheralMemoryRegion> createRegions() {
+
+		List<PeripheralMemoryRegion> list = new ArrayList<>();
+		int count = fReadable.fCount;
+		if (count == 0) {
+			return list;
+		}
+
+		long[] offsets = fReadable.fOffsets;
+		int[] sizes = fReadable.fSizes;
+
+		long start = offsets[0];
+		long end = start + sizes[0];
+		for (int i = 1; i < count; ++i) {
+			if (offsets[i] <= end) {
+				// Contiguous or contained.
+				end = Math.max(end, offsets[i] + sizes[i]);
+			} else {
+				list.add(new PeripheralMemoryRegion(start, end - start));
+				start = offsets[i];
+				end = start + sizes[i];
+			}
+		}
+		list.add(new PeripheralMemoryRegion(start, end - start));
+
+		return list;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Add the registers below a peripheral or cluster node.
+	 *
+	 * @param parent
+	 *            the peripheral or cluster node.
+	 * @param base
+	 *            the parent offset, relative to the peripheral.
+	 */
+	private void collect(SvdDMNode parent, long base) {
+
+		SvdObjectDMNode[] children = parent.getChildren();
+		for (int i = 0; i < children.length; ++i) {
+			SvdDMNode child = (SvdDMNode) children[i];
+
+			int count = 1;
+			if (child.isArray()) {
+				count = child.getArraySize();
+			} else if (child.isRepetition()) {
+				count = child.getRepetitionSubstitutions().length;
+			}
+
+			long offset = base + child.getBigAddressOffset().longValue();
+			BigInteger bigIncrement = child.getBigRepeatIncrement();
+			long increment = (bigIncrement != null) ? bigIncrement.longValue() : 0;
+
+			if (child instanceof SvdRegisterDMNode) {
+
+				int sizeBytes = child.getBigSizeBytes().intValue();
+				if (sizeBytes <= 0) {
+					continue;
+				}
+				Entries entries = child.isReadAllowed() ? fReadable : fExcluded;
+				for (int j = 0; j < count; ++j) {
+					entries.add(offset + j * increment, sizeBytes);
+				}
+			} else if (child instanceof SvdClusterDMNode) {
+
+				if (count <= 0) {
+					continue;
+				}
+				// Collect the first element, and replicate it for the
+				// other elements, without walking the cluster again.
+				int firstReadable = fReadable.fCount;
+				int firstExcluded = fExcluded.fCount;
+				collect(child, offset);
+				int lastReadable = fReadable.fCount;
+				int lastExcluded = fExcluded.fCount;
+				for (int j = 1; j < count; ++j) {
+					fReadable.replicate(firstReadable, lastReadable, j * increment);
+					fExcluded.replicate(firstExcluded, lastExcluded, j * increment);
+				}
+			}
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	public String toString() {
+		return String.format("[Registers table, %d entries, %d excluded]", fReadable.fCount, fExcluded.fCount);
+	}
+
+	// ------------------------------------------------------------------------
+}
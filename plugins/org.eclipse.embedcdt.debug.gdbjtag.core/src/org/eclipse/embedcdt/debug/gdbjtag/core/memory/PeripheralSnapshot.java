@@ -0,0 +1,315 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.debug.gdbjtag.core.memory;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdPeripheralDMNode;
+
+/**
+ * The content of all readable registers of all peripherals of a device, read
+ * at the same moment, used to compare the peripherals state between two
+ * breakpoints, or between two boards.
+ * <p>
+ * Only the raw bytes of the memory regions are kept, the registers and fields
+ * are decoded with the SVD data model when compared. Registers with read side
+ * effects are not included.
+ *
+ * @since 5.3
+ */
+public class PeripheralSnapshot {
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * The memory regions of a peripheral.
+	 */
+	public static class Peripheral {
+
+		private final String fName;
+		private final long fBaseAddress;
+		private final List<PeripheralMemoryRegion> fRegions;
+		// Only for captured snapshots, to prevent reads merged across
+		// registers with read side effects.
+		private final PeripheralRegisterTable fRegisterTable;
+
+		Peripheral(String name, long baseAddress, List<PeripheralMemoryRegion> regions,
+				PeripheralRegisterTable registerTable) {
+
+			fName = name;
+			fBaseAddress = baseAddress;
+			fRegions = regions;
+			fRegisterTable = registerTable;
+		}
+
+		public String getName() {
+			return fName;
+		}
+
+		public long getBaseAddress() {
+			return fBaseAddress;
+		}
+
+		List<PeripheralMemoryRegion> getRegions() {
+			return fRegions;
+		}
+
+		PeripheralRegisterTable getRegisterTable() {
+			return fRegisterTable;
+		}
+
+		/**
+		 * Check if a register was read.
+		 *
+		 * @param offset
+		 *            the register offset, relative to the peripheral.
+		 * @param sizeBytes
+		 *            the register size, up to 8 bytes.
+		 * @return true if all register bytes are valid.
+		 */
+		public boolean isValid(long offset, int sizeBytes) {
+
+			int index = PeripheralMemoryBlockExtension.findRegionIndex(fRegions, offset, sizeBytes);
+			if (index < 0) {
+				return false;
+			}
+			PeripheralMemoryRegion region = fRegions.get(index);
+			return region.isValid((int) (offset - region.getAddressOffset()), sizeBytes);
+		}
+
+		/**
+		 * Decode a register; call only if valid.
+		 *
+		 * @param offset
+		 *            the register offset, relative to the peripheral.
+		 * @param sizeBytes
+		 *            the register size, up to 8 bytes.
+		 * @return the unsigned value.
+		 */
+		public long getLong(long offset, int sizeBytes) {
+
+			int index = PeripheralMemoryBlockExtension.findRegionIndex(fRegions, offset, sizeBytes);
+			PeripheralMemoryRegion region = fRegions.get(index);
+			return region.getLong((int) (offset - region.getAddressOffset()), sizeBytes);
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	// 'PSNP'
+	private static final int BINARY_MAGIC = 0x50534E50;
+	private static final int BINARY_VERSION = 1;
+
+	// ------------------------------------------------------------------------
+
+	private long fTime;
+	private final boolean fIsBigEndian;
+	private final List<Peripheral> fPeripherals;
+	private final Map<String, Peripheral> fPeripheralsMap;
+
+	// ------------------------------------------------------------------------
+
+	private PeripheralSnapshot(long time, boolean isBigEndian) {
+
+		fTime = time;
+		fIsBigEndian = isBigEndian;
+		fPeripherals = new ArrayList<>();
+		fPeripheralsMap = new HashMap<>();
+	}
+
+	/**
+	 * Prepare the regions of all readable registers of the given peripherals,
+	 * to be read by the planner.
+	 *
+	 * @param peripherals
+	 *            the peripherals data model nodes.
+	 * @param isBigEndian
+	 *            the device endianness.
+	 * @return a new snapshot, not yet read.
+	 */
+	public static PeripheralSnapshot create(List<? extends SvdPeripheralDMNode> peripherals, boolean isBigEndian) {
+
+		PeripheralSnapshot snapshot = new PeripheralSnapshot(System.currentTimeMillis(), isBigEndian);
+
+		for (SvdPeripheralDMNode node : peripherals) {
+			PeripheralRegisterTable table = PeripheralRegisterTable.create(node);
+			if (table.size() == 0) {
+				continue;
+			}
+			List<PeripheralMemoryRegion> regions = table.createRegions();
+			snapshot.initRegions(regions);
+			snapshot.add(new Peripheral(node.getName(), node.getBigAbsoluteAddress().longValue(), regions, table));
+		}
+		return snapshot;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * @return the time when the snapshot was read, in ms.
+	 */
+	public long getTime() {
+		return fTime;
+	}
+
+	void setTime(long time) {
+		fTime = time;
+	}
+
+	public boolean isBigEndian() {
+		return fIsBigEndian;
+	}
+
+	public List<Peripheral> getPeripherals() {
+		return Collections.unmodifiableList(fPeripherals);
+	}
+
+	/**
+	 * @param name
+	 *            the peripheral name.
+	 * @return the peripheral, or null if not in the snapshot.
+	 */
+	public Peripheral findPeripheral(String name) {
+		return fPeripheralsMap.get(name);
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Write the snapshot in a compact binary form, big endian.
+	 * <p>
+	 * The header has the magic 'PSNP', the format version, the time (long),
+	 * the device endianness (byte) and the number of peripherals. Each
+	 * peripheral has the name (UTF), the base address (long) and the number of
+	 * regions. Each region has the offset (long), the size (int), the valid
+	 * bytes mask (length as int, followed by the bytes, as in
+	 * BitSet.toByteArray()) and the region bytes.
+	 *
+	 * @param output
+	 *            the destination; it is not closed.
+	 * @throws IOException
+	 */
+	public void write(DataOutputStream output) throws IOException {
+
+		output.writeInt(BINARY_MAGIC);
+		output.writeInt(BINARY_VERSION);
+		output.writeLong(fTime);
+		output.writeByte(fIsBigEndian ? 1 : 0);
+
+		output.writeInt(fPeripherals.size());
+		for (Peripheral peripheral : fPeripherals) {
+			output.writeUTF(peripheral.fName);
+			output.writeLong(peripheral.fBaseAddress);
+
+			output.writeInt(peripheral.fRegions.size());
+			for (PeripheralMemoryRegion region : peripheral.fRegions) {
+				output.writeLong(region.getAddressOffset());
+				output.writeInt((int) region.getSizeBytes());
+
+				byte[] mask = region.getValidBytes().toByteArray();
+				output.writeInt(mask.length);
+				output.write(mask);
+
+				byte[] bytes = new byte[(int) region.getSizeBytes()];
+				region.getBytes(0, bytes);
+				output.write(bytes);
+			}
+		}
+	}
+
+	/**
+	 * Read a snapshot written by write().
+	 *
+	 * @param input
+	 *            the source; it is not closed.
+	 * @return a new snapshot.
+	 * @throws IOException
+	 *             if the content is not a snapshot.
+	 */
+	public static PeripheralSnapshot read(DataInputStream input) throws IOException {
+
+		if (input.readInt() != BINARY_MAGIC) {
+			throw new IOException("Not a peripherals snapshot");
+		}
+		int version = input.readInt();
+		if (version != BINARY_VERSION) {
+			throw new IOException("Unsupported peripherals snapshot version " + version);
+		}
+
+		long time = input.readLong();
+		boolean isBigEndian = input.readByte() != 0;
+		PeripheralSnapshot snapshot = new PeripheralSnapshot(time, isBigEndian);
+
+		int peripherals = input.readInt();
+		for (int i = 0; i < peripherals; ++i) {
+			String name = input.readUTF();
+			long baseAddress = input.readLong();
+
+			int count = input.readInt();
+			List<PeripheralMemoryRegion> regions = new ArrayList<>(count);
+			for (int j = 0; j < count; ++j) {
+				long offset = input.readLong();
+				int sizeBytes = input.readInt();
+
+				byte[] mask = new byte[input.readInt()];
+				input.readFully(mask);
+
+				byte[] bytes = new byte[sizeBytes];
+				input.readFully(bytes);
+
+				PeripheralMemoryRegion region = new PeripheralMemoryRegion(offset, sizeBytes);
+				region.setBytes(bytes, BitSet.valueOf(mask));
+				regions.add(region);
+			}
+			snapshot.initRegions(regions);
+			snapshot.add(new Peripheral(name, baseAddress, regions, null));
+		}
+		return snapshot;
+	}
+
+	// ------------------------------------------------------------------------
+
+	private void add(Peripheral peripheral) {
+
+		fPeripherals.add(peripheral);
+		fPeripheralsMap.put(peripheral.fName, peripheral);
+	}
+
+	private void initRegions(List<PeripheralMemoryRegion> regions) {
+
+		ByteOrder order = fIsBigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+		for (PeripheralMemoryRegion region : regions) {
+			region.setByteOrder(order);
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	public String toString() {
+		return String.format("[Snapshot, %d peripherals]", fPeripherals.size());
+	}
+
+	// ------------------------------------------------------------------------
+}
@@ -0,0 +1,383 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.debug.gdbjtag.core.memory;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.PeripheralValue;
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdClusterDMNode;
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdDMNode;
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdEnumeratedValueDMNode;
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdFieldDMNode;
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdObjectDMNode;
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdPeripheralDMNode;
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdRegisterDMNode;
+
+/**
+ * The registers that differ between two snapshots, with the fields decoded
+ * using the SVD data model.
+ * <p>
+ * Registers are compared as primitive values, directly from the snapshots
+ * regions, without creating the view model nodes; registers larger than 8
+ * bytes are not compared.
+ *
+ * @since 5.3
+ */
+public class PeripheralSnapshotDiff {
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * A field with different values.
+	 */
+	public static class FieldChange {
+
+		private final String fName;
+		private final int fOffset;
+		private final int fWidthBits;
+		private final long fOldValue;
+		private final long fNewValue;
+		private final String fOldEnumeration;
+		private final String fNewEnumeration;
+
+		FieldChange(String name, int offset, int widthBits, long oldValue, long newValue, String oldEnumeration,
+				String newEnumeration) {
+
+			fName = name;
+			fOffset = offset;
+			fWidthBits = widthBits;
+			fOldValue = oldValue;
+			fNewValue = newValue;
+			fOldEnumeration = oldEnumeration;
+			fNewEnumeration = newEnumeration;
+		}
+
+		public String getName() {
+			return fName;
+		}
+
+		public int getOffset() {
+			return fOffset;
+		}
+
+		public int getWidthBits() {
+			return fWidthBits;
+		}
+
+		public long getOldValue() {
+			return fOldValue;
+		}
+
+		public long getNewValue() {
+			return fNewValue;
+		}
+
+		/**
+		 * @return the name of the old enumerated value, or null.
+		 */
+		public String getOldEnumeration() {
+			return fOldEnumeration;
+		}
+
+		/**
+		 * @return the name of the new enumerated value, or null.
+		 */
+		public String getNewEnumeration() {
+			return fNewEnumeration;
+		}
+	}
+
+	/**
+	 * A register with different values, or read in only one of the
+	 * snapshots.
+	 */
+	public static class RegisterChange {
+
+		private final String fPeripheralName;
+		private final String fName;
+		private final long fAddress;
+		private final int fSizeBytes;
+		private final boolean fIsOldValid;
+		private final long fOldValue;
+		private final boolean fIsNewValid;
+		private final long fNewValue;
+		private final List<FieldChange> fFields;
+
+		RegisterChange(String peripheralName, String name, long address, int sizeBytes, boolean isOldValid,
+				long oldValue, boolean isNewValid, long newValue, List<FieldChange> fields) {
+
+			fPeripheralName = peripheralName;
+			fName = name;
+			fAddress = address;
+			fSizeBytes = sizeBytes;
+			fIsOldValid = isOldValid;
+			fOldValue = oldValue;
+			fIsNewValid = isNewValid;
+			fNewValue = newValue;
+			fFields = fields;
+		}
+
+		public String getPeripheralName() {
+			return fPeripheralName;
+		}
+
+		/**
+		 * @return the register name, prefixed by the clusters names.
+		 */
+		public String getName() {
+			return fName;
+		}
+
+		public long getAddress() {
+			return fAddress;
+		}
+
+		public int getSizeBytes() {
+			return fSizeBytes;
+		}
+
+		public boolean isOldValid() {
+			return fIsOldValid;
+		}
+
+		public long getOldValue() {
+			return fOldValue;
+		}
+
+		public boolean isNewValid() {
+			return fIsNewValid;
+		}
+
+		public long getNewValue() {
+			return fNewValue;
+		}
+
+		/**
+		 * @return the changed fields, empty if a value is missing.
+		 */
+		public List<FieldChange> getFields() {
+			return fFields;
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	private final PeripheralSnapshot fOld;
+	private final PeripheralSnapshot fNew;
+	private final List<RegisterChange> fChanges;
+
+	// Reused to match the enumerations.
+	private final PeripheralValue fValue;
+
+	// ------------------------------------------------------------------------
+
+	private PeripheralSnapshotDiff(PeripheralSnapshot oldSnapshot, PeripheralSnapshot newSnapshot) {
+
+		fOld = oldSnapshot;
+		fNew = newSnapshot;
+		fChanges = new ArrayList<>();
+		fValue = new PeripheralValue();
+	}
+
+	/**
+	 * Compare two snapshots of the same device.
+	 *
+	 * @param oldSnapshot
+	 *            the first snapshot.
+	 * @param newSnapshot
+	 *            the second snapshot.
+	 * @param peripherals
+	 *            the peripherals data model nodes, used to decode the
+	 *            registers and fields.
+	 * @return the differences, in the order of the peripherals and registers.
+	 */
+	public static PeripheralSnapshotDiff compare(PeripheralSnapshot oldSnapshot, PeripheralSnapshot newSnapshot,
+			List<? extends SvdPeripheralDMNode> peripherals) {
+
+		PeripheralSnapshotDiff diff = new PeripheralSnapshotDiff(oldSnapshot, newSnapshot);
+
+		for (SvdPeripheralDMNode node : peripherals) {
+			PeripheralSnapshot.Peripheral oldPeripheral = oldSnapshot.findPeripheral(node.getName());
+			PeripheralSnapshot.Peripheral newPeripheral = newSnapshot.findPeripheral(node.getName());
+			if (oldPeripheral == null || newPeripheral == null) {
+				continue;
+			}
+			diff.compareChildren(node, 0, "", oldPeripheral, newPeripheral);
+		}
+		return diff;
+	}
+
+	// ------------------------------------------------------------------------
+
+	public PeripheralSnapshot getOldSnapshot() {
+		return fOld;
+	}
+
+	public PeripheralSnapshot getNewSnapshot() {
+		return fNew;
+	}
+
+	public List<RegisterChange> getChanges() {
+		return Collections.unmodifiableList(fChanges);
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Compare the registers below a peripheral or cluster node, expanding
+	 * the arrays and repetitions, as in the register table.
+	 */
+	private void compareChildren(SvdDMNode parent, long base, String prefix, PeripheralSnapshot.Peripheral oldPeripheral,
+			PeripheralSnapshot.Peripheral newPeripheral) {
+
+		SvdObjectDMNode[] children = parent.getChildren();
+		for (int i = 0; i < children.length; ++i) {
+			SvdDMNode child = (SvdDMNode) children[i];
+
+			int count = 1;
+			if (child.isArray()) {
+				count = child.getArraySize();
+			} else if (child.isRepetition()) {
+				count = child.getRepetitionSubstitutions().length;
+			}
+
+			long offset = base + child.getBigAddressOffset().longValue();
+			BigInteger bigIncrement = child.getBigRepeatIncrement();
+			long increment = (bigIncrement != null) ? bigIncrement.longValue() : 0;
+
+			for (int j = 0; j < count; ++j) {
+				String name = prefix + getElementName(child, j);
+				if (child instanceof SvdRegisterDMNode) {
+					compareRegister((SvdRegisterDMNode) child, offset + j * increment, name, oldPeripheral,
+							newPeripheral);
+				} else if (child instanceof SvdClusterDMNode) {
+					compareChildren(child, offset + j * increment, name + ".", oldPeripheral, newPeripheral);
+				}
+			}
+		}
+	}
+
+	private void compareRegister(SvdRegisterDMNode register, long offset, String name,
+			PeripheralSnapshot.Peripheral oldPeripheral, PeripheralSnapshot.Peripheral newPeripheral) {
+
+		int sizeBytes = register.getBigSizeBytes().intValue();
+		if (!register.isReadAllowed() || sizeBytes <= 0 || sizeBytes > 8) {
+			return;
+		}
+
+		boolean isOldValid = oldPeripheral.isValid(offset, sizeBytes);
+		boolean isNewValid = newPeripheral.isValid(offset, sizeBytes);
+		if (!isOldValid && !isNewValid) {
+			return;
+		}
+
+		long oldValue = isOldValid ? oldPeripheral.getLong(offset, sizeBytes) : 0;
+		long newValue = isNewValid ? newPeripheral.getLong(offset, sizeBytes) : 0;
+		if (isOldValid && isNewValid && oldValue == newValue) {
+			return;
+		}
+
+		List<FieldChange> fields;
+		if (isOldValid && isNewValid) {
+			fields = compareFields(register, oldValue, newValue);
+		} else {
+			fields = Collections.emptyList();
+		}
+
+		fChanges.add(new RegisterChange(oldPeripheral.getName(), name, newPeripheral.getBaseAddress() + offset,
+				sizeBytes, isOldValid, oldValue, isNewValid, newValue, fields));
+	}
+
+	private List<FieldChange> compareFields(SvdRegisterDMNode register, long oldValue, long newValue) {
+
+		List<FieldChange> list = new ArrayList<>();
+
+		// Only the bits that changed need to be decoded.
+		long changedBits = oldValue ^ newValue;
+
+		SvdObjectDMNode[] children = register.getChildren();
+		for (int i = 0; i < children.length; ++i) {
+			if (!(children[i] instanceof SvdFieldDMNode)) {
+				continue;
+			}
+			SvdFieldDMNode field = (SvdFieldDMNode) children[i];
+
+			int count = field.isRepetition() ? field.getRepetitionSubstitutions().length : 1;
+			int width = field.getWidthBits();
+			int increment = field.getBigRepeatIncrement().intValue();
+			long mask = (width >= 64) ? -1L : (1L << width) - 1;
+
+			for (int j = 0; j < count; ++j) {
+				int offset = field.getOffset() + j * increment;
+				if (offset >= 64 || ((changedBits >>> offset) & mask) == 0) {
+					continue;
+				}
+
+				long oldFieldValue = (oldValue >>> offset) & mask;
+				long newFieldValue = (newValue >>> offset) & mask;
+				list.add(new FieldChange(getElementName(field, j), offset, width, oldFieldValue, newFieldValue,
+						findEnumeration(field, oldFieldValue), findEnumeration(field, newFieldValue)));
+			}
+		}
+		return list;
+	}
+
+	private String findEnumeration(SvdFieldDMNode field, long value) {
+
+		if (!field.isEnumeration()) {
+			return null;
+		}
+		fValue.update(value);
+		SvdEnumeratedValueDMNode node = field.findEnumeratedValue(fValue);
+		if (node == null) {
+			return null;
+		}
+		return node.getName();
+	}
+
+	/**
+	 * Substitute the %s in the names of the array and repetition elements,
+	 * similar to the view model nodes.
+	 */
+	private static String getElementName(SvdDMNode node, int index) {
+
+		String name = node.getName();
+		String substitution;
+		if (node.isRepetition()) {
+			substitution = node.getRepetitionSubstitutions()[index];
+		} else if (node.isArray()) {
+			substitution = String.valueOf(index);
+		} else {
+			return name;
+		}
+
+		if (name.indexOf("%s") >= 0) {
+			return name.replace("%s", substitution);
+		}
+		return name + "[" + substitution + "]";
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	public String toString() {
+		return String.format("[Snapshots diff, %d registers]", fChanges.size());
+	}
+
+	// ------------------------------------------------------------------------
+}
@@ -0,0 +1,376 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.debug.gdbjtag.core.memory;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.cdt.dsf.concurrent.CountingRequestMonitor;
+import org.eclipse.cdt.dsf.concurrent.DataRequestMonitor;
+import org.eclipse.cdt.dsf.concurrent.DsfExecutor;
+import org.eclipse.cdt.dsf.concurrent.RequestMonitor;
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.embedcdt.internal.debug.gdbjtag.core.Activator;
+
+/**
+ * Session level queue for the peripheral registers writes.
+ * <p>
+ * Edits in the Peripherals view return immediately, with the new value
+ * already displayed; the writes are sent later, asynchronously, on the DSF
+ * executor, so the user interface is not blocked while GDB accesses the
+ * target.
+ * <p>
+ * Pending writes to the same register are coalesced into a single
+ * read-modify-write: the edited bits are accumulated in a mask and, if not
+ * all bits were edited, the register is read just before the write, to
+ * preserve the bits changed by the device meanwhile. Registers that cannot be
+ * read (write-only, or with read side effects) are written with the value
+ * displayed.
+ * <p>
+ * Writes queued while a batch is in progress are sent together in the next
+ * batch. Each batch has three steps, the reads for the partial writes, the
+ * writes, and the read back of the written registers; in each step all
+ * commands are issued back to back, without waiting for the previous
+ * results, so they are pipelined by the GDB command queue. Only the written
+ * registers are read back, and only the nodes whose value differs from the
+ * one displayed are redrawn.
+ * <p>
+ * If the target does not accept commands, or a write fails, the registers
+ * that cannot be read back show again the value before the edit.
+ *
+ * @since 5.3
+ */
+public class PeripheralWriteQueue {
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * The pending write of a register.
+	 */
+	static class Write {
+
+		PeripheralMemoryBlockExtension fBlock;
+		long fOffset;
+		int fSizeBytes;
+		// The last value displayed, with the edited bits.
+		BigInteger fValue;
+		// The edited bits.
+		BigInteger fMask;
+		// Read before the write, or null if not available.
+		BigInteger fCurrentValue;
+		// Displayed before the first edit, restored if not written.
+		BigInteger fPreviousValue;
+		boolean fIsFailed;
+
+		Write(PeripheralMemoryBlockExtension block, long offset, int sizeBytes, BigInteger previousValue) {
+
+			fBlock = block;
+			fOffset = offset;
+			fSizeBytes = sizeBytes;
+			fValue = BigInteger.ZERO;
+			fMask = BigInteger.ZERO;
+			fCurrentValue = null;
+			fPreviousValue = previousValue;
+			fIsFailed = false;
+		}
+
+		/**
+		 * Add a new edit; the bits edited before and not edited now keep the
+		 * previous values.
+		 */
+		void merge(BigInteger value, BigInteger mask) {
+
+			BigInteger previousMask = fMask.andNot(mask);
+			fValue = fValue.and(previousMask).or(value.andNot(previousMask));
+			fMask = fMask.or(mask);
+		}
+
+		boolean isPartial() {
+			return !fMask.equals(getFullMask(fSizeBytes));
+		}
+
+		BigInteger getValueToWrite() {
+
+			if (fCurrentValue == null) {
+				return fValue;
+			}
+			return fCurrentValue.andNot(fMask).or(fValue.and(fMask));
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	private final PeripheralMemoryBlockRetrieval fRetrieval;
+
+	// All fields below are only accessed on the executor thread.
+
+	// Writes waiting for the next batch, in the order of the first edit.
+	private final List<Write> fPendingWrites;
+	private boolean fIsWriting;
+
+	// ------------------------------------------------------------------------
+
+	public PeripheralWriteQueue(PeripheralMemoryBlockRetrieval retrieval) {
+
+		fRetrieval = retrieval;
+
+		fPendingWrites = new ArrayList<>();
+		fIsWriting = false;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Queue a register write and return immediately.
+	 *
+	 * @param block
+	 *            the memory block of the peripheral.
+	 * @param offset
+	 *            the register address offset from the peripheral absolute
+	 *            address.
+	 * @param sizeBytes
+	 *            the register size.
+	 * @param value
+	 *            the new register value.
+	 * @param mask
+	 *            the edited bits, or null for all bits.
+	 * @param previousValue
+	 *            the value displayed before the edit.
+	 */
+	public void add(final PeripheralMemoryBlockExtension block, final long offset, final int sizeBytes,
+			final BigInteger value, final BigInteger mask, final BigInteger previousValue) {
+
+		try {
+			getExecutor().execute(new Runnable() {
+
+				@Override
+				public void run() {
+
+					Write write = findPendingWrite(block, offset, sizeBytes);
+					if (write == null) {
+						write = new Write(block, offset, sizeBytes, previousValue);
+						fPendingWrites.add(write);
+					}
+					write.merge(value, (mask != null) ? mask : getFullMask(sizeBytes));
+
+					startBatch();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			// The session is shutting down.
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	private Write findPendingWrite(PeripheralMemoryBlockExtension block, long offset, int sizeBytes) {
+
+		for (Write write : fPendingWrites) {
+			if (write.fBlock == block && write.fOffset == offset && write.fSizeBytes == sizeBytes) {
+				return write;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Send the pending writes, unless a batch is already in progress. Only
+	 * one batch is in progress at any time.
+	 */
+	private void startBatch() {
+
+		if (fIsWriting || fPendingWrites.isEmpty()) {
+			return;
+		}
+
+		final List<Write> batch = new ArrayList<>(fPendingWrites);
+		fPendingWrites.clear();
+
+		if (!fRetrieval.getReadPlanner().isTargetAcceptingCommands()) {
+			Activator.log("Peripheral registers not written, the target does not accept commands");
+
+			// Show again the values before the edits.
+			for (Write write : batch) {
+				write.fIsFailed = true;
+			}
+			updateRenderings(batch);
+			return;
+		}
+
+		if (Activator.getInstance().isDebugging()) {
+			System.out.println("PeripheralWriteQueue batch of " + batch.size() + " writes");
+		}
+
+		fIsWriting = true;
+
+		readCurrentValues(batch, new RequestMonitor(getExecutor(), null) {
+
+			@Override
+			protected void handleCompleted() {
+
+				writeValues(batch, new RequestMonitor(getExecutor(), null) {
+
+					@Override
+					protected void handleCompleted() {
+
+						// Even if failed, to show the actual values.
+						readBack(batch, new RequestMonitor(getExecutor(), null) {
+
+							@Override
+							protected void handleCompleted() {
+
+								fIsWriting = false;
+								updateRenderings(batch);
+
+								// Writes queued meanwhile.
+								startBatch();
+							}
+						});
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * Read the registers not entirely edited, to preserve the other bits.
+	 */
+	private void readCurrentValues(List<Write> batch, RequestMonitor rm) {
+
+		final CountingRequestMonitor crm = new CountingRequestMonitor(getExecutor(), rm);
+		int count = 0;
+		for (final Write write : batch) {
+			if (!write.isPartial() || !write.fBlock.isRegisterReadable(write.fOffset, write.fSizeBytes)) {
+				continue;
+			}
+
+			write.fBlock.readPeripheralRegister(write.fOffset, write.fSizeBytes,
+					new DataRequestMonitor<BigInteger>(getExecutor(), null) {
+
+						@Override
+						protected void handleCompleted() {
+
+							if (isSuccess()) {
+								write.fCurrentValue = getData();
+							}
+							// Otherwise the bits not edited are written with
+							// the values displayed.
+							crm.done();
+						}
+					});
+			count++;
+		}
+		crm.setDoneCount(count);
+	}
+
+	private void writeValues(List<Write> batch, RequestMonitor rm) {
+
+		final CountingRequestMonitor crm = new CountingRequestMonitor(getExecutor(), rm);
+		for (final Write write : batch) {
+			write.fBlock.writeRegister(write.fOffset, write.fSizeBytes, write.getValueToWrite(),
+					new RequestMonitor(getExecutor(), null) {
+
+						@Override
+						protected void handleCompleted() {
+
+							if (!isSuccess()) {
+								write.fIsFailed = true;
+								Activator.log(getStatus());
+							}
+							crm.done();
+						}
+					});
+		}
+		crm.setDoneCount(batch.size());
+	}
+
+	/**
+	 * Read the written registers again, to the regions of the blocks.
+	 */
+	private void readBack(List<Write> batch, RequestMonitor rm) {
+
+		final CountingRequestMonitor crm = new CountingRequestMonitor(getExecutor(), rm);
+		int count = 0;
+		for (Write write : batch) {
+			if (!write.fBlock.isRegisterReadable(write.fOffset, write.fSizeBytes)) {
+				continue;
+			}
+
+			write.fBlock.readPeripheralRegister(write.fOffset, write.fSizeBytes,
+					new DataRequestMonitor<BigInteger>(getExecutor(), null) {
+
+						@Override
+						protected void handleCompleted() {
+							// Failures leave the values displayed.
+							crm.done();
+						}
+					});
+			count++;
+		}
+		crm.setDoneCount(count);
+	}
+
+	/**
+	 * Update the written register nodes from the bytes read back, or restore
+	 * the values before the edits for those not written and not read back,
+	 * and notify the listeners with a single event set.
+	 */
+	private void updateRenderings(List<Write> batch) {
+
+		// For each block, the written offsets, with the value to restore if
+		// not read back, or null to keep the value displayed.
+		Map<PeripheralMemoryBlockExtension, Map<Long, BigInteger>> offsets = new LinkedHashMap<>();
+		for (Write write : batch) {
+			offsets.computeIfAbsent(write.fBlock, k -> new HashMap<>()).put(write.fOffset,
+					write.fIsFailed ? write.fPreviousValue : null);
+		}
+
+		List<DebugEvent> events = new ArrayList<>();
+		for (Map.Entry<PeripheralMemoryBlockExtension, Map<Long, BigInteger>> entry : offsets.entrySet()) {
+			try {
+				DebugEvent event = entry.getKey().updateWrittenRegisters(entry.getValue());
+				if (event != null) {
+					events.add(event);
+				}
+			} catch (NullPointerException e) {
+				// The block may be disposed in the meantime.
+				Activator.log(e);
+			}
+		}
+
+		if (!events.isEmpty()) {
+			if (Activator.getInstance().isDebugging()) {
+				System.out.println("PeripheralWriteQueue fireDebugEventSet(changed) " + events.size() + " blocks");
+			}
+			DebugPlugin.getDefault().fireDebugEventSet(events.toArray(new DebugEvent[events.size()]));
+		}
+	}
+
+	private DsfExecutor getExecutor() {
+		return fRetrieval.getExecutor();
+	}
+
+	private static BigInteger getFullMask(int sizeBytes) {
+		return BigInteger.ONE.shiftLeft(8 * sizeBytes).subtract(BigInteger.ONE);
+	}
+
+	// ------------------------------------------------------------------------
+}
@@ -50,6 +50,88 @@ public class PersistentPreferences extends org.eclipse.embedcdt.core.preferences
 	public static final String PERIPHERALS_CHANGED_USE_FADING_BACKGROUND = "peripherals.changed.useFadingBackground";
 	public static final boolean PERIPHERALS_CHANGED_USE_FADING_BACKGROUND_DEFAULT = true;
 
+	/**
+	 * @since 5.3
+	 */
+	public static final String PERIPHERALS_SVD_CACHE_ENABLED = "peripherals.svdCache.enabled";
+	/**
+	 * @since 5.3
+	 */
+	public static final boolean PERIPHERALS_SVD_CACHE_ENABLED_DEFAULT = true;
+
+	/**
+	 * In MB.
+	 *
+	 * @since 5.3
+	 */
+	public static final String PERIPHERALS_SVD_CACHE_MAX_SIZE = "peripherals.svdCache.maxSize";
+	/**
+	 * @since 5.3
+	 */
+	public static final int PERIPHERALS_SVD_CACHE_MAX_SIZE_DEFAULT = 256;
+
+	/**
+	 * In bytes; unused gaps up to this size are read, to merge reads.
+	 *
+	 * @since 5.3
+	 */
+	public static final String PERIPHERALS_READ_MAX_GAP = "peripherals.read.maxGap";
+	/**
+	 * @since 5.3
+	 */
+	public static final int PERIPHERALS_READ_MAX_GAP_DEFAULT = 32;
+
+	/**
+	 * In bytes; the maximum size of a merged read.
+	 *
+	 * @since 5.3
+	 */
+	public static final String PERIPHERALS_READ_MAX_SIZE = "peripherals.read.maxSize";
+	/**
+	 * @since 5.3
+	 */
+	public static final int PERIPHERALS_READ_MAX_SIZE_DEFAULT = 1024;
+
+	/**
+	 * @since 5.3
+	 */
+	public static final String PERIPHERALS_LIVE_ENABLED = "peripherals.live.enabled";
+	/**
+	 * @since 5.3
+	 */
+	public static final boolean PERIPHERALS_LIVE_ENABLED_DEFAULT = false;
+
+	/**
+	 * In milliseconds.
+	 *
+	 * @since 5.3
+	 */
+	public static final String PERIPHERALS_LIVE_PERIOD = "peripherals.live.period";
+	/**
+	 * @since 5.3
+	 */
+	public static final int PERIPHERALS_LIVE_PERIOD_DEFAULT = 250;
+
+	/**
+	 * @since 5.3
+	 */
+	public static final String PERIPHERALS_HISTORY_ENABLED = "peripherals.history.enabled";
+	/**
+	 * @since 5.3
+	 */
+	public static final boolean PERIPHERALS_HISTORY_ENABLED_DEFAULT = false;
+
+	/**
+	 * In samples, for each open peripheral.
+	 *
+	 * @since 5.3
+	 */
+	public static final String PERIPHERALS_HISTORY_DEPTH = "peripherals.history.depth";
+	/**
+	 * @since 5.3
+	 */
+	public static final int PERIPHERALS_HISTORY_DEPTH_DEFAULT = 1000;
+
 	// ------------------------------------------------------------------------
 
 	public PersistentPreferences(String pluginId) {
@@ -92,5 +174,77 @@ public class PersistentPreferences extends org.eclipse.embedcdt.core.preferences
 		return getBoolean(PERIPHERALS_CHANGED_USE_FADING_BACKGROUND, PERIPHERALS_CHANGED_USE_FADING_BACKGROUND_DEFAULT);
 	}
 
+	/**
+	 * @since 5.3
+	 */
+	public boolean getPeripheralsSvdCacheEnabled() {
+		return getBoolean(PERIPHERALS_SVD_CACHE_ENABLED, PERIPHERALS_SVD_CACHE_ENABLED_DEFAULT);
+	}
+
+	/**
+	 * @return the maximum size of the parsed SVD cache, in MB.
+	 * @since 5.3
+	 */
+	public int getPeripheralsSvdCacheMaxSize() {
+		return getInt(PERIPHERALS_SVD_CACHE_MAX_SIZE, PERIPHERALS_SVD_CACHE_MAX_SIZE_DEFAULT);
+	}
+
+	/**
+	 * @return the maximum gap between registers merged in a single read, in
+	 *         bytes.
+	 * @since 5.3
+	 */
+	public int getPeripheralsReadMaxGap() {
+		return getInt(PERIPHERALS_READ_MAX_GAP, PERIPHERALS_READ_MAX_GAP_DEFAULT);
+	}
+
+	/**
+	 * @return the maximum size of a merged read, in bytes.
+	 * @since 5.3
+	 */
+	public int getPeripheralsReadMaxSize() {
+		return getInt(PERIPHERALS_READ_MAX_SIZE, PERIPHERALS_READ_MAX_SIZE_DEFAULT);
+	}
+
+	/**
+	 * @since 5.3
+	 */
+	public boolean getPeripheralsLiveEnabled() {
+		return getBoolean(PERIPHERALS_LIVE_ENABLED, PERIPHERALS_LIVE_ENABLED_DEFAULT);
+	}
+
+	/**
+	 * @return the live sampling period, in milliseconds.
+	 * @since 5.3
+	 */
+	public int getPeripheralsLivePeriod() {
+		return getInt(PERIPHERALS_LIVE_PERIOD, PERIPHERALS_LIVE_PERIOD_DEFAULT);
+	}
+
+	/**
+	 * @since 5.3
+	 */
+	public boolean getPeripheralsHistoryEnabled() {
+		return getBoolean(PERIPHERALS_HISTORY_ENABLED, PERIPHERALS_HISTORY_ENABLED_DEFAULT);
+	}
+
+	/**
+	 * @return the number of samples kept in the registers history.
+	 * @since 5.3
+	 */
+	public int getPeripheralsHistoryDepth() {
+		return getInt(PERIPHERALS_HISTORY_DEPTH, PERIPHERALS_HISTORY_DEPTH_DEFAULT);
+	}
+
+	private int getInt(String key, int defaultValue) {
+
+		String value = getString(key, String.valueOf(defaultValue));
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
 	// ------------------------------------------------------------------------
 }
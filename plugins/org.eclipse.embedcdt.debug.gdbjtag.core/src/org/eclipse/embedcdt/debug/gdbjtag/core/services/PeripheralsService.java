@@ -34,6 +34,7 @@ import org.eclipse.embedcdt.debug.gdbjtag.core.ILaunchConfigurationProvider;
 import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.IPeripheralDMContext;
 import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.PeripheralDMContext;
 import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.PeripheralDMNode;
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdModelRegistry;
 import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdUtils;
 import org.eclipse.embedcdt.internal.debug.gdbjtag.core.Activator;
 import org.eclipse.embedcdt.packs.core.data.DurationMonitor;
@@ -43,6 +44,9 @@ import org.osgi.framework.BundleContext;
 public class PeripheralsService extends AbstractDsfService implements IPeripheralsService {
 
 	private ICommandControlService fCommandControl;
+	// The parsed SVD, shared with other sessions using the same file.
+	private SvdModelRegistry.Model fSvdModel = null;
+	// Only the data model nodes are specific to this session.
 	private PeripheralDMContext[] fPeripheralsDMContexts = null;
 
 	// ------------------------------------------------------------------------
@@ -101,6 +105,11 @@ public class PeripheralsService extends AbstractDsfService implements IPeriphera
 		// Remove this service from DSF.
 		unregister();
 
+		if (fSvdModel != null) {
+			SvdModelRegistry.release(fSvdModel);
+			fSvdModel = null;
+		}
+
 		super.shutdown(rm);
 	}
 
@@ -143,18 +152,17 @@ public class PeripheralsService extends AbstractDsfService implements IPeriphera
 					System.out.println("SVD path: " + svdPath);
 				}
 
-				Leaf tree;
 				{
 					DurationMonitor dm = new DurationMonitor();
 					dm.start();
 					// Read in the file, parse the original format (XML or JSON) and build the
-					// internal tree.
-					tree = SvdUtils.getTree(svdPath);
+					// internal tree, unless already done by another session.
+					fSvdModel = SvdModelRegistry.acquire(svdPath);
 					dm.stop();
 				}
 
-				// Extract the peripherals in a separate list.
-				List<Leaf> list = SvdUtils.getPeripherals(tree);
+				// The peripherals, extracted in a separate list.
+				List<Leaf> list = fSvdModel.getPeripherals();
 
 				// Prepare the data model context for the Peripherals view.
 				fPeripheralsDMContexts = createPeripheralsContexts(containerDMContext, list);
@@ -14,6 +14,8 @@
 
 package org.eclipse.embedcdt.debug.gdbjtag.core.viewmodel.peripheral;
 
+import java.math.BigInteger;
+
 import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdDMNode;
 
 public class PeripheralClusterArrayVMNode extends PeripheralClusterVMNode {
@@ -28,6 +30,30 @@ public class PeripheralClusterArrayVMNode extends PeripheralClusterVMNode {
 
 	// ------------------------------------------------------------------------
 
+	@Override
+	protected boolean mayHaveChildren() {
+		return fDMNode.getArraySize() > 0;
+	}
+
+	/**
+	 * The array elements are created only when the array node is expanded.
+	 */
+	@Override
+	protected void createChildren() {
+
+		BigInteger increment = fDMNode.getBigRepeatIncrement();
+		BigInteger offset = BigInteger.ZERO;
+		for (int i = 0; i < fDMNode.getArraySize(); ++i) {
+			new PeripheralClusterArrayElementVMNode(this, fDMNode, i, offset);
+
+			if (increment != null) {
+				offset = offset.add(increment);
+			}
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
 	@Override
 	public String getDisplayNodeType() {
 		return "Cluster array";
@@ -14,6 +14,8 @@
 
 package org.eclipse.embedcdt.debug.gdbjtag.core.viewmodel.peripheral;
 
+import java.math.BigInteger;
+
 import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdDMNode;
 
 public class PeripheralRegisterArrayVMNode extends PeripheralGroupVMNode {
@@ -28,6 +30,31 @@ public class PeripheralRegisterArrayVMNode extends PeripheralGroupVMNode {
 
 	// ------------------------------------------------------------------------
 
+	@Override
+	protected boolean mayHaveChildren() {
+		return fDMNode.getArraySize() > 0;
+	}
+
+	/**
+	 * The array elements are created only when the array node is expanded.
+	 */
+	@Override
+	protected void createChildren() {
+
+		BigInteger increment = fDMNode.getBigRepeatIncrement();
+		assert (increment != null);
+		assert (increment.compareTo(BigInteger.ZERO) > 0);
+
+		BigInteger offset = BigInteger.ZERO;
+		for (int i = 0; i < fDMNode.getArraySize(); ++i) {
+			new PeripheralRegisterArrayElementVMNode(this, fDMNode, i, offset);
+
+			offset = offset.add(increment);
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
 	@Override
 	public String getDisplayNodeType() {
 		return "Register array";
@@ -190,8 +190,9 @@ public class PeripheralRegisterFieldVMNode extends PeripheralRegisterVMNode {
 
 			// Update the parent with the newly computed value.
 			// This in turn will use updateFieldValueFromParent() to update
-			// all fields, including this one.
-			parent.update(bigValue);
+			// all fields, including this one. Only the field bits are
+			// written over the register value in the device.
+			parent.update(bigValue, getBitMask().shiftLeft(getOffsetBits()));
 		}
 	}
 
@@ -200,11 +201,40 @@ public class PeripheralRegisterFieldVMNode extends PeripheralRegisterVMNode {
 	 *
 	 * @return true if the field value changed.
 	 */
-	public void updateFieldValueFromParent() {
+	public boolean updateFieldValueFromParent() {
+
+		// Update the current field with the newly computed value.
+		boolean hasChanged = updateValueFromParent();
+		setChanged(hasChanged);
+		return hasChanged;
+	}
+
+	/**
+	 * Fields created on demand get the value from the parent register.
+	 */
+	@Override
+	protected void initValue() {
+
+		// Not a change, the node is new.
+		updateValueFromParent();
+	}
+
+	/**
+	 * Extract the field from the parent value; with long masks for registers
+	 * up to 64 bits, without allocations.
+	 *
+	 * @return true if the field value changed.
+	 */
+	private boolean updateValueFromParent() {
 
 		PeripheralRegisterVMNode parent = (PeripheralRegisterVMNode) getParent();
 		PeripheralValue parentValue = parent.getPeripheralValue();
 
+		if (parentValue.isLong() && getOffsetBits() < 64) {
+			long value = (parentValue.getLongValue() >>> getOffsetBits()) & getLongBitMask();
+			return getPeripheralValue().update(value);
+		}
+
 		BigInteger bigValue;
 		if (parentValue.isNumeric()) {
 			bigValue = parentValue.getBigValue();
@@ -212,9 +242,7 @@ public class PeripheralRegisterFieldVMNode extends PeripheralRegisterVMNode {
 		} else {
 			bigValue = BigInteger.ZERO;
 		}
-
-		// Update the current field with the newly computed value.
-		setChanged(getPeripheralValue().update(bigValue));
+		return getPeripheralValue().update(bigValue);
 	}
 
 	@Override
@@ -15,6 +15,8 @@
 package org.eclipse.embedcdt.debug.gdbjtag.core.viewmodel.peripheral;
 
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
 
 import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.model.IValue;
@@ -163,37 +165,117 @@ public class PeripheralRegisterVMNode extends PeripheralTreeVMNode {
 	 *
 	 * @param newValue
 	 *            the new value.
-	 * @return true if the value changed.
 	 */
 	protected void update(BigInteger newValue) {
+		update(newValue, null);
+	}
 
-		boolean sameValue = getPeripheralValue().getBigValue().equals(newValue);
+	/**
+	 * Display the new value and queue the register write, without waiting for
+	 * the device; the register is read back after the write.
+	 *
+	 * @param newValue
+	 *            the new value.
+	 * @param mask
+	 *            the edited bits, or null for all bits.
+	 * @since 5.3
+	 */
+	protected void update(BigInteger newValue, BigInteger mask) {
+
+		BigInteger previousValue = getPeripheralValue().getBigValue();
+		boolean sameValue = previousValue.equals(newValue);
 
 		if (!sameValue) {
 
-			long offset = getPeripheralBigAddressOffset().longValue();
-			// Write register.
-			getPeripheral().getMemoryBlock().writePeripheralRegister(offset, getWidthBytes(), newValue);
+			// Display the new value, including in the fields.
+			setValue(newValue);
 
-			// Re-read and update the entire peripheral, since many registers
-			// may be affected by one write.
-			getPeripheral().getMemoryBlock().updatePeripheralRenderingValues();
+			long offset = getPeripheralBigAddressOffset().longValue();
+			// Write register; if not written, the previous value is shown again.
+			getPeripheral().getMemoryBlock().writePeripheralRegister(offset, getWidthBytes(), newValue, mask,
+					previousValue);
 		}
 	}
 
 	public void setValue(BigInteger newValue) {
 
 		// Update with actual value.
-		setChanged(getPeripheralValue().update(newValue));
+		valueUpdated(getPeripheralValue().update(newValue));
+	}
+
+	/**
+	 * Called after the value was updated in place, to set the changed flag and
+	 * to update the fields.
+	 *
+	 * @param hasChanged
+	 *            true if the value changed.
+	 * @since 5.3
+	 */
+	public void valueUpdated(boolean hasChanged) {
+
+		setChanged(hasChanged);
+
+		// Fields not yet created will get the value when created.
+		List<PeripheralTreeVMNode> children = getCreatedChildren();
+		if (children != null) {
+			for (PeripheralTreeVMNode child : children) {
+				if (child instanceof PeripheralRegisterFieldVMNode) {
+					((PeripheralRegisterFieldVMNode) child).updateFieldValueFromParent();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Called after a refresh, to step the fading, set the changed flag and
+	 * update the fields; the register and the fields that must be redrawn are
+	 * added to the collection.
+	 *
+	 * @param hasChanged
+	 *            true if the value changed.
+	 * @param changedNodes
+	 *            the nodes whose value or background changed.
+	 * @since 5.3
+	 */
+	public void valueRefreshed(boolean hasChanged, Collection<Object> changedNodes) {
+
+		boolean isFading = stepFadingLevel();
+		setChanged(hasChanged);
+		if (hasChanged || isFading) {
+			changedNodes.add(this);
+		}
 
-		Object[] children = getChildren();
-		for (int i = 0; i < children.length; ++i) {
-			if (children[i] instanceof PeripheralRegisterFieldVMNode) {
-				((PeripheralRegisterFieldVMNode) children[i]).updateFieldValueFromParent();
+		List<PeripheralTreeVMNode> children = getCreatedChildren();
+		if (children != null) {
+			for (PeripheralTreeVMNode child : children) {
+				if (child instanceof PeripheralRegisterFieldVMNode) {
+					boolean isChildFading = child.stepFadingLevel();
+					boolean hasChildChanged = ((PeripheralRegisterFieldVMNode) child).updateFieldValueFromParent();
+					if (hasChildChanged || isChildFading) {
+						changedNodes.add(child);
+					}
+				}
 			}
 		}
 	}
 
+	@Override
+	protected void initValue() {
+
+		if (!isReadAllowed()) {
+			return;
+		}
+
+		PeripheralTopVMNode peripheral = getPeripheral();
+		if (peripheral == null || peripheral.getMemoryBlock() == null) {
+			return;
+		}
+
+		// Not a change, the node is new.
+		peripheral.getMemoryBlock().updateCachedRegisterValue(getPeripheralValue(),
+				getPeripheralBigAddressOffset().longValue(), getWidthBytes());
+	}
+
 	/**
 	 * Get the bit mask corresponding to the current register or field width.
 	 * <p>
@@ -212,6 +294,21 @@ public class PeripheralRegisterVMNode extends PeripheralTreeVMNode {
 		return fBitMask;
 	}
 
+	/**
+	 * Get the bit mask as a long, for widths up to 64 bits.
+	 *
+	 * @return a long with some right side bits set.
+	 * @since 5.3
+	 */
+	protected long getLongBitMask() {
+
+		int width = getWidthBits();
+		if (width >= 64) {
+			return -1L;
+		}
+		return (1L << width) - 1;
+	}
+
 	@Override
 	public String getDisplayNodeType() {
 		return "Register";
@@ -17,6 +17,7 @@ package org.eclipse.embedcdt.debug.gdbjtag.core.viewmodel.peripheral;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.ILaunch;
@@ -160,21 +161,32 @@ public abstract class PeripheralTreeVMNode implements IRegister, Comparable<Peri
 	}
 
 	/**
-	 * Lazy load implementation, prepares the list of children nodes only when
-	 * needed.
+	 * Lazy load implementation, the list of children nodes is prepared only
+	 * when the node is expanded; until then, the answer is based on the data
+	 * model.
 	 *
 	 * @return true if the node actually has children.
 	 */
 	public boolean hasChildren() {
 
 		if (fChildren == null) {
-			prepareChildren();
+			return mayHaveChildren();
 		}
 		// System.out.println(getPath() + " has children is " +
 		// !fChildren.isEmpty());
 		return (!fChildren.isEmpty());
 	}
 
+	/**
+	 * Get the children nodes already created, without creating new ones.
+	 *
+	 * @return a list of nodes, or null if the children were not yet created.
+	 * @since 5.3
+	 */
+	public List<PeripheralTreeVMNode> getCreatedChildren() {
+		return fChildren;
+	}
+
 	// ------------------------------------------------------------------------
 	// Functions contributed by IRegister.
 
@@ -477,6 +489,33 @@ public abstract class PeripheralTreeVMNode implements IRegister, Comparable<Peri
 		// If not, start by creating the list.
 		fChildren = new ArrayList<>();
 
+		createChildren();
+
+		// The new nodes get their values without accessing the target.
+		for (PeripheralTreeVMNode child : fChildren) {
+			child.initValue();
+		}
+	}
+
+	/**
+	 * Tell if the node will have children, without creating them.
+	 *
+	 * @return true if the data model node has children.
+	 * @since 5.3
+	 */
+	protected boolean mayHaveChildren() {
+		return fDMNode.getChildren().length > 0;
+	}
+
+	/**
+	 * Create the children nodes, which will automatically register as children
+	 * of the current node. Called only once, when the children are first
+	 * needed.
+	 *
+	 * @since 5.3
+	 */
+	protected void createChildren() {
+
 		// Get the array of actual children from each node implementation.
 		SvdObjectDMNode[] svdChildren = fDMNode.getChildren();
 		assert svdChildren != null;
@@ -553,39 +592,31 @@ public abstract class PeripheralTreeVMNode implements IRegister, Comparable<Peri
 	}
 
 	private void processArray(SvdDMNode child) {
-		BigInteger increment = child.getBigRepeatIncrement();
 
-		// For arrays, create an intermediate group and below it add the
-		// array elements.
+		// For arrays, create an intermediate group; the array elements are
+		// added below it only when the array node is expanded.
 		if (child instanceof SvdClusterDMNode) {
 
 			PeripheralTreeVMNode arrayNode = new PeripheralClusterArrayVMNode(this, child);
 			arrayNode.substituteRepetition("");
-			BigInteger offset = BigInteger.ZERO;
-			for (int i = 0; i < child.getArraySize(); ++i) {
-				new PeripheralClusterArrayElementVMNode(arrayNode, child, i, offset);
-
-				if (increment != null) {
-					offset = offset.add(increment);
-				}
-			}
 		} else if (child instanceof SvdRegisterDMNode) {
 
 			PeripheralTreeVMNode arrayNode = new PeripheralRegisterArrayVMNode(this, child);
 			arrayNode.substituteRepetition("");
-			BigInteger offset = BigInteger.ZERO;
-			for (int i = 0; i < child.getArraySize(); ++i) {
-				new PeripheralRegisterArrayElementVMNode(arrayNode, child, i, offset);
-
-				assert (increment != null);
-				assert (increment.compareTo(BigInteger.ZERO) > 0);
-				offset = offset.add(increment);
-			}
 		} else {
 			Activator.log(child.getClass().getSimpleName() + " not processed");
 		}
 	}
 
+	/**
+	 * Called after the node was created on demand, to get the initial value
+	 * from the last values read from the target, if any.
+	 *
+	 * @since 5.3
+	 */
+	protected void initValue() {
+	}
+
 	/**
 	 * For array elements, substitute the %s with the actual index; for repetitions,
 	 * substitute with the generated value.
@@ -634,6 +665,22 @@ public abstract class PeripheralTreeVMNode implements IRegister, Comparable<Peri
 		}
 	}
 
+	/**
+	 * Step the fading of this node only, once for each refresh, before the
+	 * changed flag is set.
+	 *
+	 * @return true if the fading level changed.
+	 * @since 5.3
+	 */
+	public boolean stepFadingLevel() {
+
+		if (fFadingLevel > 0) {
+			setFadingLevel(fFadingLevel - 1);
+			return true;
+		}
+		return false;
+	}
+
 	public void decrementFadingLevel() {
 
 		if (fFadingLevel > 0) {
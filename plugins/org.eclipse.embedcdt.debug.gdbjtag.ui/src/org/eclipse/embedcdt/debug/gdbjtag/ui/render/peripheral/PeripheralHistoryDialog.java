@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.debug.gdbjtag.ui.render.peripheral;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.eclipse.embedcdt.debug.gdbjtag.core.memory.PeripheralRegisterHistory;
+import org.eclipse.jface.dialogs.IDialogConstants;
+import org.eclipse.jface.dialogs.IMessageProvider;
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.dialogs.TitleAreaDialog;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.FileDialog;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableColumn;
+import org.eclipse.swt.widgets.TableItem;
+
+/**
+ * Show the recorded values of a register, oldest first, and export the
+ * history of all registers of the peripheral.
+ * <p>
+ * The values are copied when the dialog is created; samples recorded while
+ * the dialog is open are not shown, but are exported.
+ *
+ * @since 5.2
+ */
+public class PeripheralHistoryDialog extends TitleAreaDialog {
+
+	// ------------------------------------------------------------------------
+
+	private static final int EXPORT_CSV_ID = IDialogConstants.CLIENT_ID + 1;
+	private static final int EXPORT_BINARY_ID = IDialogConstants.CLIENT_ID + 2;
+
+	// ------------------------------------------------------------------------
+
+	private final String fRegisterName;
+	private final PeripheralRegisterHistory fHistory;
+	private final long fBaseAddress;
+	private final int fSizeBytes;
+
+	private final int fCount;
+	private final long[] fTimes;
+	private final long[] fSuspendCounts;
+	private final long[] fValues;
+	private final boolean[] fValid;
+
+	private final SimpleDateFormat fTimeFormat;
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * @param parentShell
+	 *            the parent shell.
+	 * @param registerName
+	 *            the name displayed in the title.
+	 * @param history
+	 *            the history of the peripheral.
+	 * @param register
+	 *            the index of the register in the history.
+	 * @param baseAddress
+	 *            the peripheral address, used in the exported files.
+	 */
+	public PeripheralHistoryDialog(Shell parentShell, String registerName, PeripheralRegisterHistory history,
+			int register, long baseAddress) {
+		super(parentShell);
+
+		fRegisterName = registerName;
+		fHistory = history;
+		fBaseAddress = baseAddress;
+		fSizeBytes = history.getRegisterSizeBytes(register);
+
+		int capacity = history.getCapacity();
+		fTimes = new long[capacity];
+		fSuspendCounts = new long[capacity];
+		fValues = new long[capacity];
+		fValid = new boolean[capacity];
+		fCount = history.copyRegister(register, fTimes, fSuspendCounts, fValues, fValid);
+
+		fTimeFormat = new SimpleDateFormat("HH:mm:ss.SSS");
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	public void create() {
+		super.create();
+		setTitle("History of " + fRegisterName);
+		setMessage(String.format("%d values recorded after each refresh, oldest first", fCount),
+				IMessageProvider.NONE);
+	}
+
+	@Override
+	protected boolean isResizable() {
+		return true;
+	}
+
+	@Override
+	protected Control createDialogArea(Composite parent) {
+
+		Composite area = (Composite) super.createDialogArea(parent);
+
+		// Only the visible rows are created.
+		final Table table = new Table(area, SWT.VIRTUAL | SWT.BORDER | SWT.FULL_SELECTION | SWT.V_SCROLL);
+		table.setHeaderVisible(true);
+		table.setLinesVisible(true);
+
+		GridData layoutData = new GridData(SWT.FILL, SWT.FILL, true, true);
+		layoutData.heightHint = 300;
+		table.setLayoutData(layoutData);
+
+		String[] titles = { "Suspend", "Time", "Value", "Changed" };
+		int[] widths = { 80, 110, 40 + 20 * fSizeBytes, 70 };
+		for (int i = 0; i < titles.length; ++i) {
+			TableColumn column = new TableColumn(table, SWT.NONE);
+			column.setText(titles[i]);
+			column.setWidth(widths[i]);
+		}
+
+		table.addListener(SWT.SetData, event -> {
+			TableItem item = (TableItem) event.item;
+			int index = table.indexOf(item);
+
+			item.setText(0, String.valueOf(fSuspendCounts[index]));
+			item.setText(1, fTimeFormat.format(new Date(fTimes[index])));
+			if (fValid[index]) {
+				item.setText(2, formatValue(fValues[index]));
+			} else {
+				item.setText(2, "?");
+			}
+			if (index > 0 && fValid[index] && fValid[index - 1] && fValues[index] != fValues[index - 1]) {
+				item.setText(3, "*");
+			}
+		});
+		table.setItemCount(fCount);
+
+		// Show the most recent values.
+		if (fCount > 0) {
+			table.setTopIndex(fCount - 1);
+		}
+
+		return area;
+	}
+
+	@Override
+	protected void createButtonsForButtonBar(Composite parent) {
+
+		createButton(parent, EXPORT_CSV_ID, "Export CSV...", false);
+		createButton(parent, EXPORT_BINARY_ID, "Export Binary...", false);
+		createButton(parent, IDialogConstants.OK_ID, IDialogConstants.CLOSE_LABEL, true);
+	}
+
+	@Override
+	protected void buttonPressed(int buttonId) {
+
+		if (buttonId == EXPORT_CSV_ID) {
+			exportHistory(false);
+		} else if (buttonId == EXPORT_BINARY_ID) {
+			exportHistory(true);
+		} else {
+			super.buttonPressed(buttonId);
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	private String formatValue(long value) {
+		return String.format("0x%0" + (2 * fSizeBytes) + "X", value);
+	}
+
+	/**
+	 * Write the history of all registers of the peripheral to a file.
+	 */
+	private void exportHistory(boolean isBinary) {
+
+		FileDialog dialog = new FileDialog(getShell(), SWT.SAVE);
+		dialog.setOverwrite(true);
+		dialog.setFilterExtensions(new String[] { isBinary ? "*.bin" : "*.csv", "*.*" });
+		String fileName = dialog.open();
+		if (fileName == null) {
+			return;
+		}
+
+		try {
+			if (isBinary) {
+				try (DataOutputStream output = new DataOutputStream(
+						new BufferedOutputStream(Files.newOutputStream(Paths.get(fileName))))) {
+					fHistory.writeBinary(output, fBaseAddress);
+				}
+			} else {
+				try (Writer writer = Files.newBufferedWriter(Paths.get(fileName), StandardCharsets.UTF_8)) {
+					fHistory.writeCsv(writer, fBaseAddress);
+				}
+			}
+		} catch (IOException e) {
+			MessageDialog.openError(getShell(), "Export failed", e.getMessage());
+		}
+	}
+
+	// ------------------------------------------------------------------------
+}
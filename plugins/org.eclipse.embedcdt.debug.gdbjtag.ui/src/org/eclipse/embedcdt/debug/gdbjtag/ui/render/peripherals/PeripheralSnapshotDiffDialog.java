@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.debug.gdbjtag.ui.render.peripherals;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.embedcdt.debug.gdbjtag.core.memory.PeripheralSnapshotDiff;
+import org.eclipse.embedcdt.debug.gdbjtag.core.memory.PeripheralSnapshotDiff.FieldChange;
+import org.eclipse.embedcdt.debug.gdbjtag.core.memory.PeripheralSnapshotDiff.RegisterChange;
+import org.eclipse.jface.dialogs.IDialogConstants;
+import org.eclipse.jface.dialogs.IMessageProvider;
+import org.eclipse.jface.dialogs.TitleAreaDialog;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableColumn;
+import org.eclipse.swt.widgets.TableItem;
+
+/**
+ * Show the registers that differ between two peripherals snapshots, each
+ * followed by the changed fields.
+ * <p>
+ * The table is virtual, only the visible rows are created and formatted, so
+ * large differences are displayed without delay.
+ *
+ * @since 5.2
+ */
+public class PeripheralSnapshotDiffDialog extends TitleAreaDialog {
+
+	// ------------------------------------------------------------------------
+
+	private final PeripheralSnapshotDiff fDiff;
+
+	// For each row, the register index and the field index, or -1 for the
+	// register row.
+	private final int[] fRowRegisters;
+	private final int[] fRowFields;
+
+	private final SimpleDateFormat fTimeFormat;
+
+	// ------------------------------------------------------------------------
+
+	public PeripheralSnapshotDiffDialog(Shell parentShell, PeripheralSnapshotDiff diff) {
+		super(parentShell);
+
+		fDiff = diff;
+
+		List<RegisterChange> changes = diff.getChanges();
+		int rows = changes.size();
+		for (RegisterChange change : changes) {
+			rows += change.getFields().size();
+		}
+
+		fRowRegisters = new int[rows];
+		fRowFields = new int[rows];
+		int row = 0;
+		for (int i = 0; i < changes.size(); ++i) {
+			fRowRegisters[row] = i;
+			fRowFields[row] = -1;
+			row++;
+			for (int j = 0; j < changes.get(i).getFields().size(); ++j) {
+				fRowRegisters[row] = i;
+				fRowFields[row] = j;
+				row++;
+			}
+		}
+
+		fTimeFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	public void create() {
+		super.create();
+		setTitle("Peripherals snapshots differences");
+		setMessage(String.format("%d registers changed between %s and %s", fDiff.getChanges().size(),
+				fTimeFormat.format(new Date(fDiff.getOldSnapshot().getTime())),
+				fTimeFormat.format(new Date(fDiff.getNewSnapshot().getTime()))), IMessageProvider.NONE);
+	}
+
+	@Override
+	protected boolean isResizable() {
+		return true;
+	}
+
+	@Override
+	protected Control createDialogArea(Composite parent) {
+
+		Composite area = (Composite) super.createDialogArea(parent);
+
+		// Only the visible rows are created.
+		final Table table = new Table(area, SWT.VIRTUAL | SWT.BORDER | SWT.FULL_SELECTION | SWT.V_SCROLL);
+		table.setHeaderVisible(true);
+		table.setLinesVisible(true);
+
+		GridData layoutData = new GridData(SWT.FILL, SWT.FILL, true, true);
+		layoutData.heightHint = 400;
+		table.setLayoutData(layoutData);
+
+		String[] titles = { "Peripheral", "Register / Field", "Address / Bits", "Before", "After" };
+		int[] widths = { 100, 180, 100, 150, 150 };
+		for (int i = 0; i < titles.length; ++i) {
+			TableColumn column = new TableColumn(table, SWT.NONE);
+			column.setText(titles[i]);
+			column.setWidth(widths[i]);
+		}
+
+		table.addListener(SWT.SetData, event -> {
+			TableItem item = (TableItem) event.item;
+			int index = table.indexOf(item);
+
+			RegisterChange change = fDiff.getChanges().get(fRowRegisters[index]);
+			if (fRowFields[index] < 0) {
+				item.setText(0, change.getPeripheralName());
+				item.setText(1, change.getName());
+				item.setText(2, String.format("0x%08X", change.getAddress()));
+				item.setText(3, formatRegisterValue(change, change.isOldValid(), change.getOldValue()));
+				item.setText(4, formatRegisterValue(change, change.isNewValid(), change.getNewValue()));
+			} else {
+				FieldChange field = change.getFields().get(fRowFields[index]);
+				item.setText(1, "    " + field.getName());
+				item.setText(2, formatBits(field));
+				item.setText(3, formatFieldValue(field.getOldValue(), field.getOldEnumeration()));
+				item.setText(4, formatFieldValue(field.getNewValue(), field.getNewEnumeration()));
+			}
+		});
+		table.setItemCount(fRowRegisters.length);
+
+		return area;
+	}
+
+	@Override
+	protected void createButtonsForButtonBar(Composite parent) {
+		createButton(parent, IDialogConstants.OK_ID, IDialogConstants.CLOSE_LABEL, true);
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static String formatRegisterValue(RegisterChange change, boolean isValid, long value) {
+
+		if (!isValid) {
+			return "?";
+		}
+		return String.format("0x%0" + (2 * change.getSizeBytes()) + "X", value);
+	}
+
+	private static String formatFieldValue(long value, String enumeration) {
+
+		if (enumeration != null && !enumeration.isEmpty()) {
+			return String.format("0x%X (%s)", value, enumeration);
+		}
+		return String.format("0x%X", value);
+	}
+
+	private static String formatBits(FieldChange field) {
+
+		if (field.getWidthBits() == 1) {
+			return String.format("[%d]", field.getOffset());
+		}
+		return String.format("[%d:%d]", field.getOffset() + field.getWidthBits() - 1, field.getOffset());
+	}
+
+	// ------------------------------------------------------------------------
+}
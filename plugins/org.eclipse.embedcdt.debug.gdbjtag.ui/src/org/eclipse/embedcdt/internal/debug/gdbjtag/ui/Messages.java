@@ -40,6 +40,17 @@ public class Messages extends NLS {
 
 	public static String PeripheralsPreferencePage_useFadingBackground_label;
 
+	public static String PeripheralsPreferencePage_svdCacheEnabled_label;
+	public static String PeripheralsPreferencePage_svdCacheMaxSize_label;
+	public static String PeripheralsPreferencePage_svdCacheClear_button;
+	public static String PeripheralsPreferencePage_svdCacheSize_label;
+	public static String PeripheralsPreferencePage_readMaxGap_label;
+	public static String PeripheralsPreferencePage_readMaxSize_label;
+	public static String PeripheralsPreferencePage_liveEnabled_label;
+	public static String PeripheralsPreferencePage_livePeriod_label;
+	public static String PeripheralsPreferencePage_historyEnabled_label;
+	public static String PeripheralsPreferencePage_historyDepth_label;
+
 	public static String AddMemoryBlockAction_title;
 	public static String AddMemoryBlockAction_noMemoryBlock;
 	public static String AddMemoryBlockAction_failed;
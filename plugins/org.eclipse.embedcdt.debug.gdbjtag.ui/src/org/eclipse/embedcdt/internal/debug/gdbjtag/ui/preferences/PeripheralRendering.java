@@ -16,6 +16,11 @@
 package org.eclipse.embedcdt.internal.debug.gdbjtag.ui.preferences;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -31,17 +36,18 @@ import org.eclipse.debug.ui.memory.IMemoryRendering;
 import org.eclipse.debug.ui.memory.IMemoryRenderingContainer;
 import org.eclipse.debug.ui.memory.IMemoryRenderingSynchronizationService;
 import org.eclipse.embedcdt.debug.gdbjtag.core.memory.PeripheralMemoryBlockExtension;
+import org.eclipse.embedcdt.debug.gdbjtag.core.memory.PeripheralRegisterHistory;
 import org.eclipse.embedcdt.debug.gdbjtag.core.viewmodel.peripheral.PeripheralClusterArrayVMNode;
 import org.eclipse.embedcdt.debug.gdbjtag.core.viewmodel.peripheral.PeripheralGroupVMNode;
 import org.eclipse.embedcdt.debug.gdbjtag.core.viewmodel.peripheral.PeripheralRegisterArrayVMNode;
 import org.eclipse.embedcdt.debug.gdbjtag.core.viewmodel.peripheral.PeripheralRegisterVMNode;
-import org.eclipse.embedcdt.debug.gdbjtag.core.viewmodel.peripheral.PeripheralTreeVMNode;
 import org.eclipse.embedcdt.debug.gdbjtag.ui.render.peripheral.ILinkToolTipListener;
 import org.eclipse.embedcdt.debug.gdbjtag.ui.render.peripheral.LinkToolTip;
 import org.eclipse.embedcdt.debug.gdbjtag.ui.render.peripheral.PeripheralColumnInfo;
 import org.eclipse.embedcdt.debug.gdbjtag.ui.render.peripheral.PeripheralContentProvider;
 import org.eclipse.embedcdt.debug.gdbjtag.ui.render.peripheral.PeripheralEditingSupport;
 import org.eclipse.embedcdt.debug.gdbjtag.ui.render.peripheral.PeripheralFilterDialog;
+import org.eclipse.embedcdt.debug.gdbjtag.ui.render.peripheral.PeripheralHistoryDialog;
 import org.eclipse.embedcdt.debug.gdbjtag.ui.render.peripheral.PeripheralNameFilter;
 import org.eclipse.embedcdt.debug.gdbjtag.ui.render.peripheral.PeripheralViewerComparator;
 import org.eclipse.embedcdt.internal.debug.gdbjtag.ui.Activator;
@@ -59,9 +65,11 @@ import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.jface.viewers.ColumnWeightData;
 import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.ISelectionChangedListener;
+import org.eclipse.jface.viewers.ITreeViewerListener;
 import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.SelectionChangedEvent;
 import org.eclipse.jface.viewers.StructuredSelection;
+import org.eclipse.jface.viewers.TreeExpansionEvent;
 import org.eclipse.jface.viewers.TreeSelection;
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.jface.viewers.TreeViewerColumn;
@@ -74,6 +82,7 @@ import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Tree;
 import org.eclipse.swt.widgets.TreeColumn;
 import org.eclipse.swt.widgets.TreeItem;
@@ -97,6 +106,10 @@ public class PeripheralRendering extends AbstractTableRendering
 	// ------------------------------------------------------------------------
 
 	private SystemUIJob fRefreshJob;
+	// The elements to update by the next run of the refresh job; events
+	// received before it runs are coalesced.
+	private final Set<Object> fPendingElements = new LinkedHashSet<>();
+	private boolean fIsFullRefreshPending = false;
 
 	private Action fAddFilterAction;
 	private Action fRemoveFilterAction;
@@ -107,6 +120,7 @@ public class PeripheralRendering extends AbstractTableRendering
 	private Action fCollapseRegistersAction;
 	private Action fShowFieldsAction;
 	private Action fForceReadAction;
+	private Action fShowHistoryAction;
 	private PeripheralMemoryBlockExtension fMemoryBlock;
 	private IMemoryRenderingContainer fContainer;
 	private PeripheralViewerComparator fComparator;
@@ -120,8 +134,23 @@ public class PeripheralRendering extends AbstractTableRendering
 
 			@Override
 			public IStatus runInUIThread(IProgressMonitor pm) {
+
+				boolean isFullRefresh;
+				Object[] elements;
+				synchronized (fPendingElements) {
+					isFullRefresh = fIsFullRefreshPending;
+					fIsFullRefreshPending = false;
+					elements = fPendingElements.toArray();
+					fPendingElements.clear();
+				}
+
 				if (!fPeripheralViewer.getTree().isDisposed()) {
-					refresh();
+					if (isFullRefresh) {
+						refresh();
+					} else if (elements.length > 0) {
+						// Only the labels of the changed registers and fields.
+						fPeripheralViewer.update(elements, null);
+					}
 				}
 				return Status.OK_STATUS;
 			}
@@ -134,6 +163,7 @@ public class PeripheralRendering extends AbstractTableRendering
 		fCollapseRegistersAction = null;
 		fShowFieldsAction = null;
 		fForceReadAction = null;
+		fShowHistoryAction = null;
 
 		fRenderingId = renderingId;
 	}
@@ -228,9 +258,10 @@ public class PeripheralRendering extends AbstractTableRendering
 		addDebugEventListener();
 		addToSyncService();
 		trackTreeSelectionChanges();
+		trackTreeExpansionChanges();
 		// Refresh the UI, since while initialising the controls 
 		// it would have missed some debug events
-		fRefreshJob.schedule();		
+		scheduleRefresh(null);		
 		return composite;
 	}
 
@@ -295,13 +326,100 @@ public class PeripheralRendering extends AbstractTableRendering
 		});
 	}
 
+	private void trackTreeExpansionChanges() {
+
+		fPeripheralViewer.addTreeListener(new ITreeViewerListener() {
+
+			@Override
+			public void treeExpanded(TreeExpansionEvent event) {
+				scheduleReportVisibleRegisters();
+			}
+
+			@Override
+			public void treeCollapsed(TreeExpansionEvent event) {
+				scheduleReportVisibleRegisters();
+			}
+		});
+	}
+
+	/**
+	 * The tree items are updated after the expansion events, so the visible
+	 * registers are collected later.
+	 */
+	private void scheduleReportVisibleRegisters() {
+
+		Display.getDefault().asyncExec(new Runnable() {
+
+			@Override
+			public void run() {
+				reportVisibleRegisters();
+			}
+		});
+	}
+
+	/**
+	 * Tell the memory block which registers are visible (not inside collapsed
+	 * or filtered out nodes), so that only they are read from the target.
+	 */
+	private void reportVisibleRegisters() {
+
+		if (fMemoryBlock == null || fPeripheralViewer == null || fPeripheralViewer.getControl().isDisposed()) {
+			return;
+		}
+
+		List<PeripheralRegisterVMNode> registers = new ArrayList<>();
+		collectVisibleRegisters(fPeripheralViewer.getTree().getItems(), registers);
+		fMemoryBlock.setVisibleRegisters(registers);
+	}
+
+	private void collectVisibleRegisters(TreeItem[] items, List<PeripheralRegisterVMNode> registers) {
+
+		for (TreeItem treeItem : items) {
+			Object node = treeItem.getData();
+			if (node instanceof PeripheralRegisterVMNode) {
+				// Fields get their values from the register.
+				if (!((PeripheralRegisterVMNode) node).isField()) {
+					registers.add((PeripheralRegisterVMNode) node);
+				}
+			} else if (treeItem.getExpanded()) {
+				collectVisibleRegisters(treeItem.getItems(), registers);
+			}
+		}
+	}
+
 	@Override
 	public void handleDebugEvents(DebugEvent[] events) {
 		for (int i = 0; i < events.length; ++i) {
 			if (events[i].getKind() != 16 || events[i].getSource() != fMemoryBlock)
 				continue;
-			fRefreshJob.schedule();
+			Object data = events[i].getData();
+			if (data instanceof Object[]) {
+				// The block passes the nodes to redraw.
+				if (((Object[]) data).length > 0) {
+					scheduleRefresh((Object[]) data);
+				}
+			} else {
+				scheduleRefresh(null);
+			}
+		}
+	}
+
+	/**
+	 * Schedule the refresh job, if not already scheduled.
+	 *
+	 * @param elements
+	 *            the elements to update, or null for a full refresh.
+	 */
+	private void scheduleRefresh(Object[] elements) {
+
+		synchronized (fPendingElements) {
+			if (elements == null) {
+				fIsFullRefreshPending = true;
+			} else {
+				fPendingElements.addAll(Arrays.asList(elements));
+			}
 		}
+		fRefreshJob.schedule();
 	}
 
 	@Override
@@ -319,11 +437,19 @@ public class PeripheralRendering extends AbstractTableRendering
 	@Override
 	public void becomesHidden() {
 
+		// Suspends no longer read the peripheral, until visible again.
+		if (fMemoryBlock != null) {
+			fMemoryBlock.setVisible(false);
+		}
 	}
 
 	@Override
 	public void becomesVisible() {
 
+		// Read the registers possibly changed while hidden.
+		if (fMemoryBlock != null) {
+			fMemoryBlock.setVisible(true);
+		}
 	}
 
 	private void handleSelectedAddressChanged(BigInteger bigInteger) {
@@ -374,15 +500,9 @@ public class PeripheralRendering extends AbstractTableRendering
 		if (Activator.getInstance().isDebugging()) {
 			System.out.println("PeripheralRendering.refresh()");
 		}
+		// The fading is stepped by the memory block, once for each refresh
+		// of the values.
 		fPeripheralViewer.refresh();
-
-		if (fMemoryBlock != null) {
-			PeripheralTreeVMNode node = fMemoryBlock.getPeripheralRegisterGroup();
-			node.decrementFadingLevel();
-			if (Activator.getInstance().isDebugging()) {
-				System.out.println("PeripheralRendering.refresh() decrementRecentChanges");
-			}
-		}
 	}
 
 	// ------------------------------------------------------------------------
@@ -466,12 +586,25 @@ public class PeripheralRendering extends AbstractTableRendering
 			// TODO: add force_read.png
 			fForceReadAction.setImageDescriptor(Activator.getInstance().getImageDescriptor("force_read"));
 		}
+
+		{
+			fShowHistoryAction = new Action() {
+
+				@Override
+				public void run() {
+					performShowHistoryAction();
+				}
+			};
+			fShowHistoryAction.setText("Show history...");
+			fShowHistoryAction.setToolTipText("Show the recorded values of the register");
+		}
 	}
 
 	private void performExpandAction(boolean collapseRegisters) {
 
 		if (!(fPeripheralViewer == null || fPeripheralViewer.getControl().isDisposed())) {
 			expandRecursive(fPeripheralViewer.getTree().getItems(), !collapseRegisters);
+			reportVisibleRegisters();
 		}
 	}
 
@@ -525,6 +658,7 @@ public class PeripheralRendering extends AbstractTableRendering
 
 		PeripheralNameFilter peripheralNameFilter = new PeripheralNameFilter(filter);
 		fPeripheralViewer.addFilter(peripheralNameFilter);
+		reportVisibleRegisters();
 	}
 
 	private void performRemoveFilterAction() {
@@ -533,6 +667,7 @@ public class PeripheralRendering extends AbstractTableRendering
 			fPeripheralViewer.removeFilter(filters[i]);
 			filters[i] = null;
 		}
+		reportVisibleRegisters();
 	}
 
 	private void performForceReadAction() {
@@ -544,6 +679,51 @@ public class PeripheralRendering extends AbstractTableRendering
 		}
 	}
 
+	private void performShowHistoryAction() {
+
+		int register = getHistoryRegister();
+		if (register < 0) {
+			return;
+		}
+
+		PeripheralRegisterVMNode peripheralRegister = (PeripheralRegisterVMNode) getSelection();
+		PeripheralRegisterHistory history = fMemoryBlock.getHistory();
+
+		String name;
+		long baseAddress;
+		try {
+			name = peripheralRegister.getName();
+			baseAddress = fMemoryBlock.getBigBaseAddress().longValue();
+		} catch (DebugException e) {
+			Activator.log(e);
+			return;
+		}
+
+		PeripheralHistoryDialog dialog = new PeripheralHistoryDialog(getControl().getShell(), name, history,
+				register, baseAddress);
+		dialog.open();
+	}
+
+	/**
+	 * @return the index of the selected register in the history, or -1 if not
+	 *         recorded or the history is not enabled.
+	 */
+	private int getHistoryRegister() {
+
+		PeripheralRegisterHistory history = (fMemoryBlock != null) ? fMemoryBlock.getHistory() : null;
+		Object object = getSelection();
+		if (history == null || !(object instanceof PeripheralRegisterVMNode)) {
+			return -1;
+		}
+
+		PeripheralRegisterVMNode peripheralRegister = (PeripheralRegisterVMNode) object;
+		if (peripheralRegister.isField()) {
+			return -1;
+		}
+		return history.findRegister(peripheralRegister.getPeripheralBigAddressOffset().longValue(),
+				peripheralRegister.getBigSize().intValue());
+	}
+
 	// ------------------------------------------------------------------------
 
 	@Override
@@ -587,6 +767,10 @@ public class PeripheralRendering extends AbstractTableRendering
 			menuManager.add(new Separator());
 			menuManager.add(fForceReadAction);
 		}
+		if (getHistoryRegister() >= 0) {
+			menuManager.add(new Separator());
+			menuManager.add(fShowHistoryAction);
+		}
 	}
 
 	@Override
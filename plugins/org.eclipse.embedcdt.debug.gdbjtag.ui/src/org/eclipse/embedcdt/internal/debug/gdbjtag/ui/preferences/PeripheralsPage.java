@@ -16,6 +16,7 @@
 package org.eclipse.embedcdt.internal.debug.gdbjtag.ui.preferences;
 
 import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdCache;
 import org.eclipse.embedcdt.debug.gdbjtag.core.preferences.PersistentPreferences;
 import org.eclipse.embedcdt.internal.debug.gdbjtag.ui.Activator;
 import org.eclipse.embedcdt.internal.debug.gdbjtag.ui.Messages;
@@ -24,6 +25,13 @@ import org.eclipse.embedcdt.ui.ThemeColorFieldEditor;
 import org.eclipse.jface.preference.BooleanFieldEditor;
 import org.eclipse.jface.preference.FieldEditor;
 import org.eclipse.jface.preference.FieldEditorPreferencePage;
+import org.eclipse.jface.preference.IntegerFieldEditor;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Label;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.IWorkbenchPreferencePage;
 import org.eclipse.ui.preferences.ScopedPreferenceStore;
@@ -109,6 +117,67 @@ public class PeripheralsPage extends FieldEditorPreferencePage implements IWorkb
 		hasFadingBackground = new BooleanFieldEditor(PersistentPreferences.PERIPHERALS_CHANGED_USE_FADING_BACKGROUND,
 				Messages.PeripheralsPreferencePage_useFadingBackground_label, getFieldEditorParent());
 		addField(hasFadingBackground);
+
+		IntegerFieldEditor readMaxGap;
+		readMaxGap = new IntegerFieldEditor(PersistentPreferences.PERIPHERALS_READ_MAX_GAP,
+				Messages.PeripheralsPreferencePage_readMaxGap_label, getFieldEditorParent());
+		readMaxGap.setValidRange(0, 4 * 1024);
+		addField(readMaxGap);
+
+		IntegerFieldEditor readMaxSize;
+		readMaxSize = new IntegerFieldEditor(PersistentPreferences.PERIPHERALS_READ_MAX_SIZE,
+				Messages.PeripheralsPreferencePage_readMaxSize_label, getFieldEditorParent());
+		readMaxSize.setValidRange(4, 64 * 1024);
+		addField(readMaxSize);
+
+		FieldEditor liveEnabled;
+		liveEnabled = new BooleanFieldEditor(PersistentPreferences.PERIPHERALS_LIVE_ENABLED,
+				Messages.PeripheralsPreferencePage_liveEnabled_label, getFieldEditorParent());
+		addField(liveEnabled);
+
+		IntegerFieldEditor livePeriod;
+		livePeriod = new IntegerFieldEditor(PersistentPreferences.PERIPHERALS_LIVE_PERIOD,
+				Messages.PeripheralsPreferencePage_livePeriod_label, getFieldEditorParent());
+		livePeriod.setValidRange(50, 60 * 1000);
+		addField(livePeriod);
+
+		FieldEditor historyEnabled;
+		historyEnabled = new BooleanFieldEditor(PersistentPreferences.PERIPHERALS_HISTORY_ENABLED,
+				Messages.PeripheralsPreferencePage_historyEnabled_label, getFieldEditorParent());
+		addField(historyEnabled);
+
+		IntegerFieldEditor historyDepth;
+		historyDepth = new IntegerFieldEditor(PersistentPreferences.PERIPHERALS_HISTORY_DEPTH,
+				Messages.PeripheralsPreferencePage_historyDepth_label, getFieldEditorParent());
+		historyDepth.setValidRange(10, 10 * 1000);
+		addField(historyDepth);
+
+		FieldEditor svdCacheEnabled;
+		svdCacheEnabled = new BooleanFieldEditor(PersistentPreferences.PERIPHERALS_SVD_CACHE_ENABLED,
+				Messages.PeripheralsPreferencePage_svdCacheEnabled_label, getFieldEditorParent());
+		addField(svdCacheEnabled);
+
+		IntegerFieldEditor svdCacheMaxSize;
+		svdCacheMaxSize = new IntegerFieldEditor(PersistentPreferences.PERIPHERALS_SVD_CACHE_MAX_SIZE,
+				Messages.PeripheralsPreferencePage_svdCacheMaxSize_label, getFieldEditorParent());
+		svdCacheMaxSize.setValidRange(1, 64 * 1024);
+		addField(svdCacheMaxSize);
+
+		final Label svdCacheSize = new Label(getFieldEditorParent(), SWT.NONE);
+		svdCacheSize.setText(String.format(Messages.PeripheralsPreferencePage_svdCacheSize_label,
+				SvdCache.getSize() / 1024));
+		svdCacheSize.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+
+		Button svdCacheClear = new Button(getFieldEditorParent(), SWT.PUSH);
+		svdCacheClear.setText(Messages.PeripheralsPreferencePage_svdCacheClear_button);
+		svdCacheClear.addSelectionListener(new SelectionAdapter() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				SvdCache.clear();
+				svdCacheSize.setText(String.format(Messages.PeripheralsPreferencePage_svdCacheSize_label,
+						SvdCache.getSize() / 1024));
+			}
+		});
 	}
 
 	// ------------------------------------------------------------------------
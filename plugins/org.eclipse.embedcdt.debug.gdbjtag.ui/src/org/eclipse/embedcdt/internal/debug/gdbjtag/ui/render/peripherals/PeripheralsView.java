@@ -16,12 +16,34 @@
 
 package org.eclipse.embedcdt.internal.debug.gdbjtag.ui.render.peripherals;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.cdt.dsf.concurrent.DataRequestMonitor;
+import org.eclipse.cdt.dsf.concurrent.Query;
+import org.eclipse.cdt.dsf.datamodel.DMContexts;
+import org.eclipse.cdt.dsf.datamodel.IDMContext;
+import org.eclipse.cdt.dsf.debug.service.IMemory.IMemoryDMContext;
+import org.eclipse.cdt.dsf.debug.service.IRunControl.IContainerDMContext;
+import org.eclipse.cdt.dsf.service.DsfServicesTracker;
+import org.eclipse.cdt.dsf.service.DsfSession;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.debug.core.DebugEvent;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.IDebugEventSetListener;
@@ -29,14 +51,31 @@ import org.eclipse.debug.core.IMemoryBlockListener;
 import org.eclipse.debug.core.model.IMemoryBlock;
 import org.eclipse.debug.internal.ui.viewers.model.provisional.TreeModelViewer;
 import org.eclipse.debug.internal.ui.views.variables.VariablesView;
+import org.eclipse.debug.ui.DebugUITools;
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.IPeripheralDMContext;
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.PeripheralDMContext;
+import org.eclipse.embedcdt.debug.gdbjtag.core.datamodel.SvdPeripheralDMNode;
 import org.eclipse.embedcdt.debug.gdbjtag.core.memory.PeripheralMemoryBlockExtension;
+import org.eclipse.embedcdt.debug.gdbjtag.core.memory.PeripheralMemoryBlockRetrieval;
+import org.eclipse.embedcdt.debug.gdbjtag.core.memory.PeripheralSnapshot;
+import org.eclipse.embedcdt.debug.gdbjtag.core.memory.PeripheralSnapshotDiff;
+import org.eclipse.embedcdt.debug.gdbjtag.core.services.IPeripheralsService;
 import org.eclipse.embedcdt.debug.gdbjtag.ui.MemoryBlockMonitor;
+import org.eclipse.embedcdt.debug.gdbjtag.ui.render.peripherals.PeripheralSnapshotDiffDialog;
 import org.eclipse.embedcdt.internal.debug.gdbjtag.ui.Activator;
 import org.eclipse.embedcdt.ui.EclipseUiUtils;
 import org.eclipse.embedcdt.ui.SystemUIJob;
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.action.IMenuManager;
+import org.eclipse.jface.action.IToolBarManager;
+import org.eclipse.jface.action.Separator;
+import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.FileDialog;
+import org.eclipse.swt.widgets.Shell;
 import org.eclipse.ui.IMemento;
 import org.eclipse.ui.progress.UIJob;
 
@@ -67,6 +106,9 @@ public class PeripheralsView extends VariablesView implements IMemoryBlockListen
 
 	Set<PeripheralMemoryBlockExtension> fMemoryBlocks;
 
+	private Action fSaveSnapshotAction;
+	private Action fCompareSnapshotsAction;
+
 	// ------------------------------------------------------------------------
 
 	public PeripheralsView() {
@@ -78,6 +120,34 @@ public class PeripheralsView extends VariablesView implements IMemoryBlockListen
 		fMemoryBlocks = new HashSet<>();
 	}
 
+	@Override
+	protected void configureToolBar(IToolBarManager toolBarManager) {
+		super.configureToolBar(toolBarManager);
+
+		fSaveSnapshotAction = new Action("Save Peripherals Snapshot...") {
+
+			@Override
+			public void run() {
+				performSaveSnapshotAction();
+			}
+		};
+		fSaveSnapshotAction.setToolTipText("Read all peripheral registers and save them to a file");
+
+		fCompareSnapshotsAction = new Action("Compare Peripherals Snapshots...") {
+
+			@Override
+			public void run() {
+				performCompareSnapshotsAction();
+			}
+		};
+		fCompareSnapshotsAction.setToolTipText("Show the registers and fields that differ between two snapshots");
+
+		IMenuManager menuManager = getViewSite().getActionBars().getMenuManager();
+		menuManager.add(new Separator());
+		menuManager.add(fSaveSnapshotAction);
+		menuManager.add(fCompareSnapshotsAction);
+	}
+
 	@Override
 	protected String getPresentationContextId() {
 		return PRESENTATION_CONTEXT_ID;
@@ -237,6 +307,252 @@ public class PeripheralsView extends VariablesView implements IMemoryBlockListen
 
 	// ------------------------------------------------------------------------
 
+	/**
+	 * Read all peripherals of the current debug session, with large reads, and
+	 * save them to a file.
+	 */
+	private void performSaveSnapshotAction() {
+
+		final IDMContext context = getDebugDMContext();
+		if (context == null) {
+			MessageDialog.openInformation(getSite().getShell(), "Peripherals snapshot",
+					"Select a suspended debug session.");
+			return;
+		}
+
+		FileDialog dialog = new FileDialog(getSite().getShell(), SWT.SAVE);
+		dialog.setOverwrite(true);
+		dialog.setFilterExtensions(new String[] { "*.psnap", "*.*" });
+		dialog.setFileName("peripherals.psnap");
+		final String fileName = dialog.open();
+		if (fileName == null) {
+			return;
+		}
+
+		Job job = new Job("Save peripherals snapshot") {
+
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+
+				try {
+					PeripheralSnapshot snapshot = readSnapshot(context);
+					try (DataOutputStream output = new DataOutputStream(
+							new BufferedOutputStream(Files.newOutputStream(Paths.get(fileName))))) {
+						snapshot.write(output);
+					}
+				} catch (CoreException e) {
+					return e.getStatus();
+				} catch (IOException e) {
+					return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Cannot write " + fileName, e);
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		job.setUser(true);
+		job.schedule();
+	}
+
+	/**
+	 * Compare two snapshot files, decoding the registers with the peripherals
+	 * of the current debug session.
+	 */
+	private void performCompareSnapshotsAction() {
+
+		final IDMContext context = getDebugDMContext();
+		if (context == null) {
+			MessageDialog.openInformation(getSite().getShell(), "Peripherals snapshots",
+					"Select a debug session using the same device, to decode the registers.");
+			return;
+		}
+
+		FileDialog dialog = new FileDialog(getSite().getShell(), SWT.OPEN | SWT.MULTI);
+		dialog.setText("Select two snapshots");
+		dialog.setFilterExtensions(new String[] { "*.psnap", "*.*" });
+		if (dialog.open() == null) {
+			return;
+		}
+		String[] names = dialog.getFileNames();
+		if (names.length != 2) {
+			MessageDialog.openInformation(getSite().getShell(), "Peripherals snapshots",
+					"Select exactly two snapshot files.");
+			return;
+		}
+		final String[] fileNames = new String[] { Paths.get(dialog.getFilterPath(), names[0]).toString(),
+				Paths.get(dialog.getFilterPath(), names[1]).toString() };
+		final Shell shell = getSite().getShell();
+
+		Job job = new Job("Compare peripherals snapshots") {
+
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+
+				PeripheralSnapshot[] snapshots = new PeripheralSnapshot[2];
+				for (int i = 0; i < 2; ++i) {
+					try (DataInputStream input = new DataInputStream(
+							new BufferedInputStream(Files.newInputStream(Paths.get(fileNames[i]))))) {
+						snapshots[i] = PeripheralSnapshot.read(input);
+					} catch (IOException e) {
+						return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Cannot read " + fileNames[i], e);
+					}
+				}
+				// The older one first.
+				if (snapshots[0].getTime() > snapshots[1].getTime()) {
+					PeripheralSnapshot tmp = snapshots[0];
+					snapshots[0] = snapshots[1];
+					snapshots[1] = tmp;
+				}
+
+				final PeripheralSnapshotDiff diff;
+				try {
+					diff = PeripheralSnapshotDiff.compare(snapshots[0], snapshots[1], getPeripheralNodes(context));
+				} catch (CoreException e) {
+					return e.getStatus();
+				}
+
+				Display.getDefault().asyncExec(new Runnable() {
+
+					@Override
+					public void run() {
+						if (!shell.isDisposed()) {
+							new PeripheralSnapshotDiffDialog(shell, diff).open();
+						}
+					}
+				});
+				return Status.OK_STATUS;
+			}
+		};
+		job.setUser(true);
+		job.schedule();
+	}
+
+	/**
+	 * @return the data model context of the selected debug element, or null
+	 *         if not a DSF session.
+	 */
+	private IDMContext getDebugDMContext() {
+
+		IAdaptable adaptable = DebugUITools.getDebugContext();
+		if (adaptable == null) {
+			return null;
+		}
+		IDMContext context = adaptable.getAdapter(IDMContext.class);
+		if (context == null || DMContexts.getAncestorOfType(context, IContainerDMContext.class) == null
+				|| DMContexts.getAncestorOfType(context, IMemoryDMContext.class) == null) {
+			return null;
+		}
+		return context;
+	}
+
+	/**
+	 * Get the peripherals of the session; must not be called on the executor
+	 * thread.
+	 */
+	private List<SvdPeripheralDMNode> getPeripheralNodes(IDMContext context) throws CoreException {
+
+		final IContainerDMContext containerDMContext = DMContexts.getAncestorOfType(context,
+				IContainerDMContext.class);
+
+		return runQuery(context, new Query<List<SvdPeripheralDMNode>>() {
+
+			@Override
+			protected void execute(final DataRequestMonitor<List<SvdPeripheralDMNode>> rm) {
+				getPeripheralNodes(containerDMContext, rm);
+			}
+		});
+	}
+
+	/**
+	 * Read all peripherals of the session; must not be called on the executor
+	 * thread.
+	 */
+	private PeripheralSnapshot readSnapshot(IDMContext context) throws CoreException {
+
+		final IContainerDMContext containerDMContext = DMContexts.getAncestorOfType(context,
+				IContainerDMContext.class);
+		final IMemoryDMContext memoryDMContext = DMContexts.getAncestorOfType(context, IMemoryDMContext.class);
+		final PeripheralMemoryBlockRetrieval retrieval = containerDMContext
+				.getAdapter(PeripheralMemoryBlockRetrieval.class);
+		if (retrieval == null) {
+			throw new CoreException(
+					new Status(IStatus.ERROR, Activator.PLUGIN_ID, "The session has no peripherals."));
+		}
+
+		return runQuery(context, new Query<PeripheralSnapshot>() {
+
+			@Override
+			protected void execute(final DataRequestMonitor<PeripheralSnapshot> rm) {
+
+				getPeripheralNodes(containerDMContext,
+						new DataRequestMonitor<List<SvdPeripheralDMNode>>(retrieval.getExecutor(), rm) {
+
+							@Override
+							protected void handleSuccess() {
+								retrieval.getReadPlanner().readSnapshot(getData(), memoryDMContext, rm);
+							}
+						});
+			}
+		});
+	}
+
+	/**
+	 * Must be called on the executor thread.
+	 */
+	private void getPeripheralNodes(IContainerDMContext containerDMContext,
+			final DataRequestMonitor<List<SvdPeripheralDMNode>> rm) {
+
+		DsfServicesTracker tracker = new DsfServicesTracker(Activator.getInstance().getBundle().getBundleContext(),
+				containerDMContext.getSessionId());
+		IPeripheralsService peripheralsService = tracker.getService(IPeripheralsService.class);
+		tracker.dispose();
+
+		if (peripheralsService == null) {
+			rm.setStatus(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "The session has no peripherals."));
+			rm.done();
+			return;
+		}
+
+		DsfSession session = DsfSession.getSession(containerDMContext.getSessionId());
+		peripheralsService.getPeripherals(containerDMContext,
+				new DataRequestMonitor<IPeripheralDMContext[]>(session.getExecutor(), rm) {
+
+					@Override
+					protected void handleSuccess() {
+
+						List<SvdPeripheralDMNode> list = new ArrayList<>();
+						for (IPeripheralDMContext peripheral : getData()) {
+							list.add(((PeripheralDMContext) peripheral).getPeripheralInstance());
+						}
+						rm.setData(list);
+						rm.done();
+					}
+				});
+	}
+
+	private <V> V runQuery(IDMContext context, Query<V> query) throws CoreException {
+
+		DsfSession session = DsfSession.getSession(context.getSessionId());
+		if (session == null || !session.isActive()) {
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "The session was terminated."));
+		}
+
+		try {
+			session.getExecutor().execute(query);
+			return query.get();
+		} catch (RejectedExecutionException e) {
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "The session was terminated."));
+		} catch (InterruptedException e) {
+			throw new CoreException(new Status(IStatus.CANCEL, Activator.PLUGIN_ID, "Interrupted."));
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof CoreException) {
+				throw (CoreException) e.getCause();
+			}
+			throw new CoreException(
+					new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Cannot read the peripherals.", e.getCause()));
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	@Override
 	public Object getAdapter(Class required) {
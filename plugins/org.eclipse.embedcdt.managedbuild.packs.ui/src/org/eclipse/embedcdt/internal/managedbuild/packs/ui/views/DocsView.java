@@ -41,11 +41,10 @@ import org.eclipse.embedcdt.packs.core.data.DataManager;
 import org.eclipse.embedcdt.packs.core.data.DataManagerEvent;
 import org.eclipse.embedcdt.packs.core.data.IDataManagerListener;
 import org.eclipse.embedcdt.packs.core.data.PacksStorage;
-import org.eclipse.embedcdt.packs.core.tree.AbstractTreePreOrderIterator;
-import org.eclipse.embedcdt.packs.core.tree.ITreeIterator;
 import org.eclipse.embedcdt.packs.core.tree.Leaf;
 import org.eclipse.embedcdt.packs.core.tree.Node;
 import org.eclipse.embedcdt.packs.core.tree.Property;
+import org.eclipse.embedcdt.packs.core.tree.TreeQuery;
 import org.eclipse.embedcdt.packs.core.tree.Type;
 import org.eclipse.embedcdt.packs.ui.IconUtils;
 import org.eclipse.embedcdt.packs.ui.views.NodeViewContentProvider;
@@ -93,6 +92,10 @@ public class DocsView extends ViewPart implements IDataManagerListener, IPropert
 
 	public static final int AUTOEXPAND_LEVEL = 2;
 
+	// The devices with the given name, from the vendors with the given id.
+	private static final TreeQuery fgVendorDevices = TreeQuery
+			.compile("vendor[@" + Property.VENDOR_ID + "=$vendorId]//device[name()=$name]", Type.DEVICE);
+
 	// ------------------------------------------------------------------------
 
 	class ViewContentProvider extends NodeViewContentProvider {
@@ -689,65 +692,34 @@ public class DocsView extends ViewPart implements IDataManagerListener, IPropert
 
 	private void copyDeviceDocs(Node devicesSubtree, String deviceVendorId, String deviceName, Node parent) {
 
-		for (Leaf vendor : devicesSubtree.getChildren()) {
-
-			// Identify vendor by vendor ID, not name
-			if (vendor.isType(Type.VENDOR) && deviceVendorId.equals(vendor.getProperty(Property.VENDOR_ID))) {
-
-				ITreeIterator deviceNodes = new AbstractTreePreOrderIterator() {
-
-					@Override
-					public boolean isIterable(Leaf node) {
-
-						if (node.isType(Type.DEVICE)) {
-							return true;
-						}
-						return false;
-					}
-
-					@Override
-					public boolean isLeaf(Leaf node) {
+		// Identify vendor by vendor ID, not name
+		Map<String, String> variables = new HashMap<>();
+		variables.put("vendorId", deviceVendorId);
+		variables.put("name", deviceName);
 
-						if (node.isType(Type.DEVICE)) {
-							return true;
-						}
-						return false;
-					}
-
-				};
-				// Iterate only the current vendor devices
-				deviceNodes.setTreeNode(vendor);
-
-				for (Leaf deviceNode : deviceNodes) {
+		for (Leaf deviceNode : fgVendorDevices.findAll(devicesSubtree, variables)) {
 
-					// Identify device
-					if (deviceName.equals(deviceNode.getName())) {
+			Leaf node = deviceNode;
 
-						Leaf node = deviceNode;
+			String destFolder = fDataManager.getCmsisDestinationFolder(node);
+			do {
+				if (node.hasChildren()) {
+					for (Leaf bookNode : ((Node) node).getChildren()) {
+						if (bookNode.isType(Type.BOOK)) {
+							// Copy book nodes
+							Leaf newBook = Leaf.addNewChild(parent, Type.BOOK);
+							newBook.copyProperties(bookNode);
 
-						String destFolder = fDataManager.getCmsisDestinationFolder(node);
-						do {
-							if (node.hasChildren()) {
-								for (Leaf bookNode : ((Node) node).getChildren()) {
-									if (bookNode.isType(Type.BOOK)) {
-										// Copy book nodes
-										Leaf newBook = Leaf.addNewChild(parent, Type.BOOK);
-										newBook.copyProperties(bookNode);
-
-										if (newBook.hasProperty(Property.FILE)) {
-											IPath path = new Path(destFolder)
-													.append(newBook.getProperty(Property.FILE));
-											newBook.putProperty(Property.FILE_ABSOLUTE, path.toString());
-										}
-									}
-								}
+							if (newBook.hasProperty(Property.FILE)) {
+								IPath path = new Path(destFolder).append(newBook.getProperty(Property.FILE));
+								newBook.putProperty(Property.FILE_ABSOLUTE, path.toString());
 							}
-							node = node.getParent();
-							// collect subfamily and family books too
-						} while (node != null && !node.isType(Type.DEVICES_SUBTREE));
+						}
 					}
 				}
-			}
+				node = node.getParent();
+				// collect subfamily and family books too
+			} while (node != null && !node.isType(Type.DEVICES_SUBTREE));
 		}
 	}
 
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.packs.core.jstree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class JsReaderWriterTest {
+
+	// ------------------------------------------------------------------------
+
+	@Test
+	public void testScalars() throws IOException {
+
+		JsObject object = new JsReader().parseObject(new StringReader(
+				"{ \"s\": \"text\", \"i\": -12, \"d\": 1.5e+3, \"t\": true, \"f\": false, \"n\": null, \"e\": \"\" }"));
+
+		// All scalars are strings; numbers keep the literal text.
+		assertEquals("text", object.getProperty("s"));
+		assertEquals("-12", object.getProperty("i"));
+		assertEquals("1.5e+3", object.getProperty("d"));
+		assertEquals("true", object.getProperty("t"));
+		assertEquals("false", object.getProperty("f"));
+		assertEquals("null", object.getProperty("n"));
+		assertEquals("", object.getProperty("e"));
+	}
+
+	@Test
+	public void testEscapes() throws IOException {
+
+		JsObject object = new JsReader()
+				.parseObject(new StringReader("{\"a\\\"b\":\"q\\\" s\\\\ n\\n t\\t u\\u0041\\u00e9 sl\\/\"}"));
+		assertEquals("q\" s\\ n\n t\t uA\u00e9 sl/", object.getProperty("a\"b"));
+
+		// Control characters are written as unicode escapes.
+		object = new JsObject();
+		object.putProperty("k", "a\u0001\r\b\fb");
+		assertEquals("{\"k\":\"a\\u0001\\r\\b\\fb\"}", write(object, null));
+	}
+
+	@Test
+	public void testNested() throws IOException {
+
+		JsNode root = new JsReader().parse(new StringReader("[ {\"a\": [1, [], {}]}, \"x\" ]"));
+		assertTrue(root instanceof JsArray);
+
+		JsArray array = (JsArray) root;
+		assertEquals(2, array.size());
+		assertEquals("x", array.get(1));
+
+		JsObject object = (JsObject) array.get(0);
+		JsArray inner = (JsArray) object.getProperty("a");
+		assertEquals("1", inner.get(0));
+		assertTrue(((JsArray) inner.get(1)).isEmpty());
+		assertTrue(((JsObject) inner.get(2)).getProperties().isEmpty());
+		assertSame(object, inner.getParent());
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+
+		String json = "{\"name\":\"STM32F4\",\"size\":\"0x400\",\"list\":[\"a\",{\"b\":\"\\\"c\\\"\"},[]],\"empty\":{},"
+				+ "\"unicode\":\"\u00e9\u4e2d\"}";
+
+		JsNode node = new JsReader().parse(new StringReader(json));
+		assertEquals(json, write(node, null));
+
+		// The order of the properties is preserved.
+		String indented = write(node, "  ");
+		assertTrue(indented.startsWith("{\n  \"name\": \"STM32F4\",\n  \"size\": \"0x400\",\n  \"list\": [\n    \"a\","));
+		assertEquals(json, write(new JsReader().parse(new StringReader(indented)), null));
+
+		// The same from UTF-8 bytes.
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		assertEquals(json, write(new JsReader().parse(ByteBuffer.wrap(bytes)), null));
+	}
+
+	@Test
+	public void testLargeDocument() throws IOException {
+
+		// Strings, numbers and names across the reader buffer boundaries,
+		// and enough names to grow the names table.
+		StringBuilder sb = new StringBuilder();
+		sb.append("\ufeff{");
+		for (int i = 0; i < 1000; ++i) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			sb.append("\"name").append(i).append("\":{\"description\":\"");
+			for (int j = 0; j < i % 37; ++j) {
+				sb.append("text\\n");
+			}
+			sb.append("\",\"value\":").append(i * 1234567L).append('}');
+		}
+		sb.append('}');
+		String json = sb.toString();
+
+		JsReader reader = new JsReader();
+		JsObject fromReader = reader.parseObject(new StringReader(json));
+		assertEquals(1002, reader.getNamesCount());
+
+		JsObject fromBytes = new JsReader().parseObject(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+		assertEquals(write(fromBytes, null), write(fromReader, null));
+
+		JsObject object = (JsObject) fromReader.getProperty("name999");
+		assertEquals(String.valueOf(999 * 1234567L), object.getProperty("value"));
+		// As everywhere in JS trees, the values are trimmed.
+		assertEquals("text\ntext", ((JsObject) fromReader.getProperty("name39")).getProperty("description"));
+
+		// The names are shared.
+		String first = null;
+		for (String name : ((JsObject) fromReader.getProperty("name0")).getProperties().keySet()) {
+			first = name;
+			break;
+		}
+		for (String name : object.getProperties().keySet()) {
+			assertSame(first, name);
+			break;
+		}
+	}
+
+	@Test
+	public void testErrors() throws IOException {
+
+		checkError("", 0);
+		checkError("  ", 2);
+		checkError("\"text\"", 0);
+		checkError("{\"a\" 1}", 5);
+		checkError("{\"a\":}", 5);
+		checkError("{\"a\":1,}", 7);
+		checkError("{a:1}", 1);
+		checkError("[1 2]", 3);
+		checkError("[1,", 3);
+		checkError("[tru]", 4);
+		checkError("[1-]", 3);
+		checkError("[\"\\x\"]", 4);
+		checkError("[\"\\u00g0\"]", 7);
+		checkError("[\"abc", 5);
+		checkError("{} []", 3);
+
+		try {
+			new JsReader().parseObject(new StringReader("[]"));
+			fail("Array accepted as object");
+		} catch (JsParseException e) {
+			// Expected.
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static String write(JsNode node, String indent) throws IOException {
+
+		StringWriter sw = new StringWriter();
+		JsWriter writer = new JsWriter(sw).setIndent(indent);
+		writer.write(node);
+		writer.flush();
+		return sw.toString();
+	}
+
+	private static void checkError(String json, long position) throws IOException {
+
+		try {
+			new JsReader().parse(new StringReader(json));
+			fail("Error not detected in '" + json + "'");
+		} catch (JsParseException e) {
+			assertEquals("Position in '" + json + "'", position, e.getPosition());
+		}
+	}
+
+	// ------------------------------------------------------------------------
+}
@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.packs.core.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TreeQueryTest {
+
+	// ------------------------------------------------------------------------
+
+	private Node fRoot;
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * <pre>
+	 * devices
+	 *   family F1
+	 *     device D1 (core=cm4)
+	 *       variant V1
+	 *     device D2
+	 *   family F2
+	 *     subFamily S1
+	 *       device D3
+	 *         memory M1
+	 * </pre>
+	 */
+	@Before
+	public void setUp() {
+
+		fRoot = new Node("devices");
+
+		Node f1 = addNode(fRoot, "family", "F1");
+		Node d1 = addNode(f1, "device", "D1");
+		d1.putProperty("core", "cm4");
+		addLeaf(d1, "variant", "V1");
+		addNode(f1, "device", "D2");
+
+		Node f2 = addNode(fRoot, "family", "F2");
+		Node s1 = addNode(f2, "subFamily", "S1");
+		Node d3 = addNode(s1, "device", "D3");
+		addLeaf(d3, "memory", "M1");
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Test
+	public void testChildren() {
+
+		assertEquals("[F1, F2]", names(TreeQuery.compile("family").findAll(fRoot)));
+		assertEquals("[D1, D2]", names(TreeQuery.compile("family/device").findAll(fRoot)));
+		assertEquals("[D1, D2, S1]", names(TreeQuery.compile("family/*").findAll(fRoot)));
+		assertEquals("[]", names(TreeQuery.compile("device").findAll(fRoot)));
+	}
+
+	@Test
+	public void testDescendants() {
+
+		assertEquals("[D1, D2, D3]", names(TreeQuery.compile("//device").findAll(fRoot)));
+		assertEquals("[D1, D2, D3]", names(TreeQuery.compile("family//device").findAll(fRoot)));
+		assertEquals("[D3]", names(TreeQuery.compile("family/subFamily//device").findAll(fRoot)));
+		assertEquals("[M1]", names(TreeQuery.compile("//subFamily//memory").findAll(fRoot)));
+	}
+
+	@Test
+	public void testTypesUnion() {
+
+		// In pre-order, the parents before the children.
+		assertEquals("[D1, V1, D2, D3]", names(TreeQuery.compile("//device|variant").findAll(fRoot)));
+	}
+
+	@Test
+	public void testConditions() {
+
+		assertEquals("[D2]", names(TreeQuery.compile("//device[name()=D2]").findAll(fRoot)));
+		assertEquals("[D2]", names(TreeQuery.compile("//device[name()='D2']").findAll(fRoot)));
+		assertEquals("[D2]", names(TreeQuery.compile("//device[name()=\"D2\"]").findAll(fRoot)));
+		assertEquals("[D1]", names(TreeQuery.compile("//device[@core]").findAll(fRoot)));
+		assertEquals("[D1]", names(TreeQuery.compile("//device[@core=cm4][name()=D1]").findAll(fRoot)));
+		assertEquals("[]", names(TreeQuery.compile("//device[@core=cm4][name()=D2]").findAll(fRoot)));
+
+		// Conditions on intermediate steps.
+		assertEquals("[D3]", names(TreeQuery.compile("family[name()=F2]//device").findAll(fRoot)));
+	}
+
+	@Test
+	public void testVariables() {
+
+		TreeQuery query = TreeQuery.compile("//device[name()=$name]");
+		assertEquals("[D3]", names(query.findAll(fRoot, Collections.singletonMap("name", "D3"))));
+		assertEquals("[]", names(query.findAll(fRoot, Collections.singletonMap("name", "D9"))));
+
+		try {
+			query.findAll(fRoot);
+			fail("Unbound variable not detected");
+		} catch (IllegalArgumentException e) {
+			// Expected.
+		}
+	}
+
+	@Test
+	public void testLeafTypes() {
+
+		// The device nodes are not entered.
+		assertEquals("[]", names(TreeQuery.compile("//variant", "device").findAll(fRoot)));
+		assertEquals("[D1, D2]", names(TreeQuery.compile("//device", "subFamily").findAll(fRoot)));
+	}
+
+	@Test
+	public void testNoDuplicates() {
+
+		// D3 is below both F2 and S1.
+		assertEquals("[D1, D2, D3]", names(TreeQuery.compile("//*//device").findAll(fRoot)));
+	}
+
+	@Test
+	public void testFirst() {
+
+		TreeQuery query = TreeQuery.compile("//device");
+		assertEquals("D1", query.findFirst(fRoot, null).getName());
+		assertNull(TreeQuery.compile("//board").findFirst(fRoot, null));
+		assertNull(query.findFirst(null, null));
+
+		final List<Leaf> visited = new ArrayList<>();
+		assertFalse(query.forEach(fRoot, null, node -> {
+			visited.add(node);
+			return !"D2".equals(node.getName());
+		}));
+		assertEquals("[D1, D2]", names(visited));
+	}
+
+	@Test
+	public void testManyChildren() {
+
+		// Above the threshold, the children are selected by the type index.
+		Node parent = new Node("vendor");
+		for (int i = 0; i < 40; ++i) {
+			addLeaf(parent, (i % 3 == 0) ? "device" : "board", "N" + i);
+		}
+
+		List<Leaf> devices = TreeQuery.compile("device").findAll(parent);
+		assertEquals(14, devices.size());
+		assertSame(parent.getChildren().get(0), devices.get(0));
+		assertSame(parent.getChildren().get(39), devices.get(13));
+
+		// A new child is seen by the next query.
+		addLeaf(parent, "device", "N40");
+		assertEquals(15, TreeQuery.compile("device").findAll(parent).size());
+	}
+
+	@Test
+	public void testSyntaxErrors() {
+
+		String[] paths = { "", "/devices", "family[", "family[@core]x", "family[text()]", "family//", "family[@]" };
+		for (String path : paths) {
+			try {
+				TreeQuery.compile(path);
+				fail("Syntax error not detected in \"" + path + "\"");
+			} catch (IllegalArgumentException e) {
+				// Expected.
+			}
+		}
+
+		assertTrue(TreeQuery.compile("family[name()='a]b']").findAll(fRoot).isEmpty());
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static Node addNode(Node parent, String type, String name) {
+
+		Node node = new Node(type);
+		node.setName(name);
+		parent.addChild(node);
+		return node;
+	}
+
+	private static Leaf addLeaf(Node parent, String type, String name) {
+
+		Leaf node = new Leaf(type);
+		node.setName(name);
+		parent.addChild(node);
+		return node;
+	}
+
+	private static String names(List<Leaf> nodes) {
+
+		List<String> list = new ArrayList<>();
+		for (Leaf node : nodes) {
+			list.add(node.getName());
+		}
+		return list.toString();
+	}
+
+	// ------------------------------------------------------------------------
+}
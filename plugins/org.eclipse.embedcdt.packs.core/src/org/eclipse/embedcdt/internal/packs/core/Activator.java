@@ -24,6 +24,8 @@ import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.embedcdt.internal.core.AbstractActivator;
 import org.eclipse.embedcdt.packs.core.IConsoleStream;
 import org.eclipse.embedcdt.packs.core.IConsolesFactory;
+import org.eclipse.embedcdt.packs.core.data.DataManager;
+import org.eclipse.embedcdt.packs.core.data.PacksFolderWatcher;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.ui.preferences.ScopedPreferenceStore;
 import org.osgi.framework.BundleContext;
@@ -74,6 +76,8 @@ public class Activator extends AbstractActivator {
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		PacksFolderWatcher.stopWatching();
+		DataManager.getInstance().dispose();
 		super.stop(context);
 	}
 
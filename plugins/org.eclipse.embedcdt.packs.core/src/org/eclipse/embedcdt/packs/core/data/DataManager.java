@@ -16,25 +16,43 @@
 package org.eclipse.embedcdt.packs.core.data;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.eclipse.cdt.managedbuilder.core.IConfiguration;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.embedcdt.core.EclipseUtils;
+import org.eclipse.embedcdt.core.SystemJob;
 import org.eclipse.embedcdt.core.Xml;
+import org.eclipse.embedcdt.core.XpackManifest;
 import org.eclipse.embedcdt.core.XpackUtils;
 import org.eclipse.embedcdt.internal.packs.core.Activator;
 import org.eclipse.embedcdt.packs.core.IConsoleStream;
@@ -43,20 +61,18 @@ import org.eclipse.embedcdt.packs.core.data.cmsis.PdscGenericParser;
 import org.eclipse.embedcdt.packs.core.data.cmsis.PdscTreeParserForBuild;
 import org.eclipse.embedcdt.packs.core.data.xcdl.InstalledDevicesParser;
 import org.eclipse.embedcdt.packs.core.data.xcdl.InstalledDevicesSerialiser;
-import org.eclipse.embedcdt.packs.core.jstree.JsNode;
-import org.eclipse.embedcdt.packs.core.tree.AbstractTreePreOrderIterator;
-import org.eclipse.embedcdt.packs.core.tree.ITreeIterator;
+import org.eclipse.embedcdt.packs.core.jstree.JsObject;
+import org.eclipse.embedcdt.packs.core.jstree.JsParseException;
+import org.eclipse.embedcdt.packs.core.jstree.JsReader;
 import org.eclipse.embedcdt.packs.core.tree.Leaf;
 import org.eclipse.embedcdt.packs.core.tree.Node;
 import org.eclipse.embedcdt.packs.core.tree.PackNode;
 import org.eclipse.embedcdt.packs.core.tree.Property;
 import org.eclipse.embedcdt.packs.core.tree.Selector;
+import org.eclipse.embedcdt.packs.core.tree.TreeQuery;
 import org.eclipse.embedcdt.packs.core.tree.Type;
 import org.eclipse.embedcdt.packs.core.xml.GenericParser;
 import org.eclipse.embedcdt.packs.core.xml.GenericSerialiser;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
 import org.w3c.dom.Document;
 import org.xml.sax.SAXParseException;
 
@@ -102,6 +118,21 @@ public class DataManager implements IPacksDataManager {
 
 	// ------------------------------------------------------------------------
 
+	// Compiled queries over the installed objects tree.
+	private static final TreeQuery fgInstalledDevicesByName = TreeQuery
+			.compile("devices//device|variant[name()=$id]", Type.VARIANT);
+	private static final TreeQuery fgInstalledDevicesByKey = TreeQuery
+			.compile("devices//device|variant[key()=$id]", Type.VARIANT);
+	private static final TreeQuery fgInstalledBoards = TreeQuery.compile("boards//board", Type.BOARD);
+	private static final TreeQuery fgNodesWithoutPack = TreeQuery.compile("//family|board[@pack.name='']",
+			Type.FAMILY, Type.BOARD);
+
+	// Compiled queries over the project objects tree.
+	private static final TreeQuery fgProjectDeviceFamilies = TreeQuery.compile("//family", Type.FAMILY,
+			Type.BOARDS_SUBTREE);
+	private static final TreeQuery fgProjectBoards = TreeQuery.compile("//board", Type.BOARD,
+			Type.FAMILIES_SUBTREE);
+
 	private static final DataManager fgInstance;
 
 	static {
@@ -128,8 +159,15 @@ public class DataManager implements IPacksDataManager {
 	private List<PackNode> fInstalledPacksLatestVersionsList;
 	private Node fInstalledObjectsForBuild;
 
-	private IConfiguration fInstalledConfig;
+	// Also read by the resource change listener.
+	private volatile IConfiguration fInstalledConfig;
 	private Node fConfigObjectsForBuild;
+	// Set by the resource change listener, when the xPacks of the project of
+	// the current configuration changed; checked by the readers.
+	private volatile boolean fIsConfigObjectsStale;
+
+	// The project objects merged into the installed tree, revertible.
+	private InstalledObjectsOverlay fProjectOverlay;
 
 	// ----- Other data -----
 	private IConsoleStream fOut;
@@ -138,6 +176,47 @@ public class DataManager implements IPacksDataManager {
 	private Map<String, Leaf> fInstalledDevicesMap;
 	private Map<String, Leaf> fInstalledBoardsMap;
 
+	// ----- Coalesced notifications -----
+
+	// Wait this long for more changes before notifying the listeners.
+	private static final long NOTIFY_DELAY_MILLIS = 200;
+
+	// Guarded by fPendingVersions.
+	private boolean fPendingNewInput;
+	private boolean fPendingUpdatePacks;
+	private Set<Leaf> fPendingVersions;
+
+	private SystemJob fNotifyJob;
+
+	// ----- Project xPacks data -----
+
+	// The xPacks overlay of each project, as parsed from the xpacks folder.
+	// A null value means the project has no xPacks with XCDL definitions.
+	private Map<IProject, Node> fProjectObjectsForBuild;
+	// Incremented each time the project xPacks change; a tree parsed while
+	// the project changed is not cached. Protected by fProjectObjectsForBuild.
+	private Map<IProject, Long> fProjectGenerations;
+
+	// The parsed XCDL files, keyed by absolute path, validated by time stamp.
+	private Map<String, ParsedXcdlFile> fParsedXcdl;
+
+	private static class ParsedXcdlFile {
+
+		long fLastModified;
+		long fLength;
+		Node fNode;
+
+		ParsedXcdlFile(File file, Node node) {
+			fLastModified = file.lastModified();
+			fLength = file.length();
+			fNode = node;
+		}
+
+		boolean isValid(File file) {
+			return fLastModified == file.lastModified() && fLength == file.length();
+		}
+	}
+
 	public DataManager() {
 
 		fOut = Activator.getInstance().getConsoleOutput();
@@ -146,10 +225,25 @@ public class DataManager implements IPacksDataManager {
 
 		fConfigObjectsForBuild = null;
 		fInstalledConfig = null;
+		fIsConfigObjectsStale = false;
+		fProjectOverlay = new InstalledObjectsOverlay();
 
-		fListeners = new ArrayList<>();
+		// Listeners may be added/removed while notifications are sent.
+		fListeners = new CopyOnWriteArrayList<>();
 		fParsedPdsc = null;
 
+		fPendingNewInput = false;
+		fPendingUpdatePacks = false;
+		fPendingVersions = new LinkedHashSet<>();
+		fNotifyJob = new SystemJob("Notify packs changes") {
+
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				flushNotifications();
+				return Status.OK_STATUS;
+			}
+		};
+
 		fRepositoriesTree = null;
 		fInstalledPacksLatestVersionsList = null;
 		fPacksVersionsList = null;
@@ -160,6 +254,63 @@ public class DataManager implements IPacksDataManager {
 		fInstalledBoardsMap = new TreeMap<>();
 		// fDevicesMap = new TreeMap<String, PackNode>();
 
+		fProjectObjectsForBuild = new HashMap<>();
+		fProjectGenerations = new HashMap<>();
+		fParsedXcdl = new HashMap<>();
+
+		try {
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(fXpacksChangeListener,
+					IResourceChangeEvent.POST_CHANGE);
+		} catch (IllegalStateException e) {
+			// No workspace; the project caches will not be used.
+		}
+	}
+
+	// ----- Project xPacks change listener -----------------------------------
+
+	/**
+	 * Drop the cached xPacks overlay of the projects with changes in the
+	 * 'xpacks' folder or in the top 'package.json'. All changed projects are
+	 * checked, including those not cached yet, which may be parsed right now.
+	 */
+	private final IResourceChangeListener fXpacksChangeListener = new IResourceChangeListener() {
+
+		@Override
+		public void resourceChanged(IResourceChangeEvent event) {
+
+			IResourceDelta delta = event.getDelta();
+			if (delta == null) {
+				return;
+			}
+
+			// The workspace root children are the projects.
+			for (IResourceDelta projectDelta : delta.getAffectedChildren()) {
+				if (!(projectDelta.getResource() instanceof IProject)) {
+					continue;
+				}
+				IProject project = (IProject) projectDelta.getResource();
+				if (projectDelta.findMember(new Path("xpacks")) != null
+						|| projectDelta.findMember(new Path("package.json")) != null
+						|| (projectDelta.getKind() & IResourceDelta.REMOVED) != 0) {
+
+					clearProjectObjectsForBuild(project);
+				}
+			}
+		}
+	};
+
+	/**
+	 * Stop listening to workspace changes; called when the plug-in stops.
+	 *
+	 * @since 3.2
+	 */
+	public void dispose() {
+
+		try {
+			ResourcesPlugin.getWorkspace().removeResourceChangeListener(fXpacksChangeListener);
+		} catch (IllegalStateException e) {
+			// No workspace.
+		}
 	}
 
 	// ----- Listeners & notifiers --------------------------------------------
@@ -176,6 +327,10 @@ public class DataManager implements IPacksDataManager {
 
 	// Note: since the DataManager is the only source of events, the
 	// source is 'this'.
+	//
+	// The NEW_INPUT, UPDATE_VERSIONS and UPDATE_PACKS events are not sent
+	// immediately, but collected for a short time and sent as one event
+	// of each type, from a system job.
 
 	// Used by 'Update', when everything might change and need to be refreshed
 	public void notifyNewInput() {
@@ -186,13 +341,15 @@ public class DataManager implements IPacksDataManager {
 		clearInstalledPacksLatestVersionsList();
 		clearCachedInstalledObjectsForBuild();
 
-		// System.out.println("PacksStorage notifyRefresh()");
-		DataManagerEvent event = new DataManagerEvent(this, DataManagerEvent.Type.NEW_INPUT);
-
-		notifyListener(event);
+		synchronized (fPendingVersions) {
+			fPendingNewInput = true;
+			// The new input replaces the version nodes.
+			fPendingVersions.clear();
+		}
+		fNotifyJob.schedule(NOTIFY_DELAY_MILLIS);
 	}
 
-	// Used when a package is installed/removed
+	// Used when a package is installed/removed, if the versions are not known
 	public void notifyInstallRemove() {
 
 		clearSummaryData();
@@ -201,22 +358,157 @@ public class DataManager implements IPacksDataManager {
 		clearInstalledPacksLatestVersionsList();
 		clearCachedInstalledObjectsForBuild();
 
-		// System.out.println("PacksStorage notifyRefresh()");
-		DataManagerEvent event = new DataManagerEvent(this, DataManagerEvent.Type.UPDATE_PACKS);
+		synchronized (fPendingVersions) {
+			fPendingUpdatePacks = true;
+		}
+		fNotifyJob.schedule(NOTIFY_DELAY_MILLIS);
+	}
 
-		notifyListener(event);
+	/**
+	 * Update the installed state after the given versions were installed or
+	 * removed, and notify UPDATE_VERSIONS and UPDATE_PACKS.
+	 * <p>
+	 * Only the devices and boards contributed by the affected packs are
+	 * updated in the installed objects tree; the summary data is preserved.
+	 *
+	 * @param versions
+	 *            a list of version nodes, either from the repositories tree,
+	 *            or copies with the same vendor/pack/version names.
+	 * @since 3.2
+	 */
+	public void notifyInstallRemove(List<Leaf> versions) {
+
+		if (fPacksVersionsList == null) {
+			// Nothing loaded yet, nothing to update.
+			notifyInstallRemove();
+			return;
+		}
+
+		File packsFolder;
+		try {
+			packsFolder = PacksStorage.getFolderPath().toFile();
+		} catch (IOException e) {
+			notifyInstallRemove();
+			return;
+		}
+
+		List<Leaf> modelVersions = new ArrayList<>();
+		Set<PackNode> changedPacks = new LinkedHashSet<>();
+		for (Leaf version : versions) {
+
+			String vendorName = version.getProperty(Property.VENDOR_NAME);
+			String packName = version.getProperty(Property.PACK_NAME);
+			String versionName = version.getProperty(Property.VERSION_NAME);
+
+			PackNode versionNode = findCmsisPackVersion(vendorName, packName, versionName);
+			if (versionNode == null) {
+				continue;
+			}
+
+			// Check the disk, the caller may have updated only its copy.
+			String destFolder = versionNode.getProperty(Property.DEST_FOLDER);
+			String pdscName = versionNode.getProperty(Property.PDSC_NAME);
+			boolean isInstalled = new File(new File(packsFolder, destFolder), pdscName).isFile();
+			versionNode.setBooleanProperty(Property.INSTALLED, isInstalled);
+
+			modelVersions.add(versionNode);
+			if (versionNode.getParent().isType(Type.PACKAGE)) {
+				changedPacks.add((PackNode) versionNode.getParent());
+			}
+		}
+
+		updateInstalledPackNodes(changedPacks);
+
+		synchronized (fPendingVersions) {
+			fPendingVersions.addAll(modelVersions);
+			fPendingUpdatePacks = true;
+		}
+		fNotifyJob.schedule(NOTIFY_DELAY_MILLIS);
 	}
 
 	// 'Install/Remove CMSIS Pack' notifies Type.UPDATE_VERSIONS
 	public void notifyUpdateView(String type, List<Leaf> list) {
 
+		if (DataManagerEvent.Type.UPDATE_VERSIONS.equals(type)) {
+			synchronized (fPendingVersions) {
+				fPendingVersions.addAll(list);
+			}
+			fNotifyJob.schedule(NOTIFY_DELAY_MILLIS);
+			return;
+		}
+
 		// System.out.println("PacksStorage notifyUpdateView()");
 		DataManagerEvent event = new DataManagerEvent(this, type, list);
 
 		notifyListener(event);
+	}
+
+	/**
+	 * Send the collected notifications; NEW_INPUT supersedes the versions
+	 * updates.
+	 */
+	private void flushNotifications() {
+
+		boolean isNewInput;
+		boolean isUpdatePacks;
+		List<Leaf> versions;
+		synchronized (fPendingVersions) {
+			isNewInput = fPendingNewInput;
+			isUpdatePacks = fPendingUpdatePacks;
+			versions = new ArrayList<>(fPendingVersions);
+
+			fPendingNewInput = false;
+			fPendingUpdatePacks = false;
+			fPendingVersions.clear();
+		}
+
+		if (isNewInput) {
+			notifyListener(new DataManagerEvent(this, DataManagerEvent.Type.NEW_INPUT));
+		} else if (!versions.isEmpty()) {
+			notifyListener(createVersionsEvent(versions));
+		}
+
+		if (isUpdatePacks) {
+			notifyListener(new DataManagerEvent(this, DataManagerEvent.Type.UPDATE_PACKS));
+		}
+	}
+
+	/**
+	 * Create an UPDATE_VERSIONS event with the devices and boards defined in
+	 * the outline of the changed versions.
+	 */
+	private DataManagerEvent createVersionsEvent(List<Leaf> versions) {
+
+		Set<String> devices = new HashSet<>();
+		Set<String> boards = new HashSet<>();
+
+		for (Leaf version : versions) {
+
+			// Copies may have no outline, use the model node.
+			Leaf versionNode = findCmsisPackVersion(version.getProperty(Property.VENDOR_NAME),
+					version.getProperty(Property.PACK_NAME), version.getProperty(Property.VERSION_NAME));
+			if (versionNode == null) {
+				versionNode = version;
+			}
+			if (!versionNode.hasChildren()) {
+				continue;
+			}
+			for (Leaf child : ((Node) versionNode).getChildren()) {
+				if ((child.isType(Type.OUTLINE) || child.isType(Type.EXTERNAL)) && child.hasChildren()) {
+					for (Leaf node : ((Node) child).getChildren()) {
+						if (node.isType(Type.FAMILY)) {
+							devices.add(DataManagerEvent.makeKey(node.getProperty(Property.VENDOR_NAME),
+									node.getName()));
+						} else if (node.isType(Type.BOARD)) {
+							boards.add(DataManagerEvent.makeKey(node.getProperty(Property.VENDOR_NAME),
+									node.getName()));
+						}
+					}
+				}
+			}
+		}
 
-		// TODO: check this one!
-		// fDevicesMap.clear();
+		return new DataManagerEvent(this, DataManagerEvent.Type.UPDATE_VERSIONS, versions, devices, boards);
 	}
 
 	public void notifyListener(DataManagerEvent event) {
@@ -395,6 +687,9 @@ public class DataManager implements IPacksDataManager {
 		addSelectors();
 
 		updateInstalledVersions();
+
+		// Keep the installed state in sync with changes done outside the IDE.
+		PacksFolderWatcher.startWatching();
 	}
 
 	/**
@@ -495,38 +790,35 @@ public class DataManager implements IPacksDataManager {
 	/**
 	 * Add "Property.INSTALLED=true" to all installed version nodes and to their
 	 * parent pack nodes.
+	 * <p>
+	 * Instead of testing each known version, which may mean thousands of file
+	 * system accesses, enumerate the vendor/pack/version folders once and match
+	 * them against the destination folders of the known versions.
 	 */
 	private void updateInstalledVersions() {
 
 		fOut.println("Identifying installed packages...");
 
-		int count = 0;
-
-		// Check if the packages are installed
+		// Map destination folders (vendor/pack/version) to version nodes.
+		Map<String, Leaf> versionsMap = new HashMap<>();
 		for (Leaf versionNode : fPacksVersionsList) {
+			versionsMap.put(versionNode.getProperty(Property.DEST_FOLDER), versionNode);
+		}
 
-			String unpackFolder = versionNode.getProperty(Property.DEST_FOLDER);
-			String pdscName = versionNode.getProperty(Property.PDSC_NAME);
-
-			String pdscRelativePath = unpackFolder + '/' + pdscName;
+		Set<String> installedFolders = findInstalledFolders(versionsMap);
 
-			try {
-				// Test if the pdsc file exists in the package folder
-				File file = PacksStorage.getFileObject(pdscRelativePath);
-				if (file.exists()) {
-
-					// Add an explicit property for more visibility
-					versionNode.setBooleanProperty(Property.INSTALLED, true);
-					if (versionNode.getParent().isType(Type.PACKAGE)) {
-						versionNode.getParent().setBooleanProperty(Property.INSTALLED, true);
-					}
+		int count = 0;
+		for (String destFolder : installedFolders) {
 
-					count++;
-				}
-			} catch (Exception e) {
+			Leaf versionNode = versionsMap.get(destFolder);
 
+			// Add an explicit property for more visibility
+			versionNode.setBooleanProperty(Property.INSTALLED, true);
+			if (versionNode.getParent().isType(Type.PACKAGE)) {
+				versionNode.getParent().setBooleanProperty(Property.INSTALLED, true);
 			}
 
+			count++;
 		}
 		if (count == 0) {
 			fOut.println("Found no installed packages.");
@@ -535,6 +827,314 @@ public class DataManager implements IPacksDataManager {
 		}
 	}
 
+	/**
+	 * Enumerate the packs folder and return the destination folders of the
+	 * known versions which have the pdsc file in place. Vendors are scanned in
+	 * parallel.
+	 *
+	 * @param versionsMap
+	 *            a map of version nodes, by destination folder.
+	 * @return a set of destination folders.
+	 */
+	private Set<String> findInstalledFolders(final Map<String, Leaf> versionsMap) {
+
+		final Set<String> installedFolders = ConcurrentHashMap.newKeySet();
+
+		File packsFolder;
+		try {
+			packsFolder = PacksStorage.getFolderPath().toFile();
+		} catch (IOException e) {
+			return installedFolders;
+		}
+
+		File[] vendorFolders = packsFolder.listFiles();
+		if (vendorFolders == null) {
+			return installedFolders;
+		}
+
+		Arrays.stream(vendorFolders).parallel().forEach(vendorFolder -> {
+
+			String vendorName = vendorFolder.getName();
+			if (vendorName.startsWith(".")) {
+				return; // Skip .cache & co.
+			}
+			File[] packFolders = vendorFolder.listFiles();
+			if (packFolders == null) {
+				return; // Not a folder
+			}
+			for (File packFolder : packFolders) {
+				String[] versionNames = packFolder.list();
+				if (versionNames == null) {
+					continue; // Not a folder
+				}
+				for (String versionName : versionNames) {
+					String destFolder = vendorName + "/" + packFolder.getName() + "/" + versionName;
+					Leaf versionNode = versionsMap.get(destFolder);
+					if (versionNode == null) {
+						continue; // Unknown version
+					}
+					// Test if the pdsc file exists in the package folder
+					String pdscName = versionNode.getProperty(Property.PDSC_NAME);
+					File versionFolder = new File(packFolder, versionName);
+					if (new File(versionFolder, pdscName).isFile()) {
+						installedFolders.add(destFolder);
+					}
+				}
+			}
+		});
+
+		return installedFolders;
+	}
+
+	/**
+	 * Update the state of the given packs, after they were installed or removed
+	 * outside the IDE.
+	 * <p>
+	 * Called by the packs folder watcher. Only the version nodes of the given
+	 * packs are checked, and only the devices and boards contributed by the
+	 * packs whose state changed are replaced in the installed objects tree,
+	 * which is then saved in the cache file, instead of being rebuilt from all
+	 * installed packs.
+	 *
+	 * @param packKeys
+	 *            a set of "vendor/pack" strings; the '*' pack name means all
+	 *            packs of the vendor, and '*' / '*' means all packs.
+	 * @since 3.2
+	 */
+	public synchronized void updateInstalledPacks(Set<String> packKeys) {
+
+		List<PackNode> packsVersionsList = fPacksVersionsList;
+		if (packsVersionsList == null || packKeys.isEmpty()) {
+			return;
+		}
+
+		File packsFolder;
+		try {
+			packsFolder = PacksStorage.getFolderPath().toFile();
+		} catch (IOException e) {
+			return;
+		}
+
+		List<Leaf> changedVersions = new ArrayList<>();
+		Set<PackNode> changedPacks = new HashSet<>();
+
+		for (PackNode versionNode : packsVersionsList) {
+
+			String vendorName = versionNode.getProperty(Property.VENDOR_NAME);
+			String packName = versionNode.getProperty(Property.PACK_NAME);
+			if (!packKeys.contains(vendorName + "/" + packName) && !packKeys.contains(vendorName + "/*")
+					&& !packKeys.contains("*/*")) {
+				continue;
+			}
+
+			String destFolder = versionNode.getProperty(Property.DEST_FOLDER);
+			String pdscName = versionNode.getProperty(Property.PDSC_NAME);
+			boolean isInstalled = new File(new File(packsFolder, destFolder), pdscName).isFile();
+			if (isInstalled == versionNode.isBooleanProperty(Property.INSTALLED)) {
+				continue;
+			}
+
+			versionNode.setBooleanProperty(Property.INSTALLED, isInstalled);
+			changedVersions.add(versionNode);
+			if (versionNode.getParent().isType(Type.PACKAGE)) {
+				changedPacks.add((PackNode) versionNode.getParent());
+			}
+		}
+
+		if (changedVersions.isEmpty()) {
+			return;
+		}
+
+		fOut.println("Packs folder changed, " + changedVersions.size() + " version(s) installed or removed.");
+
+		updateInstalledPackNodes(changedPacks);
+
+		notifyUpdateView(DataManagerEvent.Type.UPDATE_VERSIONS, changedVersions);
+	}
+
+	/**
+	 * Recompute the installed state of the packs, from their versions, and
+	 * update the devices and boards they contribute.
+	 */
+	private synchronized void updateInstalledPackNodes(Collection<PackNode> changedPacks) {
+
+		if (changedPacks.isEmpty()) {
+			return;
+		}
+
+		for (PackNode packNode : changedPacks) {
+			boolean isPackInstalled = false;
+			for (Leaf child : packNode.getChildren()) {
+				if (child.isBooleanProperty(Property.INSTALLED)) {
+					isPackInstalled = true;
+					break;
+				}
+			}
+			packNode.setBooleanProperty(Property.INSTALLED, isPackInstalled);
+		}
+
+		clearInstalledPacksLatestVersionsList();
+		updateInstalledObjectsForBuild(changedPacks);
+	}
+
+	/**
+	 * Replace the devices and boards contributed by the given packs with those
+	 * from their latest installed version, if any, and save the cache file.
+	 * <p>
+	 * The tree returned to the readers is not modified, since it may be walked
+	 * without the lock; the changes are done on a new copy, loaded from the
+	 * cache file, which is then published together with a new overlay.
+	 */
+	private void updateInstalledObjectsForBuild(Collection<PackNode> changedPacks) {
+
+		if (fInstalledObjectsForBuild == null) {
+			// Not loaded, make sure it is not loaded from the old cache.
+			clearCachedInstalledObjectsForBuild();
+			return;
+		}
+
+		File devicesFile;
+		Node rootNode = null;
+		try {
+			devicesFile = PacksStorage.getCachedFileObject(PacksStorage.INSTALLED_DEVICES_FILE_NAME);
+			if (devicesFile.isFile()) {
+				// The cache has the pure installed tree, without the project
+				// objects.
+				rootNode = loadCachedInstalledObjectsForBuild(devicesFile);
+			}
+		} catch (IOException e) {
+			devicesFile = null;
+		}
+		if (rootNode == null) {
+			// Rebuild everything at the next access.
+			clearCachedInstalledObjectsForBuild();
+			return;
+		}
+
+		Node devicesNode = (Node) rootNode.findChild(Type.DEVICES_SUBTREE);
+		if (devicesNode == null) {
+			devicesNode = Node.addNewChild(rootNode, Type.DEVICES_SUBTREE);
+			devicesNode.setName("Devices");
+		}
+		Node boardsNode = (Node) rootNode.findChild(Type.BOARDS_SUBTREE);
+		if (boardsNode == null) {
+			boardsNode = Node.addNewChild(rootNode, Type.BOARDS_SUBTREE);
+			boardsNode.setName("Boards");
+		}
+
+		PdscTreeParserForBuild pdsc = new PdscTreeParserForBuild();
+		DurationMonitor dm = new DurationMonitor();
+
+		for (PackNode packNode : changedPacks) {
+
+			// Versions carry the vendor & pack names used by the pdsc.
+			Leaf firstVersionNode = packNode.getFirstChild();
+			String vendorName = firstVersionNode.getProperty(Property.VENDOR_NAME);
+			String packName = firstVersionNode.getProperty(Property.PACK_NAME);
+
+			removeInstalledObjects(devicesNode, vendorName, packName);
+			removeInstalledObjects(boardsNode, vendorName, packName);
+
+			// The first installed child is the latest installed version.
+			for (Leaf versionNode : packNode.getChildren()) {
+				if (versionNode.isBooleanProperty(Property.INSTALLED)) {
+
+					String pdscName = versionNode.getProperty(Property.PDSC_NAME);
+					Node tree = getParsedPdscTree(pdscName, versionNode.getName(), dm);
+					if (tree != null) {
+						pdsc.parseDevices(tree, devicesNode);
+						pdsc.parseBoards(tree, boardsNode);
+					}
+					break;
+				}
+			}
+		}
+
+		try {
+			fOut.println("Writing cache file \"" + devicesFile + "\".");
+			GenericSerialiser serialiser = new InstalledDevicesSerialiser();
+			serialiser.serialise(rootNode, devicesFile);
+		} catch (IOException e) {
+
+			String msg = e.getMessage() + ", file: " + PacksStorage.INSTALLED_DEVICES_FILE_NAME;
+			fOut.println("Error: " + msg);
+			DataUtils.reportError(msg);
+			Activator.log(e);
+		}
+
+		// Publish the new tree; the previous one and its overlay are left
+		// as they are, for the readers still walking them.
+		fInstalledObjectsForBuild = rootNode;
+		fProjectOverlay = new InstalledObjectsOverlay();
+		fConfigObjectsForBuild = null;
+		fInstalledDevicesMap.clear();
+		fInstalledBoardsMap.clear();
+	}
+
+	/**
+	 * Remove the devices or boards contributed by the given pack. Vendors,
+	 * families and subfamilies may be shared by several packs, so they are
+	 * removed only when left without devices; the families which were
+	 * identified by the pack are assigned to the pack of a remaining device.
+	 *
+	 * @return true if anything was removed below the node.
+	 */
+	private boolean removeInstalledObjects(Node parentNode, String vendorName, String packName) {
+
+		if (!parentNode.hasChildren()) {
+			return false;
+		}
+
+		boolean isRemoved = false;
+		for (Leaf node : new ArrayList<>(parentNode.getChildren())) {
+			if (node.isType(Type.DEVICE) || node.isType(Type.BOARD)) {
+				if (isFromPack(node, vendorName, packName)) {
+					parentNode.removeChild(node);
+					isRemoved = true;
+				}
+			} else if ((node.isType(Type.VENDOR) || node.isType(Type.FAMILY) || node.isType(Type.SUBFAMILY))
+					&& node.hasChildren()) {
+				if (removeInstalledObjects((Node) node, vendorName, packName)) {
+					isRemoved = true;
+					Leaf device = findInstalledObject((Node) node);
+					if (device == null) {
+						parentNode.removeChild(node);
+					} else if (node.isType(Type.FAMILY) && isFromPack(node, vendorName, packName)) {
+						node.putProperty(Property.PACK_VENDOR, device.getProperty(Property.PACK_VENDOR));
+						node.putProperty(Property.PACK_NAME, device.getProperty(Property.PACK_NAME));
+						node.putProperty(Property.PACK_VERSION, device.getProperty(Property.PACK_VERSION));
+					}
+				}
+			}
+		}
+		return isRemoved;
+	}
+
+	private static boolean isFromPack(Leaf node, String vendorName, String packName) {
+
+		return vendorName.equals(node.getProperty(Property.PACK_VENDOR))
+				&& packName.equals(node.getProperty(Property.PACK_NAME));
+	}
+
+	/**
+	 * @return the first device or board below the node, or null.
+	 */
+	private static Leaf findInstalledObject(Node node) {
+
+		for (Leaf child : node.getChildren()) {
+			if (child.isType(Type.DEVICE) || child.isType(Type.BOARD)) {
+				return child;
+			}
+			if (child.hasChildren() && (child.isType(Type.FAMILY) || child.isType(Type.SUBFAMILY))) {
+				Leaf device = findInstalledObject((Node) child);
+				if (device != null) {
+					return device;
+				}
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Force to recreate the list of installed versions.
 	 * <p>
@@ -690,19 +1290,42 @@ public class DataManager implements IPacksDataManager {
 		return null;
 	}
 
+	/**
+	 * Get the tree equivalent with the XCDL file.
+	 * <p>
+	 * The parsed trees are cached and reused as long as the file time stamp and
+	 * size do not change.
+	 *
+	 * @return a tree starting with a ROOT node, or null if error.
+	 */
+	private Node getParsedXcdlTree(File file, DurationMonitor dm) {
+
+		String key = file.getAbsolutePath();
+		synchronized (fParsedXcdl) {
+			ParsedXcdlFile parsed = fParsedXcdl.get(key);
+			if (parsed != null && parsed.isValid(file)) {
+				return parsed.fNode;
+			}
+		}
+
+		Node node = parseXcdlFile(file, dm);
+		synchronized (fParsedXcdl) {
+			if (node != null) {
+				fParsedXcdl.put(key, new ParsedXcdlFile(file, node));
+			} else {
+				fParsedXcdl.remove(key);
+			}
+		}
+		return node;
+	}
+
 	private Node parseXcdlFile(File file, DurationMonitor dm) {
 
-		FileReader reader;
-		try {
+		try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
 			fOut.println("Parsing XCDL file \"" + file.getCanonicalPath() + "\"...");
 
-			JSONParser parser = new JSONParser();
-			reader = new FileReader(file);
-			JSONObject json = (JSONObject) parser.parse(reader);
-
-			JsonJsGenericParser jsonJsParser = new JsonJsGenericParser();
-			JsNode jsNode = jsonJsParser.parse(json);
-			System.out.println(jsNode);
+			// Single pass, directly into a JS tree.
+			JsObject json = new JsReader().parseObject(reader);
 
 			JsonGenericParser jsonParser = new XcdlGenericParser();
 			Node node = jsonParser.parse(json);
@@ -714,13 +1337,14 @@ public class DataManager implements IPacksDataManager {
 			fOut.println("Error: " + msg);
 			DataUtils.reportError(msg);
 			Activator.log(e);
-		} catch (IOException e) {
+		} catch (JsParseException e) {
+			// The message includes the position.
 			String msg = e.getMessage() + ", file: " + file.getName();
 			fOut.println("Error: " + msg);
 			DataUtils.reportError(msg);
 			Activator.log(e);
-		} catch (ParseException e) {
-			String msg = e.getMessage() + ", file: " + file.getName() + ", position: " + e.getPosition();
+		} catch (IOException e) {
+			String msg = e.getMessage() + ", file: " + file.getName();
 			fOut.println("Error: " + msg);
 			DataUtils.reportError(msg);
 			Activator.log(e);
@@ -736,7 +1360,7 @@ public class DataManager implements IPacksDataManager {
 	 * <p>
 	 * To achieve this, also removes the cached file.
 	 */
-	private void clearCachedInstalledObjectsForBuild() {
+	private synchronized void clearCachedInstalledObjectsForBuild() {
 
 		if (Activator.getInstance().isDebugging()) {
 			System.out.println("clearCachedInstalledObjectsForBuild()");
@@ -744,6 +1368,7 @@ public class DataManager implements IPacksDataManager {
 
 		fInstalledObjectsForBuild = null;
 		fConfigObjectsForBuild = null;
+		fProjectOverlay.clear();
 
 		try {
 			File devicesFile = PacksStorage.getCachedFileObject(PacksStorage.INSTALLED_DEVICES_FILE_NAME);
@@ -772,7 +1397,9 @@ public class DataManager implements IPacksDataManager {
 		return getInstalledObjectsForBuild(config, new DurationMonitor());
 	}
 
-	private Node getInstalledObjectsForBuild(IConfiguration config, final DurationMonitor dm) {
+	private synchronized Node getInstalledObjectsForBuild(IConfiguration config, final DurationMonitor dm) {
+
+		checkConfigObjectsStale();
 
 		if (config != null && config != fInstalledConfig) {
 			fInstalledConfig = config;
@@ -799,8 +1426,11 @@ public class DataManager implements IPacksDataManager {
 
 			Node rootNode = fInstalledObjectsForBuild;
 
-			// Parse project xcdl & merge
-			Node projectRootNode = parseProjectPackagesForBuild(config, dm);
+			// Remove the objects contributed by the previous project, if any.
+			fProjectOverlay.revert();
+
+			// Get the project xcdl overlay & merge
+			Node projectRootNode = getProjectObjectsForBuild(config, dm);
 			if (projectRootNode != null) {
 				rootNode = mergeTrees(rootNode, projectRootNode);
 			}
@@ -838,43 +1468,10 @@ public class DataManager implements IPacksDataManager {
 		}
 
 		if (rootNode != null) {
-			ITreeIterator packNodes = new AbstractTreePreOrderIterator() {
-
-				@Override
-				public boolean isIterable(Leaf node) {
-
-					if (node.isType("family")) {
-						return true;
-					} else if (node.isType("board")) {
-						return true;
-					}
-					return false;
-				}
-
-				@Override
-				public boolean isLeaf(Leaf node) {
-
-					if (node.isType("family")) {
-						return true;
-					} else if (node.isType("board")) {
-						return true;
-					}
-					return false;
-				}
-			};
-
-			// Iterate only the current device children nodes
-			packNodes.setTreeNode(rootNode);
-
-			for (Leaf node : packNodes) {
-
-				// System.out.println(node);
-				String packName = node.getProperty("pack.name");
-				if (packName.isEmpty()) {
-					rootNode = null;
-					Activator.log("Buggy cache detected, ignored.");
-					break;
-				}
+			// Families and boards must know the pack they come from.
+			if (fgNodesWithoutPack.findFirst(rootNode, null) != null) {
+				rootNode = null;
+				Activator.log("Buggy cache detected, ignored.");
 			}
 		}
 
@@ -909,74 +1506,50 @@ public class DataManager implements IPacksDataManager {
 		return rootNode;
 	}
 
+	/**
+	 * Merge the project objects into the tree of installed objects.
+	 * <p>
+	 * The changes are recorded in the project overlay, and are reverted before
+	 * merging the objects of another configuration, so the cost of switching
+	 * configurations is proportional to the size of the project tree.
+	 *
+	 * @param first
+	 *            the tree with installed objects, or null.
+	 * @param second
+	 *            the tree with the project objects.
+	 * @return the merged tree.
+	 */
 	private Node mergeTrees(Node first, Node second) {
 		Node rootNode = first;
 		if (first == null) {
 			rootNode = new Node(Type.ROOT);
 		}
+		InstalledObjectsOverlay overlay = fProjectOverlay;
+		if (first == null) {
+			// Nothing to revert, the tree is not cached.
+			overlay = new InstalledObjectsOverlay();
+		}
 
 		// Merge devices first, since we need to search for the displayName of
 		// the board.installedDevice.name
-		ITreeIterator secondDeviceFamilies = new AbstractTreePreOrderIterator() {
-
-			@Override
-			public boolean isIterable(Leaf node) {
-				if (node.isType(Type.FAMILY)) {
-					return true;
-				}
-				return false;
-			}
-
-			@Override
-			public boolean isLeaf(Leaf node) {
-				if (node.isType(Type.FAMILY) || node.isType(Type.BOARDS_SUBTREE)) {
-					return true;
-				}
-				return false;
-			}
-
-		};
-		// tree contains the installed objects
-		secondDeviceFamilies.setTreeNode(second);
+		List<Leaf> secondDeviceFamilies = fgProjectDeviceFamilies.findAll(second);
 
 		// Iterate device families and find the requested one, if any.
 		for (Leaf secondDeviceFamily : secondDeviceFamilies) {
 			if (Activator.getInstance().isDebugging()) {
 				System.out.println(secondDeviceFamily);
 			}
-			addInstalledDeviceFamily((Node) secondDeviceFamily, rootNode);
+			addInstalledDeviceFamily((Node) secondDeviceFamily, rootNode, overlay);
 		}
 
-		ITreeIterator secondBoards = new AbstractTreePreOrderIterator() {
-
-			// Only nodes that pass this test are returned.
-			@Override
-			public boolean isIterable(Leaf node) {
-				if (node.isType(Type.BOARD)) {
-					return true;
-				}
-				return false;
-			}
-
-			// Optimize and stop recursion early, when these nodes are encountered.
-			@Override
-			public boolean isLeaf(Leaf node) {
-				if (node.isType(Type.BOARD) || node.isType(Type.FAMILIES_SUBTREE)) {
-					return true;
-				}
-				return false;
-			}
-
-		};
-		// tree contains the installed objects
-		secondBoards.setTreeNode(second);
+		List<Leaf> secondBoards = fgProjectBoards.findAll(second);
 
 		// Iterate boards and find the requested one, if any.
 		for (Leaf secondBoard : secondBoards) {
 			if (Activator.getInstance().isDebugging()) {
 				System.out.println(secondBoard);
 			}
-			addInstalledBoard((Node) secondBoard, rootNode);
+			addInstalledBoard((Node) secondBoard, rootNode, overlay);
 		}
 
 		return rootNode;
@@ -1001,7 +1574,7 @@ public class DataManager implements IPacksDataManager {
 		return list.toArray(new String[list.size()]);
 	}
 
-	private void addInstalledDeviceFamily(Node deviceFamily, Node parent) {
+	private void addInstalledDeviceFamily(Node deviceFamily, Node parent, InstalledObjectsOverlay overlay) {
 
 		// Find root, to get package name & version.
 		Node root = deviceFamily;
@@ -1011,8 +1584,9 @@ public class DataManager implements IPacksDataManager {
 
 		Node rootDevices = (Node) parent.findChild(Type.DEVICES_SUBTREE);
 		if (rootDevices == null) {
-			rootDevices = Node.addNewChild(parent, Type.DEVICES_SUBTREE);
+			rootDevices = new Node(Type.DEVICES_SUBTREE);
 			rootDevices.setName("Devices");
+			overlay.addChild(parent, rootDevices);
 		}
 		Node supplier = (Node) deviceFamily.findChild(Type.SUPPLIER);
 		if (supplier == null) {
@@ -1026,11 +1600,12 @@ public class DataManager implements IPacksDataManager {
 		String supplierName = supplier.getProperty(Property.DISPLAY_NAME);
 		String supplierId = supplier.getProperty(Property.ID);
 
-		Node vendor = (Node) rootDevices.findChild(Type.VENDOR, supplierName);
+		Node vendor = (Node) overlay.findChild(rootDevices, Type.VENDOR, supplierName);
 		if (vendor == null) {
-			vendor = Node.addNewChild(rootDevices, Type.VENDOR);
+			vendor = new Node(Type.VENDOR);
 			vendor.setName(supplierName);
 			vendor.putProperty(Property.VENDOR_ID, supplierId);
+			overlay.addChild(rootDevices, vendor);
 		}
 		// The vendor node is for grouping only; the board vendor id is defined as
 		// property.
@@ -1040,9 +1615,9 @@ public class DataManager implements IPacksDataManager {
 			familyName = deviceFamily.getProperty(Property.KEY_);
 		}
 
-		Node family = (Node) vendor.findChild(Type.FAMILY, familyName);
+		Node family = (Node) overlay.findChild(vendor, Type.FAMILY, familyName);
 		if (family == null) {
-			family = Node.addNewChild(vendor, Type.FAMILY);
+			family = new Node(Type.FAMILY);
 			family.setName(familyName);
 			family.putProperty(Property.PACK_TYPE, PackType.XPACK_XCDL);
 			family.putProperty(Property.KEY_, deviceFamily.getProperty(Property.KEY_));
@@ -1052,6 +1627,8 @@ public class DataManager implements IPacksDataManager {
 
 			family.putProperty(Property.PACK_NAME, root.getProperty(Property.PACK_NAME));
 			family.putProperty(Property.PACK_VERSION, root.getProperty(Property.PACK_VERSION));
+
+			overlay.addChild(vendor, family);
 		}
 		// TODO: process subFamily.
 
@@ -1069,20 +1646,21 @@ public class DataManager implements IPacksDataManager {
 			if (deviceName.isEmpty()) {
 				deviceName = device.getProperty(Property.KEY_);
 			}
-			Node existingDevice = (Node) family.findChild(Type.DEVICE, deviceName);
+			Node existingDevice = (Node) overlay.findChild(family, Type.DEVICE, deviceName);
 			if (existingDevice != null) {
 				if (Activator.getInstance().isDebugging()) {
 					System.out.println("Device " + deviceName + " exists; replaced.");
 				}
-				family.removeChild(existingDevice);
+				overlay.removeChild(family, existingDevice);
 			}
-			Node newDevice = Node.addNewChild(family, Type.DEVICE);
+			Node newDevice = new Node(Type.DEVICE);
 			newDevice.setName(deviceName);
 			newDevice.putProperty(Property.PACK_TYPE, PackType.XPACK_XCDL);
 			newDevice.putProperty(Property.VENDOR_NAME, supplierName);
 			newDevice.putProperty(Property.VENDOR_ID, supplierId);
 			// Pass the key, to allow the board logic to find the name.
 			newDevice.putProperty(Property.KEY_, device.getProperty(Property.KEY_));
+			overlay.addChild(family, newDevice);
 
 			Node features = (Node) ((Node) device).findChild(Type.FEATURES);
 			if (features != null) {
@@ -1127,7 +1705,7 @@ public class DataManager implements IPacksDataManager {
 		}
 	}
 
-	private void addInstalledBoard(Node board, Node parent) {
+	private void addInstalledBoard(Node board, Node parent, InstalledObjectsOverlay overlay) {
 
 		// Find root, to get package name & version.
 		Node root = board;
@@ -1137,8 +1715,9 @@ public class DataManager implements IPacksDataManager {
 
 		Node rootBoards = (Node) parent.findChild(Type.BOARDS_SUBTREE);
 		if (rootBoards == null) {
-			rootBoards = Node.addNewChild(parent, Type.BOARDS_SUBTREE);
+			rootBoards = new Node(Type.BOARDS_SUBTREE);
 			rootBoards.setName("Boards");
+			overlay.addChild(parent, rootBoards);
 		}
 		String boardName = board.getProperty(Property.DISPLAY_NAME);
 		if (boardName.isEmpty()) {
@@ -1155,24 +1734,26 @@ public class DataManager implements IPacksDataManager {
 		String supplierName = supplier.getProperty(Property.DISPLAY_NAME);
 		String supplierId = supplier.getProperty(Property.ID);
 
-		Node vendor = (Node) rootBoards.findChild(Type.VENDOR, supplierName);
+		Node vendor = (Node) overlay.findChild(rootBoards, Type.VENDOR, supplierName);
 		if (vendor == null) {
-			vendor = Node.addNewChild(rootBoards, Type.VENDOR);
+			vendor = new Node(Type.VENDOR);
 			vendor.setName(supplierName);
 			// For boards, do not store the vendor id, CMSIS does not support it.
+			overlay.addChild(rootBoards, vendor);
 		}
 
 		// If already in, remove it and later add the new one.
-		Node existingBoard = (Node) vendor.findChild(Type.BOARD, boardName);
+		Node existingBoard = (Node) overlay.findChild(vendor, Type.BOARD, boardName);
 		if (existingBoard != null) {
 			if (Activator.getInstance().isDebugging()) {
 				System.out.println("Board " + boardName + " exists; replaced.");
 			}
-			vendor.removeChild(existingBoard);
+			overlay.removeChild(vendor, existingBoard);
 		}
 
-		Node newBoard = Node.addNewChild(vendor, Type.BOARD);
+		Node newBoard = new Node(Type.BOARD);
 		newBoard.setName(boardName);
+		overlay.addChild(vendor, newBoard);
 		newBoard.putProperty(Property.PACK_TYPE, PackType.XPACK_XCDL);
 		newBoard.putProperty(Property.KEY_, board.getProperty(Property.KEY_));
 
@@ -1259,38 +1840,12 @@ public class DataManager implements IPacksDataManager {
 		// TODO: compute device displayName from name
 		Node rootDevices = (Node) parent.findChild(Type.DEVICES_SUBTREE);
 		if (rootDevices != null) {
-			ITreeIterator existingDevices = new AbstractTreePreOrderIterator() {
-
-				@Override
-				public boolean isIterable(Leaf node) {
-					if (node.isType(Type.DEVICE)) {
-						return true;
-					}
-					return false;
-				}
-
-				@Override
-				public boolean isLeaf(Leaf node) {
-					if (node.isType(Type.DEVICE)) {
-						return true;
-					}
-					return false;
-				}
-
-			};
-			// tree contains the installed objects
-			existingDevices.setTreeNode(rootDevices);
-
-			// Iterate devices and find the requested one, if any.
-			for (Leaf existingDevice : existingDevices) {
-				if (existingDevice.isType(Type.DEVICE)) {
-					if (installedDeviceName.equals(existingDevice.getProperty(Property.KEY_))) {
-						String displayName = existingDevice.getName();
-						if (!displayName.isEmpty()) {
-							installedDeviceName = displayName;
-						}
-						break;
-					}
+			// Find the device by key, with an index of the devices subtree.
+			Leaf existingDevice = overlay.findDeviceByKey(rootDevices, installedDeviceName);
+			if (existingDevice != null) {
+				String displayName = existingDevice.getName();
+				if (!displayName.isEmpty()) {
+					installedDeviceName = displayName;
 				}
 			}
 		}
@@ -1420,6 +1975,83 @@ public class DataManager implements IPacksDataManager {
 		return null;
 	}
 
+	/**
+	 * Get the objects defined by the xPacks installed in the project, either from
+	 * the cache or by parsing the XCDL files.
+	 *
+	 * @return a tree with one ROOT node for each XCDL file, or null.
+	 */
+	private Node getProjectObjectsForBuild(IConfiguration config, DurationMonitor dm) {
+
+		if (config == null) {
+			return null;
+		}
+
+		IProject project = EclipseUtils.getProjectFromConfiguration(config);
+		if (project == null) {
+			return null;
+		}
+
+		long generation;
+		synchronized (fProjectObjectsForBuild) {
+			if (fProjectObjectsForBuild.containsKey(project)) {
+				return fProjectObjectsForBuild.get(project); // may be null
+			}
+			generation = fProjectGenerations.getOrDefault(project, 0L);
+		}
+
+		// Parse outside the lock, the listener must not wait for it.
+		Node tree = parseProjectPackagesForBuild(config, dm);
+
+		synchronized (fProjectObjectsForBuild) {
+			// If changed meanwhile, the tree may be stale; parse it again
+			// at the next access.
+			if (fProjectGenerations.getOrDefault(project, 0L) == generation) {
+				// Store the null value too, as a negative ack for next searches.
+				fProjectObjectsForBuild.put(project, tree);
+			}
+		}
+		return tree;
+	}
+
+	/**
+	 * Force to re-parse the project xPacks at the next access.
+	 * <p>
+	 * If the project is the one of the current configuration, also mark the
+	 * merged tree and the device/boards maps as stale; they are cleared by the
+	 * next reader, since this runs on the resource change listener thread.
+	 */
+	private void clearProjectObjectsForBuild(IProject project) {
+
+		if (Activator.getInstance().isDebugging()) {
+			System.out.println("clearProjectObjectsForBuild(" + project.getName() + ")");
+		}
+
+		synchronized (fProjectObjectsForBuild) {
+			fProjectObjectsForBuild.remove(project);
+			fProjectGenerations.merge(project, 1L, Long::sum);
+		}
+
+		IConfiguration config = fInstalledConfig;
+		if (config != null && project.equals(EclipseUtils.getProjectFromConfiguration(config))) {
+			fIsConfigObjectsStale = true;
+		}
+	}
+
+	/**
+	 * Clear the merged tree and the device/boards maps, if the project xPacks
+	 * changed since the last access. Called by the readers.
+	 */
+	private void checkConfigObjectsStale() {
+
+		if (fIsConfigObjectsStale) {
+			fIsConfigObjectsStale = false;
+			fConfigObjectsForBuild = null;
+			fInstalledDevicesMap.clear();
+			fInstalledBoardsMap.clear();
+		}
+	}
+
 	private Node parseProjectPackagesForBuild(IConfiguration config, DurationMonitor dm) {
 
 		assert (dm != null);
@@ -1453,27 +2085,10 @@ public class DataManager implements IPacksDataManager {
 				String packageName = "";
 				String packageVersion = "";
 
-				Path folderPath = new Path(folders[i].getPath());
-				File packageFile = folderPath.append("package.json").toFile();
-				if (packageFile.exists() && !packageFile.isDirectory()) {
-					JSONParser parser = new JSONParser();
-					try {
-						FileReader reader;
-						reader = new FileReader(packageFile);
-						JSONObject packageJson = (JSONObject) parser.parse(reader);
-						packageName = (String) packageJson.get("name");
-						packageVersion = (String) packageJson.get("version");
-
-					} catch (FileNotFoundException e) {
-						// TODO Auto-generated catch block
-						// e.printStackTrace();
-					} catch (IOException e) {
-						// TODO Auto-generated catch block
-						// e.printStackTrace();
-					} catch (ParseException e) {
-						// TODO Auto-generated catch block
-						// e.printStackTrace();
-					}
+				XpackManifest manifest = XpackManifest.get(folders[i]);
+				if (manifest != null) {
+					packageName = manifest.getName();
+					packageVersion = manifest.getVersion();
 				}
 
 				File[] xcdlFiles = folders[i].listFiles(new FilenameFilter() {
@@ -1495,9 +2110,13 @@ public class DataManager implements IPacksDataManager {
 
 						@Override
 						public void run() {
-							Node xcdlRoot = parseXcdlFile(xcdlFile, dm);
+							Node xcdlRoot = getParsedXcdlTree(xcdlFile, dm);
+							if (xcdlRoot == null) {
+								return;
+							}
 							// Warning, multiple ROOT nodes, one for each file.
-							tree.addChild(xcdlRoot);
+							// A cached root may still be linked to a previous tree.
+							xcdlRoot.moveTo(tree);
 
 							// Add pack identity.
 							xcdlRoot.putProperty(Property.PACK_NAME, name);
@@ -1521,8 +2140,10 @@ public class DataManager implements IPacksDataManager {
 		return findInstalledDevice(packType, deviceSupplierId, deviceId, config, new DurationMonitor());
 	}
 
-	private Leaf findInstalledDevice(String packType, String deviceSupplierId, String deviceId, IConfiguration config,
-			DurationMonitor dm) {
+	private synchronized Leaf findInstalledDevice(String packType, String deviceSupplierId, String deviceId,
+			IConfiguration config, DurationMonitor dm) {
+
+		checkConfigObjectsStale();
 
 		String key = makeMapKey(packType, deviceSupplierId, deviceId);
 		if (fInstalledDevicesMap.containsKey(key)) {
@@ -1531,53 +2152,15 @@ public class DataManager implements IPacksDataManager {
 
 		Node tree = getInstalledObjectsForBuild(config, dm);
 
-		ITreeIterator installedDevices = new AbstractTreePreOrderIterator() {
-
-			@Override
-			public boolean isIterable(Leaf node) {
-				if (node.isType(Type.DEVICE) || node.isType(Type.VARIANT)) {
-					return true;
-				}
-				return false;
-			}
-
-			@Override
-			public boolean isLeaf(Leaf node) {
-				if (node.isType(Type.VARIANT) || node.isType(Type.BOARDS_SUBTREE)) {
-					return true;
-				}
-				return false;
-			}
-
-		};
-		// tree contains the installed objects
-		installedDevices.setTreeNode(tree);
+		// Devices and variants with the requested name (or key).
+		TreeQuery query = PackType.XPACK_XCDL.equals(packType) ? fgInstalledDevicesByKey : fgInstalledDevicesByName;
+		List<Leaf> installedDevices = query.findAll(tree, Collections.singletonMap("id", deviceId));
 
 		// Iterate devices and find the requested one, if any.
 		for (Leaf installedDevice : installedDevices) {
 
-			if (PackType.XPACK_XCDL.equals(packType)) {
-				String installedDeviceKey = installedDevice.getProperty(Property.KEY_);
-				if (!deviceId.equals(installedDeviceKey)) {
-					continue; // Different device key, try next
-				}
-			} else {
-				String installedDeviceName = installedDevice.getName();
-				if (!deviceId.equals(installedDeviceName)) {
-					continue; // Different device name, try next
-				}
-			}
-
-			String installedDeviceVendorId = "";
-			Leaf node = installedDevice;
-			while (node != null && !node.isType(Type.VENDOR)) {
-
-				if (node.hasProperty(Property.VENDOR_ID)) {
-					installedDeviceVendorId = node.getProperty(Property.VENDOR_ID);
-					break;
-				}
-				node = node.getParent();
-			}
+			// The vendor id may be defined by any parent below the vendor.
+			String installedDeviceVendorId = collectProperty(installedDevice, Property.VENDOR_ID, Type.VENDOR);
 			if (deviceSupplierId.equals(installedDeviceVendorId)) {
 
 				// Both device name & vendor id match
@@ -1597,8 +2180,8 @@ public class DataManager implements IPacksDataManager {
 		return findInstalledBoard(packType, boardSupplierId, boardSupplierName, boardId, config, new DurationMonitor());
 	}
 
-	private Leaf findInstalledBoard(String packType, String boardSupplierId, String boardSupplierName, String boardId,
-			IConfiguration config, DurationMonitor dm) {
+	private synchronized Leaf findInstalledBoard(String packType, String boardSupplierId, String boardSupplierName,
+			String boardId, IConfiguration config, DurationMonitor dm) {
 
 		assert (packType != null);
 		assert (boardSupplierId != null || boardSupplierName != null);
@@ -1611,6 +2194,8 @@ public class DataManager implements IPacksDataManager {
 		} else if (PackType.XPACK_XCDL.equals(packType)) {
 			boardSupplierKey = boardSupplierId;
 		}
+		checkConfigObjectsStale();
+
 		String key = makeMapKey(packType, boardSupplierKey, boardId);
 		if (fInstalledBoardsMap.containsKey(key)) {
 			return fInstalledBoardsMap.get(key);
@@ -1618,27 +2203,8 @@ public class DataManager implements IPacksDataManager {
 
 		Node tree = getInstalledObjectsForBuild(config, dm);
 
-		ITreeIterator installedBoards = new AbstractTreePreOrderIterator() {
-
-			@Override
-			public boolean isIterable(Leaf node) {
-				if (node.isType(Type.BOARD)) {
-					return true;
-				}
-				return false;
-			}
-
-			@Override
-			public boolean isLeaf(Leaf node) {
-				if (node.isType(Type.BOARD) || node.isType(Type.DEVICES_SUBTREE)) {
-					return true;
-				}
-				return false;
-			}
-
-		};
 		// 'tree' contains the installed objects
-		installedBoards.setTreeNode(tree);
+		List<Leaf> installedBoards = fgInstalledBoards.findAll(tree);
 
 		// Iterate boards and find the requested one, if any.
 		for (Leaf installedBoard : installedBoards) {
@@ -1766,30 +2332,11 @@ public class DataManager implements IPacksDataManager {
 	}
 
 	public boolean checkPackage(IPath folderPath, String packageName, String packageVersion) {
-		File packageFile = folderPath.append("package.json").toFile();
-		if (packageFile.isFile()) {
-			JSONParser parser = new JSONParser();
 
-			try {
-				FileReader reader;
-				reader = new FileReader(packageFile);
-				JSONObject packageJson = (JSONObject) parser.parse(reader);
-				String actualPackageName = (String) packageJson.get("name");
-				String actualPackageVersion = (String) packageJson.get("version");
-
-				if (packageName.equals(actualPackageName) && packageVersion.equals(actualPackageVersion)) {
-					return true;
-				}
-			} catch (FileNotFoundException e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			} catch (IOException e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			} catch (ParseException e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			}
+		// The manifest is cached and validated by the file time stamp.
+		XpackManifest manifest = XpackManifest.get(folderPath);
+		if (manifest != null) {
+			return manifest.matches(packageName, packageVersion);
 		}
 		return false;
 	}
@@ -1816,6 +2363,9 @@ public class DataManager implements IPacksDataManager {
 		IPath path;
 		if (PackType.XPACK_XCDL.equals(packType)) {
 			destFolder = getXpackDestinationFolder(installedDeviceNode, config);
+			if (Activator.getInstance().isDebugging()) {
+				System.out.println(XpackManifest.getStatistics());
+			}
 			path = new Path(destFolder).append(svdFile);
 		} else {
 			destFolder = getCmsisDestinationFolder(installedDeviceNode);
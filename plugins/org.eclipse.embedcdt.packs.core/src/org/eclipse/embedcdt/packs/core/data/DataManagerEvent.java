@@ -14,7 +14,12 @@
 
 package org.eclipse.embedcdt.packs.core.data;
 
+import java.util.Collections;
 import java.util.EventObject;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.embedcdt.packs.core.tree.Leaf;
 
 public class DataManagerEvent extends EventObject {
 
@@ -33,12 +38,21 @@ public class DataManagerEvent extends EventObject {
 	private String fType;
 	private Object fPayload;
 
+	// The delta, for UPDATE_VERSIONS events.
+	private List<Leaf> fChangedVersions;
+	private Set<String> fChangedDevices;
+	private Set<String> fChangedBoards;
+
 	public DataManagerEvent(Object source, String type) {
 
 		super(source);
 
 		fType = type;
 		fPayload = null;
+
+		fChangedVersions = null;
+		fChangedDevices = null;
+		fChangedBoards = null;
 	}
 
 	public DataManagerEvent(Object source, String type, Object payload) {
@@ -47,6 +61,52 @@ public class DataManagerEvent extends EventObject {
 
 		fType = type;
 		fPayload = payload;
+
+		fChangedVersions = null;
+		fChangedDevices = null;
+		fChangedBoards = null;
+	}
+
+	/**
+	 * An event with the exact list of changed objects.
+	 *
+	 * @param source
+	 *            the data manager.
+	 * @param type
+	 *            usually UPDATE_VERSIONS.
+	 * @param versions
+	 *            the version nodes installed or removed; also the payload.
+	 * @param devices
+	 *            the keys of the device families defined by these versions.
+	 * @param boards
+	 *            the keys of the boards defined by these versions.
+	 * @since 3.2
+	 */
+	public DataManagerEvent(Object source, String type, List<Leaf> versions, Set<String> devices,
+			Set<String> boards) {
+
+		super(source);
+
+		fType = type;
+		fPayload = versions;
+
+		fChangedVersions = versions;
+		fChangedDevices = devices;
+		fChangedBoards = boards;
+	}
+
+	/**
+	 * Make the key used for devices and boards.
+	 *
+	 * @param vendorName
+	 *            a string with the vendor name.
+	 * @param name
+	 *            a string with the family or board name.
+	 * @return a string.
+	 * @since 3.2
+	 */
+	public static String makeKey(String vendorName, String name) {
+		return vendorName + "::" + name;
 	}
 
 	public String getType() {
@@ -56,4 +116,46 @@ public class DataManagerEvent extends EventObject {
 	public Object getPayload() {
 		return fPayload;
 	}
+
+	/**
+	 * @return the changed version nodes, possibly empty.
+	 * @since 3.2
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Leaf> getChangedVersions() {
+
+		if (fChangedVersions != null) {
+			return fChangedVersions;
+		}
+		if (Type.UPDATE_VERSIONS.equals(fType) && fPayload instanceof List<?>) {
+			return (List<Leaf>) fPayload;
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * @return true if the event lists the changed devices and boards.
+	 * @since 3.2
+	 */
+	public boolean hasDelta() {
+		return fChangedDevices != null;
+	}
+
+	/**
+	 * @return the keys of the changed device families (vendor::family), or
+	 *         null if not known.
+	 * @since 3.2
+	 */
+	public Set<String> getChangedDevices() {
+		return fChangedDevices;
+	}
+
+	/**
+	 * @return the keys of the changed boards (vendor::board), or null if not
+	 *         known.
+	 * @since 3.2
+	 */
+	public Set<String> getChangedBoards() {
+		return fChangedBoards;
+	}
 }
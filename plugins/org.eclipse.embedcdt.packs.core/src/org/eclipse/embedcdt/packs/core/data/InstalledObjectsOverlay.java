@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.packs.core.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.embedcdt.packs.core.tree.Leaf;
+import org.eclipse.embedcdt.packs.core.tree.Node;
+import org.eclipse.embedcdt.packs.core.tree.Property;
+import org.eclipse.embedcdt.packs.core.tree.Type;
+
+/**
+ * Keyed access to the tree of installed objects (vendor, family, subfamily,
+ * device, board), plus a log of the changes contributed by the current project
+ * xPacks, so that they can be reverted when the configuration changes.
+ * <p>
+ * The child maps are created on demand, only for the nodes actually searched,
+ * so the cost of applying/reverting a project overlay is proportional to the
+ * overlay size, not to the number of installed objects.
+ */
+class InstalledObjectsOverlay {
+
+	// ------------------------------------------------------------------------
+
+	private static class Change {
+
+		Node fParent;
+		Leaf fChild;
+		// -1 for added nodes, the original position for removed nodes.
+		int fIndex;
+
+		Change(Node parent, Leaf child, int index) {
+			fParent = parent;
+			fChild = child;
+			fIndex = index;
+		}
+	}
+
+	// Children of each searched node, keyed by type and name.
+	private Map<Node, Map<String, Leaf>> fChildMaps;
+
+	// Devices with a key, for the boards 'installedDevice' references.
+	private Map<String, Leaf> fDevicesByKey;
+
+	// The changes done by the current overlay, in order.
+	private List<Change> fChanges;
+
+	// ------------------------------------------------------------------------
+
+	public InstalledObjectsOverlay() {
+
+		fChildMaps = new IdentityHashMap<>();
+		fDevicesByKey = null;
+		fChanges = new ArrayList<>();
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static String makeKey(String type, String name) {
+		return type + "::" + name;
+	}
+
+	private Map<String, Leaf> getChildMap(Node parent) {
+
+		Map<String, Leaf> map = fChildMaps.get(parent);
+		if (map == null) {
+			map = new HashMap<>();
+			if (parent.hasChildren()) {
+				for (Leaf child : parent.getChildren()) {
+					// Keep the first one, like Node.findChild().
+					map.putIfAbsent(makeKey(child.getType(), child.getName()), child);
+				}
+			}
+			fChildMaps.put(parent, map);
+		}
+		return map;
+	}
+
+	/**
+	 * Find the child with the given type and name.
+	 *
+	 * @return the node or null if not found.
+	 */
+	public Leaf findChild(Node parent, String type, String name) {
+
+		return getChildMap(parent).get(makeKey(type, name));
+	}
+
+	/**
+	 * Find a device by its key (the XCDL name), in the entire devices subtree.
+	 *
+	 * @return the first device with the given key, or null.
+	 */
+	public Leaf findDeviceByKey(Node rootDevices, String key) {
+
+		if (fDevicesByKey == null) {
+			fDevicesByKey = new HashMap<>();
+			indexDevices(rootDevices);
+		}
+		return fDevicesByKey.get(key);
+	}
+
+	private void indexDevices(Node node) {
+
+		if (!node.hasChildren()) {
+			return;
+		}
+		for (Leaf child : node.getChildren()) {
+			if (child.isType(Type.DEVICE)) {
+				String key = child.getPropertyOrNull(Property.KEY_);
+				if (key != null) {
+					fDevicesByKey.putIfAbsent(key, child);
+				}
+			} else if (child instanceof Node) {
+				indexDevices((Node) child);
+			}
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Append a new child and remember it, to be removed when the overlay is
+	 * reverted. The node name must be set before calling this.
+	 */
+	public void addChild(Node parent, Leaf child) {
+
+		parent.addChild(child);
+		fChanges.add(new Change(parent, child, -1));
+
+		Map<String, Leaf> map = fChildMaps.get(parent);
+		if (map != null) {
+			map.putIfAbsent(makeKey(child.getType(), child.getName()), child);
+		}
+		if (fDevicesByKey != null && child.isType(Type.DEVICE)) {
+			String key = child.getPropertyOrNull(Property.KEY_);
+			if (key != null) {
+				fDevicesByKey.putIfAbsent(key, child);
+			}
+		}
+	}
+
+	/**
+	 * Remove an existing child and remember its position, to be restored when
+	 * the overlay is reverted.
+	 */
+	public void removeChild(Node parent, Leaf child) {
+
+		int index = (child.getParent() == parent) ? child.getIndex() : -1;
+		if (index < 0) {
+			return;
+		}
+		parent.removeChild(child);
+		fChanges.add(new Change(parent, child, index));
+
+		unmap(parent, child, false);
+	}
+
+	private void unmap(Node parent, Leaf child, boolean isOverlayNode) {
+
+		Map<String, Leaf> map = fChildMaps.get(parent);
+		if (map != null) {
+			String key = makeKey(child.getType(), child.getName());
+			if (map.get(key) == child) {
+				// Another child may have the same type & name.
+				map.remove(key);
+				Leaf other = parent.findChild(child.getType(), child.getName());
+				if (other != null) {
+					map.put(key, other);
+				}
+			}
+		}
+		if (fDevicesByKey != null) {
+			if (isOverlayNode) {
+				// Overlay devices are mapped only if the key was free.
+				if (child.isType(Type.DEVICE)) {
+					String key = child.getPropertyOrNull(Property.KEY_);
+					if (key != null && fDevicesByKey.get(key) == child) {
+						fDevicesByKey.remove(key);
+					}
+				}
+			} else {
+				// Installed nodes may hide others with the same key; since
+				// replacing installed devices is rare, rebuild lazily.
+				fDevicesByKey = null;
+			}
+		}
+	}
+
+	/**
+	 * Undo all changes, in reverse order, restoring the installed tree.
+	 */
+	public void revert() {
+
+		for (int i = fChanges.size() - 1; i >= 0; --i) {
+			Change change = fChanges.get(i);
+			if (change.fIndex < 0) {
+				change.fParent.removeChild(change.fChild);
+				unmap(change.fParent, change.fChild, true);
+				if (change.fChild instanceof Node) {
+					fChildMaps.remove(change.fChild);
+				}
+			} else {
+				change.fParent.addChild(change.fIndex, change.fChild);
+				// The map order may differ from the list order; rebuild.
+				fChildMaps.remove(change.fParent);
+				fDevicesByKey = null;
+			}
+		}
+		fChanges.clear();
+	}
+
+	public boolean isEmpty() {
+		return fChanges.isEmpty();
+	}
+
+	/**
+	 * Forget everything, used when the installed tree is discarded.
+	 */
+	public void clear() {
+
+		fChildMaps.clear();
+		fDevicesByKey = null;
+		fChanges.clear();
+	}
+
+	// ------------------------------------------------------------------------
+}
@@ -14,6 +14,10 @@
 
 package org.eclipse.embedcdt.packs.core.data;
 
+import java.util.Map;
+
+import org.eclipse.embedcdt.packs.core.jstree.JsArray;
+import org.eclipse.embedcdt.packs.core.jstree.JsObject;
 import org.eclipse.embedcdt.packs.core.tree.Leaf;
 import org.eclipse.embedcdt.packs.core.tree.Node;
 import org.eclipse.embedcdt.packs.core.tree.Property;
@@ -27,6 +31,9 @@ import org.json.simple.JSONObject;
  *
  * To make things simpler, there are no Leaf objects, all nodes are Node
  * objects. All nodes are tagged with PACK_TYPE_XPACK.
+ *
+ * The same conversion is available for the JS trees created by JsReader, which
+ * avoids the JSON.simple tree altogether.
  */
 public class JsonGenericParser {
 
@@ -135,4 +142,91 @@ public class JsonGenericParser {
 		}
 	}
 
+	/**
+	 * Convert a JS tree, as created by JsReader, with the same rules as for
+	 * JSON.simple trees.
+	 *
+	 * @param json
+	 *            the root object.
+	 * @return the root node.
+	 * @since 3.2
+	 */
+	public Node parse(JsObject json) {
+
+		Node tree = new Node(Type.ROOT);
+		tree.setPackType(Leaf.PACK_TYPE_XPACK);
+
+		for (Map.Entry<String, Object> entry : json.getProperties().entrySet()) {
+			parseRecursive(entry.getKey(), entry.getValue(), tree, null);
+		}
+		return tree;
+	}
+
+	/**
+	 * @param key
+	 *            the collection key of an object, or null if not a collection
+	 *            member.
+	 */
+	private void parseRecursive(String name, Object value, Node parent, String key) {
+		if (value instanceof JsObject) {
+			Map<String, Object> properties = ((JsObject) value).getProperties();
+
+			// An object can be considered a collection if all values are objects.
+			// Collection members have a key, which is not an object.
+			boolean canBeCollection = (key == null);
+			if (canBeCollection) {
+				for (Object childValue : properties.values()) {
+					if (!(childValue instanceof JsObject)) {
+						canBeCollection = false;
+						break;
+					}
+				}
+			}
+			String type = canBeCollection ? isCollection(name) : null;
+			if (type != null) {
+				Node node;
+				if (type.equals(name)) {
+					// If the type of the collection nodes is the same as the collection, link
+					// the children directly to the parent, without the grouping node.
+					node = parent;
+				} else {
+					// Otherwise keep an intermediate node to group all similar children.
+					node = Node.addNewChild(parent, name);
+					node.setPackType(Leaf.PACK_TYPE_XPACK);
+				}
+				for (Map.Entry<String, Object> entry : properties.entrySet()) {
+					parseRecursive(type, entry.getValue(), node, entry.getKey());
+				}
+			} else {
+				Node node = Node.addNewChild(parent, name);
+				node.setPackType(Leaf.PACK_TYPE_XPACK);
+
+				for (Map.Entry<String, Object> entry : properties.entrySet()) {
+					parseRecursive(entry.getKey(), entry.getValue(), node, null);
+				}
+				if (key != null) {
+					node.putNonEmptyProperty(Property.KEY_, key);
+				}
+			}
+		} else if (value instanceof JsArray) {
+			Node node = Node.addNewChild(parent, name);
+			node.setPackType(Leaf.PACK_TYPE_XPACK);
+			for (Object arrValue : ((JsArray) value).getElements()) {
+				if (arrValue instanceof JsObject) {
+					parseRecursive(name, arrValue, node, null);
+				} else if (arrValue instanceof String) {
+					Node subNode = Node.addNewChild(node, Type.ARRAY_ELEMENT_);
+					subNode.setPackType(Leaf.PACK_TYPE_XPACK);
+					subNode.putProperty(Property.VALUE_, (String) arrValue);
+				}
+			}
+		} else if (value != null) {
+			// Scalar, always a string in JS trees.
+			if ("description".equals(name)) {
+				parent.setDescription(value.toString());
+			} else {
+				parent.putNonEmptyProperty(name, value.toString());
+			}
+		}
+	}
 }
@@ -23,6 +23,9 @@ import org.json.simple.JSONObject;
 /**
  * Very simple parser, to convert the tree created by JSON.Simple into an equivalent
  * tree but using the enhanced objects that keep track of parents and keys.
+ *
+ * To parse JSON files, prefer JsReader, which builds the same tree directly,
+ * in a single pass.
  */
 public class JsonJsGenericParser {
 
@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.packs.core.data;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.embedcdt.core.SystemJob;
+import org.eclipse.embedcdt.internal.packs.core.Activator;
+
+/**
+ * A background job that watches the CMSIS packs folder
+ * (vendor/pack/version/...) and informs the data manager about the packs
+ * installed or removed outside the IDE (another Eclipse instance, a shared
+ * folder updated by a script, etc).
+ * <p>
+ * The NIO watch service is not recursive, so each vendor, pack and version
+ * folder is registered separately. Events are collected until the folder is
+ * quiet for a while, to avoid processing partially extracted packs.
+ *
+ * @since 3.2
+ */
+public class PacksFolderWatcher extends SystemJob {
+
+	// ------------------------------------------------------------------------
+
+	// Wait for this quiet time before processing the collected events.
+	private static final long QUIET_TIME_MILLIS = 1500;
+
+	private static final int DEPTH_ROOT = 0;
+	private static final int DEPTH_VENDOR = 1;
+	private static final int DEPTH_VERSION = 3;
+
+	private static PacksFolderWatcher fgInstance;
+
+	/**
+	 * Start watching, if not already started.
+	 */
+	public static synchronized void startWatching() {
+
+		if (fgInstance == null) {
+			fgInstance = new PacksFolderWatcher();
+			fgInstance.schedule();
+		}
+	}
+
+	/**
+	 * Stop watching, if started; called when the plug-in stops.
+	 */
+	public static synchronized void stopWatching() {
+
+		if (fgInstance != null) {
+			fgInstance.cancel();
+			fgInstance.closeService();
+			fgInstance = null;
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	private WatchService fWatchService;
+	private Path fRootPath;
+
+	// The watched folders and their depth below the root.
+	private Map<WatchKey, Path> fKeys;
+	private Map<Path, Integer> fDepths;
+
+	// The vendor/pack folders with pending changes.
+	private Set<String> fChangedPacks;
+
+	private PacksFolderWatcher() {
+
+		super("Watch packs folder");
+
+		fKeys = new HashMap<>();
+		fDepths = new HashMap<>();
+		fChangedPacks = new TreeSet<>();
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	protected IStatus run(IProgressMonitor monitor) {
+
+		WatchService service;
+		try {
+			fRootPath = PacksStorage.getFolderPath().toFile().toPath();
+			if (!Files.isDirectory(fRootPath)) {
+				return Status.OK_STATUS;
+			}
+			service = FileSystems.getDefault().newWatchService();
+			synchronized (this) {
+				fWatchService = service;
+			}
+			register(service, fRootPath, DEPTH_ROOT);
+		} catch (IOException e) {
+			Activator.log(e);
+			return Status.OK_STATUS;
+		} catch (ClosedWatchServiceException e) {
+			return Status.OK_STATUS;
+		}
+
+		try {
+			while (!monitor.isCanceled()) {
+
+				WatchKey key;
+				if (fChangedPacks.isEmpty()) {
+					key = service.take();
+				} else {
+					key = service.poll(QUIET_TIME_MILLIS, TimeUnit.MILLISECONDS);
+					if (key == null) {
+						// Quiet, process the collected changes.
+						Set<String> changedPacks = fChangedPacks;
+						fChangedPacks = new TreeSet<>();
+
+						DataManager.getInstance().updateInstalledPacks(changedPacks);
+						continue;
+					}
+				}
+
+				processEvents(service, key);
+			}
+		} catch (InterruptedException e) {
+			// Stopped.
+		} catch (ClosedWatchServiceException e) {
+			// Stopped.
+		} finally {
+			closeService();
+		}
+
+		return Status.OK_STATUS;
+	}
+
+	private void processEvents(WatchService service, WatchKey key) {
+
+		Path folder = fKeys.get(key);
+		if (folder == null) {
+			key.cancel();
+			return;
+		}
+		int depth = fDepths.get(folder);
+
+		for (WatchEvent<?> event : key.pollEvents()) {
+
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				// Events lost, check all packs below the folder.
+				markChanged(folder.resolve("*"), depth + 1);
+				continue;
+			}
+
+			Path child = folder.resolve((Path) event.context());
+			if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && depth < DEPTH_VERSION
+					&& Files.isDirectory(child)) {
+				// New vendor, pack or version folder, watch it too.
+				try {
+					register(service, child, depth + 1);
+				} catch (IOException e) {
+					Activator.log(e);
+				}
+			}
+			markChanged(child, depth + 1);
+		}
+
+		if (!key.reset()) {
+			// The folder is no longer accessible.
+			fKeys.remove(key);
+			fDepths.remove(folder);
+		}
+	}
+
+	/**
+	 * Remember the vendor/pack affected by a change. Changes at the vendor
+	 * level affect all its packs, represented by a '*' pack name; lost events
+	 * at the root level are represented by '*' / '*'.
+	 */
+	private void markChanged(Path path, int depth) {
+
+		if (depth <= DEPTH_ROOT) {
+			return;
+		}
+		Path relative = fRootPath.relativize(path);
+		if (relative.getNameCount() == 0) {
+			return;
+		}
+		String vendorName = relative.getName(0).toString();
+		if (vendorName.startsWith(".")) {
+			return; // Ignore .cache & co.
+		}
+		if (depth == DEPTH_VENDOR || relative.getNameCount() < 2) {
+			fChangedPacks.add(vendorName + "/*");
+		} else {
+			fChangedPacks.add(vendorName + "/" + relative.getName(1).toString());
+		}
+	}
+
+	/**
+	 * Register the folder and its subfolders, up to the version level.
+	 */
+	private void register(WatchService service, Path folder, int depth) throws IOException {
+
+		if (depth > DEPTH_VERSION) {
+			return;
+		}
+		if (depth == DEPTH_VENDOR && folder.getFileName().toString().startsWith(".")) {
+			return; // Do not watch .cache & co.
+		}
+
+		WatchKey key = folder.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+				StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+		fKeys.put(key, folder);
+		fDepths.put(folder, depth);
+
+		if (depth < DEPTH_VERSION) {
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder, Files::isDirectory)) {
+				for (Path child : stream) {
+					register(service, child, depth + 1);
+				}
+			}
+		}
+	}
+
+	private synchronized void closeService() {
+
+		if (fWatchService != null) {
+			try {
+				fWatchService.close();
+			} catch (IOException e) {
+				// Ignore.
+			}
+			fWatchService = null;
+		}
+	}
+
+	// ------------------------------------------------------------------------
+}
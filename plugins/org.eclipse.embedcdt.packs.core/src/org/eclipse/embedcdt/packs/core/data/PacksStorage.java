@@ -52,7 +52,7 @@ public class PacksStorage {
 	/**
 	 * @since 3.1
 	 */
-	public static final String INSTALLED_DEVICES_XML_VERSION = "1.2";
+	public static final String INSTALLED_DEVICES_XML_VERSION = "1.3";
 
 	private static IPath fgFolderPath = null;
 
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.packs.core.data;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.eclipse.embedcdt.packs.core.tree.Leaf;
+import org.eclipse.embedcdt.packs.core.tree.Node;
+
+/**
+ * Streaming variant of SvdGenericParser, producing the same tree without the
+ * intermediate DOM.
+ * <p>
+ * Peripherals may be derived from peripherals defined later in the file, so
+ * the derivedFrom references are checked at the end, when all peripherals are
+ * known; the unresolved ones are available via getUnresolvedDerivedFrom().
+ *
+ * @since 3.2
+ */
+public class SvdStreamParser extends XmlStreamGenericParser {
+
+	// ------------------------------------------------------------------------
+
+	private Map<String, Leaf> fPeripheralsByName;
+	private List<Leaf> fDerivedPeripherals;
+	private List<String> fUnresolved;
+
+	public SvdStreamParser() {
+
+		fPeripheralsByName = new HashMap<>();
+		fDerivedPeripherals = new ArrayList<>();
+		fUnresolved = new ArrayList<>();
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Configure the elements that generate properties.
+	 */
+	@Override
+	public boolean isProperty(String name, Leaf node) {
+		return false;
+	}
+
+	@Override
+	protected void nodeCompleted(Leaf node) {
+
+		if (node.isType("peripheral")) {
+			fPeripheralsByName.putIfAbsent(node.getName(), node);
+			if (node.hasProperty("derivedFrom")) {
+				fDerivedPeripherals.add(node);
+			}
+		}
+	}
+
+	@Override
+	public Node parse(InputStream inputStream) throws XMLStreamException {
+
+		fPeripheralsByName.clear();
+		fDerivedPeripherals.clear();
+		fUnresolved.clear();
+
+		Node tree = super.parse(inputStream);
+
+		// All peripherals are known now.
+		for (Leaf peripheral : fDerivedPeripherals) {
+			String derivedFrom = peripheral.getProperty("derivedFrom");
+			if (!fPeripheralsByName.containsKey(derivedFrom)) {
+				fUnresolved.add(peripheral.getName() + " -> " + derivedFrom);
+			}
+		}
+
+		fPeripheralsByName.clear();
+		fDerivedPeripherals.clear();
+
+		return tree;
+	}
+
+	/**
+	 * @return a list of strings like "peripheral -> missing", for the
+	 *         peripherals derived from unknown ones, in the last parsed file.
+	 */
+	public List<String> getUnresolvedDerivedFrom() {
+		return fUnresolved;
+	}
+
+	// ------------------------------------------------------------------------
+}
@@ -0,0 +1,286 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.packs.core.data;
+
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.embedcdt.packs.core.tree.Leaf;
+import org.eclipse.embedcdt.packs.core.tree.Node;
+import org.eclipse.embedcdt.packs.core.tree.Property;
+import org.eclipse.embedcdt.packs.core.tree.Type;
+
+/**
+ * A streaming (StAX) variant of XmlGenericParser, which builds the same tree
+ * in a single pass, without creating the DOM first.
+ * <p>
+ * Since an element is known to have children only when the first child
+ * starts, nodes are created lazily: elements with children become Node
+ * objects when the first child starts, simple elements are processed when
+ * they end. Attributes are added when the element ends, so the properties
+ * order is the same as with the DOM parser. Namespace declarations (xmlns)
+ * are not reported as attributes.
+ * <p>
+ * Types, property names and short values are deduplicated during the parse.
+ *
+ * @since 3.2
+ */
+public class XmlStreamGenericParser {
+
+	// ------------------------------------------------------------------------
+
+	// Longer values are rarely repeated.
+	private static final int MAX_SHARED_VALUE_LENGTH = 32;
+
+	private static class Frame {
+
+		Frame fParent;
+		String fType;
+		// Created when the first child element starts.
+		Node fNode;
+		// Only for elements without children.
+		StringBuilder fContent;
+		String[] fAttributes;
+		// The element is turned into a property of the parent.
+		boolean fIsProperty;
+		// Nested elements inside a property element.
+		int fPropertyDepth;
+	}
+
+	// ------------------------------------------------------------------------
+
+	private Map<String, String> fStrings;
+
+	public XmlStreamGenericParser() {
+		fStrings = new HashMap<>();
+	}
+
+	/**
+	 * Callback to be defined in derived classes, to define elements that
+	 * generate properties instead of new nodes.
+	 *
+	 * @see XmlGenericParser#isProperty(String, Leaf)
+	 */
+	public boolean isProperty(String name, Leaf node) {
+		return false;
+	}
+
+	/**
+	 * Callback called after a node is completely parsed, with all its
+	 * properties and children, for example to collect names.
+	 *
+	 * @param node
+	 *            the node created for an element with children or attributes.
+	 */
+	protected void nodeCompleted(Leaf node) {
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Parse the xml stream.
+	 *
+	 * @param inputStream
+	 *            the stream; it is not closed.
+	 * @return a tree starting with a ROOT node.
+	 * @throws XMLStreamException
+	 *             if the content is not well formed.
+	 */
+	public Node parse(InputStream inputStream) throws XMLStreamException {
+
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		// Not needed and may access the network.
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+
+		XMLStreamReader reader = factory.createXMLStreamReader(inputStream);
+		try {
+			return parse(reader);
+		} finally {
+			reader.close();
+			fStrings.clear();
+		}
+	}
+
+	private Node parse(XMLStreamReader reader) throws XMLStreamException {
+
+		Node tree = new Node(Type.ROOT);
+		tree.setPackType(Leaf.PACK_TYPE_CMSIS);
+
+		Deque<Frame> stack = new ArrayDeque<>();
+
+		while (reader.hasNext()) {
+			int event = reader.next();
+
+			switch (event) {
+			case XMLStreamConstants.START_ELEMENT: {
+				Frame parent = stack.peek();
+				if (parent != null && parent.fIsProperty) {
+					// Only the text is used.
+					parent.fPropertyDepth++;
+					break;
+				}
+
+				Frame frame = new Frame();
+				frame.fParent = parent;
+				frame.fType = share(getQualifiedName(reader.getPrefix(), reader.getLocalName()));
+
+				int count = reader.getAttributeCount();
+				if (count > 0) {
+					frame.fAttributes = new String[2 * count];
+					for (int i = 0; i < count; ++i) {
+						frame.fAttributes[2 * i] = share(
+								getQualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)));
+						frame.fAttributes[2 * i + 1] = reader.getAttributeValue(i);
+					}
+				}
+
+				if (parent != null) {
+					Node parentNode = materialize(parent, tree);
+					frame.fIsProperty = isProperty(frame.fType, parentNode);
+				}
+				stack.push(frame);
+				break;
+			}
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE: {
+				Frame frame = stack.peek();
+				// Text between children elements is ignored, like in the DOM
+				// parser.
+				if (frame != null && frame.fNode == null) {
+					if (frame.fContent == null) {
+						frame.fContent = new StringBuilder();
+					}
+					frame.fContent.append(reader.getTextCharacters(), reader.getTextStart(),
+							reader.getTextLength());
+				}
+				break;
+			}
+			case XMLStreamConstants.END_ELEMENT: {
+				Frame frame = stack.peek();
+				if (frame.fIsProperty && frame.fPropertyDepth > 0) {
+					frame.fPropertyDepth--;
+					break;
+				}
+				stack.pop();
+				endElement(frame, tree);
+				break;
+			}
+			default:
+				break;
+			}
+		}
+
+		return tree;
+	}
+
+	/**
+	 * Make sure the node for the given frame exists, when the first child
+	 * element starts. The parent node was created when this frame started.
+	 */
+	private Node materialize(Frame frame, Node tree) {
+
+		if (frame.fNode == null) {
+			Node parentNode = (frame.fParent != null) ? frame.fParent.fNode : tree;
+
+			frame.fNode = Node.addNewChild(parentNode, frame.fType);
+			frame.fNode.setPackType(Leaf.PACK_TYPE_CMSIS);
+			frame.fContent = null;
+		}
+		return frame.fNode;
+	}
+
+	private void endElement(Frame frame, Node tree) {
+
+		Node parentNode = (frame.fParent != null) ? frame.fParent.fNode : tree;
+
+		if (frame.fIsProperty) {
+			parentNode.putNonEmptyProperty(frame.fType, getContent(frame));
+			return;
+		}
+
+		Leaf node = frame.fNode;
+		if (node == null) {
+			// No children elements.
+			String content = getContent(frame);
+			if (frame.fAttributes == null) {
+				if ("description".equals(frame.fType)) {
+					parentNode.setDescription(content);
+				} else if ("name".equals(frame.fType)) {
+					parentNode.setName(content);
+					parentNode.putProperty("name", content);
+				} else {
+					parentNode.putNonEmptyProperty(frame.fType, share(content));
+				}
+				return;
+			}
+			node = Leaf.addNewChild(parentNode, frame.fType);
+			node.setPackType(Leaf.PACK_TYPE_CMSIS);
+
+			node.putNonEmptyProperty(Property.XML_CONTENT, content);
+		}
+
+		// Add all element attributes as node properties.
+		if (frame.fAttributes != null) {
+			for (int i = 0; i < frame.fAttributes.length; i += 2) {
+				node.putProperty(frame.fAttributes[i], share(frame.fAttributes[i + 1].trim()));
+			}
+		}
+
+		nodeCompleted(node);
+	}
+
+	// Like the DOM parser, which is not namespace aware.
+	private static String getQualifiedName(String prefix, String localName) {
+
+		if (prefix == null || prefix.isEmpty()) {
+			return localName;
+		}
+		return prefix + ":" + localName;
+	}
+
+	private static String getContent(Frame frame) {
+
+		if (frame.fContent == null) {
+			return "";
+		}
+		return frame.fContent.toString().trim();
+	}
+
+	/**
+	 * Return a shared copy of short strings, to avoid keeping thousands of
+	 * identical copies in large files.
+	 */
+	private String share(String str) {
+
+		if (str.length() > MAX_SHARED_VALUE_LENGTH) {
+			return str;
+		}
+		String shared = fStrings.putIfAbsent(str, str);
+		return (shared != null) ? shared : str;
+	}
+
+	// ------------------------------------------------------------------------
+}
@@ -177,6 +177,12 @@ public class PdscTreeParserForBuild extends PdscTreeParser {
 		Node deviceNode = Node.addUniqueChild(parent, Type.DEVICE, deviceName);
 		int saveCount = fCount;
 
+		// Families may be shared by several packs, so each device also
+		// identifies its pack, to be replaced when the pack is updated.
+		deviceNode.putProperty(Property.PACK_VENDOR, fVendorName);
+		deviceNode.putProperty(Property.PACK_NAME, fPackName);
+		deviceNode.putProperty(Property.PACK_VERSION, fVersion);
+
 		if (node.hasChildren()) {
 			for (Leaf child : ((Node) node).getChildren()) {
 				if (child.isType("variant")) {
@@ -14,16 +14,13 @@
 
 package org.eclipse.embedcdt.packs.core.data.xcdl;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
 import java.math.BigInteger;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.embedcdt.core.XpackManifest;
 import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
 public class XcdlUtils {
@@ -44,6 +41,9 @@ public class XcdlUtils {
 	}
 
 	/**
+	 * Get the parsed project 'package.json'. The object is shared, do not modify
+	 * it.
+	 *
 	 * @noreference This method is not intended to be referenced by clients.
 	 * @apiNote This method returns a non-API type, {@link JSONObject}, the concrete
 	 *          version of this type may change in a future release, however the
@@ -56,15 +56,9 @@ public class XcdlUtils {
 
 		assert project != null;
 		IPath projectPath = project.getLocation();
-		File packageFile = projectPath.append("package.json").toFile();
-		if (packageFile.exists() && !packageFile.isDirectory()) {
-			JSONParser parser = new JSONParser();
-			FileReader reader;
-			reader = new FileReader(packageFile);
-			JSONObject packageJson = (JSONObject) parser.parse(reader);
-			return packageJson;
-		}
-		throw new FileNotFoundException("package.json not found.");
+		// The manifest is cached, but the returned object is a private copy;
+		// parse errors are thrown, to be reported by the callers.
+		return XpackManifest.read(projectPath).getJson();
 	}
 
 }
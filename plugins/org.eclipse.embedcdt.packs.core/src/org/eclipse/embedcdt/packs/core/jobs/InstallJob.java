@@ -37,7 +37,6 @@ import org.eclipse.embedcdt.core.StringUtils;
 import org.eclipse.embedcdt.internal.packs.core.Activator;
 import org.eclipse.embedcdt.packs.core.IConsoleStream;
 import org.eclipse.embedcdt.packs.core.data.DataManager;
-import org.eclipse.embedcdt.packs.core.data.DataManagerEvent;
 import org.eclipse.embedcdt.packs.core.data.DataUtils;
 import org.eclipse.embedcdt.packs.core.data.FileNotFoundException;
 import org.eclipse.embedcdt.packs.core.data.PacksStorage;
@@ -156,8 +155,7 @@ public class InstallJob extends Job {
 		}
 
 		if (notifyUpdate) {
-			fDataManager.notifyUpdateView(DataManagerEvent.Type.UPDATE_VERSIONS, installedPacksList);
-			fDataManager.notifyInstallRemove();
+			fDataManager.notifyInstallRemove(installedPacksList);
 		}
 
 		IStatus status;
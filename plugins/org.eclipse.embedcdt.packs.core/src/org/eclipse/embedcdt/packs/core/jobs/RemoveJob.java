@@ -27,7 +27,6 @@ import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.embedcdt.internal.packs.core.Activator;
 import org.eclipse.embedcdt.packs.core.IConsoleStream;
 import org.eclipse.embedcdt.packs.core.data.DataManager;
-import org.eclipse.embedcdt.packs.core.data.DataManagerEvent;
 import org.eclipse.embedcdt.packs.core.data.DataUtils;
 import org.eclipse.embedcdt.packs.core.data.PacksStorage;
 import org.eclipse.embedcdt.packs.core.tree.Leaf;
@@ -139,8 +138,7 @@ public class RemoveJob extends Job {
 		int count = removedPacksList.size();
 
 		if (count > 0) {
-			fDataManager.notifyUpdateView(DataManagerEvent.Type.UPDATE_VERSIONS, removedPacksList);
-			fDataManager.notifyInstallRemove();
+			fDataManager.notifyInstallRemove(removedPacksList);
 		}
 
 		IStatus status;
@@ -14,8 +14,6 @@
 
 package org.eclipse.embedcdt.packs.core.jstree;
 
-import java.io.IOException;
-import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 
@@ -184,28 +182,4 @@ public class JsArray extends JsNode {
 		return str;
 	}
 
-	@Override
-	public void serialize(OutputStream o) throws IOException {
-		String str = "[";
-		boolean first = true;
-		for (Object element : fElements) {
-			if (first) {
-				first = false;
-			} else {
-				str += ",";
-			}
-			if (element instanceof String) {
-				str += "\"" + element + "\"";
-				o.write(str.getBytes());
-				str = "";
-			} else if (element instanceof JsNode) {
-				o.write(str.getBytes());
-				str = "";
-				((JsNode) element).serialize(o);
-			}
-		}
-		str += " ]";
-		o.write(str.getBytes());
-	}
-
 }
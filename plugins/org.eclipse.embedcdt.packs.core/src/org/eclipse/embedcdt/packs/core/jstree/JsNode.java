@@ -101,5 +101,19 @@ public abstract class JsNode {
 
 	protected abstract JsNode getNextSibling(JsNode node);
 
-	public abstract void serialize(OutputStream o) throws IOException;
+	/**
+	 * Write the node as JSON, UTF-8 encoded. The stream is flushed but not
+	 * closed.
+	 *
+	 * @param o
+	 *            an output stream.
+	 * @throws IOException
+	 * @see JsWriter
+	 */
+	public void serialize(OutputStream o) throws IOException {
+
+		JsWriter writer = new JsWriter(o);
+		writer.write(this);
+		writer.flush();
+	}
 }
@@ -14,8 +14,6 @@
 
 package org.eclipse.embedcdt.packs.core.jstree;
 
-import java.io.IOException;
-import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
@@ -254,30 +252,4 @@ public class JsObject extends JsNode {
 		str += " }";
 		return str;
 	}
-
-	@Override
-	public void serialize(OutputStream o) throws IOException {
-		String str = "{";
-		boolean first = true;
-		for (String key : fProperties.keySet()) {
-			if (first) {
-				first = false;
-			} else {
-				str += ",";
-			}
-			str += "\"" + key + "\":";
-			Object value = fProperties.get(key);
-			if (value instanceof String) {
-				str += "\"" + value + "\"";
-				o.write(str.getBytes());
-				str = "";
-			} else if (value instanceof JsNode) {
-				o.write(str.getBytes());
-				str = "";
-				((JsNode) value).serialize(o);
-			}
-		}
-		str += "}";
-		o.write(str.getBytes());
-	}
 }
@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.packs.core.jstree;
+
+import java.io.IOException;
+
+/**
+ * Thrown by JsReader when the input is not a valid JSON.
+ *
+ * @since 3.2
+ */
+public class JsParseException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+
+	// The offset of the offending character, in characters.
+	private final long fPosition;
+
+	public JsParseException(String message, long position) {
+		super(message + " at position " + position);
+		fPosition = position;
+	}
+
+	/**
+	 * @return the character offset where the error was detected.
+	 */
+	public long getPosition() {
+		return fPosition;
+	}
+}
@@ -0,0 +1,585 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.packs.core.jstree;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A streaming JSON reader that builds the JsObject/JsArray tree in a single
+ * pass, without an intermediate JSON.simple tree.
+ * <p>
+ * As everywhere in JS trees, scalars are stored as strings; numbers keep their
+ * literal text, and true, false and null are stored as "true", "false" and
+ * "null".
+ * <p>
+ * Property names are interned in a table owned by the reader, so the same
+ * names repeated in thousands of objects (like 'name', 'description',
+ * 'addressOffset') share a single string. Reuse the reader for multiple
+ * documents to share the names between them too. Instances are not thread
+ * safe.
+ *
+ * @since 3.2
+ */
+public class JsReader {
+
+	// ------------------------------------------------------------------------
+
+	private static final int BUFFER_SIZE = 8 * 1024;
+	// Must be a power of 2.
+	private static final int NAMES_INITIAL_SIZE = 256;
+
+	private static final char BOM = '\ufeff';
+
+	// ------------------------------------------------------------------------
+
+	// null when parsing a buffer already in memory.
+	private Reader fReader;
+	private char[] fReadBuffer;
+
+	private char[] fBuffer;
+	private int fPos;
+	private int fLimit;
+	// The position of fBuffer[0] in the input, for error messages.
+	private long fBufferOffset;
+
+	// Used when a string crosses the buffer end or has escapes.
+	private final StringBuilder fText;
+
+	// Open addressing hash table, with linear probing.
+	private String[] fNames;
+	private int fNamesCount;
+
+	// ------------------------------------------------------------------------
+
+	public JsReader() {
+
+		fReader = null;
+		fReadBuffer = null;
+		fBuffer = null;
+
+		fText = new StringBuilder();
+
+		fNames = new String[NAMES_INITIAL_SIZE];
+		fNamesCount = 0;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Parse a JSON document. The reader is read until the end, but not
+	 * closed.
+	 *
+	 * @param reader
+	 *            a reader; no need to be buffered.
+	 * @return the root object or array.
+	 * @throws JsParseException
+	 *             if the content is not valid JSON.
+	 * @throws IOException
+	 *             if reading fails.
+	 */
+	public JsNode parse(Reader reader) throws IOException {
+
+		if (fReadBuffer == null) {
+			fReadBuffer = new char[BUFFER_SIZE];
+		}
+		fReader = reader;
+		fBuffer = fReadBuffer;
+		fPos = 0;
+		fLimit = 0;
+		fBufferOffset = 0;
+
+		try {
+			return parseDocument();
+		} finally {
+			fReader = null;
+			fBuffer = null;
+		}
+	}
+
+	/**
+	 * Parse a JSON document from UTF-8 encoded bytes, like the content of a
+	 * file read in memory.
+	 *
+	 * @param bytes
+	 *            a buffer; the content between position and limit is parsed.
+	 * @return the root object or array.
+	 * @throws JsParseException
+	 *             if the content is not valid JSON.
+	 */
+	public JsNode parse(ByteBuffer bytes) throws IOException {
+
+		CharBuffer chars = StandardCharsets.UTF_8.decode(bytes);
+
+		fReader = null;
+		fBuffer = chars.array();
+		fPos = chars.arrayOffset() + chars.position();
+		fLimit = chars.arrayOffset() + chars.limit();
+		fBufferOffset = -fPos;
+
+		try {
+			return parseDocument();
+		} finally {
+			fBuffer = null;
+		}
+	}
+
+	/**
+	 * Parse a JSON document that must be an object.
+	 *
+	 * @see #parse(Reader)
+	 */
+	public JsObject parseObject(Reader reader) throws IOException {
+		return checkObject(parse(reader));
+	}
+
+	/**
+	 * Parse a JSON document that must be an object.
+	 *
+	 * @see #parse(ByteBuffer)
+	 */
+	public JsObject parseObject(ByteBuffer bytes) throws IOException {
+		return checkObject(parse(bytes));
+	}
+
+	private static JsObject checkObject(JsNode node) throws JsParseException {
+
+		if (!(node instanceof JsObject)) {
+			throw new JsParseException("Expected an object, found an array", 0);
+		}
+		return (JsObject) node;
+	}
+
+	/**
+	 * @return the number of distinct property names seen by this reader.
+	 */
+	public int getNamesCount() {
+		return fNamesCount;
+	}
+
+	// ------------------------------------------------------------------------
+
+	private JsNode parseDocument() throws IOException {
+
+		if (peek() == BOM) {
+			fPos++;
+		}
+
+		int ch = skipWhitespace();
+		JsNode root;
+		if (ch == '{') {
+			root = parseObject();
+		} else if (ch == '[') {
+			root = parseArray();
+		} else if (ch < 0) {
+			throw error("Empty input");
+		} else {
+			throw error("Expected '{' or '['");
+		}
+
+		if (skipWhitespace() >= 0) {
+			throw error("Unexpected content after the end");
+		}
+		return root;
+	}
+
+	private Object parseValue(int ch) throws IOException {
+
+		switch (ch) {
+		case '{':
+			return parseObject();
+		case '[':
+			return parseArray();
+		case '"':
+			return parseString(false);
+		case 't':
+			return parseLiteral("true");
+		case 'f':
+			return parseLiteral("false");
+		case 'n':
+			return parseLiteral("null");
+		default:
+			if (ch == '-' || (ch >= '0' && ch <= '9')) {
+				return parseNumber();
+			}
+			if (ch < 0) {
+				throw error("Unexpected end of input");
+			}
+			throw error("Unexpected character '" + (char) ch + "'");
+		}
+	}
+
+	private JsObject parseObject() throws IOException {
+
+		fPos++; // '{'
+		JsObject object = new JsObject();
+
+		int ch = skipWhitespace();
+		if (ch == '}') {
+			fPos++;
+			return object;
+		}
+
+		for (;;) {
+			if (ch != '"') {
+				throw error("Expected a property name");
+			}
+			String name = parseString(true);
+
+			if (skipWhitespace() != ':') {
+				throw error("Expected ':'");
+			}
+			fPos++;
+
+			Object value = parseValue(skipWhitespace());
+			if (value instanceof JsNode) {
+				object.putProperty(name, (JsNode) value);
+			} else {
+				object.putProperty(name, (String) value);
+			}
+
+			ch = skipWhitespace();
+			if (ch == ',') {
+				fPos++;
+				ch = skipWhitespace();
+			} else if (ch == '}') {
+				fPos++;
+				return object;
+			} else {
+				throw error("Expected ',' or '}'");
+			}
+		}
+	}
+
+	private JsArray parseArray() throws IOException {
+
+		fPos++; // '['
+		JsArray array = new JsArray();
+
+		int ch = skipWhitespace();
+		if (ch == ']') {
+			fPos++;
+			return array;
+		}
+
+		for (;;) {
+			Object value = parseValue(ch);
+			if (value instanceof JsNode) {
+				array.add((JsNode) value);
+			} else {
+				array.add((String) value);
+			}
+
+			ch = skipWhitespace();
+			if (ch == ',') {
+				fPos++;
+				ch = skipWhitespace();
+			} else if (ch == ']') {
+				fPos++;
+				return array;
+			} else {
+				throw error("Expected ',' or ']'");
+			}
+		}
+	}
+
+	/**
+	 * Parse a quoted string; the current character is the opening quote.
+	 *
+	 * @param isName
+	 *            true for property names, which are interned.
+	 */
+	private String parseString(boolean isName) throws IOException {
+
+		fPos++; // '"'
+
+		// Fast path, the entire string is in the buffer, without escapes.
+		int hash = 0;
+		for (int i = fPos; i < fLimit; ++i) {
+			char ch = fBuffer[i];
+			if (ch == '"') {
+				int start = fPos;
+				fPos = i + 1;
+				if (isName) {
+					return intern(fBuffer, start, i - start, hash);
+				}
+				return new String(fBuffer, start, i - start);
+			}
+			if (ch == '\\') {
+				break;
+			}
+			hash = 31 * hash + ch;
+		}
+
+		fText.setLength(0);
+		for (;;) {
+			if (fPos >= fLimit) {
+				if (!fill()) {
+					throw error("Unterminated string");
+				}
+			}
+
+			// Copy the chunk up to the next quote or escape.
+			int start = fPos;
+			while (fPos < fLimit && fBuffer[fPos] != '"' && fBuffer[fPos] != '\\') {
+				fPos++;
+			}
+			fText.append(fBuffer, start, fPos - start);
+			if (fPos >= fLimit) {
+				continue;
+			}
+
+			char ch = fBuffer[fPos++];
+			if (ch == '"') {
+				break;
+			}
+			fText.append(parseEscape());
+		}
+
+		String str = fText.toString();
+		if (isName) {
+			return intern(str);
+		}
+		return str;
+	}
+
+	private char parseEscape() throws IOException {
+
+		int ch = next();
+		switch (ch) {
+		case '"':
+		case '\\':
+		case '/':
+			return (char) ch;
+		case 'b':
+			return '\b';
+		case 'f':
+			return '\f';
+		case 'n':
+			return '\n';
+		case 'r':
+			return '\r';
+		case 't':
+			return '\t';
+		case 'u':
+			int value = 0;
+			for (int i = 0; i < 4; ++i) {
+				int digit = Character.digit(next(), 16);
+				if (digit < 0) {
+					throw error("Invalid unicode escape");
+				}
+				value = (value << 4) | digit;
+			}
+			return (char) value;
+		default:
+			if (ch < 0) {
+				throw error("Unterminated string");
+			}
+			throw error("Invalid escape '\\" + (char) ch + "'");
+		}
+	}
+
+	private String parseNumber() throws IOException {
+
+		// Fast path, the number ends inside the buffer.
+		int start = fPos;
+		int i = fPos;
+		while (i < fLimit && isNumberChar(fBuffer[i])) {
+			i++;
+		}
+		String str;
+		if (i < fLimit) {
+			fPos = i;
+			str = new String(fBuffer, start, i - start);
+		} else {
+			fText.setLength(0);
+			int ch;
+			while ((ch = peek()) >= 0 && isNumberChar((char) ch)) {
+				fText.append((char) ch);
+				fPos++;
+			}
+			str = fText.toString();
+		}
+
+		// Not a full validation, just enough to catch garbage.
+		char last = str.charAt(str.length() - 1);
+		if (last < '0' || last > '9') {
+			throw error("Invalid number '" + str + "'");
+		}
+		return str;
+	}
+
+	private static boolean isNumberChar(char ch) {
+		return (ch >= '0' && ch <= '9') || ch == '-' || ch == '+' || ch == '.' || ch == 'e' || ch == 'E';
+	}
+
+	private String parseLiteral(String literal) throws IOException {
+
+		for (int i = 0; i < literal.length(); ++i) {
+			int ch = next();
+			if (ch != literal.charAt(i)) {
+				if (ch >= 0) {
+					fPos--;
+				}
+				throw error("Expected '" + literal + "'");
+			}
+		}
+		return literal;
+	}
+
+	// ------------------------------------------------------------------------
+
+	private String intern(char[] chars, int start, int length, int hash) {
+
+		int mask = fNames.length - 1;
+		int ix = hash & mask;
+		for (;;) {
+			String name = fNames[ix];
+			if (name == null) {
+				name = new String(chars, start, length);
+				addName(ix, name);
+				return name;
+			}
+			if (name.hashCode() == hash && regionEquals(name, chars, start, length)) {
+				return name;
+			}
+			ix = (ix + 1) & mask;
+		}
+	}
+
+	private String intern(String str) {
+
+		int mask = fNames.length - 1;
+		int ix = str.hashCode() & mask;
+		for (;;) {
+			String name = fNames[ix];
+			if (name == null) {
+				addName(ix, str);
+				return str;
+			}
+			if (name.equals(str)) {
+				return name;
+			}
+			ix = (ix + 1) & mask;
+		}
+	}
+
+	private static boolean regionEquals(String name, char[] chars, int start, int length) {
+
+		if (name.length() != length) {
+			return false;
+		}
+		for (int i = 0; i < length; ++i) {
+			if (name.charAt(i) != chars[start + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void addName(int ix, String name) {
+
+		fNames[ix] = name;
+		fNamesCount++;
+
+		// Keep the load factor below 0.75.
+		if (fNamesCount * 4 >= fNames.length * 3) {
+			String[] names = new String[fNames.length * 2];
+			int mask = names.length - 1;
+			for (String str : fNames) {
+				if (str != null) {
+					int i = str.hashCode() & mask;
+					while (names[i] != null) {
+						i = (i + 1) & mask;
+					}
+					names[i] = str;
+				}
+			}
+			fNames = names;
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * @return the next non white space character, without consuming it, or -1
+	 *         at the end of input.
+	 */
+	private int skipWhitespace() throws IOException {
+
+		for (;;) {
+			while (fPos < fLimit) {
+				char ch = fBuffer[fPos];
+				if (ch != ' ' && ch != '\n' && ch != '\r' && ch != '\t') {
+					return ch;
+				}
+				fPos++;
+			}
+			if (!fill()) {
+				return -1;
+			}
+		}
+	}
+
+	private int peek() throws IOException {
+
+		if (fPos >= fLimit && !fill()) {
+			return -1;
+		}
+		return fBuffer[fPos];
+	}
+
+	private int next() throws IOException {
+
+		if (fPos >= fLimit && !fill()) {
+			return -1;
+		}
+		return fBuffer[fPos++];
+	}
+
+	/**
+	 * Read the next chunk; the current buffer must be fully consumed.
+	 *
+	 * @return false at the end of input.
+	 */
+	private boolean fill() throws IOException {
+
+		if (fReader == null) {
+			return false;
+		}
+		fBufferOffset += fLimit;
+		fPos = 0;
+		fLimit = 0;
+
+		int count;
+		do {
+			count = fReader.read(fBuffer, 0, fBuffer.length);
+		} while (count == 0);
+		if (count < 0) {
+			return false;
+		}
+		fLimit = count;
+		return true;
+	}
+
+	private JsParseException error(String message) {
+		return new JsParseException(message, fBufferOffset + fPos);
+	}
+
+	// ------------------------------------------------------------------------
+}
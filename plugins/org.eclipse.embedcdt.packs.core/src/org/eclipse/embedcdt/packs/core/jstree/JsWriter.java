@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.packs.core.jstree;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * A buffered JSON writer for JsObject/JsArray trees, the counterpart of
+ * JsReader.
+ * <p>
+ * The nodes are written directly to the buffered output, without building
+ * intermediate strings; string values and names are escaped as required by
+ * JSON. Output is compact, unless an indentation is set.
+ *
+ * @since 3.2
+ */
+public class JsWriter {
+
+	// ------------------------------------------------------------------------
+
+	private static final int BUFFER_SIZE = 8 * 1024;
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	// ------------------------------------------------------------------------
+
+	private final Writer fWriter;
+	// null for compact output.
+	private String fIndent;
+	private int fDepth;
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Write to a character stream.
+	 *
+	 * @param writer
+	 *            a writer; buffered if not already a BufferedWriter.
+	 */
+	public JsWriter(Writer writer) {
+
+		if (writer instanceof BufferedWriter) {
+			fWriter = writer;
+		} else {
+			fWriter = new BufferedWriter(writer, BUFFER_SIZE);
+		}
+		fIndent = null;
+		fDepth = 0;
+	}
+
+	/**
+	 * Write to a byte stream, UTF-8 encoded.
+	 *
+	 * @param stream
+	 *            an output stream; no need to be buffered.
+	 */
+	public JsWriter(OutputStream stream) {
+		this(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Enable pretty printing.
+	 *
+	 * @param indent
+	 *            a string used for each indentation level, or null for compact
+	 *            output.
+	 * @return this writer.
+	 */
+	public JsWriter setIndent(String indent) {
+		fIndent = indent;
+		return this;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Write a node and all its children. The output is not flushed.
+	 *
+	 * @param node
+	 *            a JsObject or a JsArray.
+	 */
+	public void write(JsNode node) throws IOException {
+
+		if (node instanceof JsObject) {
+			writeObject((JsObject) node);
+		} else if (node instanceof JsArray) {
+			writeArray((JsArray) node);
+		} else {
+			throw new IllegalArgumentException("Unsupported node " + node.getClass().getName());
+		}
+	}
+
+	/**
+	 * Flush the buffer to the underlying stream, without closing it.
+	 */
+	public void flush() throws IOException {
+		fWriter.flush();
+	}
+
+	/**
+	 * Flush and close the underlying stream.
+	 */
+	public void close() throws IOException {
+		fWriter.close();
+	}
+
+	// ------------------------------------------------------------------------
+
+	private void writeObject(JsObject object) throws IOException {
+
+		Map<String, Object> properties = object.getProperties();
+		if (properties.isEmpty()) {
+			fWriter.write("{}");
+			return;
+		}
+
+		fWriter.write('{');
+		fDepth++;
+		boolean first = true;
+		for (Map.Entry<String, Object> entry : properties.entrySet()) {
+			if (first) {
+				first = false;
+			} else {
+				fWriter.write(',');
+			}
+			writeNewLine();
+			writeString(entry.getKey());
+			fWriter.write(':');
+			if (fIndent != null) {
+				fWriter.write(' ');
+			}
+			writeValue(entry.getValue());
+		}
+		fDepth--;
+		writeNewLine();
+		fWriter.write('}');
+	}
+
+	private void writeArray(JsArray array) throws IOException {
+
+		if (array.isEmpty()) {
+			fWriter.write("[]");
+			return;
+		}
+
+		fWriter.write('[');
+		fDepth++;
+		boolean first = true;
+		for (Object element : array.getElements()) {
+			if (first) {
+				first = false;
+			} else {
+				fWriter.write(',');
+			}
+			writeNewLine();
+			writeValue(element);
+		}
+		fDepth--;
+		writeNewLine();
+		fWriter.write(']');
+	}
+
+	private void writeValue(Object value) throws IOException {
+
+		if (value instanceof JsNode) {
+			write((JsNode) value);
+		} else {
+			// Scalars are always strings in JS trees.
+			writeString(String.valueOf(value));
+		}
+	}
+
+	private void writeNewLine() throws IOException {
+
+		if (fIndent == null) {
+			return;
+		}
+		fWriter.write('\n');
+		for (int i = 0; i < fDepth; ++i) {
+			fWriter.write(fIndent);
+		}
+	}
+
+	/**
+	 * Write a quoted string, escaping the quotes, backslashes and control
+	 * characters. Runs of plain characters are written in one call.
+	 */
+	private void writeString(String str) throws IOException {
+
+		fWriter.write('"');
+		int start = 0;
+		int length = str.length();
+		for (int i = 0; i < length; ++i) {
+			char ch = str.charAt(i);
+			if (ch >= ' ' && ch != '"' && ch != '\\') {
+				continue;
+			}
+			if (i > start) {
+				fWriter.write(str, start, i - start);
+			}
+			start = i + 1;
+
+			fWriter.write('\\');
+			switch (ch) {
+			case '"':
+			case '\\':
+				fWriter.write(ch);
+				break;
+			case '\n':
+				fWriter.write('n');
+				break;
+			case '\r':
+				fWriter.write('r');
+				break;
+			case '\t':
+				fWriter.write('t');
+				break;
+			case '\b':
+				fWriter.write('b');
+				break;
+			case '\f':
+				fWriter.write('f');
+				break;
+			default:
+				fWriter.write("u00");
+				fWriter.write(HEX_DIGITS[(ch >> 4) & 0xF]);
+				fWriter.write(HEX_DIGITS[ch & 0xF]);
+				break;
+			}
+		}
+		if (length > start) {
+			fWriter.write(str, start, length - start);
+		}
+		fWriter.write('"');
+	}
+
+	// ------------------------------------------------------------------------
+}
@@ -14,7 +14,10 @@
 
 package org.eclipse.embedcdt.packs.core.tree;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 // This is a generic tree iterator, allowing a convenient
@@ -23,22 +26,42 @@ import java.util.NoSuchElementException;
 // Internally it iterates all nodes, but externally it presents
 // only nodes that pass the user isIterable() test.
 //
-// It is more efficient then building a list and iterating it, and less
-// efficient than manually recursing the tree.
+// The position in the tree is kept in a stack of (children, index)
+// frames, so each step is constant time, regardless of the number
+// of siblings, and the traversal never leaves the top node subtree.
 //
-// One possible optimisation may be a method to define leaf nodes,
-// that are not entered for children inspection.
+// Nodes for which isLeaf() returns true are not entered for
+// children inspection.
 
 public abstract class AbstractTreePreOrderIterator implements ITreeIterator {
 
+	private static class Frame {
+
+		List<Leaf> fChildren;
+		int fNext;
+		int fEnd;
+
+		Frame(List<Leaf> children, int next, int end) {
+			fChildren = children;
+			fNext = next;
+			fEnd = end;
+		}
+	}
+
 	private Leaf fTopNode;
 	private Leaf fCurrentNode;
 	private Leaf fNextNode;
 
+	private boolean fIsStarted;
+	private Deque<Frame> fStack;
+
 	public AbstractTreePreOrderIterator() {
 		fTopNode = null;
 		fCurrentNode = null;
 		fNextNode = null;
+
+		fIsStarted = false;
+		fStack = new ArrayDeque<>();
 	}
 
 	@Override
@@ -46,6 +69,9 @@ public abstract class AbstractTreePreOrderIterator implements ITreeIterator {
 		fTopNode = node;
 		fCurrentNode = null;
 		fNextNode = null;
+
+		fIsStarted = false;
+		fStack.clear();
 	}
 
 	@Override
@@ -60,12 +86,10 @@ public abstract class AbstractTreePreOrderIterator implements ITreeIterator {
 	@Override
 	public boolean hasNext() {
 
-		Leaf node = tryNext(fCurrentNode);
-		if (node != null) {
-			fNextNode = node;
-			return true;
+		if (fNextNode == null) {
+			fNextNode = tryNext();
 		}
-		return false;
+		return fNextNode != null;
 	}
 
 	@Override
@@ -75,7 +99,7 @@ public abstract class AbstractTreePreOrderIterator implements ITreeIterator {
 		if (fNextNode != null) {
 			node = fNextNode;
 		} else {
-			node = tryNext(fCurrentNode);
+			node = tryNext();
 		}
 
 		if (node != null) {
@@ -93,37 +117,48 @@ public abstract class AbstractTreePreOrderIterator implements ITreeIterator {
 	}
 
 	// Depth-first, pre-order (root first, then children)
-	private Leaf tryNext(Leaf node) {
-
-		do {
-			if (node == null) {
-				node = fTopNode;
-			} else {
-				if (!isLeaf(node) && node.hasChildren()) {
-					// First children
-					node = ((Node) node).getFirstChild();
-				} else {
-					for (;;) {
-						// Next sibling
-						Leaf sibling = node.getNextSibling();
-						if (sibling != null) {
-							node = sibling;
-							break;
-						}
-						// No sibling found, try parent
-						if (node.getParent() != null) {
-							// Go up
-							node = node.getParent();
-						} else {
-							// Neither sibling nor parent, no hope
-							node = null;
-							break;
-						}
-					}
-				}
+	private Leaf tryNext() {
+
+		Leaf node;
+		if (!fIsStarted) {
+			fIsStarted = true;
+			node = fTopNode;
+		} else {
+			if (fCurrentNode != null) {
+				// Enter the children of the last returned node.
+				pushChildren(fCurrentNode);
+				fCurrentNode = null;
 			}
-		} while (node != null && !isIterable(node));
+			node = popNext();
+		}
+
+		while (node != null && !isIterable(node)) {
+			pushChildren(node);
+			node = popNext();
+		}
 
 		return node; // null if no more nodes
 	}
+
+	private void pushChildren(Leaf node) {
+
+		if (!isLeaf(node) && node.hasChildren()) {
+			List<Leaf> children = ((Node) node).getChildren();
+			fStack.push(new Frame(children, 0, children.size()));
+		}
+	}
+
+	private Leaf popNext() {
+
+		while (!fStack.isEmpty()) {
+			Frame frame = fStack.peek();
+			// Children appended during the iteration are also returned.
+			frame.fEnd = frame.fChildren.size();
+			if (frame.fNext < frame.fEnd) {
+				return frame.fChildren.get(frame.fNext++);
+			}
+			fStack.pop();
+		}
+		return null;
+	}
 }
@@ -24,6 +24,12 @@ public class Leaf implements Comparable<Leaf>, IAdaptable {
 
 	protected String fType;
 	protected Node fParent;
+	/**
+	 * The position in the parent list of children, maintained by Node.
+	 *
+	 * @since 3.2
+	 */
+	protected int fIndex;
 	protected Map<String, String> fProperties;
 	protected int fPackType;
 
@@ -33,6 +39,7 @@ public class Leaf implements Comparable<Leaf>, IAdaptable {
 	public Leaf(String type) {
 		fType = type;
 		fParent = null;
+		fIndex = -1;
 		fProperties = null;
 
 		fPackType = 0;
@@ -44,6 +51,7 @@ public class Leaf implements Comparable<Leaf>, IAdaptable {
 		fType = node.fType;
 		fProperties = null;
 		fParent = null;
+		fIndex = -1;
 
 		fPackType = 0;
 
@@ -125,8 +133,7 @@ public class Leaf implements Comparable<Leaf>, IAdaptable {
 		}
 		List<Leaf> list = getParent().getChildren();
 
-		// Find the current node in the list of children
-		int ix = list.indexOf(this);
+		int ix = getIndex();
 
 		assert ix >= 0;
 
@@ -139,6 +146,28 @@ public class Leaf implements Comparable<Leaf>, IAdaptable {
 		return list.get(ix);
 	}
 
+	/**
+	 * Get the position of the node in the parent list of children.
+	 * <p>
+	 * The position is stored in the node, so this is a constant time
+	 * operation; if the list was changed without the Node methods, the
+	 * position is searched and stored again.
+	 *
+	 * @return the index, or -1 if the node has no parent.
+	 * @since 3.2
+	 */
+	public int getIndex() {
+
+		if (fParent == null || fParent.getChildren() == null) {
+			return -1;
+		}
+		List<Leaf> list = fParent.getChildren();
+		if (fIndex < 0 || fIndex >= list.size() || list.get(fIndex) != this) {
+			fIndex = list.indexOf(this);
+		}
+		return fIndex;
+	}
+
 	public Node getParent() {
 		return fParent;
 	}
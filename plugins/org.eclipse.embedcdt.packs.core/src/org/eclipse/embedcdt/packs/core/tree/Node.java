@@ -14,8 +14,11 @@
 
 package org.eclipse.embedcdt.packs.core.tree;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Node extends Leaf {
 
@@ -77,13 +80,22 @@ public class Node extends Leaf {
 			"Dcore", "Dfpu", "Dmpu", "Dendian", "Cvendor", "Cbundle", "Cclass", "Cgroup", "Csub", "Cvariant",
 			"Cversion", "Capiversion", "Tcompiler", "condition" };
 
+	// Below this number of children, no index by type is created.
+	private static final int TYPE_INDEX_THRESHOLD = 16;
+
 	protected List<Leaf> fChildren;
 
+	// Children grouped by type, created on demand for wide nodes, and
+	// discarded when the children change. Volatile, since parsed trees
+	// are shared by threads; the map is fully built before published.
+	private volatile Map<String, List<Leaf>> fChildrenByType;
+
 	public Node(String type) {
 
 		super(type);
 
 		fChildren = null;
+		fChildrenByType = null;
 	}
 
 	public Node(Leaf node) {
@@ -91,6 +103,7 @@ public class Node extends Leaf {
 		super(node);
 
 		fChildren = null;
+		fChildrenByType = null;
 	}
 
 	@Override
@@ -106,17 +119,97 @@ public class Node extends Leaf {
 		return fChildren;
 	}
 
+	/**
+	 * Get the children with the given type, in order.
+	 * <p>
+	 * For nodes with many children, the result comes from an index by type,
+	 * created on first use.
+	 *
+	 * @param type
+	 *            a string with the desired node type.
+	 * @return a read only list, possibly empty, never null.
+	 * @since 3.2
+	 */
+	public List<Leaf> getChildren(String type) {
+
+		if (fChildren == null) {
+			return Collections.emptyList();
+		}
+
+		if (fChildren.size() < TYPE_INDEX_THRESHOLD) {
+			List<Leaf> list = new ArrayList<>();
+			for (Leaf node : fChildren) {
+				if (node.fType.equals(type)) {
+					list.add(node);
+				}
+			}
+			return list;
+		}
+
+		Map<String, List<Leaf>> childrenByType = fChildrenByType;
+		if (childrenByType == null) {
+			childrenByType = new HashMap<>();
+			for (Leaf node : fChildren) {
+				List<Leaf> list = childrenByType.get(node.fType);
+				if (list == null) {
+					list = new ArrayList<>();
+					childrenByType.put(node.fType, list);
+				}
+				list.add(node);
+			}
+			for (Map.Entry<String, List<Leaf>> entry : childrenByType.entrySet()) {
+				entry.setValue(Collections.unmodifiableList(entry.getValue()));
+			}
+			fChildrenByType = childrenByType;
+		}
+
+		List<Leaf> list = childrenByType.get(type);
+		if (list == null) {
+			return Collections.emptyList();
+		}
+		return list;
+	}
+
 	public void addChild(Leaf node) {
 
 		if (fChildren == null) {
-			fChildren = new LinkedList<>();
+			fChildren = new ArrayList<>();
 		}
 		fChildren.add(node);
+		fChildrenByType = null;
+
+		// Protect against attempts to link the node to multiple parents
+		assert node.fParent == null : "Parent field not null";
+
+		node.fParent = this;
+		node.fIndex = fChildren.size() - 1;
+	}
+
+	/**
+	 * Insert a child at the given position in the list of children.
+	 *
+	 * @param index
+	 *            the position; if beyond the end, the node is appended.
+	 * @param node
+	 *            a node without parent.
+	 * @since 3.2
+	 */
+	public void addChild(int index, Leaf node) {
+
+		if (fChildren == null) {
+			fChildren = new ArrayList<>();
+		}
+		if (index < 0 || index > fChildren.size()) {
+			index = fChildren.size();
+		}
+		fChildren.add(index, node);
+		fChildrenByType = null;
 
 		// Protect against attempts to link the node to multiple parents
 		assert node.fParent == null : "Parent field not null";
 
 		node.fParent = this;
+		updateIndices(index);
 	}
 
 	/**
@@ -179,18 +272,37 @@ public class Node extends Leaf {
 
 	public void removeChild(Leaf node) {
 		if (fChildren != null) {
-			fChildren.remove(node);
+			int index = (node.fParent == this) ? node.getIndex() : fChildren.indexOf(node);
+			if (index >= 0) {
+				fChildren.remove(index);
+				fChildrenByType = null;
+				updateIndices(index);
+
+				// Allow the node to be linked to another parent.
+				node.fParent = null;
+				node.fIndex = -1;
+			}
 		}
 	}
 
 	public void removeChildren() {
 		fChildren = null;
+		fChildrenByType = null;
+	}
+
+	// Renumber the children starting with the given position.
+	private void updateIndices(int from) {
+
+		for (int i = from; i < fChildren.size(); ++i) {
+			fChildren.get(i).fIndex = i;
+		}
 	}
 
 	// ------
 
 	public void copyChildren(Node node) {
 		fChildren = node.fChildren;
+		fChildrenByType = null;
 	}
 
 	// ------------------------------------------------------------------------
@@ -0,0 +1,398 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Liviu Ionescu and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Liviu Ionescu - initial implementation.
+ *******************************************************************************/
+
+package org.eclipse.embedcdt.packs.core.tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * A path query over a tree of nodes, compiled once and reusable.
+ * <p>
+ * The syntax is a small subset of XPath:
+ *
+ * <pre>
+ * devices/vendor[@vendor.id=$v]//device|variant[name()=$n]
+ * </pre>
+ *
+ * <ul>
+ * <li>steps are separated by '/' (children) or '//' (descendants); a path
+ * starting with '//' searches all descendants of the context node;</li>
+ * <li>a step tests the node type; '*' matches any type, 'a|b' matches
+ * several types;</li>
+ * <li>conditions are written in brackets: '[@prop]' requires the property,
+ * '[@prop=value]' compares it with a literal (optionally quoted) or with a
+ * '$variable' bound when the query is run; 'name()' and 'key()' stand for
+ * the node name and key.</li>
+ * </ul>
+ * <p>
+ * Children steps with a single type use the node index by type. Descendant
+ * steps do not enter the nodes with one of the leaf types given when
+ * compiling, similarly to AbstractTreePreOrderIterator.isLeaf(), and
+ * conditions on intermediate steps prune the subtrees early.
+ * <p>
+ * Compiled queries are immutable and can be shared between threads, as long
+ * as the tree is not changed while searched.
+ *
+ * @since 3.2
+ */
+public class TreeQuery {
+
+	// ------------------------------------------------------------------------
+
+	private static class Condition {
+
+		String fProperty;
+		// Both null to only test if the property is present.
+		String fValue;
+		String fVariable;
+
+		boolean matches(Leaf node, Map<String, String> variables) {
+
+			if (fValue == null && fVariable == null) {
+				return node.hasProperty(fProperty);
+			}
+
+			String value = fValue;
+			if (fVariable != null) {
+				value = variables.get(fVariable);
+				if (value == null) {
+					throw new IllegalArgumentException("Variable '$" + fVariable + "' not bound.");
+				}
+			}
+			return value.equals(node.getProperty(fProperty));
+		}
+	}
+
+	private static class Step {
+
+		boolean fIsDescendant;
+		// null for any type.
+		String[] fTypes;
+		Condition[] fConditions;
+
+		boolean matches(Leaf node, Map<String, String> variables) {
+
+			if (fTypes != null) {
+				boolean found = false;
+				for (String type : fTypes) {
+					if (node.isType(type)) {
+						found = true;
+						break;
+					}
+				}
+				if (!found) {
+					return false;
+				}
+			}
+			for (Condition condition : fConditions) {
+				if (!condition.matches(node, variables)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	private final String fPath;
+	private final Step[] fSteps;
+	private final Set<String> fLeafTypes;
+	// More than one descendant step may reach the same node several times.
+	private final boolean fMayRepeat;
+
+	private TreeQuery(String path, Step[] steps, Set<String> leafTypes) {
+
+		fPath = path;
+		fSteps = steps;
+		fLeafTypes = leafTypes;
+
+		int count = 0;
+		for (Step step : steps) {
+			if (step.fIsDescendant) {
+				count++;
+			}
+		}
+		fMayRepeat = (count > 1);
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Compile a path.
+	 *
+	 * @param path
+	 *            a string with the path, relative to the context node.
+	 * @param leafTypes
+	 *            node types not entered by descendant steps.
+	 * @return the compiled query.
+	 * @throws IllegalArgumentException
+	 *             if the path syntax is not valid.
+	 */
+	public static TreeQuery compile(String path, String... leafTypes) {
+
+		List<Step> steps = new ArrayList<>();
+
+		int ix = 0;
+		int length = path.length();
+		boolean isDescendant = false;
+		if (path.startsWith("//")) {
+			isDescendant = true;
+			ix = 2;
+		} else if (path.startsWith("/")) {
+			throw new IllegalArgumentException("Absolute paths not supported, \"" + path + "\".");
+		}
+
+		for (;;) {
+			Step step = new Step();
+			step.fIsDescendant = isDescendant;
+
+			// Type test.
+			int start = ix;
+			while (ix < length && path.charAt(ix) != '[' && path.charAt(ix) != '/') {
+				ix++;
+			}
+			String test = path.substring(start, ix).trim();
+			if (test.isEmpty()) {
+				throw new IllegalArgumentException("Missing node type at " + start + " in \"" + path + "\".");
+			}
+			step.fTypes = "*".equals(test) ? null : test.split("\\|");
+
+			// Conditions.
+			List<Condition> conditions = new ArrayList<>();
+			while (ix < length && path.charAt(ix) == '[') {
+				int end = findClosingBracket(path, ix);
+				conditions.add(parseCondition(path, path.substring(ix + 1, end).trim()));
+				ix = end + 1;
+			}
+			step.fConditions = conditions.toArray(new Condition[conditions.size()]);
+
+			steps.add(step);
+
+			if (ix >= length) {
+				break;
+			}
+			if (path.charAt(ix) != '/') {
+				throw new IllegalArgumentException("Unexpected '" + path.charAt(ix) + "' at " + ix + " in \"" + path
+						+ "\".");
+			}
+			ix++;
+			isDescendant = false;
+			if (ix < length && path.charAt(ix) == '/') {
+				isDescendant = true;
+				ix++;
+			}
+		}
+
+		Set<String> leafTypesSet = new HashSet<>();
+		Collections.addAll(leafTypesSet, leafTypes);
+
+		return new TreeQuery(path, steps.toArray(new Step[steps.size()]), leafTypesSet);
+	}
+
+	private static int findClosingBracket(String path, int ix) {
+
+		char quote = 0;
+		for (int i = ix + 1; i < path.length(); ++i) {
+			char ch = path.charAt(i);
+			if (quote != 0) {
+				if (ch == quote) {
+					quote = 0;
+				}
+			} else if (ch == '\'' || ch == '"') {
+				quote = ch;
+			} else if (ch == ']') {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Missing ']' in \"" + path + "\".");
+	}
+
+	private static Condition parseCondition(String path, String str) {
+
+		Condition condition = new Condition();
+
+		String left = str;
+		String right = null;
+		int eq = str.indexOf('=');
+		if (eq >= 0) {
+			left = str.substring(0, eq).trim();
+			right = str.substring(eq + 1).trim();
+		}
+
+		if ("name()".equals(left)) {
+			condition.fProperty = Property.NAME_;
+		} else if ("key()".equals(left)) {
+			condition.fProperty = Property.KEY_;
+		} else if (left.startsWith("@") && left.length() > 1) {
+			condition.fProperty = left.substring(1);
+		} else {
+			throw new IllegalArgumentException("Unsupported condition [" + str + "] in \"" + path + "\".");
+		}
+
+		if (right != null) {
+			if (right.startsWith("$") && right.length() > 1) {
+				condition.fVariable = right.substring(1);
+			} else if (right.length() >= 2 && (right.charAt(0) == '\'' || right.charAt(0) == '"')
+					&& right.charAt(right.length() - 1) == right.charAt(0)) {
+				condition.fValue = right.substring(1, right.length() - 1);
+			} else {
+				condition.fValue = right;
+			}
+		}
+		return condition;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Find all matching nodes, in pre-order.
+	 *
+	 * @param context
+	 *            the node where the search starts; may be null.
+	 * @param variables
+	 *            a map with the values of the variables, or null.
+	 * @return a list of nodes, possibly empty.
+	 */
+	public List<Leaf> findAll(Leaf context, Map<String, String> variables) {
+
+		final List<Leaf> list = new ArrayList<>();
+		forEach(context, variables, node -> {
+			list.add(node);
+			return true;
+		});
+		return list;
+	}
+
+	public List<Leaf> findAll(Leaf context) {
+		return findAll(context, null);
+	}
+
+	/**
+	 * Find the first matching node, in pre-order.
+	 *
+	 * @param context
+	 *            the node where the search starts; may be null.
+	 * @param variables
+	 *            a map with the values of the variables, or null.
+	 * @return the node, or null if not found.
+	 */
+	public Leaf findFirst(Leaf context, Map<String, String> variables) {
+
+		final Leaf[] found = new Leaf[1];
+		forEach(context, variables, node -> {
+			found[0] = node;
+			return false;
+		});
+		return found[0];
+	}
+
+	/**
+	 * Pass the matching nodes, in pre-order, to the visitor, until it returns
+	 * false.
+	 *
+	 * @param context
+	 *            the node where the search starts; may be null.
+	 * @param variables
+	 *            a map with the values of the variables, or null.
+	 * @param visitor
+	 *            returns false to stop the search.
+	 * @return false if the search was stopped by the visitor.
+	 */
+	public boolean forEach(Leaf context, Map<String, String> variables, Predicate<Leaf> visitor) {
+
+		if (context == null) {
+			return true;
+		}
+		if (variables == null) {
+			variables = Collections.emptyMap();
+		}
+		if (fMayRepeat) {
+			final Set<Leaf> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+			final Predicate<Leaf> originalVisitor = visitor;
+			visitor = node -> !visited.add(node) || originalVisitor.test(node);
+		}
+		return evaluate(context, 0, variables, visitor);
+	}
+
+	// ------------------------------------------------------------------------
+
+	private boolean evaluate(Leaf context, int stepIndex, Map<String, String> variables, Predicate<Leaf> visitor) {
+
+		if (!context.hasChildren()) {
+			return true;
+		}
+
+		Step step = fSteps[stepIndex];
+		List<Leaf> children = ((Node) context).getChildren();
+
+		if (!step.fIsDescendant) {
+			if (step.fTypes != null && step.fTypes.length == 1) {
+				children = ((Node) context).getChildren(step.fTypes[0]);
+			}
+			for (Leaf child : children) {
+				if (step.matches(child, variables) && !accept(child, stepIndex, variables, visitor)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		// Descendants, in pre-order.
+		Deque<Iterator<Leaf>> stack = new ArrayDeque<>();
+		stack.push(children.iterator());
+		while (!stack.isEmpty()) {
+			Iterator<Leaf> it = stack.peek();
+			if (!it.hasNext()) {
+				stack.pop();
+				continue;
+			}
+			Leaf node = it.next();
+			if (step.matches(node, variables) && !accept(node, stepIndex, variables, visitor)) {
+				return false;
+			}
+			if (node.hasChildren() && !fLeafTypes.contains(node.getType())) {
+				stack.push(((Node) node).getChildren().iterator());
+			}
+		}
+		return true;
+	}
+
+	private boolean accept(Leaf node, int stepIndex, Map<String, String> variables, Predicate<Leaf> visitor) {
+
+		if (stepIndex == fSteps.length - 1) {
+			return visitor.test(node);
+		}
+		return evaluate(node, stepIndex + 1, variables, visitor);
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	public String toString() {
+		return fPath;
+	}
+
+	// ------------------------------------------------------------------------
+}
@@ -20,6 +20,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.embedcdt.internal.packs.ui.Activator;
 import org.eclipse.embedcdt.packs.core.IConsoleStream;
@@ -373,8 +374,9 @@ public class BoardsView extends ViewPart implements IDataManagerListener {
 			//
 		} else if (DataManagerEvent.Type.UPDATE_VERSIONS.equals(type)) {
 
+			// Update and refresh only the affected vendors, if known.
 			final Map<String, Leaf> updatedMap = new HashMap<>();
-			updateBoardsTree(updatedMap);
+			updateBoardsTree(event.getChangedBoards(), updatedMap);
 
 			Display.getDefault().asyncExec(new Runnable() {
 
@@ -495,29 +497,41 @@ public class BoardsView extends ViewPart implements IDataManagerListener {
 
 	// ------------------------------------------------------------------------
 
-	private void updateBoardsTree(Map<String, Leaf> updatedList) {
+	/**
+	 * Recompute the enabled state of the boards.
+	 *
+	 * @param changedKeys
+	 *            the keys (vendor::board) of the boards to update, or null for
+	 *            all.
+	 * @param updatedList
+	 *            a map where the vendors to refresh are collected.
+	 */
+	private void updateBoardsTree(Set<String> changedKeys, Map<String, Leaf> updatedList) {
 
 		Node modelTree = fDataManager.getRepositoriesTree();
 		Node viewTree = (Node) fViewer.getInput();
 
 		if (modelTree.hasChildren() && viewTree != null) {
 
-			// Disable all devices
+			// Disable the affected boards
 			if (viewTree.hasChildren()) {
 				for (Leaf vendor : viewTree.getChildren()) {
 					if (vendor.hasChildren()) {
-						for (Leaf device : ((Node) vendor).getChildren()) {
-							device.setBooleanProperty(Property.ENABLED, false);
+						for (Leaf board : ((Node) vendor).getChildren()) {
+							if (changedKeys == null || changedKeys.contains(
+									DataManagerEvent.makeKey(board.getProperty(Property.VENDOR_NAME), board.getName()))) {
+								board.setBooleanProperty(Property.ENABLED, false);
+							}
 						}
 					}
 				}
 			}
-			updateBoardsRecursive(modelTree, viewTree, false, updatedList);
+			updateBoardsRecursive(modelTree, viewTree, false, changedKeys, updatedList);
 		}
 	}
 
 	// Identify outline & external nodes and update devices from inside
-	private void updateBoardsRecursive(Leaf modelNode, Node viewTree, boolean isInstalled,
+	private void updateBoardsRecursive(Leaf modelNode, Node viewTree, boolean isInstalled, Set<String> changedKeys,
 			Map<String, Leaf> updatedMap) {
 
 		String type = modelNode.getType();
@@ -529,7 +543,10 @@ public class BoardsView extends ViewPart implements IDataManagerListener {
 					if (Type.BOARD.equals(childType)) {
 
 						// Collect unique keywords
-						updateBoard(child, viewTree, isInstalled, updatedMap);
+						if (changedKeys == null || changedKeys.contains(DataManagerEvent
+								.makeKey(child.getProperty(Property.VENDOR_NAME), child.getName()))) {
+							updateBoard(child, viewTree, isInstalled, changedKeys != null, updatedMap);
+						}
 					}
 				}
 			} else {
@@ -540,13 +557,14 @@ public class BoardsView extends ViewPart implements IDataManagerListener {
 				for (Leaf child : ((Node) modelNode).getChildren()) {
 
 					// Recurse down
-					updateBoardsRecursive(child, viewTree, isVersionInstalled, updatedMap);
+					updateBoardsRecursive(child, viewTree, isVersionInstalled, changedKeys, updatedMap);
 				}
 			}
 		}
 	}
 
-	private void updateBoard(Leaf modelFamilyNode, Node viewTree, boolean isInstalled, Map<String, Leaf> updatedList) {
+	private void updateBoard(Leaf modelFamilyNode, Node viewTree, boolean isInstalled, boolean isChanged,
+			Map<String, Leaf> updatedList) {
 
 		String boardName = modelFamilyNode.getName();
 		String vendorName = modelFamilyNode.getProperty(Property.VENDOR_NAME);
@@ -574,7 +592,9 @@ public class BoardsView extends ViewPart implements IDataManagerListener {
 
 		if (isInstalled) {
 			boardNode.setBooleanProperty(Property.ENABLED, true);
-
+		}
+		if (isInstalled || isChanged) {
+			// Changed boards may also be disabled, refresh them too.
 			updatedList.put(vendorName, vendorNode);
 		}
 	}
@@ -20,6 +20,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.embedcdt.internal.packs.ui.Activator;
 import org.eclipse.embedcdt.packs.core.IConsoleStream;
@@ -369,8 +370,9 @@ public class DevicesView extends ViewPart implements IDataManagerListener {
 			//
 		} else if (DataManagerEvent.Type.UPDATE_VERSIONS.equals(type)) {
 
+			// Update and refresh only the affected vendors, if known.
 			final Map<String, Leaf> updatedMap = new HashMap<>();
-			updateDevicesTree(updatedMap);
+			updateDevicesTree(event.getChangedDevices(), updatedMap);
 
 			Display.getDefault().asyncExec(new Runnable() {
 
@@ -496,29 +498,41 @@ public class DevicesView extends ViewPart implements IDataManagerListener {
 
 	// ------------------------------------------------------------------------
 
-	private void updateDevicesTree(Map<String, Leaf> updatedList) {
+	/**
+	 * Recompute the enabled state of the devices.
+	 *
+	 * @param changedKeys
+	 *            the keys (vendor::family) of the devices to update, or null
+	 *            for all.
+	 * @param updatedList
+	 *            a map where the vendors to refresh are collected.
+	 */
+	private void updateDevicesTree(Set<String> changedKeys, Map<String, Leaf> updatedList) {
 
 		Node modelTree = fDataManager.getRepositoriesTree();
 		Node viewTree = (Node) fViewer.getInput();
 
 		if (modelTree.hasChildren() && viewTree != null) {
 
-			// Disable all devices
+			// Disable the affected devices
 			if (viewTree.hasChildren()) {
 				for (Leaf vendor : viewTree.getChildren()) {
 					if (vendor.hasChildren()) {
 						for (Leaf device : ((Node) vendor).getChildren()) {
-							device.setBooleanProperty(Property.ENABLED, false);
+							if (changedKeys == null || changedKeys.contains(
+									DataManagerEvent.makeKey(device.getProperty(Property.VENDOR_NAME), device.getName()))) {
+								device.setBooleanProperty(Property.ENABLED, false);
+							}
 						}
 					}
 				}
 			}
-			updateDevicesRecursive(modelTree, viewTree, false, updatedList);
+			updateDevicesRecursive(modelTree, viewTree, false, changedKeys, updatedList);
 		}
 	}
 
 	// Identify outline & external nodes and update devices from inside
-	private void updateDevicesRecursive(Leaf modelNode, Node viewTree, boolean isInstalled,
+	private void updateDevicesRecursive(Leaf modelNode, Node viewTree, boolean isInstalled, Set<String> changedKeys,
 			Map<String, Leaf> updatedMap) {
 
 		String type = modelNode.getType();
@@ -530,7 +544,10 @@ public class DevicesView extends ViewPart implements IDataManagerListener {
 					if (Type.FAMILY.equals(childType)) {
 
 						// Collect unique keywords
-						updateDevice(child, viewTree, isInstalled, updatedMap);
+						if (changedKeys == null || changedKeys.contains(DataManagerEvent
+								.makeKey(child.getProperty(Property.VENDOR_NAME), child.getName()))) {
+							updateDevice(child, viewTree, isInstalled, changedKeys != null, updatedMap);
+						}
 					}
 				}
 			} else {
@@ -541,13 +558,14 @@ public class DevicesView extends ViewPart implements IDataManagerListener {
 				for (Leaf child : ((Node) modelNode).getChildren()) {
 
 					// Recurse down
-					updateDevicesRecursive(child, viewTree, isVersionInstalled, updatedMap);
+					updateDevicesRecursive(child, viewTree, isVersionInstalled, changedKeys, updatedMap);
 				}
 			}
 		}
 	}
 
-	private void updateDevice(Leaf modelFamilyNode, Node viewTree, boolean isInstalled, Map<String, Leaf> updatedList) {
+	private void updateDevice(Leaf modelFamilyNode, Node viewTree, boolean isInstalled, boolean isChanged,
+			Map<String, Leaf> updatedList) {
 
 		String deviceName = modelFamilyNode.getName();
 		String vendorName = modelFamilyNode.getProperty(Property.VENDOR_NAME);
@@ -578,7 +596,9 @@ public class DevicesView extends ViewPart implements IDataManagerListener {
 
 		if (isInstalled) {
 			deviceNode.setBooleanProperty(Property.ENABLED, true);
-
+		}
+		if (isInstalled || isChanged) {
+			// Changed devices may also be disabled, refresh them too.
 			updatedList.put(vendorId, vendorNode);
 		}
 
@@ -826,16 +826,23 @@ public class PacksView extends ViewPart implements IDataManagerListener {
 			//
 		} else if (DataManagerEvent.Type.UPDATE_VERSIONS.equals(type)) {
 
-			@SuppressWarnings("unchecked")
-			final List<PackNode> updatedList = (List<PackNode>) event.getPayload();
-
 			final Map<String, Node> parentsMap = new HashMap<>();
-			for (PackNode versionNode : updatedList) {
-				String vendorName = versionNode.getProperty(Property.VENDOR_NAME);
-				String packName = versionNode.getProperty(Property.PACK_NAME);
-				String versionName = versionNode.getProperty(Property.VERSION_NAME);
+			for (Leaf updatedNode : event.getChangedVersions()) {
+				String vendorName = updatedNode.getProperty(Property.VENDOR_NAME);
+				String packName = updatedNode.getProperty(Property.PACK_NAME);
+				String versionName = updatedNode.getProperty(Property.VERSION_NAME);
+
+				// The event may refer to model nodes, update the view copies.
+				PackNode versionNode = findVersionNode(vendorName, packName, versionName);
+				if (versionNode == null) {
+					continue;
+				}
 
 				Node modelNode = fDataManager.findCmsisPackVersion(vendorName, packName, versionName);
+				if (modelNode != null) {
+					versionNode.setBooleanProperty(Property.INSTALLED,
+							modelNode.isBooleanProperty(Property.INSTALLED));
+				}
 				updateVersioNode(versionNode, modelNode);
 
 				String key = fDataManager.makeMapKey(PackType.CMSIS, vendorName, packName);
@@ -868,8 +875,7 @@ public class PacksView extends ViewPart implements IDataManagerListener {
 
 					// Refresh pack node, this will update all version
 					// and examples below them
-					// refresh(parentsMap.values());
-					fViewer.refresh();
+					refresh(parentsMap.values());
 
 					updateButtonsEnableStatus((IStructuredSelection) fViewer.getSelection());
 				}
@@ -991,6 +997,32 @@ public class PacksView extends ViewPart implements IDataManagerListener {
 		return count;
 	}
 
+	/**
+	 * Find the view node of a version.
+	 *
+	 * @return the node, or null if not in the view.
+	 */
+	private PackNode findVersionNode(String vendorName, String packName, String versionName) {
+
+		Object input = fViewer.getInput();
+		if (!(input instanceof Node)) {
+			return null;
+		}
+		Leaf vendorNode = ((Node) input).findChild(Type.VENDOR, vendorName);
+		if (!(vendorNode instanceof Node)) {
+			return null;
+		}
+		Leaf packNode = ((Node) vendorNode).findChild(Type.PACKAGE, packName);
+		if (!(packNode instanceof Node)) {
+			return null;
+		}
+		Leaf versionNode = ((Node) packNode).findChild(Type.VERSION, versionName);
+		if (!(versionNode instanceof PackNode)) {
+			return null;
+		}
+		return (PackNode) versionNode;
+	}
+
 	private void updateVersioNode(PackNode versionNode, Node modelNode) {
 
 		if (versionNode.isBooleanProperty(Property.INSTALLED)) {